@@ -0,0 +1,75 @@
+package br.com.contmatic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.EncoderContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+
+/**
+ * Conversão de Empresa entre entidade, Document e BSON.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AssemblyBenchmark {
+
+	private final EmpresaResourceAssembly assembly = new EmpresaResourceAssembly();
+
+	private final Codec<Empresa> codec = Codecs.REGISTRY.get(Empresa.class);
+
+	private Empresa empresa;
+
+	private Document document;
+
+	@Setup
+	public void setUp() {
+		empresa = EasyRandomClass.InstanciaEasyRandomClass().empresaRandomizer();
+		document = assembly.toDocument(empresa);
+	}
+
+	@Benchmark
+	public Empresa toResource() {
+		return assembly.toResource(document);
+	}
+
+	@Benchmark
+	public Document toDocument() {
+		return assembly.toDocument(empresa);
+	}
+
+	@Benchmark
+	public Document toDocumentPorJson() {
+		return Document.parse(empresa.toString());
+	}
+
+	@Benchmark
+	public BsonDocument encodeCodec() {
+		BsonDocument bson = new BsonDocument();
+		codec.encode(new BsonDocumentWriter(bson), empresa, EncoderContext.builder().build());
+		return bson;
+	}
+
+}
@@ -0,0 +1,40 @@
+package br.com.contmatic.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Executa os benchmarks com o profiler de GC ligado e grava o resultado em
+ * JSON, para que a taxa de alocação (gc.alloc.rate.norm) apareça junto com o
+ * tempo nos números do CI.
+ *
+ * Aceita os mesmos argumentos do JMH, por exemplo:
+ * java -jar target/benchmarks.jar AssemblyBenchmark -rff target/assembly.json
+ *
+ * @author gabriel.santos
+ */
+public class BenchmarkRunner {
+
+	private static final String RESULTADO_PADRAO = "target/jmh-result.json";
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions linhaDeComando = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(linhaDeComando).addProfiler(GCProfiler.class).resultFormat(ResultFormatType.JSON);
+		if (!linhaDeComando.getResult().hasValue()) {
+			builder.result(RESULTADO_PADRAO);
+		}
+		Options options = builder.build();
+		new Runner(options).run();
+	}
+
+}
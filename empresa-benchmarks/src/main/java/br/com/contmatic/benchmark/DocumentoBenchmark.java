@@ -0,0 +1,102 @@
+package br.com.contmatic.benchmark;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.hibernate.validator.constraints.br.CNPJ;
+import org.hibernate.validator.constraints.br.CPF;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.contmatic.validacao.Cnpj;
+import br.com.contmatic.validacao.Cpf;
+import br.com.contmatic.validacao.DigitoVerificador;
+import br.com.contmatic.validacao.ValidacaoService;
+
+/**
+ * CPF e CNPJ do Hibernate Validator contra o Cpf e o Cnpj do modelo, pelo
+ * Validator e chamando o DigitoVerificador direto.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DocumentoBenchmark {
+
+	private static final String CPF_FORMATADO = "529.982.247-25";
+
+	private static final String CNPJ_FORMATADO = "11.222.333/0001-81";
+
+	private Validator validator;
+
+	public static class Hibernate {
+
+		@CPF
+		private String cpf;
+
+		@CNPJ
+		private String cnpj;
+
+	}
+
+	public static class Contmatic {
+
+		@Cpf
+		private String cpf;
+
+		@Cnpj
+		private String cnpj;
+
+	}
+
+	@Setup
+	public void setUp() {
+		validator = ValidacaoService.getInstance().getValidator();
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Hibernate>> cpfHibernate() {
+		return validator.validateValue(Hibernate.class, "cpf", CPF_FORMATADO);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Contmatic>> cpfContmatic() {
+		return validator.validateValue(Contmatic.class, "cpf", CPF_FORMATADO);
+	}
+
+	@Benchmark
+	public boolean cpfDigitoVerificador() {
+		return DigitoVerificador.isCpf(CPF_FORMATADO);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Hibernate>> cnpjHibernate() {
+		return validator.validateValue(Hibernate.class, "cnpj", CNPJ_FORMATADO);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Contmatic>> cnpjContmatic() {
+		return validator.validateValue(Contmatic.class, "cnpj", CNPJ_FORMATADO);
+	}
+
+	@Benchmark
+	public boolean cnpjDigitoVerificador() {
+		return DigitoVerificador.isCnpj(CNPJ_FORMATADO);
+	}
+
+}
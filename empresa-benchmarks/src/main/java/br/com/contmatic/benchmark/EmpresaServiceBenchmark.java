@@ -0,0 +1,92 @@
+package br.com.contmatic.benchmark;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.service.EmpresaService;
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+
+/**
+ * Ida e volta ao banco pelo EmpresaService, usando um MongoDB embarcado.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmpresaServiceBenchmark {
+
+	private static final int PORTA = 12346;
+
+	private MongodExecutable mongodExe;
+
+	private MongoClient mongo;
+
+	private MongoDatabase database;
+
+	private EmpresaService service;
+
+	private Empresa empresa;
+
+	private String cnpjSalvo;
+
+	private long sequencia;
+
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		mongodExe = MongodStarter.getDefaultInstance().prepare(new MongodConfigBuilder().version(Version.Main.V3_4)
+				.net(new Net("localhost", PORTA, Network.localhostIsIPv6())).build());
+		mongodExe.start();
+		mongo = new MongoClient("localhost", PORTA);
+		database = mongo.getDatabase("benchmark");
+		service = new EmpresaService(database);
+		empresa = EasyRandomClass.InstanciaEasyRandomClass().empresaRandomizer();
+		service.salvar(empresa);
+		cnpjSalvo = empresa.getCnpj();
+	}
+
+	@Benchmark
+	public void salvar() throws IOException {
+		empresa.setCnpj(String.format("%014d", sequencia++));
+		service.salvar(empresa);
+	}
+
+	@Benchmark
+	public Empresa selecionarPorCnpj() throws IOException {
+		return service.selecionar(cnpjSalvo);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.drop();
+		mongo.close();
+		mongodExe.stop();
+	}
+
+}
@@ -0,0 +1,62 @@
+package br.com.contmatic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+
+/**
+ * toString, hashCode e equals de Empresa.
+ *
+ * A cópia é montada a partir do Document para ser igual, mas não a mesma
+ * instância, e forçar a comparação campo a campo.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ModeloBenchmark {
+
+	private Empresa empresa;
+
+	private Empresa copia;
+
+	@Setup
+	public void setUp() {
+		EmpresaResourceAssembly assembly = new EmpresaResourceAssembly();
+		empresa = EasyRandomClass.InstanciaEasyRandomClass().empresaRandomizer();
+		copia = assembly.toResource(assembly.toDocument(empresa));
+	}
+
+	@Benchmark
+	public String empresaToString() {
+		return empresa.toString();
+	}
+
+	@Benchmark
+	public int empresaHashCode() {
+		return empresa.hashCode();
+	}
+
+	@Benchmark
+	public boolean empresaEquals() {
+		return empresa.equals(copia);
+	}
+
+}
@@ -0,0 +1,61 @@
+package br.com.contmatic.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.contmatic.regex.CompiledRegex;
+import br.com.contmatic.regex.Formatos;
+import br.com.contmatic.regex.RegexType;
+
+/**
+ * String.matches contra CompiledRegex e Formatos nos formatos do RegexType.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegexBenchmark {
+
+	private static final String CELULAR = "912345678";
+
+	private static final String NOME = "Gabriel Barbosa Moreira dos Santos da Conceição";
+
+	@Benchmark
+	public boolean celularStringMatches() {
+		return CELULAR.matches(RegexType.NUMERO_CELULAR);
+	}
+
+	@Benchmark
+	public boolean celularCompiledRegex() {
+		return CompiledRegex.NUMERO_CELULAR.matches(CELULAR);
+	}
+
+	@Benchmark
+	public boolean celularFormatos() {
+		return Formatos.isNumeroCelular(CELULAR);
+	}
+
+	@Benchmark
+	public boolean nomeStringMatches() {
+		return NOME.matches(RegexType.NOME);
+	}
+
+	@Benchmark
+	public boolean nomeCompiledRegex() {
+		return CompiledRegex.NOME.matches(NOME);
+	}
+
+}
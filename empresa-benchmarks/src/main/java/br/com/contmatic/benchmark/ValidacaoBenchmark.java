@@ -0,0 +1,90 @@
+package br.com.contmatic.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.groups.Post;
+import br.com.contmatic.groups.Put;
+import br.com.contmatic.validacao.ValidacaoService;
+
+/**
+ * Bean Validation de Empresa e Funcionario com os grupos Post e Put.
+ *
+ * @author gabriel.santos
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidacaoBenchmark {
+
+	private static final int TAMANHO_LOTE = 1000;
+
+	private Validator validator;
+
+	private Empresa empresa;
+
+	private Funcionario funcionario;
+
+	private List<Empresa> empresas;
+
+	@Setup
+	public void setUp() {
+		EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+		validator = ValidacaoService.getInstance().getValidator();
+		empresa = randomObject.empresaRandomizer();
+		funcionario = randomObject.funcionarioRandomizer();
+		empresas = new ArrayList<Empresa>(TAMANHO_LOTE);
+		for (int i = 0; i < TAMANHO_LOTE; i++) {
+			empresas.add(randomObject.empresaRandomizer());
+		}
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Empresa>> empresaPost() {
+		return validator.validate(empresa, Post.class);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Empresa>> empresaPut() {
+		return validator.validate(empresa, Put.class);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Funcionario>> funcionarioPost() {
+		return validator.validate(funcionario, Post.class);
+	}
+
+	@Benchmark
+	public Set<ConstraintViolation<Funcionario>> funcionarioPut() {
+		return validator.validate(funcionario, Put.class);
+	}
+
+	@Benchmark
+	public Map<String, Set<ConstraintViolation<Empresa>>> empresasPostEmLote() {
+		return ValidacaoService.getInstance().validateAll(empresas, Post.class);
+	}
+
+}
@@ -1,6 +1,7 @@
 package br.com.contmatic.empresa;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.validation.Valid;
@@ -12,27 +13,24 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 import org.hibernate.validator.constraints.NotBlank;
-import org.hibernate.validator.constraints.br.CPF;
 
 import br.com.contmatic.groups.Post;
 import br.com.contmatic.groups.Put;
 import br.com.contmatic.regex.RegexType;
 import br.com.contmatic.telefone.Telefone;
+import br.com.contmatic.util.JsonStringBuilder;
+import br.com.contmatic.validacao.Cpf;
 
 /**
  * The Class Cliente.
  * 
  * @author gabriel.santos
  */
-public class Cliente {
+public class Cliente implements Identificavel {
 
     /** The cpf. */
-    @CPF(message = "O CPF do cliente está inválido", groups = { Put.class, Post.class })
+    @Cpf(message = "O CPF do cliente está inválido", groups = { Put.class, Post.class })
     @NotNull(message = "O campo CPF não pode estar nulo", groups = { Put.class, Post.class })
     private String cpf;
 
@@ -128,6 +126,16 @@ public class Cliente {
         }
     }
     
+    /**
+     * Gets the chave.
+     *
+     * @return the chave
+     */
+    @Override
+    public String getChave() {
+        return cpf;
+    }
+
     /**
      * To string.
      *
@@ -135,7 +143,13 @@ public class Cliente {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(192)
+            .append("cpf", cpf)
+            .append("nome", nome)
+            .append("email", email)
+            .append("boleto", boleto)
+            .append("telefones", telefones)
+            .toString();
     }
 
     /**
@@ -145,7 +159,12 @@ public class Cliente {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(cpf);
+        resultado = 31 * resultado + Objects.hashCode(nome);
+        resultado = 31 * resultado + Objects.hashCode(email);
+        resultado = 31 * resultado + Objects.hashCode(boleto);
+        resultado = 31 * resultado + Objects.hashCode(telefones);
+        return resultado;
     }
 
     /**
@@ -156,7 +175,18 @@ public class Cliente {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Cliente)) {
+            return false;
+        }
+        Cliente other = (Cliente) obj;
+        return Objects.equals(cpf, other.cpf)
+            && Objects.equals(nome, other.nome)
+            && Objects.equals(email, other.email)
+            && Objects.equals(boleto, other.boleto)
+            && Objects.equals(telefones, other.telefones);
     }
-    
+
 }
@@ -1,5 +1,6 @@
 package br.com.contmatic.empresa;
 
+import java.util.Objects;
 import java.util.Set;
 
 import javax.validation.Valid;
@@ -7,29 +8,26 @@ import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 import org.hibernate.validator.constraints.Length;
 import org.hibernate.validator.constraints.NotBlank;
-import org.hibernate.validator.constraints.br.CNPJ;
 
 import br.com.contmatic.endereco.Endereco;
 import br.com.contmatic.groups.Post;
 import br.com.contmatic.groups.Put;
 import br.com.contmatic.regex.RegexType;
 import br.com.contmatic.telefone.Telefone;
+import br.com.contmatic.util.JsonStringBuilder;
+import br.com.contmatic.validacao.Cnpj;
 
 /**
  * The Class Empresa.
  * 
  * @author gabriel.santos
  */
-public class Empresa {
+public class Empresa implements Identificavel {
 
     /** The cnpj. */
-    @CNPJ(message = "O CNPJ do funcionario está inválido", groups = { Put.class, Post.class })
+    @Cnpj(message = "O CNPJ do funcionario está inválido", groups = { Put.class, Post.class })
     @NotBlank(message = "O campo CPF não pode estar nulo", groups = { Put.class, Post.class })
     private String cnpj;
 
@@ -121,6 +119,16 @@ public class Empresa {
         this.enderecos = endereco;
     }
 
+    /**
+     * Gets the chave.
+     *
+     * @return the chave
+     */
+    @Override
+    public String getChave() {
+        return cnpj;
+    }
+
     /**
      * To string.
      *
@@ -128,7 +136,13 @@ public class Empresa {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(256)
+            .append("cnpj", cnpj)
+            .append("nome", nome)
+            .append("site", site)
+            .append("telefones", telefones)
+            .append("enderecos", enderecos)
+            .toString();
     }
 
     /**
@@ -138,7 +152,12 @@ public class Empresa {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(cnpj);
+        resultado = 31 * resultado + Objects.hashCode(nome);
+        resultado = 31 * resultado + Objects.hashCode(site);
+        resultado = 31 * resultado + Objects.hashCode(telefones);
+        resultado = 31 * resultado + Objects.hashCode(enderecos);
+        return resultado;
     }
 
     /**
@@ -149,7 +168,18 @@ public class Empresa {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Empresa)) {
+            return false;
+        }
+        Empresa other = (Empresa) obj;
+        return Objects.equals(cnpj, other.cnpj)
+            && Objects.equals(nome, other.nome)
+            && Objects.equals(site, other.site)
+            && Objects.equals(telefones, other.telefones)
+            && Objects.equals(enderecos, other.enderecos);
     }
-    
+
 }
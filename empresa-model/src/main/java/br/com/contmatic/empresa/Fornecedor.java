@@ -1,5 +1,6 @@
 package br.com.contmatic.empresa;
 
+import java.util.Objects;
 import java.util.Set;
 
 import javax.validation.Valid;
@@ -7,29 +8,26 @@ import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 import org.hibernate.validator.constraints.Length;
 import org.hibernate.validator.constraints.NotBlank;
-import org.hibernate.validator.constraints.br.CNPJ;
 
 import br.com.contmatic.endereco.Endereco;
 import br.com.contmatic.groups.Post;
 import br.com.contmatic.groups.Put;
 import br.com.contmatic.regex.RegexType;
 import br.com.contmatic.telefone.Telefone;
+import br.com.contmatic.util.JsonStringBuilder;
+import br.com.contmatic.validacao.Cnpj;
 
 /**
  * The Class Fornecedor.
  * 
  * @author gabriel.santos
  */
-public class Fornecedor {
+public class Fornecedor implements Identificavel {
 
     /** The cnpj. */
-    @CNPJ(message = "O CNPJ do funcionario está inválido", groups = { Put.class, Post.class })
+    @Cnpj(message = "O CNPJ do funcionario está inválido", groups = { Put.class, Post.class })
     @NotBlank(message = "O campo CNPJ não pode estar nulo", groups = { Put.class, Post.class })
     private String cnpj;
 
@@ -117,6 +115,16 @@ public class Fornecedor {
         this.enderecos = endereco;
     }
 
+    /**
+     * Gets the chave.
+     *
+     * @return the chave
+     */
+    @Override
+    public String getChave() {
+        return cnpj;
+    }
+
     /**
      * To string.
      *
@@ -124,7 +132,13 @@ public class Fornecedor {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(256)
+            .append("cnpj", cnpj)
+            .append("nome", nome)
+            .append("produto", produto)
+            .append("telefones", telefones)
+            .append("enderecos", enderecos)
+            .toString();
     }
 
     /**
@@ -134,7 +148,12 @@ public class Fornecedor {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(cnpj);
+        resultado = 31 * resultado + Objects.hashCode(nome);
+        resultado = 31 * resultado + Objects.hashCode(produto);
+        resultado = 31 * resultado + Objects.hashCode(telefones);
+        resultado = 31 * resultado + Objects.hashCode(enderecos);
+        return resultado;
     }
 
     /**
@@ -145,7 +164,18 @@ public class Fornecedor {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Fornecedor)) {
+            return false;
+        }
+        Fornecedor other = (Fornecedor) obj;
+        return Objects.equals(cnpj, other.cnpj)
+            && Objects.equals(nome, other.nome)
+            && Objects.equals(produto, other.produto)
+            && Objects.equals(telefones, other.telefones)
+            && Objects.equals(enderecos, other.enderecos);
     }
 
 }
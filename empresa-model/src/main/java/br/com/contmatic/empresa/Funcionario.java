@@ -1,6 +1,7 @@
 package br.com.contmatic.empresa;
 
 import java.math.BigDecimal;
+import java.util.Objects;
 import java.util.Set;
 
 import javax.validation.Valid;
@@ -12,12 +13,7 @@ import javax.validation.constraints.Past;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
 import org.hibernate.validator.constraints.NotBlank;
-import org.hibernate.validator.constraints.br.CPF;
 import org.joda.time.LocalDate;
 
 import br.com.contmatic.endereco.Endereco;
@@ -25,16 +21,18 @@ import br.com.contmatic.groups.Post;
 import br.com.contmatic.groups.Put;
 import br.com.contmatic.regex.RegexType;
 import br.com.contmatic.telefone.Telefone;
+import br.com.contmatic.util.JsonStringBuilder;
+import br.com.contmatic.validacao.Cpf;
 
 /**
  * The Class Funcionario.
  * 
  * @author gabriel.santos
  */
-public class Funcionario {
+public class Funcionario implements Identificavel {
 
     /** The cpf. */
-    @CPF(message = "O CPF do cliente está inválido", groups = { Put.class, Post.class })
+    @Cpf(message = "O CPF do cliente está inválido", groups = { Put.class, Post.class })
     @NotBlank(message = "O campo CPF não pode estar nulo", groups = { Put.class, Post.class })
     private String cpf;
 
@@ -100,7 +98,7 @@ public class Funcionario {
      * @param endereco the endereco
      * @param salario the salario
      */
-    public Funcionario(String cpf, String nome, int idade, @Valid Set<Telefone> telefone, @Valid Set<Endereco> endereco, BigDecimal salario) {
+    public Funcionario(String cpf, String nome, Integer idade, @Valid Set<Telefone> telefone, @Valid Set<Endereco> endereco, BigDecimal salario) {
         this.cpf = cpf;
         this.nome = nome;
         this.idade = idade;
@@ -132,11 +130,11 @@ public class Funcionario {
         this.nome = nome;
     }
 
-    public int getIdade() {
+    public Integer getIdade() {
         return idade;
     }
 
-    public void setIdade(int idade) {
+    public void setIdade(Integer idade) {
         this.idade = idade;
     }
 
@@ -184,6 +182,16 @@ public class Funcionario {
         this.enderecos = endereco;
     }
 
+    /**
+     * Gets the chave.
+     *
+     * @return the chave
+     */
+    @Override
+    public String getChave() {
+        return cpf;
+    }
+
     /**
      * To string.
      *
@@ -191,7 +199,16 @@ public class Funcionario {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(320)
+            .append("cpf", cpf)
+            .append("nome", nome)
+            .append("idade", idade)
+            .append("salario", salario)
+            .append("dataContratacao", dataContratacao)
+            .append("dataSalario", dataSalario)
+            .append("telefones", telefones)
+            .append("enderecos", enderecos)
+            .toString();
     }
 
     /**
@@ -201,7 +218,15 @@ public class Funcionario {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(cpf);
+        resultado = 31 * resultado + Objects.hashCode(nome);
+        resultado = 31 * resultado + Objects.hashCode(idade);
+        resultado = 31 * resultado + Objects.hashCode(salario);
+        resultado = 31 * resultado + Objects.hashCode(dataContratacao);
+        resultado = 31 * resultado + Objects.hashCode(dataSalario);
+        resultado = 31 * resultado + Objects.hashCode(telefones);
+        resultado = 31 * resultado + Objects.hashCode(enderecos);
+        return resultado;
     }
 
     /**
@@ -212,7 +237,21 @@ public class Funcionario {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Funcionario)) {
+            return false;
+        }
+        Funcionario other = (Funcionario) obj;
+        return Objects.equals(cpf, other.cpf)
+            && Objects.equals(nome, other.nome)
+            && Objects.equals(idade, other.idade)
+            && Objects.equals(salario, other.salario)
+            && Objects.equals(dataContratacao, other.dataContratacao)
+            && Objects.equals(dataSalario, other.dataSalario)
+            && Objects.equals(telefones, other.telefones)
+            && Objects.equals(enderecos, other.enderecos);
     }
-    
+
 }
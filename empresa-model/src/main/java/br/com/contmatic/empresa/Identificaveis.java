@@ -0,0 +1,56 @@
+package br.com.contmatic.empresa;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Comparação e deduplicação de entidades pelo CPF/CNPJ, sem comparar os
+ * demais campos.
+ *
+ * @author gabriel.santos
+ */
+public final class Identificaveis {
+
+    private Identificaveis() {
+    }
+
+    /**
+     * Verifica se as duas entidades são do mesmo tipo e têm a mesma chave.
+     *
+     * @param primeira a primeira entidade
+     * @param segunda a segunda entidade
+     * @return true, if successful
+     */
+    public static boolean mesmaChave(Identificavel primeira, Identificavel segunda) {
+        if (primeira == segunda) {
+            return true;
+        }
+        if (primeira == null || segunda == null || primeira.getClass() != segunda.getClass()) {
+            return false;
+        }
+        String chave = primeira.getChave();
+        return chave != null && chave.equals(segunda.getChave());
+    }
+
+    /**
+     * Indexa as entidades pela chave, mantendo a primeira ocorrência de cada
+     * CPF/CNPJ e a ordem de chegada. Entidades sem chave são ignoradas.
+     *
+     * @param <T> o tipo da entidade
+     * @param entidades as entidades
+     * @return as entidades sem repetição, indexadas pela chave
+     */
+    public static <T extends Identificavel> Map<String, T> porChave(Iterable<T> entidades) {
+        Map<String, T> indice = new LinkedHashMap<String, T>();
+        if (entidades == null) {
+            return indice;
+        }
+        for (T entidade : entidades) {
+            if (entidade != null && entidade.getChave() != null && !indice.containsKey(entidade.getChave())) {
+                indice.put(entidade.getChave(), entidade);
+            }
+        }
+        return indice;
+    }
+
+}
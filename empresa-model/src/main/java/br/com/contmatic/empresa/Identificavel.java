@@ -0,0 +1,17 @@
+package br.com.contmatic.empresa;
+
+/**
+ * Entidade identificada pelo CPF ou CNPJ.
+ *
+ * @author gabriel.santos
+ */
+public interface Identificavel {
+
+    /**
+     * Gets the chave.
+     *
+     * @return o CPF ou CNPJ da entidade
+     */
+    String getChave();
+
+}
@@ -0,0 +1,93 @@
+package br.com.contmatic.empresa;
+
+import java.util.Objects;
+
+import br.com.contmatic.util.JsonStringBuilder;
+
+/**
+ * Resumo de uma entidade com apenas a chave e o nome, usado nas listagens que
+ * não precisam dos telefones e endereços.
+ *
+ * @author gabriel.santos
+ */
+public final class Resumo implements Identificavel {
+
+    /** O CPF ou CNPJ. */
+    private final String chave;
+
+    /** The nome. */
+    private final String nome;
+
+    /**
+     * Instantiates a new resumo.
+     *
+     * @param chave o CPF ou CNPJ
+     * @param nome the nome
+     */
+    public Resumo(String chave, String nome) {
+        this.chave = chave;
+        this.nome = nome;
+    }
+
+    /**
+     * Gets the chave.
+     *
+     * @return o CPF ou CNPJ
+     */
+    @Override
+    public String getChave() {
+        return chave;
+    }
+
+    /**
+     * Gets the nome.
+     *
+     * @return the nome
+     */
+    public String getNome() {
+        return nome;
+    }
+
+    /**
+     * To string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return new JsonStringBuilder(64)
+            .append("chave", chave)
+            .append("nome", nome)
+            .toString();
+    }
+
+    /**
+     * Hash code.
+     *
+     * @return the int
+     */
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(chave) + Objects.hashCode(nome);
+    }
+
+    /**
+     * Equals.
+     *
+     * @param obj the obj
+     * @return true, if successful
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Resumo)) {
+            return false;
+        }
+        Resumo other = (Resumo) obj;
+        return Objects.equals(chave, other.chave)
+            && Objects.equals(nome, other.nome);
+    }
+
+}
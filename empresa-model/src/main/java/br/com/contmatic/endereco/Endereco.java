@@ -1,15 +1,13 @@
 package br.com.contmatic.endereco;
 
+import java.util.Objects;
+
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
-
 import br.com.contmatic.regex.RegexType;
+import br.com.contmatic.util.JsonStringBuilder;
 
 /**
  * The Class Endereco.
@@ -154,7 +152,15 @@ public class Endereco {
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(160)
+            .append("cep", cep)
+            .append("rua", rua)
+            .append("numero", numero)
+            .append("complemento", complemento)
+            .append("bairro", bairro)
+            .append("cidade", cidade)
+            .append("estado", estado)
+            .toString();
     }
 
     /**
@@ -164,7 +170,14 @@ public class Endereco {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(cep);
+        resultado = 31 * resultado + Objects.hashCode(rua);
+        resultado = 31 * resultado + numero;
+        resultado = 31 * resultado + Objects.hashCode(complemento);
+        resultado = 31 * resultado + Objects.hashCode(bairro);
+        resultado = 31 * resultado + Objects.hashCode(cidade);
+        resultado = 31 * resultado + Objects.hashCode(estado);
+        return resultado;
     }
 
     /**
@@ -175,7 +188,20 @@ public class Endereco {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Endereco)) {
+            return false;
+        }
+        Endereco other = (Endereco) obj;
+        return Objects.equals(cep, other.cep)
+            && Objects.equals(rua, other.rua)
+            && numero == other.numero
+            && Objects.equals(complemento, other.complemento)
+            && Objects.equals(bairro, other.bairro)
+            && Objects.equals(cidade, other.cidade)
+            && Objects.equals(estado, other.estado);
     }
 
 }
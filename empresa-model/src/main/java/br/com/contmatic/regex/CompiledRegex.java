@@ -0,0 +1,108 @@
+package br.com.contmatic.regex;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * As expressões do RegexType já compiladas.
+ *
+ * Cada constante guarda o seu Pattern e um Matcher por thread, que é
+ * reaproveitado com reset a cada chamada. Assim conferir um valor não compila
+ * a expressão de novo nem cria um Matcher novo.
+ *
+ * @author gabriel.santos
+ */
+public enum CompiledRegex {
+
+    /** The url. */
+    URL(RegexType.URL),
+
+    /** The site. */
+    SITE(RegexType.SITE),
+
+    /** The cep. */
+    CEP(RegexType.CEP),
+
+    /** The nome. */
+    NOME(RegexType.NOME),
+
+    /** The email. */
+    EMAIL(RegexType.EMAIL),
+
+    /** The letras numeros. */
+    LETRAS_NUMEROS(RegexType.LETRAS_NUMEROS),
+
+    /** The numeros. */
+    NUMEROS(RegexType.NUMEROS),
+
+    /** The numero fixo. */
+    NUMERO_FIXO(RegexType.NUMERO_FIXO),
+
+    /** The numero celular. */
+    NUMERO_CELULAR(RegexType.NUMERO_CELULAR);
+
+    /** Texto usado para soltar a referência ao último valor conferido. */
+    private static final String VAZIO = "";
+
+    /** The pattern. */
+    private final Pattern pattern;
+
+    /** The matcher de cada thread. */
+    private final ThreadLocal<Matcher> matcher;
+
+    /**
+     * Instantiates a new compiled regex.
+     *
+     * @param regex the regex
+     */
+    private CompiledRegex(String regex) {
+        this.pattern = Pattern.compile(regex);
+        this.matcher = ThreadLocal.withInitial(() -> pattern.matcher(VAZIO));
+    }
+
+    /**
+     * Gets the pattern.
+     *
+     * @return the pattern
+     */
+    public Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Verifica se o valor inteiro corresponde à expressão, como o @Pattern.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public boolean matches(CharSequence valor) {
+        if (valor == null) {
+            return false;
+        }
+        Matcher atual = matcher.get().reset(valor);
+        try {
+            return atual.matches();
+        } finally {
+            atual.reset(VAZIO);
+        }
+    }
+
+    /**
+     * Verifica se algum trecho do valor corresponde à expressão.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public boolean find(CharSequence valor) {
+        if (valor == null) {
+            return false;
+        }
+        Matcher atual = matcher.get().reset(valor);
+        try {
+            return atual.find();
+        } finally {
+            atual.reset(VAZIO);
+        }
+    }
+
+}
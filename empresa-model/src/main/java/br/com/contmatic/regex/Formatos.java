@@ -0,0 +1,103 @@
+package br.com.contmatic.regex;
+
+import br.com.contmatic.validacao.DigitoVerificador;
+
+/**
+ * Conferência dos formatos simples sem regex.
+ *
+ * Cada método olha cada caractere uma única vez e não cria objetos, então o
+ * tempo é linear no tamanho do texto. Servem para os caminhos que conferem
+ * muitos registros, no lugar de CompiledRegex.
+ *
+ * @author gabriel.santos
+ */
+public final class Formatos {
+
+    private static final int TAMANHO_CEP = 8;
+
+    private static final int TAMANHO_FIXO = 8;
+
+    private static final int TAMANHO_CELULAR = 9;
+
+    private static final int TAMANHO_CPF = 11;
+
+    private Formatos() {
+    }
+
+    /**
+     * Verifica se o texto é um CEP, com ou sem hífen ("00000-000" ou
+     * "00000000").
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public static boolean isCep(CharSequence valor) {
+        if (valor == null) {
+            return false;
+        }
+        if (valor.length() == TAMANHO_CEP) {
+            return isDigitos(valor, 0, TAMANHO_CEP);
+        }
+        return valor.length() == TAMANHO_CEP + 1 && valor.charAt(5) == '-'
+            && isDigitos(valor, 0, 5) && isDigitos(valor, 6, TAMANHO_CEP + 1);
+    }
+
+    /**
+     * Verifica se o texto é um número fixo, como o RegexType.NUMERO_FIXO: oito
+     * dígitos começando de 2 a 5.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public static boolean isNumeroFixo(CharSequence valor) {
+        return valor != null && valor.length() == TAMANHO_FIXO
+            && valor.charAt(0) >= '2' && valor.charAt(0) <= '5' && isDigitos(valor, 1, TAMANHO_FIXO);
+    }
+
+    /**
+     * Verifica se o texto é um número de celular, como o
+     * RegexType.NUMERO_CELULAR: nove dígitos começando com 9.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public static boolean isNumeroCelular(CharSequence valor) {
+        return valor != null && valor.length() == TAMANHO_CELULAR
+            && valor.charAt(0) == '9' && isDigitos(valor, 1, TAMANHO_CELULAR);
+    }
+
+    /**
+     * Verifica se o texto é um número de telefone, como o RegexType.NUMEROS:
+     * oito ou nove dígitos.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public static boolean isNumeroTelefone(CharSequence valor) {
+        return valor != null && (valor.length() == TAMANHO_FIXO || valor.length() == TAMANHO_CELULAR)
+            && isDigitos(valor, 0, valor.length());
+    }
+
+    /**
+     * Verifica se o texto tem os onze dígitos de um CPF sem formatação. Não
+     * confere os dígitos verificadores; para isso use
+     * {@link DigitoVerificador#isCpf(CharSequence)}.
+     *
+     * @param valor the valor
+     * @return true, if successful
+     */
+    public static boolean isDigitosCpf(CharSequence valor) {
+        return valor != null && valor.length() == TAMANHO_CPF && isDigitos(valor, 0, TAMANHO_CPF);
+    }
+
+    private static boolean isDigitos(CharSequence valor, int inicio, int fim) {
+        for (int i = inicio; i < fim; i++) {
+            char c = valor.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
@@ -14,8 +14,12 @@ public final class RegexType {
     /** The Constant CEP. */
     public static final String CEP = "^[[0-9]{5}-[\\\\d]{3}]+$";
     
-    /** The Constant NOME. */
-	public static final String NOME = "(\\w|\\s|ç|[á-ú])+";
+    /**
+     * The Constant NOME. Aceita o mesmo que "(\\w|\\s|ç|[á-ú])+", mas como uma
+     * única classe de caracteres, que não empilha um grupo por caractere em
+     * textos longos.
+     */
+	public static final String NOME = "[\\w\\sçá-ú]+";
 	
 	/** The Constant EMAIL. */
 	public static final String EMAIL = "[\\w-]+@([\\w-]+\\.)+[\\w-]+";
@@ -1,15 +1,13 @@
 package br.com.contmatic.telefone;
 
+import java.util.Objects;
+
 import javax.validation.constraints.NotBlank;
 import javax.validation.constraints.Pattern;
 import javax.validation.constraints.Size;
 
-import org.apache.commons.lang3.builder.EqualsBuilder;
-import org.apache.commons.lang3.builder.HashCodeBuilder;
-import org.apache.commons.lang3.builder.ToStringBuilder;
-import org.apache.commons.lang3.builder.ToStringStyle;
-
 import br.com.contmatic.regex.RegexType;
+import br.com.contmatic.util.JsonStringBuilder;
 
 /**
  * The Class Telefone.
@@ -74,14 +72,18 @@ public class Telefone {
 		this.tipoTelefone = tipoTelefone;
 	}
 
-	/**
+    /**
      * To string.
      *
      * @return the string
      */
     @Override
     public String toString() {
-        return ToStringBuilder.reflectionToString(this,ToStringStyle.JSON_STYLE);
+        return new JsonStringBuilder(64)
+            .append("tipoTelefone", tipoTelefone)
+            .append("ddd", ddd)
+            .append("numero", numero)
+            .toString();
     }
 
     /**
@@ -91,7 +93,10 @@ public class Telefone {
      */
     @Override
     public int hashCode() {
-        return HashCodeBuilder.reflectionHashCode(this);
+        int resultado = Objects.hashCode(tipoTelefone);
+        resultado = 31 * resultado + Objects.hashCode(ddd);
+        resultado = 31 * resultado + Objects.hashCode(numero);
+        return resultado;
     }
 
     /**
@@ -102,7 +107,16 @@ public class Telefone {
      */
     @Override
     public boolean equals(Object obj) {
-        return EqualsBuilder.reflectionEquals(this, obj);
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Telefone)) {
+            return false;
+        }
+        Telefone other = (Telefone) obj;
+        return Objects.equals(tipoTelefone, other.tipoTelefone)
+            && Objects.equals(ddd, other.ddd)
+            && Objects.equals(numero, other.numero);
     }
 
 }
@@ -0,0 +1,164 @@
+package br.com.contmatic.util;
+
+import java.util.Collection;
+
+/**
+ * Monta o toString das classes do modelo campo a campo, gerando o mesmo texto
+ * de ToStringBuilder.reflectionToString com ToStringStyle.JSON_STYLE sem
+ * percorrer os campos por reflection.
+ *
+ * @author gabriel.santos
+ */
+public final class JsonStringBuilder {
+
+    /** Os caracteres hexadecimais usados no escape unicode. */
+    private static final char[] HEXADECIMAL = "0123456789ABCDEF".toCharArray();
+
+    /** The buffer. */
+    private final StringBuilder buffer;
+
+    /** Indica se ainda nenhum campo foi escrito. */
+    private boolean primeiroCampo = true;
+
+    /**
+     * Instantiates a new json string builder.
+     *
+     * @param capacidade a capacidade inicial do buffer
+     */
+    public JsonStringBuilder(int capacidade) {
+        this.buffer = new StringBuilder(capacidade).append('{');
+    }
+
+    /**
+     * Append.
+     *
+     * @param campo o nome do campo
+     * @param valor o valor do campo
+     * @return the json string builder
+     */
+    public JsonStringBuilder append(String campo, int valor) {
+        inicioCampo(campo).append(valor);
+        return this;
+    }
+
+    /**
+     * Append.
+     *
+     * @param campo o nome do campo
+     * @param valor o valor do campo
+     * @return the json string builder
+     */
+    public JsonStringBuilder append(String campo, Object valor) {
+        inicioCampo(campo);
+        if (valor instanceof Collection) {
+            appendColecao((Collection<?>) valor);
+        } else {
+            appendValor(valor);
+        }
+        return this;
+    }
+
+    /**
+     * To string.
+     *
+     * @return the string
+     */
+    @Override
+    public String toString() {
+        return buffer.append('}').toString();
+    }
+
+    private StringBuilder inicioCampo(String campo) {
+        if (!primeiroCampo) {
+            buffer.append(',');
+        }
+        primeiroCampo = false;
+        return buffer.append('"').append(campo).append("\":");
+    }
+
+    private void appendColecao(Collection<?> colecao) {
+        if (colecao.isEmpty()) {
+            buffer.append("[]");
+            return;
+        }
+        buffer.append('[');
+        boolean primeiro = true;
+        for (Object item : colecao) {
+            if (!primeiro) {
+                buffer.append(',');
+            }
+            primeiro = false;
+            appendValor(item);
+        }
+        buffer.append(']');
+    }
+
+    private void appendValor(Object valor) {
+        if (valor == null) {
+            buffer.append("null");
+        } else if (valor instanceof Number || valor instanceof Boolean) {
+            buffer.append(valor);
+        } else if (valor instanceof String) {
+            appendTexto((String) valor);
+        } else {
+            String texto = valor.toString();
+            if (isJson(texto)) {
+                buffer.append(texto);
+            } else {
+                appendTexto(texto);
+            }
+        }
+    }
+
+    private static boolean isJson(String texto) {
+        return (texto.startsWith("{") && texto.endsWith("}")) || (texto.startsWith("[") && texto.endsWith("]"));
+    }
+
+    /**
+     * Escreve o texto entre aspas com o mesmo escape de StringEscapeUtils.escapeJson.
+     */
+    private void appendTexto(String texto) {
+        buffer.append('"');
+        for (int i = 0; i < texto.length(); i++) {
+            char c = texto.charAt(i);
+            switch (c) {
+                case '"':
+                    buffer.append("\\\"");
+                    break;
+                case '\\':
+                    buffer.append("\\\\");
+                    break;
+                case '/':
+                    buffer.append("\\/");
+                    break;
+                case '\b':
+                    buffer.append("\\b");
+                    break;
+                case '\n':
+                    buffer.append("\\n");
+                    break;
+                case '\t':
+                    buffer.append("\\t");
+                    break;
+                case '\f':
+                    buffer.append("\\f");
+                    break;
+                case '\r':
+                    buffer.append("\\r");
+                    break;
+                default:
+                    if (c < 32 || c > 0x7f) {
+                        buffer.append("\\u")
+                            .append(HEXADECIMAL[(c >> 12) & 0xF])
+                            .append(HEXADECIMAL[(c >> 8) & 0xF])
+                            .append(HEXADECIMAL[(c >> 4) & 0xF])
+                            .append(HEXADECIMAL[c & 0xF]);
+                    } else {
+                        buffer.append(c);
+                    }
+            }
+        }
+        buffer.append('"');
+    }
+
+}
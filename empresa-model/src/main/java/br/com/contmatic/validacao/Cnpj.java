@@ -0,0 +1,36 @@
+package br.com.contmatic.validacao;
+
+import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
+import static java.lang.annotation.ElementType.CONSTRUCTOR;
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.ElementType.PARAMETER;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import javax.validation.Constraint;
+import javax.validation.Payload;
+
+/**
+ * O texto deve ser um CNPJ válido, formatado ou não. Substitui o CNPJ do
+ * Hibernate Validator sem usar regex; null é considerado válido.
+ *
+ * @author gabriel.santos
+ * @see DigitoVerificador#isCnpj(CharSequence)
+ */
+@Documented
+@Constraint(validatedBy = CnpjValidator.class)
+@Target({ METHOD, FIELD, ANNOTATION_TYPE, CONSTRUCTOR, PARAMETER })
+@Retention(RUNTIME)
+public @interface Cnpj {
+
+    String message() default "O CNPJ está inválido";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+}
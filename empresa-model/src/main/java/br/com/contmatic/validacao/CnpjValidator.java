@@ -0,0 +1,22 @@
+package br.com.contmatic.validacao;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validador da anotação {@link Cnpj}.
+ *
+ * @author gabriel.santos
+ */
+public class CnpjValidator implements ConstraintValidator<Cnpj, CharSequence> {
+
+    @Override
+    public void initialize(Cnpj constraintAnnotation) {
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || DigitoVerificador.isCnpj(value);
+    }
+
+}
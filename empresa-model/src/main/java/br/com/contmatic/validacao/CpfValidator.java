@@ -0,0 +1,22 @@
+package br.com.contmatic.validacao;
+
+import javax.validation.ConstraintValidator;
+import javax.validation.ConstraintValidatorContext;
+
+/**
+ * Validador da anotação {@link Cpf}.
+ *
+ * @author gabriel.santos
+ */
+public class CpfValidator implements ConstraintValidator<Cpf, CharSequence> {
+
+    @Override
+    public void initialize(Cpf constraintAnnotation) {
+    }
+
+    @Override
+    public boolean isValid(CharSequence value, ConstraintValidatorContext context) {
+        return value == null || DigitoVerificador.isCpf(value);
+    }
+
+}
@@ -0,0 +1,175 @@
+package br.com.contmatic.validacao;
+
+import java.util.Arrays;
+
+/**
+ * Conferência dos dígitos verificadores (módulo 11) de CPF e CNPJ.
+ *
+ * Percorre o texto uma única vez, caractere a caractere, somando os pesos dos
+ * dois dígitos ao mesmo tempo. Não usa regex e não cria objetos.
+ *
+ * Aceita o número só com dígitos ou formatado. No CPF formatado os pontos são
+ * opcionais e o hífen é obrigatório ("000.000.000-00" ou "000000000-00"). No
+ * CNPJ todos os separadores são opcionais ("00.000.000/0000-00"). É o mesmo
+ * formato aceito pelo CPF e pelo CNPJ do Hibernate Validator.
+ *
+ * @author gabriel.santos
+ */
+public final class DigitoVerificador {
+
+    private static final int DIGITOS_CPF = 11;
+
+    private static final int DIGITOS_CNPJ = 14;
+
+    /**
+     * Marca as posições sem separador. É um dígito, que é tratado antes da
+     * comparação com o separador e por isso nunca é aceito como um.
+     */
+    private static final char SEM_SEPARADOR = '0';
+
+    /** O separador aceito depois de cada quantidade de dígitos do CPF. */
+    private static final char[] SEPARADORES_CPF = mascara(DIGITOS_CPF, "3.6.9-");
+
+    /** O separador aceito depois de cada quantidade de dígitos do CNPJ. */
+    private static final char[] SEPARADORES_CNPJ = mascara(DIGITOS_CNPJ, "2.5.8/12-");
+
+    private DigitoVerificador() {
+    }
+
+    /**
+     * Verifica se o texto é um CPF válido. Sequências de um único dígito
+     * repetido, como 111.111.111-11, são recusadas.
+     *
+     * @param valor o CPF, formatado ou não
+     * @return true, if successful
+     */
+    public static boolean isCpf(CharSequence valor) {
+        if (valor == null) {
+            return false;
+        }
+        int tamanho = valor.length();
+        boolean formatado = tamanho != DIGITOS_CPF;
+        if (formatado && (tamanho < DIGITOS_CPF + 1 || tamanho > DIGITOS_CPF + 3)) {
+            return false;
+        }
+        int digitos = 0;
+        int ultimoSeparador = -1;
+        boolean hifen = false;
+        boolean repetido = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int dv1 = 0;
+        int dv2 = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digitos == DIGITOS_CPF) {
+                    return false;
+                }
+                int digito = c - '0';
+                repetido &= c == valor.charAt(0);
+                if (digitos < 9) {
+                    soma1 += digito * (10 - digitos);
+                    soma2 += digito * (11 - digitos);
+                } else if (digitos == 9) {
+                    dv1 = digito;
+                    soma2 += digito * 2;
+                } else {
+                    dv2 = digito;
+                }
+                digitos++;
+            } else if (formatado && SEPARADORES_CPF[digitos] == c && digitos > ultimoSeparador) {
+                ultimoSeparador = digitos;
+                hifen |= c == '-';
+            } else {
+                return false;
+            }
+        }
+        return digitos == DIGITOS_CPF && (hifen || !formatado) && !repetido
+            && dv1 == digito(soma1) && dv2 == digito(soma2);
+    }
+
+    /**
+     * Verifica se o texto é um CNPJ válido. Sequências de um único dígito
+     * repetido são recusadas.
+     *
+     * @param valor o CNPJ, formatado ou não
+     * @return true, if successful
+     */
+    public static boolean isCnpj(CharSequence valor) {
+        if (valor == null) {
+            return false;
+        }
+        int tamanho = valor.length();
+        if (tamanho < DIGITOS_CNPJ || tamanho > DIGITOS_CNPJ + 4) {
+            return false;
+        }
+        int digitos = 0;
+        int ultimoSeparador = -1;
+        boolean repetido = true;
+        int soma1 = 0;
+        int soma2 = 0;
+        int dv1 = 0;
+        int dv2 = 0;
+        for (int i = 0; i < tamanho; i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (digitos == DIGITOS_CNPJ) {
+                    return false;
+                }
+                int digito = c - '0';
+                repetido &= c == valor.charAt(0);
+                if (digitos < 12) {
+                    soma1 += digito * peso(11 - digitos);
+                    soma2 += digito * peso(12 - digitos);
+                } else if (digitos == 12) {
+                    dv1 = digito;
+                    soma2 += digito * 2;
+                } else {
+                    dv2 = digito;
+                }
+                digitos++;
+            } else if (SEPARADORES_CNPJ[digitos] == c && digitos > ultimoSeparador) {
+                ultimoSeparador = digitos;
+            } else {
+                return false;
+            }
+        }
+        return digitos == DIGITOS_CNPJ && !repetido && dv1 == digito(soma1) && dv2 == digito(soma2);
+    }
+
+    /**
+     * O peso do CNPJ para a posição contada da direita para a esquerda, de 2 a
+     * 9 e recomeçando em 2.
+     */
+    private static int peso(int posicaoDaDireita) {
+        return 2 + posicaoDaDireita % 8;
+    }
+
+    private static int digito(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    /**
+     * Monta a tabela de separadores indexada pela quantidade de dígitos já
+     * lidos, a partir de pares "posição separador", como "3.6.9-". As demais
+     * posições ficam com SEM_SEPARADOR.
+     */
+    private static char[] mascara(int digitos, String posicoes) {
+        char[] separadores = new char[digitos + 1];
+        Arrays.fill(separadores, SEM_SEPARADOR);
+        int posicao = 0;
+        for (int i = 0; i < posicoes.length(); i++) {
+            char c = posicoes.charAt(i);
+            if (c >= '0' && c <= '9') {
+                posicao = posicao * 10 + (c - '0');
+            } else {
+                separadores[posicao] = c;
+                posicao = 0;
+            }
+        }
+        return separadores;
+    }
+
+}
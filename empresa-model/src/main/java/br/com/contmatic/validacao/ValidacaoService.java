@@ -0,0 +1,158 @@
+package br.com.contmatic.validacao;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import javax.validation.groups.Default;
+
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.empresa.Identificavel;
+import br.com.contmatic.endereco.Endereco;
+import br.com.contmatic.groups.Post;
+import br.com.contmatic.groups.Put;
+import br.com.contmatic.telefone.Telefone;
+
+/**
+ * Validação compartilhada das classes do modelo.
+ *
+ * Mantém um único ValidatorFactory para toda a aplicação. Assim os metadados
+ * das classes e os ConstraintValidator (com os Pattern do RegexType já
+ * compilados) são montados uma vez só e reaproveitados por todas as chamadas.
+ *
+ * @author gabriel.santos
+ */
+public final class ValidacaoService {
+
+    /** As classes do modelo aquecidas na criação do serviço. */
+    private static final Class<?>[] CLASSES_MODELO = { Empresa.class, Cliente.class, Fornecedor.class, Funcionario.class, Endereco.class, Telefone.class };
+
+    /** Os grupos aquecidos na criação do serviço. */
+    private static final Class<?>[] GRUPOS = { Default.class, Post.class, Put.class };
+
+    private static final ValidacaoService INSTANCIA = new ValidacaoService();
+
+    /** The factory. */
+    private final ValidatorFactory factory;
+
+    /** The validator. */
+    private final Validator validator;
+
+    private ValidacaoService() {
+        this.factory = Validation.buildDefaultValidatorFactory();
+        this.validator = factory.getValidator();
+        aquecer();
+    }
+
+    /**
+     * Gets the instance.
+     *
+     * @return o serviço compartilhado
+     */
+    public static ValidacaoService getInstance() {
+        return INSTANCIA;
+    }
+
+    /**
+     * Gets the validator.
+     *
+     * @return o validator compartilhado, seguro para uso entre threads
+     */
+    public Validator getValidator() {
+        return validator;
+    }
+
+    /**
+     * Valida uma entidade nos grupos informados.
+     *
+     * @param <T> o tipo da entidade
+     * @param entidade a entidade
+     * @param grupos os grupos, ou nenhum para o grupo Default
+     * @return as violações encontradas
+     */
+    public <T> Set<ConstraintViolation<T>> validate(T entidade, Class<?>... grupos) {
+        return validator.validate(entidade, grupos);
+    }
+
+    /**
+     * Valida as entidades em paralelo no grupo informado.
+     *
+     * Só as entidades com violação aparecem no resultado, na ordem da coleção.
+     * Entidades com o mesmo CPF/CNPJ têm as violações somadas na mesma chave, e
+     * entidades sem CPF/CNPJ ficam na chave null.
+     *
+     * @param <T> o tipo da entidade
+     * @param entidades as entidades
+     * @param grupo o grupo de validação, como Post ou Put
+     * @return as violações indexadas pelo CPF/CNPJ
+     */
+    public <T extends Identificavel> Map<String, Set<ConstraintViolation<T>>> validateAll(Collection<T> entidades, Class<?> grupo) {
+        if (entidades == null || entidades.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Class<?>[] grupos = grupo == null ? new Class<?>[0] : new Class<?>[] { grupo };
+        return entidades.parallelStream()
+            .filter(entidade -> entidade != null)
+            .map(entidade -> new Resultado<T>(entidade.getChave(), validator.validate(entidade, grupos)))
+            .filter(resultado -> !resultado.violacoes.isEmpty())
+            .collect(Collectors.toMap(resultado -> resultado.chave, resultado -> resultado.violacoes,
+                ValidacaoService::juntar, LinkedHashMap::new));
+    }
+
+    private static <T> Set<ConstraintViolation<T>> juntar(Set<ConstraintViolation<T>> primeiras, Set<ConstraintViolation<T>> segundas) {
+        Set<ConstraintViolation<T>> todas = new LinkedHashSet<ConstraintViolation<T>>(primeiras);
+        todas.addAll(segundas);
+        return todas;
+    }
+
+    /**
+     * Monta os metadados de todas as classes e inicializa os ConstraintValidator
+     * de cada grupo validando instâncias vazias, para que a primeira validação
+     * real não pague esse custo.
+     */
+    private void aquecer() {
+        for (Class<?> classe : CLASSES_MODELO) {
+            validator.getConstraintsForClass(classe);
+            Object vazio = instanciaVazia(classe);
+            for (Class<?> grupo : GRUPOS) {
+                validator.validate(vazio, grupo);
+            }
+        }
+    }
+
+    private static Object instanciaVazia(Class<?> classe) {
+        try {
+            return classe.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Não foi possível instanciar " + classe.getSimpleName(), e);
+        }
+    }
+
+    /**
+     * Violações de uma entidade com a sua chave.
+     */
+    private static final class Resultado<T> {
+
+        private final String chave;
+
+        private final Set<ConstraintViolation<T>> violacoes;
+
+        private Resultado(String chave, Set<ConstraintViolation<T>> violacoes) {
+            this.chave = chave;
+            this.violacoes = violacoes;
+        }
+
+    }
+
+}
@@ -0,0 +1,63 @@
+package br.com.contmatic.empresa;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+
+/**
+ * The Class IdentificaveisTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class IdentificaveisTest {
+
+    private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+    @Test
+    public void deve_usar_o_cnpj_e_o_cpf_como_chave() {
+        Empresa empresa = randomObject.empresaRandomizer();
+        Funcionario funcionario = randomObject.funcionarioRandomizer();
+        assertEquals(empresa.getCnpj(), empresa.getChave());
+        assertEquals(funcionario.getCpf(), funcionario.getChave());
+    }
+
+    @Test
+    public void deve_considerar_mesma_chave_mesmo_com_outros_campos_diferentes() {
+        Cliente cliente = randomObject.clienteRandomizer();
+        Cliente alterado = randomObject.clienteRandomizer();
+        alterado.setCpf(cliente.getCpf());
+        assertFalse(cliente.equals(alterado));
+        assertTrue(Identificaveis.mesmaChave(cliente, alterado));
+    }
+
+    @Test
+    public void nao_deve_considerar_mesma_chave_entre_tipos_diferentes() {
+        Empresa empresa = randomObject.empresaRandomizer();
+        Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+        fornecedor.setCnpj(empresa.getCnpj());
+        assertFalse(Identificaveis.mesmaChave(empresa, fornecedor));
+        assertFalse(Identificaveis.mesmaChave(empresa, null));
+    }
+
+    @Test
+    public void deve_manter_a_primeira_ocorrencia_de_cada_chave() {
+        Empresa primeira = randomObject.empresaRandomizer();
+        Empresa repetida = randomObject.empresaRandomizer();
+        repetida.setCnpj(primeira.getCnpj());
+        Empresa outra = randomObject.empresaRandomizer();
+        Map<String, Empresa> indice = Identificaveis.porChave(Arrays.asList(primeira, repetida, outra, new Empresa()));
+        assertEquals(2, indice.size());
+        assertSame(primeira, indice.get(primeira.getCnpj()));
+        assertSame(outra, indice.get(outra.getCnpj()));
+    }
+
+}
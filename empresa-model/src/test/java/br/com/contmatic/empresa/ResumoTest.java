@@ -0,0 +1,35 @@
+package br.com.contmatic.empresa;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import nl.jqno.equalsverifier.EqualsVerifier;
+
+/**
+ * The Class ResumoTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class ResumoTest {
+
+    @Test
+    public void deve_respeitar_o_contrato_de_equals_e_hashCode() {
+        EqualsVerifier.simple().forClass(Resumo.class).verify();
+    }
+
+    @Test
+    public void deve_usar_o_cpf_ou_cnpj_como_chave() {
+        Resumo resumo = new Resumo("12345678000195", "Contmatic");
+        assertEquals("12345678000195", resumo.getChave());
+        assertEquals("Contmatic", resumo.getNome());
+    }
+
+    @Test
+    public void toString_deve_retornar_a_chave_e_o_nome() {
+        assertEquals("{\"chave\":\"12345678000195\",\"nome\":\"Contmatic\"}",
+            new Resumo("12345678000195", "Contmatic").toString());
+    }
+
+}
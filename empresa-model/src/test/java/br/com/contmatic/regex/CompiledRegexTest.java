@@ -0,0 +1,98 @@
+package br.com.contmatic.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Pattern;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * The Class CompiledRegexTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class CompiledRegexTest {
+
+    private static final String NOME_ANTIGO = "(\\w|\\s|ç|[á-ú])+";
+
+    private static final String CARACTERES = "abcXYZ09_ çãáéíóúàâêôüñ-.@'\t";
+
+    private Random random = new Random();
+
+    private String textoAleatorio(int tamanho) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            texto.append(CARACTERES.charAt(random.nextInt(CARACTERES.length())));
+        }
+        return texto.toString();
+    }
+
+    @Test
+    public void deve_compilar_a_mesma_expressao_do_regex_type() {
+        assertEquals(RegexType.EMAIL, CompiledRegex.EMAIL.getPattern().pattern());
+        assertEquals(RegexType.NUMERO_CELULAR, CompiledRegex.NUMERO_CELULAR.getPattern().pattern());
+        assertSame(CompiledRegex.SITE.getPattern(), CompiledRegex.SITE.getPattern());
+    }
+
+    @Test
+    public void deve_conferir_como_o_string_matches() {
+        assertTrue(CompiledRegex.EMAIL.matches("gabriel_santos@contmatic.com.br"));
+        assertFalse(CompiledRegex.EMAIL.matches("gabriel"));
+        assertTrue(CompiledRegex.NUMERO_FIXO.matches("23456789"));
+        assertFalse(CompiledRegex.NUMERO_FIXO.matches("93456789"));
+        assertTrue(CompiledRegex.NUMERO_CELULAR.find("tel 912345678"));
+        assertFalse(CompiledRegex.NOME.matches(null));
+    }
+
+    @Test
+    public void deve_aceitar_os_mesmos_nomes_da_expressao_antiga() {
+        Pattern antigo = Pattern.compile(NOME_ANTIGO);
+        for (int i = 0; i < 2000; i++) {
+            String nome = textoAleatorio(1 + random.nextInt(6));
+            assertEquals(nome, antigo.matcher(nome).matches(), CompiledRegex.NOME.matches(nome));
+        }
+    }
+
+    @Test
+    public void deve_conferir_nome_longo_sem_estourar_a_pilha() {
+        StringBuilder nome = new StringBuilder();
+        for (int i = 0; i < 100000; i++) {
+            nome.append("ção ");
+        }
+        assertTrue(CompiledRegex.NOME.matches(nome));
+    }
+
+    @Test
+    public void deve_conferir_em_varias_threads() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> resultados = new ArrayList<Future<Boolean>>();
+            for (int i = 0; i < 100; i++) {
+                final String numero = i % 2 == 0 ? "912345678" : "12345678";
+                resultados.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return CompiledRegex.NUMERO_CELULAR.matches(numero) == numero.startsWith("9");
+                    }
+                }));
+            }
+            for (Future<Boolean> resultado : resultados) {
+                assertTrue(resultado.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+}
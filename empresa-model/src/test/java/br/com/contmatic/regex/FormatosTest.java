@@ -0,0 +1,60 @@
+package br.com.contmatic.regex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * The Class FormatosTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class FormatosTest {
+
+    private static final String CARACTERES = "0123456789-a ";
+
+    private Random random = new Random();
+
+    private String textoAleatorio(int tamanho) {
+        StringBuilder texto = new StringBuilder();
+        for (int i = 0; i < tamanho; i++) {
+            texto.append(CARACTERES.charAt(random.nextInt(CARACTERES.length())));
+        }
+        return texto.toString();
+    }
+
+    @Test
+    public void deve_aceitar_cep_com_e_sem_hifen() {
+        assertTrue(Formatos.isCep("01310-100"));
+        assertTrue(Formatos.isCep("01310100"));
+        assertFalse(Formatos.isCep("0131-0100"));
+        assertFalse(Formatos.isCep("01310-10a"));
+        assertFalse(Formatos.isCep(null));
+    }
+
+    @Test
+    public void deve_conferir_cpf_so_com_digitos() {
+        assertTrue(Formatos.isDigitosCpf("52998224725"));
+        assertFalse(Formatos.isDigitosCpf("529.982.247-25"));
+        assertFalse(Formatos.isDigitosCpf("5299822472"));
+    }
+
+    @Test
+    public void deve_conferir_telefones_como_as_expressoes() {
+        for (int i = 0; i < 5000; i++) {
+            String numero = textoAleatorio(7 + random.nextInt(4));
+            if (random.nextBoolean()) {
+                numero = numero.replace('-', '9').replace('a', '2').replace(' ', '5');
+            }
+            assertEquals(numero, CompiledRegex.NUMERO_FIXO.matches(numero), Formatos.isNumeroFixo(numero));
+            assertEquals(numero, CompiledRegex.NUMERO_CELULAR.matches(numero), Formatos.isNumeroCelular(numero));
+            assertEquals(numero, CompiledRegex.NUMEROS.matches(numero), Formatos.isNumeroTelefone(numero));
+        }
+    }
+
+}
@@ -5,9 +5,10 @@ import java.util.List;
 import java.util.Set;
 
 import javax.validation.ConstraintViolation;
-import javax.validation.Validation;
 import javax.validation.Validator;
 
+import br.com.contmatic.validacao.ValidacaoService;
+
 /**
  * The Class Annotations.
  */
@@ -20,7 +21,7 @@ public class Annotations {
      * @return true, if successful
      */
     public static boolean MensagemErroAnnotation(Object t) {
-        Validator validador = Validation.buildDefaultValidatorFactory().getValidator();
+        Validator validador = ValidacaoService.getInstance().getValidator();
         Set<ConstraintViolation<Object>> erros = validador.validate(t);
         List<String> errosMsg = new ArrayList<>();
         for(ConstraintViolation<Object> violation : erros) {
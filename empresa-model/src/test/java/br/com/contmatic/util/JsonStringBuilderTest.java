@@ -0,0 +1,73 @@
+package br.com.contmatic.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.HashSet;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.endereco.Endereco;
+import br.com.contmatic.telefone.Telefone;
+
+/**
+ * The Class JsonStringBuilderTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class JsonStringBuilderTest {
+
+    private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+    private static String reflection(Object objeto) {
+        return ToStringBuilder.reflectionToString(objeto, ToStringStyle.JSON_STYLE);
+    }
+
+    @Test
+    public void deve_gerar_o_mesmo_texto_do_reflection_na_empresa() {
+        Empresa empresa = randomObject.empresaRandomizer();
+        assertEquals(reflection(empresa), empresa.toString());
+    }
+
+    @Test
+    public void deve_gerar_o_mesmo_texto_do_reflection_no_cliente() {
+        Cliente cliente = randomObject.clienteRandomizer();
+        assertEquals(reflection(cliente), cliente.toString());
+    }
+
+    @Test
+    public void deve_gerar_o_mesmo_texto_do_reflection_no_fornecedor() {
+        Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+        assertEquals(reflection(fornecedor), fornecedor.toString());
+    }
+
+    @Test
+    public void deve_gerar_o_mesmo_texto_do_reflection_no_funcionario() {
+        Funcionario funcionario = randomObject.funcionarioRandomizer();
+        assertEquals(reflection(funcionario), funcionario.toString());
+    }
+
+    @Test
+    public void deve_gerar_o_mesmo_texto_do_reflection_com_campos_nulos_e_listas_vazias() {
+        Empresa empresa = new Empresa();
+        empresa.setTelefones(new HashSet<Telefone>());
+        assertEquals(reflection(empresa), empresa.toString());
+        assertEquals(reflection(new Endereco()), new Endereco().toString());
+        assertEquals(reflection(new Telefone()), new Telefone().toString());
+    }
+
+    @Test
+    public void deve_escapar_os_caracteres_como_o_reflection() {
+        Endereco endereco = randomObject.enderecoRandomizerClass();
+        endereco.setRua("Rua \"São João\" \\ 1/2\n\tçãé\u0001\u007f");
+        assertEquals(reflection(endereco), endereco.toString());
+    }
+
+}
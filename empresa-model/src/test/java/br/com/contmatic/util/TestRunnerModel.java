@@ -8,14 +8,22 @@ import br.com.contmatic.empresa.ClienteTest;
 import br.com.contmatic.empresa.EmpresaTest;
 import br.com.contmatic.empresa.FornecedorTest;
 import br.com.contmatic.empresa.FuncionarioTest;
+import br.com.contmatic.empresa.IdentificaveisTest;
+import br.com.contmatic.empresa.ResumoTest;
 import br.com.contmatic.endereco.EnderecoTest;
+import br.com.contmatic.regex.CompiledRegexTest;
+import br.com.contmatic.regex.FormatosTest;
 import br.com.contmatic.telefone.TelefoneTest;
+import br.com.contmatic.validacao.DigitoVerificadorTest;
+import br.com.contmatic.validacao.ValidacaoServiceTest;
 
 /**
  * The Class TestRunner.
  */
 @RunWith(Suite.class)
-@SuiteClasses({ ClienteTest.class, EmpresaTest.class, FornecedorTest.class, FuncionarioTest.class, EnderecoTest.class, TelefoneTest.class })
+@SuiteClasses({ ClienteTest.class, EmpresaTest.class, FornecedorTest.class, FuncionarioTest.class, EnderecoTest.class, TelefoneTest.class,
+	IdentificaveisTest.class, ResumoTest.class, JsonStringBuilderTest.class, ValidacaoServiceTest.class,
+	DigitoVerificadorTest.class, CompiledRegexTest.class, FormatosTest.class })
 public class TestRunnerModel {
 
 }
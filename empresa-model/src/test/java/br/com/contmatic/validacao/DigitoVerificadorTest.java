@@ -0,0 +1,219 @@
+package br.com.contmatic.validacao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import javax.validation.Validator;
+
+import org.hibernate.validator.constraints.br.CNPJ;
+import org.hibernate.validator.constraints.br.CPF;
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+/**
+ * The Class DigitoVerificadorTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class DigitoVerificadorTest {
+
+    private static final int[] PESOS_CNPJ = { 6, 5, 4, 3, 2, 9, 8, 7, 6, 5, 4, 3, 2 };
+
+    private static Validator validator = ValidacaoService.getInstance().getValidator();
+
+    private Random random = new Random();
+
+    private static class ComHibernate {
+
+        @CPF
+        private String cpf;
+
+        @CNPJ
+        private String cnpj;
+
+    }
+
+    private static class ComContmatic {
+
+        @Cpf
+        private String cpf;
+
+        @Cnpj
+        private String cnpj;
+
+    }
+
+    private static int digito(int soma) {
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+
+    private String geraCpf() {
+        return completaCpf(digitosAleatorios(9));
+    }
+
+    private String geraCnpj() {
+        return completaCnpj(digitosAleatorios(12));
+    }
+
+    private String digitosAleatorios(int quantidade) {
+        int[] numeros = new int[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            numeros[i] = random.nextInt(10);
+        }
+        return texto(numeros);
+    }
+
+    private static String completaCpf(String base) {
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 9; i++) {
+            int numero = base.charAt(i) - '0';
+            soma1 += numero * (10 - i);
+            soma2 += numero * (11 - i);
+        }
+        int dv1 = digito(soma1);
+        return base + dv1 + digito(soma2 + dv1 * 2);
+    }
+
+    private static String completaCnpj(String base) {
+        int soma1 = 0;
+        int soma2 = 0;
+        for (int i = 0; i < 12; i++) {
+            int numero = base.charAt(i) - '0';
+            soma1 += numero * PESOS_CNPJ[i + 1];
+            soma2 += numero * PESOS_CNPJ[i];
+        }
+        int dv1 = digito(soma1);
+        return base + dv1 + digito(soma2 + dv1 * PESOS_CNPJ[12]);
+    }
+
+    private static String texto(int[] numeros) {
+        StringBuilder texto = new StringBuilder();
+        for (int numero : numeros) {
+            texto.append(numero);
+        }
+        return texto.toString();
+    }
+
+    private String trocaUmDigito(String valor) {
+        char[] caracteres = valor.toCharArray();
+        int posicao = random.nextInt(caracteres.length);
+        caracteres[posicao] = (char) ('0' + (caracteres[posicao] - '0' + 1 + random.nextInt(9)) % 10);
+        return new String(caracteres);
+    }
+
+    private static String formataCpf(String cpf) {
+        return cpf.substring(0, 3) + "." + cpf.substring(3, 6) + "." + cpf.substring(6, 9) + "-" + cpf.substring(9);
+    }
+
+    private static String formataCnpj(String cnpj) {
+        return cnpj.substring(0, 2) + "." + cnpj.substring(2, 5) + "." + cnpj.substring(5, 8) + "/" + cnpj.substring(8, 12) + "-" + cnpj.substring(12);
+    }
+
+    private static boolean hibernateAceitaCpf(String cpf) {
+        ComHibernate objeto = new ComHibernate();
+        objeto.cpf = cpf;
+        return validator.validateProperty(objeto, "cpf").isEmpty();
+    }
+
+    private static boolean hibernateAceitaCnpj(String cnpj) {
+        ComHibernate objeto = new ComHibernate();
+        objeto.cnpj = cnpj;
+        return validator.validateProperty(objeto, "cnpj").isEmpty();
+    }
+
+    @Test
+    public void deve_aceitar_cpf_valido_formatado_ou_nao() {
+        String cpf = geraCpf();
+        assertTrue(DigitoVerificador.isCpf(cpf));
+        assertTrue(DigitoVerificador.isCpf(formataCpf(cpf)));
+        assertTrue(DigitoVerificador.isCpf(cpf.substring(0, 9) + "-" + cpf.substring(9)));
+    }
+
+    @Test
+    public void deve_aceitar_cnpj_valido_formatado_ou_nao() {
+        String cnpj = geraCnpj();
+        assertTrue(DigitoVerificador.isCnpj(cnpj));
+        assertTrue(DigitoVerificador.isCnpj(formataCnpj(cnpj)));
+        assertTrue(DigitoVerificador.isCnpj(cnpj.substring(0, 8) + "/" + cnpj.substring(8)));
+    }
+
+    @Test
+    public void nao_deve_aceitar_formatos_invalidos() {
+        String cpf = geraCpf();
+        String cnpj = geraCnpj();
+        assertFalse(DigitoVerificador.isCpf(cpf.substring(0, 3) + "." + cpf.substring(3)));
+        assertFalse(DigitoVerificador.isCpf(cpf.substring(0, 3) + ".." + cpf.substring(3, 9) + "-" + cpf.substring(9)));
+        assertFalse(DigitoVerificador.isCpf(cpf + "0"));
+        assertFalse(DigitoVerificador.isCpf(cpf.substring(1)));
+        assertFalse(DigitoVerificador.isCpf(" " + cpf));
+        assertFalse(DigitoVerificador.isCnpj(cnpj.substring(0, 3) + "." + cnpj.substring(3)));
+        assertFalse(DigitoVerificador.isCnpj(cnpj + "-"));
+        assertFalse(DigitoVerificador.isCnpj("a" + cnpj.substring(1)));
+        assertFalse(DigitoVerificador.isCnpj(null));
+    }
+
+    @Test
+    public void nao_deve_aceitar_caractere_nulo_como_separador() {
+        String cpf = geraCpf();
+        String cnpj = geraCnpj();
+        assertFalse(DigitoVerificador.isCpf(cpf.substring(0, 1) + "\0" + cpf.substring(1, 9) + "-" + cpf.substring(9)));
+        assertFalse(DigitoVerificador.isCnpj(cnpj.substring(0, 1) + "\0" + cnpj.substring(1)));
+    }
+
+    @Test
+    public void nao_deve_aceitar_digitos_repetidos() {
+        assertFalse(DigitoVerificador.isCpf("11111111111"));
+        assertFalse(DigitoVerificador.isCpf("000.000.000-00"));
+        assertFalse(DigitoVerificador.isCnpj("00000000000000"));
+    }
+
+    @Test
+    public void deve_aceitar_os_mesmos_cpfs_validos_do_hibernate() {
+        for (int i = 0; i < 500; i++) {
+            String cpf = geraCpf();
+            for (String valor : new String[] { cpf, formataCpf(cpf) }) {
+                assertTrue(valor, hibernateAceitaCpf(valor));
+                assertTrue(valor, DigitoVerificador.isCpf(valor));
+            }
+        }
+    }
+
+    @Test
+    public void deve_aceitar_os_mesmos_cnpjs_validos_do_hibernate() {
+        for (int i = 0; i < 500; i++) {
+            String cnpj = geraCnpj();
+            for (String valor : new String[] { cnpj, formataCnpj(cnpj) }) {
+                assertTrue(valor, hibernateAceitaCnpj(valor));
+                assertTrue(valor, DigitoVerificador.isCnpj(valor));
+            }
+        }
+    }
+
+    @Test
+    public void deve_conferir_os_verificadores_com_digito_trocado() {
+        for (int i = 0; i < 500; i++) {
+            String cpf = trocaUmDigito(geraCpf());
+            String cnpj = trocaUmDigito(geraCnpj());
+            assertEquals(cpf, completaCpf(cpf.substring(0, 9)).equals(cpf), DigitoVerificador.isCpf(cpf));
+            assertEquals(cnpj, completaCnpj(cnpj.substring(0, 12)).equals(cnpj), DigitoVerificador.isCnpj(cnpj));
+        }
+    }
+
+    @Test
+    public void deve_validar_pelas_anotacoes() {
+        ComContmatic objeto = new ComContmatic();
+        assertTrue(validator.validate(objeto).isEmpty());
+        objeto.cpf = formataCpf(geraCpf());
+        objeto.cnpj = geraCnpj();
+        assertTrue(validator.validate(objeto).isEmpty());
+        objeto.cpf = "123";
+        objeto.cnpj = "123";
+        assertEquals(2, validator.validate(objeto).size());
+    }
+
+}
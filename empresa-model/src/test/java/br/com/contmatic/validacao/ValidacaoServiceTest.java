@@ -0,0 +1,73 @@
+package br.com.contmatic.validacao;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.validation.ConstraintViolation;
+
+import org.junit.FixMethodOrder;
+import org.junit.Test;
+import org.junit.runners.MethodSorters;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.groups.Post;
+
+/**
+ * The Class ValidacaoServiceTest.
+ */
+@FixMethodOrder(MethodSorters.NAME_ASCENDING)
+public class ValidacaoServiceTest {
+
+    private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+    private static ValidacaoService service = ValidacaoService.getInstance();
+
+    @Test
+    public void deve_compartilhar_a_mesma_instancia() {
+        assertSame(service, ValidacaoService.getInstance());
+        assertSame(service.getValidator(), ValidacaoService.getInstance().getValidator());
+    }
+
+    @Test
+    public void deve_retornar_as_mesmas_violacoes_da_validacao_individual() {
+        List<Empresa> empresas = new ArrayList<Empresa>();
+        for (int i = 0; i < 20; i++) {
+            empresas.add(randomObject.empresaRandomizer());
+        }
+        Map<String, Set<ConstraintViolation<Empresa>>> violacoes = service.validateAll(empresas, Post.class);
+        for (Empresa empresa : empresas) {
+            Set<ConstraintViolation<Empresa>> esperadas = service.validate(empresa, Post.class);
+            if (esperadas.isEmpty()) {
+                assertFalse(violacoes.containsKey(empresa.getCnpj()));
+            } else {
+                assertEquals(esperadas.size(), violacoes.get(empresa.getCnpj()).size());
+            }
+        }
+    }
+
+    @Test
+    public void deve_indexar_as_violacoes_pelo_cnpj() {
+        Empresa invalida = randomObject.empresaRandomizer();
+        invalida.setNome("1");
+        Map<String, Set<ConstraintViolation<Empresa>>> violacoes = service.validateAll(Arrays.asList(invalida), Post.class);
+        assertEquals(1, violacoes.size());
+        assertEquals(service.validate(invalida, Post.class).size(), violacoes.get(invalida.getCnpj()).size());
+    }
+
+    @Test
+    public void deve_retornar_vazio_para_colecao_vazia() {
+        assertTrue(service.validateAll(Collections.<Empresa>emptyList(), Post.class).isEmpty());
+        assertTrue(service.validateAll(null, Post.class).isEmpty());
+    }
+
+}
@@ -1,6 +1,7 @@
 package br.com.contmatic.assembly;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -39,7 +40,13 @@ public class ClienteResourceAssembly implements Assembly <Cliente, Document> {
 	@Override
 	public Document toDocument(Cliente resource) {
 		if (resource != null) {
-			return Document.parse(resource.toString());
+			Document document = new Document();
+			document.append("cpf", resource.getCpf());
+			document.append("nome", resource.getNome());
+			document.append("email", resource.getEmail());
+			document.append("boleto", resource.getBoleto() == null ? null : resource.getBoleto().doubleValue());
+			document.append("telefones", toDocumentTelefones(resource.getTelefone()));
+			return document;
 		}
 		return null;
 	}
@@ -57,4 +64,18 @@ public class ClienteResourceAssembly implements Assembly <Cliente, Document> {
 
 		return telefones;
 	}
+	
+	private List<Document> toDocumentTelefones(Set<Telefone> resources) {
+		List<Document> documents = null;
+		if (resources == null) {
+			return documents;
+		}
+		TelefoneResourceAssembly assembly = new TelefoneResourceAssembly();
+		documents = new ArrayList<Document>(resources.size());
+		for (Telefone resource : resources) {
+			documents.add(assembly.toDocument(resource));
+		}
+		return documents;
+	}
+	
 }
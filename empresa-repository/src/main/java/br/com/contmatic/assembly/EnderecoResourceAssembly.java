@@ -26,7 +26,15 @@ public class EnderecoResourceAssembly implements Assembly<Endereco, Document> {
 	@Override
 	public Document toDocument(Endereco resource) {
 		if (resource != null) {
-			return Document.parse(resource.toString());
+			Document document = new Document();
+			document.append("cep", resource.getCep());
+			document.append("rua", resource.getRua());
+			document.append("numero", resource.getNumero());
+			document.append("complemento", resource.getComplemento());
+			document.append("bairro", resource.getBairro());
+			document.append("cidade", resource.getCidade());
+			document.append("estado", resource.getEstado() == null ? null : resource.getEstado().name());
+			return document;
 		}
 		return null;
 	}
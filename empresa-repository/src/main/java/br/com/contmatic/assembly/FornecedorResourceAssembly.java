@@ -1,5 +1,6 @@
 package br.com.contmatic.assembly;
 
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -29,7 +30,13 @@ public class FornecedorResourceAssembly  implements Assembly<Fornecedor, Documen
 	@Override
 	public Document toDocument(Fornecedor resource) {
 		if (resource != null) {
-			return Document.parse(resource.toString());
+			Document document = new Document();
+			document.append("cnpj", resource.getCnpj());
+			document.append("nome", resource.getNome());
+			document.append("produto", resource.getProduto());
+			document.append("telefones", toDocumentTelefones(resource.getTelefone()));
+			document.append("enderecos", toDocumentEnderecos(resource.getEndereco()));
+			return document;
 		}
 		return null;
 	}
@@ -60,5 +67,31 @@ public class FornecedorResourceAssembly  implements Assembly<Fornecedor, Documen
 		}
 		return resources;
 	}
-
+	
+	private List<Document> toDocumentTelefones(Set<Telefone> resources) {
+		List<Document> documents = null;
+		if (resources == null) {
+			return documents;
+		}
+		TelefoneResourceAssembly assembly = new TelefoneResourceAssembly();
+		documents = new ArrayList<Document>(resources.size());
+		for (Telefone resource : resources) {
+			documents.add(assembly.toDocument(resource));
+		}
+		return documents;
+	}
+	
+	private List<Document> toDocumentEnderecos(Set<Endereco> resources) {
+		List<Document> documents = null;
+		if (resources == null) {
+			return documents;
+		}
+		EnderecoResourceAssembly assembly = new EnderecoResourceAssembly();
+		documents = new ArrayList<Document>(resources.size());
+		for (Endereco resource : resources) {
+			documents.add(assembly.toDocument(resource));
+		}
+		return documents;
+	}
+	
 }
@@ -1,6 +1,7 @@
 package br.com.contmatic.assembly;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -54,7 +55,16 @@ public class FuncionarioResourceAssembly implements Assembly<Funcionario, Docume
 	@Override
 	public Document toDocument(Funcionario resource) {
 		if (resource != null) {
-			return Document.parse(resource.toString());
+			Document document = new Document();
+			document.append("cpf", resource.getCpf());
+			document.append("nome", resource.getNome());
+			document.append("idade", resource.getIdade());
+			document.append("salario", resource.getSalario() == null ? null : resource.getSalario().doubleValue());
+			document.append("dataContratacao", resource.getDataContratacao() == null ? null : resource.getDataContratacao().toString());
+			document.append("dataSalario", resource.getDataSalario() == null ? null : resource.getDataSalario().toString());
+			document.append("telefones", toDocumentTelefones(resource.getTelefone()));
+			document.append("enderecos", toDocumentEnderecos(resource.getEndereco()));
+			return document;
 		}
 		return null;
 	}
@@ -89,5 +99,31 @@ public class FuncionarioResourceAssembly implements Assembly<Funcionario, Docume
 	private LocalDate LocalDate(String data) {
 		return data == null ? null : LocalDate.parse(data);
 	}
-
+	
+	private List<Document> toDocumentTelefones(Set<Telefone> resources) {
+		List<Document> documents = null;
+		if (resources == null) {
+			return documents;
+		}
+		TelefoneResourceAssembly assembly = new TelefoneResourceAssembly();
+		documents = new ArrayList<Document>(resources.size());
+		for (Telefone resource : resources) {
+			documents.add(assembly.toDocument(resource));
+		}
+		return documents;
+	}
+	
+	private List<Document> toDocumentEnderecos(Set<Endereco> resources) {
+		List<Document> documents = null;
+		if (resources == null) {
+			return documents;
+		}
+		EnderecoResourceAssembly assembly = new EnderecoResourceAssembly();
+		documents = new ArrayList<Document>(resources.size());
+		for (Endereco resource : resources) {
+			documents.add(assembly.toDocument(resource));
+		}
+		return documents;
+	}
+	
 }
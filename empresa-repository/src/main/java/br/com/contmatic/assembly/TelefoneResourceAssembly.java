@@ -23,7 +23,11 @@ public class TelefoneResourceAssembly implements Assembly<Telefone, Document> {
 	@Override
 	public Document toDocument(Telefone resource) {
 		if (resource != null) {
-			return Document.parse(resource.toString());
+			Document document = new Document();
+			document.append("tipoTelefone", resource.getTipoTelefone() == null ? null : resource.getTipoTelefone().name());
+			document.append("ddd", resource.getDdd() == null ? null : resource.getDdd().name());
+			document.append("numero", resource.getNumero());
+			return document;
 		}
 		return null;
 	}
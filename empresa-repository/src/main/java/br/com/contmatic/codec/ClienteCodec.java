@@ -0,0 +1,93 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.readDecimal;
+import static br.com.contmatic.codec.CodecSuporte.posicao;
+import static br.com.contmatic.codec.CodecSuporte.readSet;
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.registrarLido;
+import static br.com.contmatic.codec.CodecSuporte.writeArray;
+import static br.com.contmatic.codec.CodecSuporte.writeDecimal;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import java.math.BigDecimal;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.empresa.Cliente;
+
+public class ClienteCodec implements Codec<Cliente> {
+
+	private final TelefoneCodec telefoneCodec = new TelefoneCodec();
+
+	private final String colecao;
+
+	/**
+	 * @param colecao nome da coleção com que o tamanho dos documentos lidos é
+	 *                registrado nas métricas
+	 */
+	public ClienteCodec(String colecao) {
+		this.colecao = colecao;
+	}
+
+	@Override
+	public void encode(BsonWriter writer, Cliente cliente, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "_id", cliente.getCpf());
+		writeString(writer, "cpf", cliente.getCpf());
+		writeString(writer, "nome", cliente.getNome());
+		writeString(writer, "email", cliente.getEmail());
+		writeDecimal(writer, "boleto", cliente.getBoleto());
+		writeArray(writer, "telefones", cliente.getTelefone(), telefoneCodec, encoderContext);
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Cliente decode(BsonReader reader, DecoderContext decoderContext) {
+		Cliente cliente = new Cliente();
+		int inicio = posicao(reader);
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "cpf":
+				cliente.setCpf(readString(reader));
+				break;
+			case "nome":
+				cliente.setNome(readString(reader));
+				break;
+			case "email":
+				cliente.setEmail(readString(reader));
+				break;
+			case "boleto":
+				BigDecimal boleto = readDecimal(reader);
+				if (boleto != null) {
+					cliente.setBoleto(boleto);
+				}
+				break;
+			case "telefones":
+				cliente.setTelefones(readSet(reader, telefoneCodec, decoderContext));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		registrarLido(reader, inicio, colecao);
+		return cliente;
+	}
+
+	@Override
+	public Class<Cliente> getEncoderClass() {
+		return Cliente.class;
+	}
+
+}
@@ -0,0 +1,132 @@
+package br.com.contmatic.codec;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.bson.BsonBinaryReader;
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.metricas.Instrumentacao;
+
+/**
+ * Leitura e escrita dos tipos usados pelos codecs das entidades.
+ *
+ * Os valores seguem o mesmo formato que o JSON do toString gerava, para que
+ * documentos gravados pelos codecs continuem legíveis pelas assemblies.
+ *
+ * @author gabriel.santos
+ */
+final class CodecSuporte {
+
+	private CodecSuporte() {
+	}
+
+	static void writeString(BsonWriter writer, String nome, String valor) {
+		if (valor != null) {
+			writer.writeString(nome, valor);
+		}
+	}
+
+	static void writeEnum(BsonWriter writer, String nome, Enum<?> valor) {
+		if (valor != null) {
+			writer.writeString(nome, valor.name());
+		}
+	}
+
+	static void writeDecimal(BsonWriter writer, String nome, BigDecimal valor) {
+		if (valor != null) {
+			writer.writeDouble(nome, valor.doubleValue());
+		}
+	}
+
+	static <T> void writeArray(BsonWriter writer, String nome, Collection<T> valores, Codec<T> codec,
+			EncoderContext encoderContext) {
+		if (valores == null) {
+			return;
+		}
+		writer.writeStartArray(nome);
+		for (T valor : valores) {
+			encoderContext.encodeWithChildContext(codec, writer, valor);
+		}
+		writer.writeEndArray();
+	}
+
+	static String readString(BsonReader reader) {
+		if (reader.getCurrentBsonType() == BsonType.NULL) {
+			reader.readNull();
+			return null;
+		}
+		return reader.readString();
+	}
+
+	static Integer readInteger(BsonReader reader) {
+		switch (reader.getCurrentBsonType()) {
+		case INT32:
+			return reader.readInt32();
+		case INT64:
+			return (int) reader.readInt64();
+		case DOUBLE:
+			return (int) reader.readDouble();
+		default:
+			reader.skipValue();
+			return null;
+		}
+	}
+
+	static BigDecimal readDecimal(BsonReader reader) {
+		switch (reader.getCurrentBsonType()) {
+		case DOUBLE:
+			return BigDecimal.valueOf(reader.readDouble()).setScale(2, RoundingMode.HALF_UP);
+		case INT32:
+			return BigDecimal.valueOf(reader.readInt32()).setScale(2);
+		case INT64:
+			return BigDecimal.valueOf(reader.readInt64()).setScale(2);
+		case DECIMAL128:
+			return reader.readDecimal128().bigDecimalValue().setScale(2, RoundingMode.HALF_UP);
+		default:
+			reader.skipValue();
+			return null;
+		}
+	}
+
+	static <T> Set<T> readSet(BsonReader reader, Codec<T> codec, DecoderContext decoderContext) {
+		if (reader.getCurrentBsonType() != BsonType.ARRAY) {
+			reader.skipValue();
+			return null;
+		}
+		Set<T> valores = new HashSet<T>();
+		reader.readStartArray();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			valores.add(decoderContext.decodeWithChildContext(codec, reader));
+		}
+		reader.readEndArray();
+		return valores;
+	}
+
+	/**
+	 * A posição do leitor no BSON, ou -1 quando ele não lê de bytes, como o
+	 * BsonDocumentReader.
+	 */
+	static int posicao(BsonReader reader) {
+		return reader instanceof BsonBinaryReader ? ((BsonBinaryReader) reader).getBsonInput().getPosition() : -1;
+	}
+
+	/**
+	 * Registra em documento.lido o tamanho em bytes do documento lido desde a
+	 * posição inicial.
+	 */
+	static void registrarLido(BsonReader reader, int inicio, String colecao) {
+		if (inicio >= 0) {
+			Instrumentacao.getMetricas().registrarValor("documento.lido", colecao, posicao(reader) - inicio);
+		}
+	}
+
+}
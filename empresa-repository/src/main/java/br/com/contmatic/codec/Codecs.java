@@ -0,0 +1,33 @@
+package br.com.contmatic.codec;
+
+import static org.bson.codecs.configuration.CodecRegistries.fromCodecs;
+import static org.bson.codecs.configuration.CodecRegistries.fromRegistries;
+
+import org.bson.codecs.configuration.CodecRegistry;
+
+import com.mongodb.MongoClientSettings;
+
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.service.FuncionarioService;
+
+/**
+ * Registro com os codecs das entidades, encadeado ao registro padrão do driver.
+ * Cada codec recebe o NAME_COLLECTION do serviço da sua entidade, usado nas
+ * métricas do tamanho dos documentos lidos.
+ *
+ * @author gabriel.santos
+ */
+public final class Codecs {
+
+	public static final CodecRegistry REGISTRY = fromRegistries(MongoClientSettings.getDefaultCodecRegistry(),
+			fromCodecs(new TelefoneCodec(), new EnderecoCodec(),
+					new EmpresaCodec(EmpresaService.NAME_COLLECTION), new ClienteCodec(ClienteService.NAME_COLLECTION),
+					new FornecedorCodec(FornecedorService.NAME_COLLECTION),
+					new FuncionarioCodec(FuncionarioService.NAME_COLLECTION), new ResumoCodec()));
+
+	private Codecs() {
+	}
+
+}
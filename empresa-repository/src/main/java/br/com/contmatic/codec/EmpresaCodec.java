@@ -0,0 +1,88 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.posicao;
+import static br.com.contmatic.codec.CodecSuporte.readSet;
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.registrarLido;
+import static br.com.contmatic.codec.CodecSuporte.writeArray;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.empresa.Empresa;
+
+public class EmpresaCodec implements Codec<Empresa> {
+
+	private final TelefoneCodec telefoneCodec = new TelefoneCodec();
+
+	private final EnderecoCodec enderecoCodec = new EnderecoCodec();
+
+	private final String colecao;
+
+	/**
+	 * @param colecao nome da coleção com que o tamanho dos documentos lidos é
+	 *                registrado nas métricas
+	 */
+	public EmpresaCodec(String colecao) {
+		this.colecao = colecao;
+	}
+
+	@Override
+	public void encode(BsonWriter writer, Empresa empresa, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "_id", empresa.getCnpj());
+		writeString(writer, "cnpj", empresa.getCnpj());
+		writeString(writer, "nome", empresa.getNome());
+		writeString(writer, "site", empresa.getSite());
+		writeArray(writer, "telefones", empresa.getTelefone(), telefoneCodec, encoderContext);
+		writeArray(writer, "enderecos", empresa.getEndereco(), enderecoCodec, encoderContext);
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Empresa decode(BsonReader reader, DecoderContext decoderContext) {
+		Empresa empresa = new Empresa();
+		int inicio = posicao(reader);
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "cnpj":
+				empresa.setCnpj(readString(reader));
+				break;
+			case "nome":
+				empresa.setNome(readString(reader));
+				break;
+			case "site":
+				empresa.setSite(readString(reader));
+				break;
+			case "telefones":
+				empresa.setTelefones(readSet(reader, telefoneCodec, decoderContext));
+				break;
+			case "enderecos":
+				empresa.setEnderecos(readSet(reader, enderecoCodec, decoderContext));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		registrarLido(reader, inicio, colecao);
+		return empresa;
+	}
+
+	@Override
+	public Class<Empresa> getEncoderClass() {
+		return Empresa.class;
+	}
+
+}
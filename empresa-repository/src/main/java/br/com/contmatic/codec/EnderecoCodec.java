@@ -0,0 +1,81 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.readInteger;
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.writeEnum;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.endereco.Endereco;
+import br.com.contmatic.endereco.Estado;
+
+public class EnderecoCodec implements Codec<Endereco> {
+
+	@Override
+	public void encode(BsonWriter writer, Endereco endereco, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "cep", endereco.getCep());
+		writeString(writer, "rua", endereco.getRua());
+		writer.writeInt32("numero", endereco.getNumero());
+		writeString(writer, "complemento", endereco.getComplemento());
+		writeString(writer, "bairro", endereco.getBairro());
+		writeString(writer, "cidade", endereco.getCidade());
+		writeEnum(writer, "estado", endereco.getEstado());
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Endereco decode(BsonReader reader, DecoderContext decoderContext) {
+		Endereco endereco = new Endereco();
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "cep":
+				endereco.setCep(readString(reader));
+				break;
+			case "rua":
+				endereco.setRua(readString(reader));
+				break;
+			case "numero":
+				Integer numero = readInteger(reader);
+				if (numero != null) {
+					endereco.setNumero(numero);
+				}
+				break;
+			case "complemento":
+				endereco.setComplemento(readString(reader));
+				break;
+			case "bairro":
+				endereco.setBairro(readString(reader));
+				break;
+			case "cidade":
+				endereco.setCidade(readString(reader));
+				break;
+			case "estado":
+				endereco.setEstado(Estado.valueOf(reader.readString()));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		return endereco;
+	}
+
+	@Override
+	public Class<Endereco> getEncoderClass() {
+		return Endereco.class;
+	}
+
+}
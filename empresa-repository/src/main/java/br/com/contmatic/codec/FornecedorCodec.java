@@ -0,0 +1,88 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.posicao;
+import static br.com.contmatic.codec.CodecSuporte.readSet;
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.registrarLido;
+import static br.com.contmatic.codec.CodecSuporte.writeArray;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.empresa.Fornecedor;
+
+public class FornecedorCodec implements Codec<Fornecedor> {
+
+	private final TelefoneCodec telefoneCodec = new TelefoneCodec();
+
+	private final EnderecoCodec enderecoCodec = new EnderecoCodec();
+
+	private final String colecao;
+
+	/**
+	 * @param colecao nome da coleção com que o tamanho dos documentos lidos é
+	 *                registrado nas métricas
+	 */
+	public FornecedorCodec(String colecao) {
+		this.colecao = colecao;
+	}
+
+	@Override
+	public void encode(BsonWriter writer, Fornecedor fornecedor, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "_id", fornecedor.getCnpj());
+		writeString(writer, "cnpj", fornecedor.getCnpj());
+		writeString(writer, "nome", fornecedor.getNome());
+		writeString(writer, "produto", fornecedor.getProduto());
+		writeArray(writer, "telefones", fornecedor.getTelefone(), telefoneCodec, encoderContext);
+		writeArray(writer, "enderecos", fornecedor.getEndereco(), enderecoCodec, encoderContext);
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Fornecedor decode(BsonReader reader, DecoderContext decoderContext) {
+		Fornecedor fornecedor = new Fornecedor();
+		int inicio = posicao(reader);
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "cnpj":
+				fornecedor.setCnpj(readString(reader));
+				break;
+			case "nome":
+				fornecedor.setNome(readString(reader));
+				break;
+			case "produto":
+				fornecedor.setProduto(readString(reader));
+				break;
+			case "telefones":
+				fornecedor.setTelefones(readSet(reader, telefoneCodec, decoderContext));
+				break;
+			case "enderecos":
+				fornecedor.setEnderecos(readSet(reader, enderecoCodec, decoderContext));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		registrarLido(reader, inicio, colecao);
+		return fornecedor;
+	}
+
+	@Override
+	public Class<Fornecedor> getEncoderClass() {
+		return Fornecedor.class;
+	}
+
+}
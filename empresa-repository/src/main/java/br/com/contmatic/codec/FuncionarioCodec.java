@@ -0,0 +1,120 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.readDecimal;
+import static br.com.contmatic.codec.CodecSuporte.readInteger;
+import static br.com.contmatic.codec.CodecSuporte.posicao;
+import static br.com.contmatic.codec.CodecSuporte.readSet;
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.registrarLido;
+import static br.com.contmatic.codec.CodecSuporte.writeArray;
+import static br.com.contmatic.codec.CodecSuporte.writeDecimal;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import java.math.BigDecimal;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.joda.time.LocalDate;
+
+import br.com.contmatic.empresa.Funcionario;
+
+public class FuncionarioCodec implements Codec<Funcionario> {
+
+	private final TelefoneCodec telefoneCodec = new TelefoneCodec();
+
+	private final EnderecoCodec enderecoCodec = new EnderecoCodec();
+
+	private final String colecao;
+
+	/**
+	 * @param colecao nome da coleção com que o tamanho dos documentos lidos é
+	 *                registrado nas métricas
+	 */
+	public FuncionarioCodec(String colecao) {
+		this.colecao = colecao;
+	}
+
+	@Override
+	public void encode(BsonWriter writer, Funcionario funcionario, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "_id", funcionario.getCpf());
+		writeString(writer, "cpf", funcionario.getCpf());
+		writeString(writer, "nome", funcionario.getNome());
+		if (funcionario.getIdade() != null) {
+			writer.writeInt32("idade", funcionario.getIdade());
+		}
+		writeDecimal(writer, "salario", funcionario.getSalario());
+		writeData(writer, "dataContratacao", funcionario.getDataContratacao());
+		writeData(writer, "dataSalario", funcionario.getDataSalario());
+		writeArray(writer, "telefones", funcionario.getTelefone(), telefoneCodec, encoderContext);
+		writeArray(writer, "enderecos", funcionario.getEndereco(), enderecoCodec, encoderContext);
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Funcionario decode(BsonReader reader, DecoderContext decoderContext) {
+		Funcionario funcionario = new Funcionario();
+		int inicio = posicao(reader);
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "cpf":
+				funcionario.setCpf(readString(reader));
+				break;
+			case "nome":
+				funcionario.setNome(readString(reader));
+				break;
+			case "idade":
+				Integer idade = readInteger(reader);
+				if (idade != null) {
+					funcionario.setIdade(idade);
+				}
+				break;
+			case "salario":
+				BigDecimal salario = readDecimal(reader);
+				if (salario != null) {
+					funcionario.setSalario(salario);
+				}
+				break;
+			case "dataContratacao":
+				funcionario.setDataContratacao(LocalDate.parse(reader.readString()));
+				break;
+			case "dataSalario":
+				funcionario.setDataSalario(LocalDate.parse(reader.readString()));
+				break;
+			case "telefones":
+				funcionario.setTelefones(readSet(reader, telefoneCodec, decoderContext));
+				break;
+			case "enderecos":
+				funcionario.setEnderecos(readSet(reader, enderecoCodec, decoderContext));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		registrarLido(reader, inicio, colecao);
+		return funcionario;
+	}
+
+	@Override
+	public Class<Funcionario> getEncoderClass() {
+		return Funcionario.class;
+	}
+
+	private static void writeData(BsonWriter writer, String nome, LocalDate data) {
+		if (data != null) {
+			writer.writeString(nome, data.toString());
+		}
+	}
+
+}
@@ -0,0 +1,64 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+import static com.mongodb.client.model.Projections.include;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.bson.conversions.Bson;
+
+import br.com.contmatic.empresa.Resumo;
+
+/**
+ * Lê só o _id e o nome de qualquer uma das entidades.
+ *
+ * Os demais campos são pulados no BSON sem serem decodificados, então mesmo
+ * sem projeção as listas de telefones e endereços não geram objetos. Com a
+ * PROJECAO elas nem chegam a ser enviadas pelo banco.
+ *
+ * @author gabriel.santos
+ */
+public class ResumoCodec implements Codec<Resumo> {
+
+	public static final Bson PROJECAO = include("nome");
+
+	@Override
+	public void encode(BsonWriter writer, Resumo resumo, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeString(writer, "_id", resumo.getChave());
+		writeString(writer, "nome", resumo.getNome());
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Resumo decode(BsonReader reader, DecoderContext decoderContext) {
+		String chave = null;
+		String nome = null;
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			switch (reader.readName()) {
+			case "_id":
+				chave = readString(reader);
+				break;
+			case "nome":
+				nome = readString(reader);
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		return new Resumo(chave, nome);
+	}
+
+	@Override
+	public Class<Resumo> getEncoderClass() {
+		return Resumo.class;
+	}
+
+}
@@ -0,0 +1,62 @@
+package br.com.contmatic.codec;
+
+import static br.com.contmatic.codec.CodecSuporte.readString;
+import static br.com.contmatic.codec.CodecSuporte.writeEnum;
+import static br.com.contmatic.codec.CodecSuporte.writeString;
+
+import org.bson.BsonReader;
+import org.bson.BsonType;
+import org.bson.BsonWriter;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+
+import br.com.contmatic.telefone.Telefone;
+import br.com.contmatic.telefone.TelefoneDDD;
+import br.com.contmatic.telefone.TipoTelefone;
+
+public class TelefoneCodec implements Codec<Telefone> {
+
+	@Override
+	public void encode(BsonWriter writer, Telefone telefone, EncoderContext encoderContext) {
+		writer.writeStartDocument();
+		writeEnum(writer, "tipoTelefone", telefone.getTipoTelefone());
+		writeEnum(writer, "ddd", telefone.getDdd());
+		writeString(writer, "numero", telefone.getNumero());
+		writer.writeEndDocument();
+	}
+
+	@Override
+	public Telefone decode(BsonReader reader, DecoderContext decoderContext) {
+		Telefone telefone = new Telefone();
+		reader.readStartDocument();
+		while (reader.readBsonType() != BsonType.END_OF_DOCUMENT) {
+			String nome = reader.readName();
+			if (reader.getCurrentBsonType() == BsonType.NULL) {
+				reader.readNull();
+				continue;
+			}
+			switch (nome) {
+			case "tipoTelefone":
+				telefone.setTipoTelefone(TipoTelefone.valueOf(reader.readString()));
+				break;
+			case "ddd":
+				telefone.setDdd(TelefoneDDD.valueOf(reader.readString()));
+				break;
+			case "numero":
+				telefone.setNumero(readString(reader));
+				break;
+			default:
+				reader.skipValue();
+			}
+		}
+		reader.readEndDocument();
+		return telefone;
+	}
+
+	@Override
+	public Class<Telefone> getEncoderClass() {
+		return Telefone.class;
+	}
+
+}
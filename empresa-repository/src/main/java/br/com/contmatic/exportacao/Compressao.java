@@ -0,0 +1,54 @@
+package br.com.contmatic.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A compressão dos arquivos exportados.
+ *
+ * O ZSTD usa o zstd-jni, que é dependência opcional e precisa estar no
+ * classpath de quem o escolher. As classes do zstd-jni só são carregadas pela
+ * CompressaoZstd, ao abrir um arquivo com ZSTD, então as outras compressões
+ * funcionam sem ele.
+ *
+ * @author gabriel.santos
+ */
+public enum Compressao {
+
+	NENHUMA("") {
+		@Override
+		OutputStream abrir(OutputStream saida) {
+			return saida;
+		}
+	},
+
+	GZIP(".gz") {
+		@Override
+		OutputStream abrir(OutputStream saida) throws IOException {
+			return new GZIPOutputStream(saida, TAMANHO_BUFFER);
+		}
+	},
+
+	ZSTD(".zst") {
+		@Override
+		OutputStream abrir(OutputStream saida) throws IOException {
+			return CompressaoZstd.abrir(saida);
+		}
+	};
+
+	private static final int TAMANHO_BUFFER = 64 * 1024;
+
+	private final String extensao;
+
+	private Compressao(String extensao) {
+		this.extensao = extensao;
+	}
+
+	public String getExtensao() {
+		return extensao;
+	}
+
+	abstract OutputStream abrir(OutputStream saida) throws IOException;
+
+}
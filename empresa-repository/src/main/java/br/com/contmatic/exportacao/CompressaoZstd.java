@@ -0,0 +1,23 @@
+package br.com.contmatic.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import com.github.luben.zstd.ZstdOutputStream;
+
+/**
+ * Isola o uso do zstd-jni fora da Compressao, para que carregar o enum não
+ * exija a dependência opcional.
+ *
+ * @author gabriel.santos
+ */
+final class CompressaoZstd {
+
+	private CompressaoZstd() {
+	}
+
+	static OutputStream abrir(OutputStream saida) throws IOException {
+		return new ZstdOutputStream(saida);
+	}
+
+}
@@ -0,0 +1,260 @@
+package br.com.contmatic.exportacao;
+
+import static com.mongodb.client.model.Aggregates.project;
+import static com.mongodb.client.model.Aggregates.sample;
+import static com.mongodb.client.model.Aggregates.sort;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+import static java.util.Arrays.asList;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.ByteBuf;
+import org.bson.RawBsonDocument;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+import com.mongodb.client.MongoCursor;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.metricas.Instrumentacao;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.service.FuncionarioService;
+
+/**
+ * Exporta coleções inteiras para arquivos, em paralelo.
+ *
+ * Cada coleção é dividida em faixas de _id a partir de uma amostra ($sample)
+ * dos ids, e cada faixa vira um arquivo exportado por uma das threads, então
+ * uma coleção grande também é lida em paralelo. Os documentos são lidos como
+ * RawBsonDocument, sem passar pelas entidades: no formato BSON os bytes vão
+ * direto para o arquivo, e no NDJSON são convertidos em JSON sem montar um
+ * Document. A gravação usa um FileChannel com um buffer direto por thread.
+ *
+ * O progresso fica em exportacao.json no diretório. Chamar exportar de novo
+ * no mesmo diretório pula as partições concluídas e refaz só as que foram
+ * interrompidas. Para uma nova exportação, use outro diretório.
+ *
+ * @author gabriel.santos
+ */
+public class ExportacaoService {
+
+	public static final int PARTICOES_POR_COLECAO_PADRAO = 8;
+
+	/**
+	 * Ids sorteados por partição para escolher os limites.
+	 */
+	private static final int AMOSTRAS_POR_PARTICAO = 20;
+
+	private static final int TAMANHO_LOTE = 1000;
+
+	private static final JsonWriterSettings RELAXED = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED)
+			.build();
+
+	private static final ThreadLocal<ByteBuffer> BUFFERS = ThreadLocal
+			.withInitial(() -> ByteBuffer.allocateDirect(SaidaCanal.TAMANHO_BUFFER));
+
+	private final MongoDatabase database;
+
+	private final Path diretorio;
+
+	private final FormatoExportacao formato;
+
+	private final Compressao compressao;
+
+	private final int threads;
+
+	private final int particoesPorColecao;
+
+	public ExportacaoService(MongoDatabase database, Path diretorio) {
+		this(database, diretorio, FormatoExportacao.NDJSON, Compressao.GZIP, Runtime.getRuntime().availableProcessors(),
+				PARTICOES_POR_COLECAO_PADRAO);
+	}
+
+	public ExportacaoService(MongoDatabase database, Path diretorio, FormatoExportacao formato, Compressao compressao,
+			int threads, int particoesPorColecao) {
+		if (threads < 1 || particoesPorColecao < 1) {
+			throw new IllegalArgumentException("As threads e as partições devem ser maiores que zero");
+		}
+		this.database = database;
+		this.diretorio = diretorio;
+		this.formato = formato;
+		this.compressao = compressao;
+		this.threads = threads;
+		this.particoesPorColecao = particoesPorColecao;
+	}
+
+	/**
+	 * Exporta empresa, cliente, Fornecedor e Funcionario.
+	 */
+	public ResultadoExportacao exportar() throws IOException, InterruptedException {
+		return exportar(EmpresaService.NAME_COLLECTION, ClienteService.NAME_COLLECTION,
+				FornecedorService.NAME_COLLECTION, FuncionarioService.NAME_COLLECTION);
+	}
+
+	/**
+	 * Exporta as coleções, retomando do ponto de controle do diretório se ele
+	 * existir. Na primeira falha as outras partições são interrompidas e a
+	 * exceção é lançada; o que já foi concluído fica no ponto de controle.
+	 */
+	public ResultadoExportacao exportar(String... colecoes) throws IOException, InterruptedException {
+		long inicio = System.nanoTime();
+		Files.createDirectories(diretorio);
+		PontoDeControle ponto = PontoDeControle.abrir(diretorio, formato, compressao);
+		ResultadoExportacao resultado = new ResultadoExportacao();
+		List<Particao> pendentes = new ArrayList<Particao>();
+		for (String colecao : colecoes) {
+			for (Particao particao : Particao.dividir(colecao, limites(ponto, colecao))) {
+				if (ponto.isConcluida(particao)) {
+					resultado.retomada(colecao, ponto.getDocumentos(particao));
+				} else {
+					pendentes.add(particao);
+				}
+			}
+		}
+		if (!pendentes.isEmpty()) {
+			ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, pendentes.size()));
+			try {
+				List<Future<Void>> tarefas = new ArrayList<Future<Void>>(pendentes.size());
+				for (Particao particao : pendentes) {
+					tarefas.add(executor.submit(() -> {
+						exportar(particao, ponto, resultado);
+						return null;
+					}));
+				}
+				for (Future<Void> tarefa : tarefas) {
+					aguardar(tarefa);
+				}
+			} finally {
+				executor.shutdownNow();
+			}
+		}
+		resultado.setDuracaoMillis(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio));
+		return resultado;
+	}
+
+	private List<BsonValue> limites(PontoDeControle ponto, String colecao) throws IOException {
+		List<BsonValue> limites = ponto.getLimites(colecao);
+		if (limites == null) {
+			limites = sortearLimites(colecao);
+			ponto.setLimites(colecao, limites);
+		}
+		return limites;
+	}
+
+	/**
+	 * Sorteia ids da coleção, já ordenados pelo banco, e usa os quantis como
+	 * limites. Coleções com poucos documentos ficam com menos partições. Os
+	 * limites saem só dos ids do tipo mais sorteado, porque uma faixa não
+	 * encontra ids de outro tipo; esses vão para a partição dos demais tipos.
+	 */
+	private List<BsonValue> sortearLimites(String colecao) {
+		List<BsonValue> limites = new ArrayList<BsonValue>();
+		if (particoesPorColecao == 1) {
+			return limites;
+		}
+		List<BsonValue> ids = new ArrayList<BsonValue>();
+		for (BsonDocument document : database.getCollection(colecao, BsonDocument.class).aggregate(asList(
+				sample(particoesPorColecao * AMOSTRAS_POR_PARTICAO), project(include("_id")), sort(ascending("_id"))))) {
+			ids.add(document.get("_id"));
+		}
+		ids = doTipoMaisFrequente(ids);
+		for (int i = 1; i < particoesPorColecao && !ids.isEmpty(); i++) {
+			BsonValue limite = ids.get(i * ids.size() / particoesPorColecao);
+			if (limites.isEmpty() || !limites.get(limites.size() - 1).equals(limite)) {
+				limites.add(limite);
+			}
+		}
+		return limites;
+	}
+
+	private static List<BsonValue> doTipoMaisFrequente(List<BsonValue> ids) {
+		Map<String, List<BsonValue>> porTipo = new LinkedHashMap<String, List<BsonValue>>();
+		for (BsonValue id : ids) {
+			porTipo.computeIfAbsent(Particao.tipo(id), tipo -> new ArrayList<BsonValue>()).add(id);
+		}
+		List<BsonValue> maisFrequente = new ArrayList<BsonValue>();
+		for (List<BsonValue> doTipo : porTipo.values()) {
+			if (doTipo.size() > maisFrequente.size()) {
+				maisFrequente = doTipo;
+			}
+		}
+		return maisFrequente;
+	}
+
+	private void exportar(Particao particao, PontoDeControle ponto, ResultadoExportacao resultado) throws IOException {
+		long inicio = System.nanoTime();
+		boolean erro = true;
+		Path arquivo = diretorio.resolve(particao.nomeArquivo(formato, compressao));
+		try {
+			long documentos = 0;
+			SaidaCanal canal = new SaidaCanal(FileChannel.open(arquivo, CREATE, TRUNCATE_EXISTING, WRITE), BUFFERS.get());
+			try (OutputStream saida = compressao.abrir(canal);
+					MongoCursor<RawBsonDocument> cursor = database
+							.getCollection(particao.getColecao(), RawBsonDocument.class).find(particao.filtro())
+							.sort(ascending("_id")).batchSize(TAMANHO_LOTE).iterator()) {
+				while (cursor.hasNext()) {
+					escrever(cursor.next(), saida);
+					documentos++;
+				}
+			} finally {
+				canal.close();
+			}
+			ponto.concluir(particao, documentos, canal.getBytes());
+			resultado.exportada(particao.getColecao(), documentos, canal.getBytes());
+			Instrumentacao.getMetricas().incrementar("exportados", particao.getColecao(), documentos);
+			erro = false;
+		} finally {
+			Instrumentacao.getMetricas().registrarTempo("exportarParticao", particao.getColecao(),
+					System.nanoTime() - inicio, erro);
+		}
+	}
+
+	private void escrever(RawBsonDocument documento, OutputStream saida) throws IOException {
+		if (formato == FormatoExportacao.BSON) {
+			ByteBuf bytes = documento.getByteBuffer();
+			saida.write(bytes.array(), bytes.position(), bytes.remaining());
+		} else {
+			saida.write(documento.toJson(RELAXED).getBytes(UTF_8));
+			saida.write('\n');
+		}
+	}
+
+	private static void aguardar(Future<Void> tarefa) throws IOException, InterruptedException {
+		try {
+			tarefa.get();
+		} catch (ExecutionException e) {
+			Throwable causa = e.getCause();
+			if (causa instanceof IOException) {
+				throw (IOException) causa;
+			}
+			if (causa instanceof RuntimeException) {
+				throw (RuntimeException) causa;
+			}
+			throw new IllegalStateException(causa);
+		}
+	}
+
+}
@@ -0,0 +1,29 @@
+package br.com.contmatic.exportacao;
+
+/**
+ * O formato dos arquivos exportados.
+ *
+ * @author gabriel.santos
+ */
+public enum FormatoExportacao {
+
+	/** Um documento JSON (Extended JSON relaxado) por linha. */
+	NDJSON(".ndjson"),
+
+	/**
+	 * Os documentos BSON em sequência, como gravados no banco. Cada documento
+	 * começa pelo seu tamanho, o mesmo formato do mongodump.
+	 */
+	BSON(".bson");
+
+	private final String extensao;
+
+	private FormatoExportacao(String extensao) {
+		this.extensao = extensao;
+	}
+
+	public String getExtensao() {
+		return extensao;
+	}
+
+}
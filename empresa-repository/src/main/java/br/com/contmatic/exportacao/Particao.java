@@ -0,0 +1,108 @@
+package br.com.contmatic.exportacao;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.not;
+import static com.mongodb.client.model.Filters.type;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.BsonDocument;
+import org.bson.BsonType;
+import org.bson.BsonValue;
+import org.bson.conversions.Bson;
+
+/**
+ * Uma faixa de _id de uma coleção, exportada para um arquivo próprio. O
+ * início entra na faixa e o fim não; nulo deixa a faixa aberta daquele lado.
+ *
+ * O MongoDB só compara valores do mesmo tipo, então uma faixa com limites só
+ * encontra _id do tipo deles, mesmo aberta de um lado. Os _id de outros tipos
+ * ficam em uma partição à parte, que não é faixa.
+ *
+ * @author gabriel.santos
+ */
+final class Particao {
+
+	private static final String ID = "_id";
+
+	private static final String NUMERO = "number";
+
+	private final String colecao;
+
+	private final int numero;
+
+	private final BsonValue inicio;
+
+	private final BsonValue fim;
+
+	/** O tipo dos limites, na partição dos _id dos demais tipos. */
+	private final String excetoTipo;
+
+	Particao(String colecao, int numero, BsonValue inicio, BsonValue fim) {
+		this(colecao, numero, inicio, fim, null);
+	}
+
+	private Particao(String colecao, int numero, BsonValue inicio, BsonValue fim, String excetoTipo) {
+		this.colecao = colecao;
+		this.numero = numero;
+		this.inicio = inicio;
+		this.fim = fim;
+		this.excetoTipo = excetoTipo;
+	}
+
+	/**
+	 * As partições que os limites definem: uma antes do primeiro limite, uma
+	 * entre cada par e uma depois do último. Com limites, a última partição
+	 * leva os _id de tipo diferente do deles.
+	 */
+	static List<Particao> dividir(String colecao, List<BsonValue> limites) {
+		List<Particao> particoes = new ArrayList<Particao>(limites.size() + 2);
+		BsonValue inicio = null;
+		for (BsonValue limite : limites) {
+			particoes.add(new Particao(colecao, particoes.size(), inicio, limite));
+			inicio = limite;
+		}
+		particoes.add(new Particao(colecao, particoes.size(), inicio, null));
+		if (!limites.isEmpty()) {
+			particoes.add(new Particao(colecao, particoes.size(), null, null, tipo(limites.get(0))));
+		}
+		return particoes;
+	}
+
+	/**
+	 * O tipo do _id para a comparação do MongoDB, em que todos os tipos
+	 * numéricos contam como um só.
+	 */
+	static String tipo(BsonValue id) {
+		return id.isNumber() || id.isDecimal128() ? NUMERO : id.getBsonType().name();
+	}
+
+	Bson filtro() {
+		if (excetoTipo != null) {
+			return not(NUMERO.equals(excetoTipo) ? type(ID, NUMERO) : type(ID, BsonType.valueOf(excetoTipo)));
+		}
+		if (inicio == null && fim == null) {
+			return new BsonDocument();
+		}
+		if (inicio == null) {
+			return lt(ID, fim);
+		}
+		return fim == null ? gte(ID, inicio) : and(gte(ID, inicio), lt(ID, fim));
+	}
+
+	String getColecao() {
+		return colecao;
+	}
+
+	int getNumero() {
+		return numero;
+	}
+
+	String nomeArquivo(FormatoExportacao formato, Compressao compressao) {
+		return String.format("%s-%04d%s%s", colecao, numero, formato.getExtensao(), compressao.getExtensao());
+	}
+
+}
@@ -0,0 +1,120 @@
+package br.com.contmatic.exportacao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+/**
+ * O progresso de uma exportação, gravado em JSON no diretório dela.
+ *
+ * Guarda os limites das partições de cada coleção, para que uma exportação
+ * retomada divida as coleções do mesmo jeito, e as partições já concluídas,
+ * que não são exportadas de novo. O arquivo é reescrito em um temporário e
+ * movido por cima do anterior, então uma queda no meio da gravação não o
+ * corrompe.
+ *
+ * @author gabriel.santos
+ */
+final class PontoDeControle {
+
+	static final String ARQUIVO = "exportacao.json";
+
+	private static final JsonWriterSettings EXTENDED = JsonWriterSettings.builder().outputMode(JsonMode.EXTENDED)
+			.build();
+
+	private final Path arquivo;
+
+	private final BsonDocument estado;
+
+	private PontoDeControle(Path arquivo, BsonDocument estado) {
+		this.arquivo = arquivo;
+		this.estado = estado;
+	}
+
+	/**
+	 * Lê o ponto de controle do diretório, ou cria um novo. Recusa retomar
+	 * uma exportação feita com outro formato ou compressão.
+	 */
+	static PontoDeControle abrir(Path diretorio, FormatoExportacao formato, Compressao compressao)
+			throws IOException {
+		Path arquivo = diretorio.resolve(ARQUIVO);
+		if (!Files.exists(arquivo)) {
+			BsonDocument estado = new BsonDocument("formato", new BsonString(formato.name()))
+					.append("compressao", new BsonString(compressao.name()))
+					.append("colecoes", new BsonDocument());
+			return new PontoDeControle(arquivo, estado);
+		}
+		BsonDocument estado = BsonDocument.parse(new String(Files.readAllBytes(arquivo), UTF_8));
+		if (!formato.name().equals(estado.getString("formato").getValue())
+				|| !compressao.name().equals(estado.getString("compressao").getValue())) {
+			throw new IllegalStateException("A exportação em " + diretorio + " foi iniciada com "
+					+ estado.getString("formato").getValue() + " e " + estado.getString("compressao").getValue()
+					+ "; use outro diretório");
+		}
+		return new PontoDeControle(arquivo, estado);
+	}
+
+	/**
+	 * Os limites das partições da coleção, ou nulo se ela ainda não foi
+	 * dividida.
+	 */
+	synchronized List<BsonValue> getLimites(String colecao) {
+		BsonDocument registro = colecao(colecao);
+		return registro.containsKey("limites") ? new ArrayList<BsonValue>(registro.getArray("limites")) : null;
+	}
+
+	synchronized void setLimites(String colecao, List<BsonValue> limites) throws IOException {
+		colecao(colecao).put("limites", new BsonArray(limites));
+		gravar();
+	}
+
+	synchronized boolean isConcluida(Particao particao) {
+		return concluidas(particao.getColecao()).containsKey(String.valueOf(particao.getNumero()));
+	}
+
+	/**
+	 * Os documentos exportados pela partição concluída.
+	 */
+	synchronized long getDocumentos(Particao particao) {
+		return concluidas(particao.getColecao()).getDocument(String.valueOf(particao.getNumero()))
+				.getInt64("documentos").getValue();
+	}
+
+	synchronized void concluir(Particao particao, long documentos, long bytes) throws IOException {
+		concluidas(particao.getColecao()).put(String.valueOf(particao.getNumero()),
+				new BsonDocument("documentos", new BsonInt64(documentos)).append("bytes", new BsonInt64(bytes)));
+		gravar();
+	}
+
+	private BsonDocument colecao(String colecao) {
+		BsonDocument colecoes = estado.getDocument("colecoes");
+		if (!colecoes.containsKey(colecao)) {
+			colecoes.put(colecao, new BsonDocument("concluidas", new BsonDocument()));
+		}
+		return colecoes.getDocument(colecao);
+	}
+
+	private BsonDocument concluidas(String colecao) {
+		return colecao(colecao).getDocument("concluidas");
+	}
+
+	private void gravar() throws IOException {
+		Path temporario = arquivo.resolveSibling(ARQUIVO + ".tmp");
+		Files.write(temporario, estado.toJson(EXTENDED).getBytes(UTF_8));
+		Files.move(temporario, arquivo, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+}
@@ -0,0 +1,80 @@
+package br.com.contmatic.exportacao;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * O resultado de uma exportação, somando as partições exportadas agora e as
+ * que já estavam concluídas no ponto de controle.
+ *
+ * @author gabriel.santos
+ */
+public class ResultadoExportacao {
+
+	/** Documentos exportados por coleção. */
+	private final Map<String, Long> documentos = new TreeMap<String, Long>();
+
+	/** Partições exportadas nesta execução. */
+	private int particoesExportadas;
+
+	/** Partições puladas por já estarem concluídas. */
+	private int particoesRetomadas;
+
+	/** Bytes gravados nesta execução, depois da compressão. */
+	private long bytes;
+
+	/** Duração desta execução. */
+	private long duracaoMillis;
+
+	synchronized void exportada(String colecao, long documentosParticao, long bytesParticao) {
+		documentos.merge(colecao, documentosParticao, Long::sum);
+		particoesExportadas++;
+		bytes += bytesParticao;
+	}
+
+	synchronized void retomada(String colecao, long documentosParticao) {
+		documentos.merge(colecao, documentosParticao, Long::sum);
+		particoesRetomadas++;
+	}
+
+	void setDuracaoMillis(long duracaoMillis) {
+		this.duracaoMillis = duracaoMillis;
+	}
+
+	public synchronized Map<String, Long> getDocumentos() {
+		return new TreeMap<String, Long>(documentos);
+	}
+
+	public synchronized long getTotalDocumentos() {
+		long total = 0;
+		for (long quantidade : documentos.values()) {
+			total += quantidade;
+		}
+		return total;
+	}
+
+	public synchronized int getParticoesExportadas() {
+		return particoesExportadas;
+	}
+
+	public synchronized int getParticoesRetomadas() {
+		return particoesRetomadas;
+	}
+
+	public synchronized long getBytes() {
+		return bytes;
+	}
+
+	public long getDuracaoMillis() {
+		return duracaoMillis;
+	}
+
+	@Override
+	public synchronized String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
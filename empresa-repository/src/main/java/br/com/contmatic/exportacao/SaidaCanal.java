@@ -0,0 +1,96 @@
+package br.com.contmatic.exportacao;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * OutputStream que junta as gravações em um buffer direto e o envia ao
+ * FileChannel quando enche, sem a cópia extra de um buffer no heap. O buffer
+ * é do chamador, para ser reaproveitado entre arquivos.
+ *
+ * O close grava o restante e força os dados no disco, então um arquivo
+ * fechado sem erro pode ser marcado como concluído no ponto de controle.
+ *
+ * @author gabriel.santos
+ */
+final class SaidaCanal extends OutputStream {
+
+	static final int TAMANHO_BUFFER = 1024 * 1024;
+
+	private final FileChannel channel;
+
+	private final ByteBuffer buffer;
+
+	private long bytes;
+
+	SaidaCanal(FileChannel channel, ByteBuffer buffer) {
+		this.channel = channel;
+		this.buffer = buffer;
+		((Buffer) buffer).clear();
+	}
+
+	@Override
+	public void write(int b) throws IOException {
+		if (!buffer.hasRemaining()) {
+			esvaziar();
+		}
+		buffer.put((byte) b);
+		bytes++;
+	}
+
+	@Override
+	public void write(byte[] b, int off, int len) throws IOException {
+		int posicao = off;
+		int restante = len;
+		while (restante > 0) {
+			if (!buffer.hasRemaining()) {
+				esvaziar();
+			}
+			int parte = Math.min(restante, buffer.remaining());
+			buffer.put(b, posicao, parte);
+			posicao += parte;
+			restante -= parte;
+		}
+		bytes += len;
+	}
+
+	@Override
+	public void flush() throws IOException {
+		esvaziar();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (channel.isOpen()) {
+			try {
+				esvaziar();
+				channel.force(false);
+			} finally {
+				channel.close();
+			}
+		}
+	}
+
+	/**
+	 * Bytes gravados no arquivo, depois da compressão.
+	 */
+	long getBytes() {
+		return bytes;
+	}
+
+	/**
+	 * flip e clear pela Buffer, que no Java 8 não tem as versões covariantes
+	 * dos JDKs mais novos.
+	 */
+	private void esvaziar() throws IOException {
+		((Buffer) buffer).flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		((Buffer) buffer).clear();
+	}
+
+}
@@ -0,0 +1,103 @@
+package br.com.contmatic.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+
+/**
+ * Transforma as linhas dos arquivos em Document, no formato que as
+ * assemblies esperam.
+ *
+ * @author gabriel.santos
+ */
+final class Conversao {
+
+	private static final char SEPARADOR = ',';
+
+	private static final char ASPAS = '"';
+
+	private Conversao() {
+	}
+
+	static Document documento(Registro registro, FormatoImportacao formato) {
+		if (formato == FormatoImportacao.NDJSON) {
+			return Document.parse(registro.getTexto());
+		}
+		List<String> cabecalho = registro.getCabecalho();
+		List<String> colunas = colunas(registro.getTexto());
+		if (colunas.size() != cabecalho.size()) {
+			throw new IllegalArgumentException(
+					"A linha tem " + colunas.size() + " colunas e o cabeçalho tem " + cabecalho.size());
+		}
+		Document document = new Document();
+		for (int i = 0; i < colunas.size(); i++) {
+			Object valor = valor(colunas.get(i));
+			if (valor != null) {
+				document.append(cabecalho.get(i), valor);
+			}
+		}
+		return document;
+	}
+
+	/**
+	 * Separa as colunas de uma linha CSV. Entre aspas a vírgula faz parte do
+	 * valor, e duas aspas seguidas viram uma.
+	 */
+	static List<String> colunas(String linha) {
+		List<String> colunas = new ArrayList<String>();
+		StringBuilder atual = new StringBuilder();
+		boolean entreAspas = false;
+		for (int i = 0; i < linha.length(); i++) {
+			char c = linha.charAt(i);
+			if (entreAspas) {
+				if (c != ASPAS) {
+					atual.append(c);
+				} else if (i + 1 < linha.length() && linha.charAt(i + 1) == ASPAS) {
+					atual.append(ASPAS);
+					i++;
+				} else {
+					entreAspas = false;
+				}
+			} else if (c == ASPAS) {
+				entreAspas = true;
+			} else if (c == SEPARADOR) {
+				colunas.add(atual.toString());
+				atual.setLength(0);
+			} else {
+				atual.append(c);
+			}
+		}
+		if (entreAspas) {
+			throw new IllegalArgumentException("A linha tem aspas sem fechamento");
+		}
+		colunas.add(atual.toString());
+		return colunas;
+	}
+
+	/**
+	 * O motivo da rejeição de um registro que não pôde ser convertido.
+	 */
+	static String motivo(RuntimeException e) {
+		return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+	}
+
+	/**
+	 * Colunas vazias ficam de fora do documento, e colunas com uma lista ou um
+	 * documento JSON são lidas como tal. O resto fica como texto.
+	 */
+	private static Object valor(String coluna) {
+		String valor = coluna.trim();
+		if (valor.isEmpty()) {
+			return null;
+		}
+		if (valor.charAt(0) == '[') {
+			return Document.parse("{\"valor\": " + valor + "}").get("valor");
+		}
+		if (valor.charAt(0) == '{') {
+			return Document.parse(valor);
+		}
+		return valor;
+	}
+
+}
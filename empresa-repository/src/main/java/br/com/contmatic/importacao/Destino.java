@@ -0,0 +1,74 @@
+package br.com.contmatic.importacao;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.bson.Document;
+
+import br.com.contmatic.assembly.Assembly;
+import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Identificavel;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+
+/**
+ * A coleção de destino de uma importação e como montar as suas entidades.
+ *
+ * @author gabriel.santos
+ */
+final class Destino<T extends Identificavel> {
+
+	static final Destino<Empresa> EMPRESA = new Destino<Empresa>(EmpresaService.NAME_COLLECTION, Empresa.class,
+			new EmpresaResourceAssembly());
+
+	static final Destino<Cliente> CLIENTE = new Destino<Cliente>(ClienteService.NAME_COLLECTION, Cliente.class,
+			new ClienteResourceAssembly(), "boleto");
+
+	private final String colecao;
+
+	private final Class<T> classe;
+
+	private final Assembly<T, Document> assembly;
+
+	/** Campos que a assembly lê como Double. */
+	private final List<String> camposDecimais;
+
+	private Destino(String colecao, Class<T> classe, Assembly<T, Document> assembly, String... camposDecimais) {
+		this.colecao = colecao;
+		this.classe = classe;
+		this.assembly = assembly;
+		this.camposDecimais = Arrays.asList(camposDecimais);
+	}
+
+	String getColecao() {
+		return colecao;
+	}
+
+	Class<T> getClasse() {
+		return classe;
+	}
+
+	/**
+	 * Monta a entidade pela assembly. Os campos decimais chegam como texto no
+	 * CSV e como inteiro ou Decimal128 no JSON, e são passados para Double.
+	 */
+	T converter(Document document) {
+		for (String campo : camposDecimais) {
+			Object valor = document.get(campo);
+			if (valor instanceof Number) {
+				document.put(campo, ((Number) valor).doubleValue());
+			} else if (valor instanceof String) {
+				try {
+					document.put(campo, Double.valueOf((String) valor));
+				} catch (NumberFormatException e) {
+					throw new IllegalArgumentException("O campo " + campo + " não é um número: " + valor, e);
+				}
+			}
+		}
+		return assembly.toResource(document);
+	}
+
+}
@@ -0,0 +1,74 @@
+package br.com.contmatic.importacao;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Os contadores de uma etapa, somados por todas as suas threads.
+ *
+ * @author gabriel.santos
+ */
+final class Etapa {
+
+	private final String nome;
+
+	private final int trabalhadores;
+
+	private final AtomicInteger ativos;
+
+	private final AtomicLong recebidos = new AtomicLong();
+
+	private final AtomicLong aceitos = new AtomicLong();
+
+	private final AtomicLong ocupadoNanos = new AtomicLong();
+
+	private final AtomicLong esperandoEntradaNanos = new AtomicLong();
+
+	private final AtomicLong esperandoSaidaNanos = new AtomicLong();
+
+	Etapa(String nome, int trabalhadores) {
+		this.nome = nome;
+		this.trabalhadores = trabalhadores;
+		this.ativos = new AtomicInteger(trabalhadores);
+	}
+
+	String getNome() {
+		return nome;
+	}
+
+	int getTrabalhadores() {
+		return trabalhadores;
+	}
+
+	long getAceitos() {
+		return aceitos.get();
+	}
+
+	void processou(int recebidosBloco, int aceitosBloco, long nanos) {
+		recebidos.addAndGet(recebidosBloco);
+		aceitos.addAndGet(aceitosBloco);
+		ocupadoNanos.addAndGet(nanos);
+	}
+
+	void esperouEntrada(long nanos) {
+		esperandoEntradaNanos.addAndGet(nanos);
+	}
+
+	void esperouSaida(long nanos) {
+		esperandoSaidaNanos.addAndGet(nanos);
+	}
+
+	/**
+	 * Marca o fim de uma thread da etapa. Devolve true para a última, que
+	 * avisa a etapa seguinte.
+	 */
+	boolean terminar() {
+		return ativos.decrementAndGet() == 0;
+	}
+
+	ResultadoEtapa resultado(long duracaoNanos) {
+		return new ResultadoEtapa(nome, trabalhadores, recebidos.get(), aceitos.get(), ocupadoNanos.get(),
+				esperandoEntradaNanos.get(), esperandoSaidaNanos.get(), duracaoNanos);
+	}
+
+}
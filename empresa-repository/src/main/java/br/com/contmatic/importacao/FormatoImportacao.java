@@ -0,0 +1,22 @@
+package br.com.contmatic.importacao;
+
+/**
+ * O formato dos arquivos importados, sempre um registro por linha em UTF-8.
+ *
+ * @author gabriel.santos
+ */
+public enum FormatoImportacao {
+
+	/**
+	 * Separado por vírgula, com os nomes dos campos na primeira linha. Valores
+	 * com vírgula ficam entre aspas, e listas como telefones e enderecos vão
+	 * na coluna como JSON, por exemplo "[{""ddd"": ""DDD11"", ...}]".
+	 */
+	CSV,
+
+	/**
+	 * Um documento JSON por linha, como o gerado pela ExportacaoService.
+	 */
+	NDJSON
+
+}
@@ -0,0 +1,395 @@
+package br.com.contmatic.importacao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import javax.validation.ConstraintViolation;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.InsertManyOptions;
+
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.empresa.Identificavel;
+import br.com.contmatic.groups.Post;
+import br.com.contmatic.metricas.Instrumentacao;
+import br.com.contmatic.validacao.ValidacaoService;
+
+/**
+ * Importa empresas e clientes de arquivos CSV ou NDJSON.
+ *
+ * A importação é dividida em quatro etapas, cada uma com as suas threads:
+ * leitura das linhas, conversão em entidade pelas assemblies, validação no
+ * grupo Post e gravação com insertMany não ordenado. As etapas trocam blocos
+ * de registros por filas limitadas, então a memória fica presa à capacidade
+ * das filas e a etapa mais lenta segura as anteriores. Cada thread de
+ * leitura lê um arquivo inteiro por vez, então mais de uma só ajuda com
+ * vários arquivos.
+ *
+ * Registros que não convertem, não validam ou são recusados pelo banco, como
+ * os de chave duplicada, vão para o arquivo de rejeitados com os motivos, e
+ * a importação continua. Uma falha de rede também rejeita o lote inteiro. Só
+ * um erro de leitura ou escrita de arquivo interrompe a importação.
+ *
+ * @author gabriel.santos
+ */
+public class ImportacaoService {
+
+	public static final int GRAVADORES_PADRAO = 4;
+
+	public static final int TAMANHO_LOTE_PADRAO = 1000;
+
+	public static final int CAPACIDADE_FILA_PADRAO = 16;
+
+	/**
+	 * Registros por bloco entre as etapas, para não pagar a fila por registro.
+	 */
+	static final int TAMANHO_BLOCO = 256;
+
+	private static final InsertManyOptions NAO_ORDENADO = new InsertManyOptions().ordered(false);
+
+	private static final int CODIGO_CHAVE_DUPLICADA = 11000;
+
+	private static final char BOM = '\uFEFF';
+
+	/**
+	 * Marca o fim dos blocos de uma fila, um para cada thread da etapa
+	 * seguinte. Comparado por identidade.
+	 */
+	private static final List<Registro> FIM = new ArrayList<Registro>(0);
+
+	private final MongoDatabase database;
+
+	private final int leitores;
+
+	private final int conversores;
+
+	private final int validadores;
+
+	private final int gravadores;
+
+	private final int tamanhoLote;
+
+	private final int capacidadeFila;
+
+	public ImportacaoService(MongoDatabase database) {
+		this(database, 1, Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+				GRAVADORES_PADRAO, TAMANHO_LOTE_PADRAO, CAPACIDADE_FILA_PADRAO);
+	}
+
+	/**
+	 * @param capacidadeFila os blocos que cabem em cada fila entre as etapas
+	 */
+	public ImportacaoService(MongoDatabase database, int leitores, int conversores, int validadores, int gravadores,
+			int tamanhoLote, int capacidadeFila) {
+		if (leitores < 1 || conversores < 1 || validadores < 1 || gravadores < 1) {
+			throw new IllegalArgumentException("Cada etapa deve ter ao menos uma thread");
+		}
+		if (tamanhoLote < 1 || capacidadeFila < 1) {
+			throw new IllegalArgumentException("O lote e a capacidade da fila devem ser maiores que zero");
+		}
+		this.database = database;
+		this.leitores = leitores;
+		this.conversores = conversores;
+		this.validadores = validadores;
+		this.gravadores = gravadores;
+		this.tamanhoLote = tamanhoLote;
+		this.capacidadeFila = capacidadeFila;
+	}
+
+	public ResultadoImportacao importarEmpresas(FormatoImportacao formato, Path rejeitados, Path... arquivos)
+			throws IOException, InterruptedException {
+		return importar(Destino.EMPRESA, formato, rejeitados, arquivos);
+	}
+
+	public ResultadoImportacao importarClientes(FormatoImportacao formato, Path rejeitados, Path... arquivos)
+			throws IOException, InterruptedException {
+		return importar(Destino.CLIENTE, formato, rejeitados, arquivos);
+	}
+
+	private <T extends Identificavel> ResultadoImportacao importar(Destino<T> destino, FormatoImportacao formato,
+			Path rejeitados, Path... arquivos) throws IOException, InterruptedException {
+		long inicio = System.nanoTime();
+		ConcurrentLinkedQueue<Path> pendentes = new ConcurrentLinkedQueue<Path>(Arrays.asList(arquivos));
+		BlockingQueue<List<Registro>> lidos = new ArrayBlockingQueue<List<Registro>>(capacidadeFila);
+		BlockingQueue<List<Registro>> convertidos = new ArrayBlockingQueue<List<Registro>>(capacidadeFila);
+		BlockingQueue<List<Registro>> validados = new ArrayBlockingQueue<List<Registro>>(capacidadeFila);
+		Etapa leitura = new Etapa("leitura", Math.max(1, Math.min(leitores, arquivos.length)));
+		Etapa conversao = new Etapa("conversao", conversores);
+		Etapa validacao = new Etapa("validacao", validadores);
+		Etapa gravacao = new Etapa("gravacao", gravadores);
+		MongoCollection<T> collection = database.getCollection(destino.getColecao(), destino.getClasse())
+				.withCodecRegistry(Codecs.REGISTRY);
+		long quantidadeRejeitados;
+		try (Rejeitados rejeicao = new Rejeitados(rejeitados)) {
+			List<Callable<Void>> tarefas = new ArrayList<Callable<Void>>();
+			for (int i = 0; i < leitura.getTrabalhadores(); i++) {
+				tarefas.add(() -> ler(formato, pendentes, leitura, lidos, conversao));
+			}
+			for (int i = 0; i < conversores; i++) {
+				tarefas.add(() -> converter(destino, formato, conversao, lidos, convertidos, validacao, rejeicao));
+			}
+			for (int i = 0; i < validadores; i++) {
+				tarefas.add(() -> validar(validacao, convertidos, validados, gravacao, rejeicao));
+			}
+			for (int i = 0; i < gravadores; i++) {
+				tarefas.add(() -> gravar(destino, collection, gravacao, validados, rejeicao));
+			}
+			executar(tarefas);
+			quantidadeRejeitados = rejeicao.getQuantidade();
+		}
+		long duracao = System.nanoTime() - inicio;
+		List<ResultadoEtapa> etapas = new ArrayList<ResultadoEtapa>();
+		for (Etapa etapa : Arrays.asList(leitura, conversao, validacao, gravacao)) {
+			etapas.add(etapa.resultado(duracao));
+		}
+		return new ResultadoImportacao(destino.getColecao(), leitura.getAceitos(), gravacao.getAceitos(),
+				quantidadeRejeitados, TimeUnit.NANOSECONDS.toMillis(duracao), etapas);
+	}
+
+	/**
+	 * Roda todas as threads e espera o fim. Na primeira falha as outras são
+	 * interrompidas, o que solta as que estão paradas nas filas.
+	 */
+	private static void executar(List<Callable<Void>> tarefas) throws IOException, InterruptedException {
+		ExecutorService executor = Executors.newFixedThreadPool(tarefas.size());
+		try {
+			ExecutorCompletionService<Void> conclusoes = new ExecutorCompletionService<Void>(executor);
+			for (Callable<Void> tarefa : tarefas) {
+				conclusoes.submit(tarefa);
+			}
+			for (int i = 0; i < tarefas.size(); i++) {
+				aguardar(conclusoes);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static void aguardar(ExecutorCompletionService<Void> conclusoes) throws IOException, InterruptedException {
+		try {
+			conclusoes.take().get();
+		} catch (ExecutionException e) {
+			Throwable causa = e.getCause();
+			if (causa instanceof IOException) {
+				throw (IOException) causa;
+			}
+			if (causa instanceof InterruptedException) {
+				throw (InterruptedException) causa;
+			}
+			if (causa instanceof RuntimeException) {
+				throw (RuntimeException) causa;
+			}
+			throw new IllegalStateException(causa);
+		}
+	}
+
+	private Void ler(FormatoImportacao formato, ConcurrentLinkedQueue<Path> pendentes, Etapa etapa,
+			BlockingQueue<List<Registro>> saida, Etapa seguinte) throws IOException, InterruptedException {
+		Path arquivo;
+		while ((arquivo = pendentes.poll()) != null) {
+			String nome = arquivo.toString();
+			try (BufferedReader leitor = Files.newBufferedReader(arquivo, UTF_8)) {
+				List<String> cabecalho = null;
+				List<Registro> bloco = new ArrayList<Registro>(TAMANHO_BLOCO);
+				long linha = 0;
+				long inicio = System.nanoTime();
+				String texto;
+				while ((texto = leitor.readLine()) != null) {
+					linha++;
+					if (linha == 1 && !texto.isEmpty() && texto.charAt(0) == BOM) {
+						texto = texto.substring(1);
+					}
+					if (texto.trim().isEmpty()) {
+						continue;
+					}
+					if (formato == FormatoImportacao.CSV && cabecalho == null) {
+						cabecalho = cabecalho(texto);
+						continue;
+					}
+					bloco.add(new Registro(nome, linha, texto, cabecalho));
+					if (bloco.size() == TAMANHO_BLOCO) {
+						etapa.processou(bloco.size(), bloco.size(), System.nanoTime() - inicio);
+						enviar(etapa, saida, bloco);
+						bloco = new ArrayList<Registro>(TAMANHO_BLOCO);
+						inicio = System.nanoTime();
+					}
+				}
+				etapa.processou(bloco.size(), bloco.size(), System.nanoTime() - inicio);
+				enviar(etapa, saida, bloco);
+			}
+		}
+		terminar(etapa, saida, seguinte);
+		return null;
+	}
+
+	private static List<String> cabecalho(String texto) {
+		List<String> cabecalho = new ArrayList<String>();
+		for (String coluna : Conversao.colunas(texto)) {
+			cabecalho.add(coluna.trim());
+		}
+		return cabecalho;
+	}
+
+	private <T extends Identificavel> Void converter(Destino<T> destino, FormatoImportacao formato, Etapa etapa,
+			BlockingQueue<List<Registro>> entrada, BlockingQueue<List<Registro>> saida, Etapa seguinte,
+			Rejeitados rejeicao) throws IOException, InterruptedException {
+		List<Registro> bloco;
+		while ((bloco = receber(etapa, entrada)) != FIM) {
+			long inicio = System.nanoTime();
+			List<Registro> aceitos = new ArrayList<Registro>(bloco.size());
+			for (Registro registro : bloco) {
+				try {
+					registro.setEntidade(destino.converter(Conversao.documento(registro, formato)));
+					aceitos.add(registro);
+				} catch (RuntimeException e) {
+					rejeicao.rejeitar(registro, singletonList(Conversao.motivo(e)));
+				}
+			}
+			etapa.processou(bloco.size(), aceitos.size(), System.nanoTime() - inicio);
+			enviar(etapa, saida, aceitos);
+		}
+		terminar(etapa, saida, seguinte);
+		return null;
+	}
+
+	private Void validar(Etapa etapa, BlockingQueue<List<Registro>> entrada, BlockingQueue<List<Registro>> saida,
+			Etapa seguinte, Rejeitados rejeicao) throws IOException, InterruptedException {
+		ValidacaoService validacao = ValidacaoService.getInstance();
+		List<Registro> bloco;
+		while ((bloco = receber(etapa, entrada)) != FIM) {
+			long inicio = System.nanoTime();
+			List<Registro> aceitos = new ArrayList<Registro>(bloco.size());
+			for (Registro registro : bloco) {
+				Set<ConstraintViolation<Object>> violacoes = validacao.validate(registro.getEntidade(), Post.class);
+				if (violacoes.isEmpty()) {
+					aceitos.add(registro);
+				} else {
+					rejeicao.rejeitar(registro, motivos(violacoes));
+				}
+			}
+			etapa.processou(bloco.size(), aceitos.size(), System.nanoTime() - inicio);
+			enviar(etapa, saida, aceitos);
+		}
+		terminar(etapa, saida, seguinte);
+		return null;
+	}
+
+	private static List<String> motivos(Set<ConstraintViolation<Object>> violacoes) {
+		Set<String> motivos = new TreeSet<String>();
+		for (ConstraintViolation<Object> violacao : violacoes) {
+			motivos.add(violacao.getPropertyPath() + ": " + violacao.getMessage());
+		}
+		return new ArrayList<String>(motivos);
+	}
+
+	/**
+	 * Junta os blocos recebidos até completar o lote, e envia o que sobrar no
+	 * fim.
+	 */
+	private <T extends Identificavel> Void gravar(Destino<T> destino, MongoCollection<T> collection, Etapa etapa,
+			BlockingQueue<List<Registro>> entrada, Rejeitados rejeicao) throws IOException, InterruptedException {
+		List<Registro> lote = new ArrayList<Registro>(tamanhoLote);
+		List<Registro> bloco;
+		while ((bloco = receber(etapa, entrada)) != FIM) {
+			lote.addAll(bloco);
+			while (lote.size() >= tamanhoLote) {
+				List<Registro> completo = lote.subList(0, tamanhoLote);
+				inserir(destino, collection, etapa, new ArrayList<Registro>(completo), rejeicao);
+				completo.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			inserir(destino, collection, etapa, lote, rejeicao);
+		}
+		etapa.terminar();
+		return null;
+	}
+
+	private <T extends Identificavel> void inserir(Destino<T> destino, MongoCollection<T> collection, Etapa etapa,
+			List<Registro> lote, Rejeitados rejeicao) throws IOException {
+		List<T> entidades = new ArrayList<T>(lote.size());
+		for (Registro registro : lote) {
+			entidades.add(destino.getClasse().cast(registro.getEntidade()));
+		}
+		long inicio = System.nanoTime();
+		int gravados = 0;
+		try {
+			collection.insertMany(entidades, NAO_ORDENADO);
+			gravados = lote.size();
+		} catch (MongoBulkWriteException e) {
+			for (BulkWriteError erro : e.getWriteErrors()) {
+				rejeicao.rejeitar(lote.get(erro.getIndex()), singletonList(erro.getCode() == CODIGO_CHAVE_DUPLICADA
+						? "Chave duplicada: " + chave(lote.get(erro.getIndex())) : erro.getMessage()));
+			}
+			gravados = lote.size() - e.getWriteErrors().size();
+		} catch (MongoException e) {
+			for (Registro registro : lote) {
+				rejeicao.rejeitar(registro, singletonList("Falha ao gravar o lote: " + e.getMessage()));
+			}
+		} finally {
+			long duracao = System.nanoTime() - inicio;
+			etapa.processou(lote.size(), gravados, duracao);
+			Instrumentacao.getMetricas().registrarTempo("importarLote", destino.getColecao(), duracao,
+					gravados < lote.size());
+			Instrumentacao.getMetricas().incrementar("importados", destino.getColecao(), gravados);
+		}
+	}
+
+	private static String chave(Registro registro) {
+		return ((Identificavel) registro.getEntidade()).getChave();
+	}
+
+	private static List<Registro> receber(Etapa etapa, BlockingQueue<List<Registro>> entrada)
+			throws InterruptedException {
+		long inicio = System.nanoTime();
+		List<Registro> bloco = entrada.take();
+		etapa.esperouEntrada(System.nanoTime() - inicio);
+		return bloco;
+	}
+
+	private static void enviar(Etapa etapa, BlockingQueue<List<Registro>> saida, List<Registro> bloco)
+			throws InterruptedException {
+		if (bloco.isEmpty()) {
+			return;
+		}
+		long inicio = System.nanoTime();
+		saida.put(bloco);
+		etapa.esperouSaida(System.nanoTime() - inicio);
+	}
+
+	/**
+	 * A última thread da etapa avisa cada thread da etapa seguinte.
+	 */
+	private static void terminar(Etapa etapa, BlockingQueue<List<Registro>> saida, Etapa seguinte)
+			throws InterruptedException {
+		if (etapa.terminar()) {
+			for (int i = 0; i < seguinte.getTrabalhadores(); i++) {
+				saida.put(FIM);
+			}
+		}
+	}
+
+}
@@ -0,0 +1,55 @@
+package br.com.contmatic.importacao;
+
+import java.util.List;
+
+/**
+ * Uma linha do arquivo passando pelas etapas da importação. A entidade é
+ * preenchida na conversão.
+ *
+ * @author gabriel.santos
+ */
+final class Registro {
+
+	private final String arquivo;
+
+	private final long linha;
+
+	private final String texto;
+
+	/** Os nomes das colunas, só no CSV. */
+	private final List<String> cabecalho;
+
+	private Object entidade;
+
+	Registro(String arquivo, long linha, String texto, List<String> cabecalho) {
+		this.arquivo = arquivo;
+		this.linha = linha;
+		this.texto = texto;
+		this.cabecalho = cabecalho;
+	}
+
+	String getArquivo() {
+		return arquivo;
+	}
+
+	long getLinha() {
+		return linha;
+	}
+
+	String getTexto() {
+		return texto;
+	}
+
+	List<String> getCabecalho() {
+		return cabecalho;
+	}
+
+	Object getEntidade() {
+		return entidade;
+	}
+
+	void setEntidade(Object entidade) {
+		this.entidade = entidade;
+	}
+
+}
@@ -0,0 +1,56 @@
+package br.com.contmatic.importacao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.json.JsonMode;
+import org.bson.json.JsonWriterSettings;
+
+/**
+ * O arquivo de registros rejeitados, um JSON por linha com o arquivo e a
+ * linha de origem, o texto original e os motivos. Compartilhado pelas
+ * threads de todas as etapas.
+ *
+ * @author gabriel.santos
+ */
+final class Rejeitados implements AutoCloseable {
+
+	private static final JsonWriterSettings RELAXED = JsonWriterSettings.builder().outputMode(JsonMode.RELAXED)
+			.build();
+
+	private final BufferedWriter writer;
+
+	private long quantidade;
+
+	Rejeitados(Path arquivo) throws IOException {
+		Path diretorio = arquivo.toAbsolutePath().getParent();
+		if (diretorio != null) {
+			Files.createDirectories(diretorio);
+		}
+		this.writer = Files.newBufferedWriter(arquivo, UTF_8);
+	}
+
+	synchronized void rejeitar(Registro registro, List<String> motivos) throws IOException {
+		Document rejeitado = new Document("arquivo", registro.getArquivo()).append("linha", registro.getLinha())
+				.append("registro", registro.getTexto()).append("motivos", motivos);
+		writer.write(rejeitado.toJson(RELAXED));
+		writer.newLine();
+		quantidade++;
+	}
+
+	synchronized long getQuantidade() {
+		return quantidade;
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+
+}
@@ -0,0 +1,107 @@
+package br.com.contmatic.importacao;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * A vazão de uma etapa da importação.
+ *
+ * A etapa que limita a importação é a que tem a capacidade mais perto da
+ * vazão e pouca espera: as etapas antes dela passam o tempo esperando a
+ * saída, e as depois esperando a entrada. Mais threads nela aumentam a
+ * vazão enquanto houver CPU ou banco sobrando.
+ *
+ * @author gabriel.santos
+ */
+public class ResultadoEtapa {
+
+	private static final double NANOS_POR_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+	/** leitura, conversao, validacao ou gravacao. */
+	private final String nome;
+
+	/** As threads da etapa. */
+	private final int trabalhadores;
+
+	/** Registros que entraram na etapa. */
+	private final long recebidos;
+
+	/** Registros passados adiante, ou gravados na última etapa. */
+	private final long aceitos;
+
+	/** Tempo processando, somado entre as threads. */
+	private final long ocupadoMillis;
+
+	/** Tempo parado com a fila de entrada vazia, somado entre as threads. */
+	private final long esperandoEntradaMillis;
+
+	/** Tempo parado com a fila de saída cheia, somado entre as threads. */
+	private final long esperandoSaidaMillis;
+
+	/** Registros por segundo durante a importação inteira. */
+	private final double vazao;
+
+	/** Registros por segundo que a etapa daria se nunca esperasse. */
+	private final double capacidade;
+
+	public ResultadoEtapa(String nome, int trabalhadores, long recebidos, long aceitos, long ocupadoNanos,
+			long esperandoEntradaNanos, long esperandoSaidaNanos, long duracaoNanos) {
+		this.nome = nome;
+		this.trabalhadores = trabalhadores;
+		this.recebidos = recebidos;
+		this.aceitos = aceitos;
+		this.ocupadoMillis = TimeUnit.NANOSECONDS.toMillis(ocupadoNanos);
+		this.esperandoEntradaMillis = TimeUnit.NANOSECONDS.toMillis(esperandoEntradaNanos);
+		this.esperandoSaidaMillis = TimeUnit.NANOSECONDS.toMillis(esperandoSaidaNanos);
+		this.vazao = duracaoNanos > 0 ? recebidos * NANOS_POR_SEGUNDO / duracaoNanos : 0;
+		this.capacidade = ocupadoNanos > 0 ? recebidos * NANOS_POR_SEGUNDO * trabalhadores / ocupadoNanos : 0;
+	}
+
+	public String getNome() {
+		return nome;
+	}
+
+	public int getTrabalhadores() {
+		return trabalhadores;
+	}
+
+	public long getRecebidos() {
+		return recebidos;
+	}
+
+	public long getAceitos() {
+		return aceitos;
+	}
+
+	public long getRejeitados() {
+		return recebidos - aceitos;
+	}
+
+	public long getOcupadoMillis() {
+		return ocupadoMillis;
+	}
+
+	public long getEsperandoEntradaMillis() {
+		return esperandoEntradaMillis;
+	}
+
+	public long getEsperandoSaidaMillis() {
+		return esperandoSaidaMillis;
+	}
+
+	public double getVazao() {
+		return vazao;
+	}
+
+	public double getCapacidade() {
+		return capacidade;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
@@ -0,0 +1,85 @@
+package br.com.contmatic.importacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * O resultado de uma importação, com a vazão de cada etapa.
+ *
+ * @author gabriel.santos
+ */
+public class ResultadoImportacao {
+
+	/** A coleção de destino. */
+	private final String colecao;
+
+	/** Registros lidos dos arquivos, sem contar cabeçalho e linhas vazias. */
+	private final long lidos;
+
+	/** Registros gravados no banco. */
+	private final long importados;
+
+	/** Registros escritos no arquivo de rejeitados. */
+	private final long rejeitados;
+
+	/** Duração da importação. */
+	private final long duracaoMillis;
+
+	/** As etapas, na ordem da importação. */
+	private final List<ResultadoEtapa> etapas;
+
+	public ResultadoImportacao(String colecao, long lidos, long importados, long rejeitados, long duracaoMillis,
+			List<ResultadoEtapa> etapas) {
+		this.colecao = colecao;
+		this.lidos = lidos;
+		this.importados = importados;
+		this.rejeitados = rejeitados;
+		this.duracaoMillis = duracaoMillis;
+		this.etapas = new ArrayList<ResultadoEtapa>(etapas);
+	}
+
+	public String getColecao() {
+		return colecao;
+	}
+
+	public long getLidos() {
+		return lidos;
+	}
+
+	public long getImportados() {
+		return importados;
+	}
+
+	public long getRejeitados() {
+		return rejeitados;
+	}
+
+	public long getDuracaoMillis() {
+		return duracaoMillis;
+	}
+
+	public List<ResultadoEtapa> getEtapas() {
+		return new ArrayList<ResultadoEtapa>(etapas);
+	}
+
+	/**
+	 * A etapa com o nome informado, ou nulo.
+	 */
+	public ResultadoEtapa getEtapa(String nome) {
+		for (ResultadoEtapa etapa : etapas) {
+			if (etapa.getNome().equals(nome)) {
+				return etapa;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
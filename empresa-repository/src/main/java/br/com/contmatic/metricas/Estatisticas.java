@@ -0,0 +1,73 @@
+package br.com.contmatic.metricas;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Retrato de um Histograma, na unidade em que os valores foram registrados.
+ *
+ * @author gabriel.santos
+ */
+public class Estatisticas {
+
+	/** Os valores registrados. */
+	private final long quantidade;
+
+	/** A soma dos valores. */
+	private final long soma;
+
+	/** O maior valor. */
+	private final long maximo;
+
+	/** A mediana. */
+	private final long p50;
+
+	/** O percentil 99. */
+	private final long p99;
+
+	/** O percentil 99,9. */
+	private final long p999;
+
+	public Estatisticas(long quantidade, long soma, long maximo, long p50, long p99, long p999) {
+		this.quantidade = quantidade;
+		this.soma = soma;
+		this.maximo = maximo;
+		this.p50 = p50;
+		this.p99 = p99;
+		this.p999 = p999;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	public long getSoma() {
+		return soma;
+	}
+
+	public long getMaximo() {
+		return maximo;
+	}
+
+	public long getP50() {
+		return p50;
+	}
+
+	public long getP99() {
+		return p99;
+	}
+
+	public long getP999() {
+		return p999;
+	}
+
+	public double getMedia() {
+		return quantidade == 0 ? 0 : (double) soma / quantidade;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
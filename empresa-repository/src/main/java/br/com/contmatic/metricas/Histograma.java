@@ -0,0 +1,97 @@
+package br.com.contmatic.metricas;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de valores não negativos com erro relativo de até 1/32.
+ *
+ * Cada potência de 2 é dividida em 32 faixas iguais, então a faixa de um valor
+ * sai de alguns deslocamentos de bits e registrar é só um incremento atômico,
+ * sem lock e sem alocação. Os percentis devolvem o meio da faixa, limitado ao
+ * maior valor registrado.
+ *
+ * @author gabriel.santos
+ */
+public class Histograma {
+
+	private static final int BITS_FAIXA = 5;
+
+	private static final int FAIXAS = 1 << BITS_FAIXA;
+
+	private static final int TOTAL_FAIXAS = indice(Long.MAX_VALUE) + 1;
+
+	private final AtomicLongArray contagens = new AtomicLongArray(TOTAL_FAIXAS);
+
+	private final LongAdder quantidade = new LongAdder();
+
+	private final LongAdder soma = new LongAdder();
+
+	private final AtomicLong maximo = new AtomicLong();
+
+	public void registrar(long valor) {
+		long positivo = Math.max(valor, 0);
+		contagens.incrementAndGet(indice(positivo));
+		quantidade.increment();
+		soma.add(positivo);
+		maximo.accumulateAndGet(positivo, Math::max);
+	}
+
+	public long getQuantidade() {
+		return quantidade.sum();
+	}
+
+	/**
+	 * O valor abaixo do qual está a fração informada dos registros, de 0 a 1.
+	 */
+	public long percentil(double fracao) {
+		long total = 0;
+		long[] copia = new long[TOTAL_FAIXAS];
+		for (int i = 0; i < TOTAL_FAIXAS; i++) {
+			copia[i] = contagens.get(i);
+			total += copia[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long posicao = Math.max(1, (long) Math.ceil(fracao * total));
+		long acumulado = 0;
+		for (int i = 0; i < TOTAL_FAIXAS; i++) {
+			acumulado += copia[i];
+			if (acumulado >= posicao) {
+				return Math.min(meioDaFaixa(i), maximo.get());
+			}
+		}
+		return maximo.get();
+	}
+
+	public Estatisticas getEstatisticas() {
+		return new Estatisticas(quantidade.sum(), soma.sum(), maximo.get(), percentil(0.5), percentil(0.99),
+				percentil(0.999));
+	}
+
+	static int indice(long valor) {
+		if (valor < FAIXAS) {
+			return (int) valor;
+		}
+		int expoente = 63 - Long.numberOfLeadingZeros(valor);
+		int faixa = (int) (valor >>> (expoente - BITS_FAIXA)) & (FAIXAS - 1);
+		return (expoente - BITS_FAIXA + 1) * FAIXAS + faixa;
+	}
+
+	static long inicioDaFaixa(int indice) {
+		if (indice < FAIXAS) {
+			return indice;
+		}
+		int expoente = indice / FAIXAS + BITS_FAIXA - 1;
+		return (long) (FAIXAS + indice % FAIXAS) << (expoente - BITS_FAIXA);
+	}
+
+	private static long meioDaFaixa(int indice) {
+		long inicio = inicioDaFaixa(indice);
+		long fim = indice + 1 < TOTAL_FAIXAS ? inicioDaFaixa(indice + 1) - 1 : Long.MAX_VALUE;
+		return inicio + (fim - inicio) / 2;
+	}
+
+}
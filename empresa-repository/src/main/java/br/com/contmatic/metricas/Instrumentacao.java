@@ -0,0 +1,29 @@
+package br.com.contmatic.metricas;
+
+import java.util.Objects;
+
+/**
+ * As métricas usadas pela aplicação inteira.
+ *
+ * Os serviços são criados só com o MongoDatabase, então as métricas ficam
+ * aqui e são trocadas uma vez na subida da aplicação, antes de abrir a
+ * Conexao.
+ *
+ * @author gabriel.santos
+ */
+public final class Instrumentacao {
+
+	private static volatile Metricas metricas = new MetricasEmMemoria();
+
+	private Instrumentacao() {
+	}
+
+	public static Metricas getMetricas() {
+		return metricas;
+	}
+
+	public static void setMetricas(Metricas novasMetricas) {
+		metricas = Objects.requireNonNull(novasMetricas, "Use Metricas.NENHUMA para desligar as métricas");
+	}
+
+}
@@ -0,0 +1,47 @@
+package br.com.contmatic.metricas;
+
+/**
+ * Fachada de métricas usada pelos serviços, codecs e listeners do driver.
+ *
+ * Toda medida tem um nome e a coleção a que se refere, o que corresponde a um
+ * medidor com a tag colecao no Micrometer. Para enviar as medidas a outro
+ * sistema basta implementar esta interface e passá-la para
+ * Instrumentacao.setMetricas. O padrão é MetricasEmMemoria.
+ *
+ * @author gabriel.santos
+ */
+public interface Metricas {
+
+	/**
+	 * Não registra nada.
+	 */
+	Metricas NENHUMA = new Metricas() {
+
+		@Override
+		public void registrarTempo(String nome, String colecao, long duracaoNanos, boolean erro) {
+		}
+
+		@Override
+		public void registrarValor(String nome, String colecao, long valor) {
+		}
+
+		@Override
+		public void incrementar(String nome, String colecao, long quantidade) {
+		}
+
+	};
+
+	/**
+	 * Registra a duração de uma operação e se ela terminou com erro.
+	 */
+	void registrarTempo(String nome, String colecao, long duracaoNanos, boolean erro);
+
+	/**
+	 * Registra um valor de uma distribuição, como o tamanho em bytes de um
+	 * documento.
+	 */
+	void registrarValor(String nome, String colecao, long valor);
+
+	void incrementar(String nome, String colecao, long quantidade);
+
+}
@@ -0,0 +1,67 @@
+package br.com.contmatic.metricas;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonValue;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Registra o tempo de cada comando enviado ao banco, com o nome
+ * comando.&lt;nome do comando&gt; e a coleção do comando.
+ *
+ * Os eventos de fim não trazem o comando, então a coleção é guardada pelo
+ * requestId entre o início e o fim. Comandos sem coleção, como o ping, usam o
+ * nome do banco.
+ *
+ * @author gabriel.santos
+ */
+public class MetricasCommandListener implements CommandListener {
+
+	private final ConcurrentMap<Integer, String> colecoes = new ConcurrentHashMap<Integer, String>();
+
+	private final Metricas metricas;
+
+	/**
+	 * Usa as métricas da Instrumentacao no momento de cada comando.
+	 */
+	public MetricasCommandListener() {
+		this(null);
+	}
+
+	public MetricasCommandListener(Metricas metricas) {
+		this.metricas = metricas;
+	}
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		BsonValue alvo = event.getCommand().get(event.getCommandName());
+		colecoes.put(event.getRequestId(), alvo != null && alvo.isString() ? alvo.asString().getValue()
+				: event.getDatabaseName());
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		registrar(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), false);
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+		registrar(event.getRequestId(), event.getCommandName(), event.getElapsedTime(TimeUnit.NANOSECONDS), true);
+	}
+
+	private void registrar(int requestId, String comando, long duracaoNanos, boolean erro) {
+		String colecao = colecoes.remove(requestId);
+		metricas().registrarTempo("comando." + comando, colecao == null ? "" : colecao, duracaoNanos, erro);
+	}
+
+	private Metricas metricas() {
+		return metricas == null ? Instrumentacao.getMetricas() : metricas;
+	}
+
+}
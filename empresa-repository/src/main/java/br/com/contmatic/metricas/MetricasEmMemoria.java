@@ -0,0 +1,125 @@
+package br.com.contmatic.metricas;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Métricas guardadas na memória do processo, o padrão da Instrumentacao.
+ *
+ * Os tempos vão para um Histograma por nome e coleção, de onde saem p50, p99 e
+ * p999 em nanossegundos. Os erros de cada operação são contados em
+ * nome.erros. A vazão é a quantidade de registros dividida pelo tempo desde a
+ * criação ou desde o último limpar.
+ *
+ * @author gabriel.santos
+ */
+public class MetricasEmMemoria implements Metricas {
+
+	private static final Estatisticas VAZIA = new Estatisticas(0, 0, 0, 0, 0, 0);
+
+	private final ConcurrentMap<String, ConcurrentMap<String, Histograma>> tempos = new ConcurrentHashMap<String, ConcurrentMap<String, Histograma>>();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, Histograma>> valores = new ConcurrentHashMap<String, ConcurrentMap<String, Histograma>>();
+
+	private final ConcurrentMap<String, ConcurrentMap<String, LongAdder>> contadores = new ConcurrentHashMap<String, ConcurrentMap<String, LongAdder>>();
+
+	private volatile long inicio = System.nanoTime();
+
+	@Override
+	public void registrarTempo(String nome, String colecao, long duracaoNanos, boolean erro) {
+		obter(tempos, colecao, nome, chave -> new Histograma()).registrar(duracaoNanos);
+		if (erro) {
+			incrementar(nome + ".erros", colecao, 1);
+		}
+	}
+
+	@Override
+	public void registrarValor(String nome, String colecao, long valor) {
+		obter(valores, colecao, nome, chave -> new Histograma()).registrar(valor);
+	}
+
+	@Override
+	public void incrementar(String nome, String colecao, long quantidade) {
+		obter(contadores, colecao, nome, chave -> new LongAdder()).add(quantidade);
+	}
+
+	/**
+	 * Os tempos da operação em nanossegundos.
+	 */
+	public Estatisticas getTempos(String nome, String colecao) {
+		Histograma histograma = buscar(tempos, colecao, nome);
+		return histograma == null ? VAZIA : histograma.getEstatisticas();
+	}
+
+	public Estatisticas getValores(String nome, String colecao) {
+		Histograma histograma = buscar(valores, colecao, nome);
+		return histograma == null ? VAZIA : histograma.getEstatisticas();
+	}
+
+	public long getContador(String nome, String colecao) {
+		LongAdder contador = buscar(contadores, colecao, nome);
+		return contador == null ? 0 : contador.sum();
+	}
+
+	public long getErros(String nome, String colecao) {
+		return getContador(nome + ".erros", colecao);
+	}
+
+	/**
+	 * Operações por segundo desde a criação ou o último limpar.
+	 */
+	public double getVazao(String nome, String colecao) {
+		Histograma histograma = buscar(tempos, colecao, nome);
+		if (histograma == null) {
+			return 0;
+		}
+		long decorrido = Math.max(1, System.nanoTime() - inicio);
+		return histograma.getQuantidade() * (double) TimeUnit.SECONDS.toNanos(1) / decorrido;
+	}
+
+	/**
+	 * Os tempos de todas as operações, com as chaves no formato colecao/nome e
+	 * em ordem alfabética.
+	 */
+	public Map<String, Estatisticas> getTodosOsTempos() {
+		Map<String, Estatisticas> todos = new TreeMap<String, Estatisticas>();
+		for (Map.Entry<String, ConcurrentMap<String, Histograma>> colecao : tempos.entrySet()) {
+			for (Map.Entry<String, Histograma> operacao : colecao.getValue().entrySet()) {
+				todos.put(colecao.getKey() + "/" + operacao.getKey(), operacao.getValue().getEstatisticas());
+			}
+		}
+		return todos;
+	}
+
+	public void limpar() {
+		tempos.clear();
+		valores.clear();
+		contadores.clear();
+		inicio = System.nanoTime();
+	}
+
+	/**
+	 * Procura antes de chamar computeIfAbsent, que no ConcurrentHashMap do Java 8
+	 * trava o bucket mesmo quando a chave já existe.
+	 */
+	private static <T> T obter(ConcurrentMap<String, ConcurrentMap<String, T>> mapa, String colecao, String nome,
+			Function<String, T> criar) {
+		ConcurrentMap<String, T> porNome = mapa.get(colecao);
+		if (porNome == null) {
+			porNome = mapa.computeIfAbsent(colecao, chave -> new ConcurrentHashMap<String, T>());
+		}
+		T medida = porNome.get(nome);
+		return medida != null ? medida : porNome.computeIfAbsent(nome, criar);
+	}
+
+	private static <T> T buscar(ConcurrentMap<String, ConcurrentMap<String, T>> mapa, String colecao, String nome) {
+		ConcurrentMap<String, T> porNome = mapa.get(colecao);
+		return porNome == null ? null : porNome.get(nome);
+	}
+
+}
@@ -0,0 +1,92 @@
+package br.com.contmatic.metricas;
+
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.ConnectionAddedEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolClosedEvent;
+import com.mongodb.event.ConnectionPoolListener;
+import com.mongodb.event.ConnectionPoolOpenedEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+import com.mongodb.event.ConnectionRemovedEvent;
+
+/**
+ * Métricas do pool de conexões, por servidor no lugar da coleção.
+ *
+ * O driver avisa a entrada e a saída da fila de espera na própria thread que
+ * pede a conexão, então a espera é medida entre os dois eventos com um
+ * ThreadLocal e registrada em pool.espera. Também são contadas as retiradas e
+ * devoluções de conexões e as conexões abertas e fechadas: a diferença entre
+ * pool.retiradas e pool.devolvidas é o número de conexões em uso.
+ *
+ * @author gabriel.santos
+ */
+public class MetricasPoolListener implements ConnectionPoolListener {
+
+	private final ThreadLocal<long[]> inicioEspera = ThreadLocal.withInitial(() -> new long[1]);
+
+	private final Metricas metricas;
+
+	/**
+	 * Usa as métricas da Instrumentacao no momento de cada evento.
+	 */
+	public MetricasPoolListener() {
+		this(null);
+	}
+
+	public MetricasPoolListener(Metricas metricas) {
+		this.metricas = metricas;
+	}
+
+	@Override
+	public void connectionPoolOpened(ConnectionPoolOpenedEvent event) {
+	}
+
+	@Override
+	public void connectionPoolClosed(ConnectionPoolClosedEvent event) {
+	}
+
+	@Override
+	public void waitQueueEntered(ConnectionPoolWaitQueueEnteredEvent event) {
+		inicioEspera.get()[0] = System.nanoTime();
+	}
+
+	@Override
+	public void waitQueueExited(ConnectionPoolWaitQueueExitedEvent event) {
+		long inicio = inicioEspera.get()[0];
+		if (inicio != 0) {
+			inicioEspera.get()[0] = 0;
+			metricas().registrarTempo("pool.espera", servidor(event.getServerId()), System.nanoTime() - inicio, false);
+		}
+	}
+
+	@Override
+	public void connectionCheckedOut(ConnectionCheckedOutEvent event) {
+		metricas().incrementar("pool.retiradas", servidor(event.getConnectionId().getServerId()), 1);
+	}
+
+	@Override
+	public void connectionCheckedIn(ConnectionCheckedInEvent event) {
+		metricas().incrementar("pool.devolvidas", servidor(event.getConnectionId().getServerId()), 1);
+	}
+
+	@Override
+	public void connectionAdded(ConnectionAddedEvent event) {
+		metricas().incrementar("pool.conexoes", servidor(event.getConnectionId().getServerId()), 1);
+	}
+
+	@Override
+	public void connectionRemoved(ConnectionRemovedEvent event) {
+		metricas().incrementar("pool.conexoes", servidor(event.getConnectionId().getServerId()), -1);
+	}
+
+	private static String servidor(ServerId serverId) {
+		return serverId.getAddress().toString();
+	}
+
+	private Metricas metricas() {
+		return metricas == null ? Instrumentacao.getMetricas() : metricas;
+	}
+
+}
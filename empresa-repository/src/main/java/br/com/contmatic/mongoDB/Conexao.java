@@ -1,52 +1,139 @@
 package br.com.contmatic.mongoDB;
 
 import java.io.Closeable;
-import java.io.IOException;
+import java.util.concurrent.atomic.AtomicBoolean;
 
-import com.mongodb.MongoClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.client.MongoClient;
+import com.mongodb.client.MongoClients;
 import com.mongodb.client.MongoDatabase;
 
+/**
+ * Acesso ao MongoClient compartilhado pela aplicação.
+ *
+ * O cliente é criado na primeira chamada de getInstance e mantém um pool de
+ * conexões configurado pelo MongoConf. Cada getInstance devolve uma referência
+ * própria; o cliente só é fechado quando a última referência for fechada, então
+ * uma thread não derruba a conexão que outra ainda está usando.
+ *
+ * Os serviços assíncronos usam um segundo cliente, do driver reactive streams,
+ * criado só no primeiro getDatabaseAssincrono com o mesmo MongoConf e fechado
+ * junto com o cliente síncrono.
+ *
+ * Ao criar o cliente, os índices do RegistroIndices.padrao() são garantidos em
+ * uma thread daemon, para não atrasar a primeira conexão; uma falha fica só no
+ * log. O mongo.indices.garantir=false desliga essa etapa.
+ *
+ * @author gabriel.santos
+ */
 public class Conexao implements Closeable {
 	
+	private static final Logger LOGGER = LoggerFactory.getLogger(Conexao.class);
+
+	private static final Object LOCK = new Object();
+
+	/** Guardados por LOCK. */
 	private static MongoClient mongoClient;
 	
 	private static MongoDatabase database;
-	
-	private static Conexao conexao;
+
+	private static MongoConf conf;
+
+	private static com.mongodb.reactivestreams.client.MongoClient mongoClientAssincrono;
+
+	private static com.mongodb.reactivestreams.client.MongoDatabase databaseAssincrono;
+
+	private static int referencias;
+
+	private final AtomicBoolean fechada = new AtomicBoolean();
 
 	private Conexao() {
 	}
 
 	public static Conexao getInstance() {
-		if (mongoClient == null) {
-			conexao = new Conexao();
-			conexao.getMongoClient();
-			conexao.getDatabase();
+		synchronized (LOCK) {
+			if (mongoClient == null) {
+				conf = MongoConf.carregar();
+				mongoClient = MongoClients.create(conf.toSettings().build());
+				database = mongoClient.getDatabase(conf.getDbName());
+				if (conf.isGarantirIndices()) {
+					garantirIndices(database);
+				}
+			}
+			referencias++;
+			return new Conexao();
+		}
+	}
+
+	public static int getReferencias() {
+		synchronized (LOCK) {
+			return referencias;
 		}
-		return conexao;
 	}
 	
 	public MongoDatabase getDatabase() {
-		if (database == null) {
-			mongoClient = getMongoClient();
-			database = mongoClient.getDatabase(MongoConf.DB_NAME);
+		verificarAberta();
+		synchronized (LOCK) {
+			return database;
 		}
-		return database;
 	}
 
 	public MongoClient getMongoClient() {
-		if (mongoClient == null) {
-			mongoClient = new MongoClient(MongoConf.HOST, MongoConf.PORT);
-
+		verificarAberta();
+		synchronized (LOCK) {
+			return mongoClient;
+		}
+	}
+	
+	public com.mongodb.reactivestreams.client.MongoDatabase getDatabaseAssincrono() {
+		verificarAberta();
+		synchronized (LOCK) {
+			if (mongoClientAssincrono == null) {
+				mongoClientAssincrono = com.mongodb.reactivestreams.client.MongoClients.create(conf.toSettings().build());
+				databaseAssincrono = mongoClientAssincrono.getDatabase(conf.getDbName());
+			}
+			return databaseAssincrono;
 		}
-		return mongoClient;
 	}
 	
 	@Override
-	public void close() throws IOException {
-		mongoClient.close();
-		mongoClient = null;
-		database = null;
+	public void close() {
+		if (!fechada.compareAndSet(false, true)) {
+			return;
+		}
+		synchronized (LOCK) {
+			referencias--;
+			if (referencias == 0) {
+				mongoClient.close();
+				mongoClient = null;
+				database = null;
+				if (mongoClientAssincrono != null) {
+					mongoClientAssincrono.close();
+					mongoClientAssincrono = null;
+					databaseAssincrono = null;
+				}
+			}
+		}
+	}
+
+	private static void garantirIndices(MongoDatabase database) {
+		Thread thread = new Thread(() -> {
+			try {
+				RegistroIndices.padrao().garantir(database);
+			} catch (RuntimeException e) {
+				LOGGER.warn("Não foi possível garantir os índices em " + database.getName(), e);
+			}
+		}, "garantir-indices");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void verificarAberta() {
+		if (fechada.get()) {
+			throw new IllegalStateException("A conexão já foi fechada");
+		}
 	}
 
-}
\ No newline at end of file
+}
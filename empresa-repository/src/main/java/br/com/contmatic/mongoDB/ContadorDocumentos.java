@@ -0,0 +1,79 @@
+package br.com.contmatic.mongoDB;
+
+import java.io.Closeable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Contagem aproximada de documentos por coleção, mantida em memória.
+ *
+ * Usa estimatedDocumentCount, que lê os metadados da coleção em vez de
+ * percorrê-la. A primeira consulta de uma coleção é feita na hora; depois disso
+ * o valor é atualizado em segundo plano a cada intervalo, então quem lê nunca
+ * espera pelo banco. A primeira contagem é feita fora do mapa, para não
+ * segurar as outras coleções durante a chamada ao banco; duas primeiras
+ * consultas simultâneas podem contar duas vezes, e fica a primeira.
+ *
+ * @author gabriel.santos
+ */
+public class ContadorDocumentos implements Closeable {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ContadorDocumentos.class);
+
+	private final MongoDatabase database;
+
+	private final Map<String, Long> contagens = new ConcurrentHashMap<String, Long>();
+
+	private final ScheduledExecutorService agendador;
+
+	public ContadorDocumentos(MongoDatabase database, long intervalo, TimeUnit unidade) {
+		this.database = database;
+		this.agendador = Executors.newSingleThreadScheduledExecutor(tarefa -> {
+			Thread thread = new Thread(tarefa, "contador-documentos");
+			thread.setDaemon(true);
+			return thread;
+		});
+		agendador.scheduleWithFixedDelay(this::atualizar, intervalo, intervalo, unidade);
+	}
+
+	public long getContagem(String colecao) {
+		Long contagem = contagens.get(colecao);
+		if (contagem == null) {
+			Long contada = contar(colecao);
+			contagem = contagens.putIfAbsent(colecao, contada);
+			if (contagem == null) {
+				contagem = contada;
+			}
+		}
+		return contagem;
+	}
+
+	private void atualizar() {
+		for (String colecao : contagens.keySet()) {
+			try {
+				contagens.put(colecao, contar(colecao));
+			} catch (MongoException e) {
+				LOGGER.warn("Não foi possível atualizar a contagem de " + colecao, e);
+			}
+		}
+	}
+
+	private long contar(String colecao) {
+		return database.getCollection(colecao).estimatedDocumentCount();
+	}
+
+	@Override
+	public void close() {
+		agendador.shutdownNow();
+	}
+
+}
@@ -1,5 +1,33 @@
 package br.com.contmatic.mongoDB;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoCompressor;
+import com.mongodb.ReadPreference;
+import com.mongodb.ServerAddress;
+import com.mongodb.WriteConcern;
+
+import br.com.contmatic.metricas.MetricasCommandListener;
+import br.com.contmatic.metricas.MetricasPoolListener;
+import br.com.contmatic.service.RegistroOperacoesLentas;
+
+/**
+ * Configuração da conexão com o MongoDB.
+ *
+ * Os valores são lidos do arquivo mongo.properties no classpath e podem ser
+ * sobrescritos por propriedades de sistema com o mesmo nome (por exemplo
+ * -Dmongo.pool.maxSize=200). O que não for informado usa os padrões abaixo.
+ *
+ * @author gabriel.santos
+ */
 public class MongoConf {
 	
 	public static final String HOST = "localhost";
@@ -7,8 +35,142 @@ public class MongoConf {
 	public static final int PORT = 27017;
 	
 	public static final String DB_NAME = "empresa";
-	
-	private MongoConf() {
+
+	public static final String ARQUIVO = "mongo.properties";
+
+	private final Properties properties;
+
+	public MongoConf(Properties properties) {
+		this.properties = properties;
+	}
+
+	public static MongoConf carregar() {
+		Properties properties = new Properties();
+		try (InputStream arquivo = MongoConf.class.getClassLoader().getResourceAsStream(ARQUIVO)) {
+			if (arquivo != null) {
+				properties.load(arquivo);
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Não foi possível ler " + ARQUIVO, e);
+		}
+		for (String nome : System.getProperties().stringPropertyNames()) {
+			if (nome.startsWith("mongo.")) {
+				properties.setProperty(nome, System.getProperty(nome));
+			}
+		}
+		return new MongoConf(properties);
+	}
+
+	public String getHost() {
+		return properties.getProperty("mongo.host", HOST);
+	}
+
+	public int getPort() {
+		return inteiro("mongo.port", PORT);
+	}
+
+	public String getDbName() {
+		return properties.getProperty("mongo.database", DB_NAME);
+	}
+
+	public int getPoolMinSize() {
+		return inteiro("mongo.pool.minSize", 0);
+	}
+
+	public int getPoolMaxSize() {
+		return inteiro("mongo.pool.maxSize", 100);
+	}
+
+	public long getPoolMaxWaitMillis() {
+		return longo("mongo.pool.maxWaitMillis", 120000);
+	}
+
+	public int getConnectTimeoutMillis() {
+		return inteiro("mongo.connectTimeoutMillis", 10000);
+	}
+
+	public int getSocketTimeoutMillis() {
+		return inteiro("mongo.socketTimeoutMillis", 0);
+	}
+
+	/**
+	 * Se a Conexao cria os índices do RegistroIndices ao abrir o cliente.
+	 */
+	public boolean isGarantirIndices() {
+		return Boolean.parseBoolean(properties.getProperty("mongo.indices.garantir", "true").trim());
+	}
+
+	public ReadPreference getReadPreference() {
+		return ReadPreference.valueOf(properties.getProperty("mongo.readPreference", "primary"));
+	}
+
+	public WriteConcern getWriteConcern() {
+		WriteConcern writeConcern = WriteConcern.valueOf(properties.getProperty("mongo.writeConcern", "ACKNOWLEDGED"));
+		if (writeConcern == null) {
+			throw new IllegalArgumentException("mongo.writeConcern inválido: " + properties.getProperty("mongo.writeConcern"));
+		}
+		return writeConcern;
+	}
+
+	public List<MongoCompressor> getCompressors() {
+		String valor = properties.getProperty("mongo.compressors", "").trim();
+		if (valor.isEmpty()) {
+			return Collections.emptyList();
+		}
+		List<MongoCompressor> compressors = new ArrayList<MongoCompressor>();
+		for (String nome : valor.split(",")) {
+			switch (nome.trim().toLowerCase()) {
+			case "zlib":
+				compressors.add(MongoCompressor.createZlibCompressor());
+				break;
+			case "snappy":
+				compressors.add(MongoCompressor.createSnappyCompressor());
+				break;
+			case "zstd":
+				compressors.add(MongoCompressor.createZstdCompressor());
+				break;
+			default:
+				throw new IllegalArgumentException("Compressor desconhecido: " + nome);
+			}
+		}
+		return compressors;
+	}
+
+	/**
+	 * Monta as configurações do cliente, já com os listeners que alimentam as
+	 * métricas da Instrumentacao e o RegistroOperacoesLentas. O builder é
+	 * devolvido aberto para que quem cria o cliente possa acrescentar outros
+	 * listeners ou codecs.
+	 *
+	 * @return o builder já preenchido
+	 */
+	public MongoClientSettings.Builder toSettings() {
+		final ServerAddress endereco = new ServerAddress(getHost(), getPort());
+		return MongoClientSettings.builder()
+				.applyToClusterSettings(cluster -> cluster.hosts(Collections.singletonList(endereco)))
+				.applyToConnectionPoolSettings(pool -> pool
+						.minSize(getPoolMinSize())
+						.maxSize(getPoolMaxSize())
+						.maxWaitTime(getPoolMaxWaitMillis(), TimeUnit.MILLISECONDS)
+						.addConnectionPoolListener(new MetricasPoolListener()))
+				.applyToSocketSettings(socket -> socket
+						.connectTimeout(getConnectTimeoutMillis(), TimeUnit.MILLISECONDS)
+						.readTimeout(getSocketTimeoutMillis(), TimeUnit.MILLISECONDS))
+				.readPreference(getReadPreference())
+				.writeConcern(getWriteConcern())
+				.compressorList(getCompressors())
+				.addCommandListener(new MetricasCommandListener())
+				.addCommandListener(RegistroOperacoesLentas.padrao());
+	}
+
+	private int inteiro(String nome, int padrao) {
+		String valor = properties.getProperty(nome);
+		return valor == null ? padrao : Integer.parseInt(valor.trim());
+	}
+
+	private long longo(String nome, long padrao) {
+		String valor = properties.getProperty(nome);
+		return valor == null ? padrao : Long.parseLong(valor.trim());
 	}
 
 }
@@ -1,57 +1,119 @@
 package br.com.contmatic.mongoDB;
 
-import org.bson.Document;
+import java.util.concurrent.TimeUnit;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.mongodb.MongoClient;
-import com.mongodb.client.MongoCollection;
 import com.mongodb.client.MongoDatabase;
 
+import br.com.contmatic.codec.Codecs;
 import br.com.contmatic.empresa.Cliente;
 import br.com.contmatic.empresa.Empresa;
 import br.com.contmatic.empresa.Fornecedor;
 import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.service.FuncionarioService;
 
+/**
+ * Inserção avulsa de entidades usando o cliente compartilhado da Conexao.
+ *
+ * Os métodos inserir devolvem o _id gravado; como a escrita é confirmada pelo
+ * write concern configurado, um retorno sem exceção significa que o documento
+ * foi aceito. A contagem de documentos, quando necessária, vem de um valor
+ * aproximado atualizado em segundo plano e não é calculada a cada inserção.
+ *
+ * O banco é o do MongoConf (mongo.database, "empresa" por padrão) e as
+ * coleções são as mesmas dos serviços, então o que é inserido aqui aparece
+ * para os serviços, o cache e o monitor de mudanças, e usa os índices do
+ * RegistroIndices. Versões antigas gravavam no banco "Empresa", nas coleções
+ * "Empresa" e "Cliente"; esses dados precisam ser migrados, ou o banco
+ * configurado com mongo.database=Empresa.
+ *
+ * @author gabriel.santos
+ */
 public class MongoDbConnection {
     
-    private static Logger LOGGER = LoggerFactory.getLogger(MongoDbConnection.class);;
+    private static final Logger LOGGER = LoggerFactory.getLogger(MongoDbConnection.class);
 
-    private static final String HOST = "localhost";
-    
-    private static final String DB_NAME = "Empresa";
+    public static final String CLIENTE = ClienteService.NAME_COLLECTION;
+
+    public static final String EMPRESA = EmpresaService.NAME_COLLECTION;
+
+    public static final String FORNECEDOR = FornecedorService.NAME_COLLECTION;
+
+    public static final String FUNCIONARIO = FuncionarioService.NAME_COLLECTION;
+
+    private static final long INTERVALO_CONTAGEM_SEGUNDOS = 30;
 
-    private static MongoClient mongoClient;
+    private MongoDbConnection() {
+    }
+
+    /**
+     * Mantém uma referência da Conexao durante toda a vida da aplicação. A
+     * classe só é carregada no primeiro uso.
+     */
+    private static final class Holder {
+
+        private static final Conexao CONEXAO = Conexao.getInstance();
 
-    private static MongoDatabase database = MongoDbConnection.getMongoDatabase();
+        private static final ContadorDocumentos CONTADOR = new ContadorDocumentos(CONEXAO.getDatabase(),
+                INTERVALO_CONTAGEM_SEGUNDOS, TimeUnit.SECONDS);
+
+    }
 
     public static MongoDatabase getMongoDatabase() {
-        mongoClient = new MongoClient(HOST);
-        return mongoClient.getDatabase(DB_NAME);
+        return Holder.CONEXAO.getDatabase();
+    }
+
+    public static String inserir(Cliente cliente) {
+        return inserir(CLIENTE, cliente, Cliente.class, cliente.getCpf());
+    }
+
+    public static String inserir(Empresa empresa) {
+        return inserir(EMPRESA, empresa, Empresa.class, empresa.getCnpj());
+    }
+
+    public static String inserir(Fornecedor fornecedor) {
+        return inserir(FORNECEDOR, fornecedor, Fornecedor.class, fornecedor.getCnpj());
+    }
+
+    public static String inserir(Funcionario funcionario) {
+        return inserir(FUNCIONARIO, funcionario, Funcionario.class, funcionario.getCpf());
+    }
+
+    /**
+     * Contagem aproximada da coleção, com no máximo alguns segundos de atraso.
+     *
+     * @param colecao o nome da coleção
+     * @return o número estimado de documentos
+     */
+    public static long contagemEstimada(String colecao) {
+        return Holder.CONTADOR.getContagem(colecao);
     }
 
     public static String SentToDatabaseCliente(Cliente cliente) {
-        MongoCollection<Document> clienteCollection = database.getCollection("Cliente");
-        clienteCollection.insertOne(Document.parse(cliente.toString()).append("_id", cliente.getCpf()));
-        return "Cadastro -> Documento nº" + clienteCollection.countDocuments() + "Inserido com sucesso";
+        return "Cadastro -> Documento " + inserir(cliente) + " inserido com sucesso";
     }
     
     public static void SentToDatabaseEmpresa(Empresa empresa) {
-        MongoCollection<Document> empresaCollection = database.getCollection("Empresa");
-        empresaCollection.insertOne(Document.parse(empresa.toString()).append("_id", empresa.getCnpj()));
-        LOGGER.info("Empresa -> Documento nº " + empresaCollection.countDocuments() + " Inserido com sucesso");
+        LOGGER.info("Empresa -> Documento {} inserido com sucesso", inserir(empresa));
     }
     
     public static String SentToDatabaseFornecedor(Fornecedor fornecedor) {
-        MongoCollection<Document> cadastroCollection = database.getCollection("Fornecedor");
-        cadastroCollection.insertOne(Document.parse(fornecedor.toString()).append("_id", fornecedor.getCnpj()));
-        return "Cadastro -> Documento nº" + cadastroCollection.countDocuments() + "Inserido com sucesso";
+        return "Cadastro -> Documento " + inserir(fornecedor) + " inserido com sucesso";
     }
 
     public static String SentToDatabaseFuncionario(Funcionario funcionario) {
-        MongoCollection<Document> funcionarioCollection = database.getCollection("Funcionario");
-        funcionarioCollection.insertOne(Document.parse(funcionario.toString()).append("_id", funcionario.getCpf()));
-        return "Funcionario -> Documento nº" + funcionarioCollection.countDocuments() + "Inserido com sucesso";
+        return "Funcionario -> Documento " + inserir(funcionario) + " inserido com sucesso";
+    }
+
+    private static <T> String inserir(String colecao, T entidade, Class<T> classe, String id) {
+        Holder.CONEXAO.getDatabase().getCollection(colecao, classe).withCodecRegistry(Codecs.REGISTRY)
+                .insertOne(entidade);
+        return id;
     }
 
 }
@@ -0,0 +1,159 @@
+package br.com.contmatic.mongoDB;
+
+import static com.mongodb.client.model.Filters.type;
+import static com.mongodb.client.model.Indexes.ascending;
+import static com.mongodb.client.model.Indexes.compoundIndex;
+import static com.mongodb.client.model.Indexes.text;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.BsonType;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.IndexModel;
+import com.mongodb.client.model.IndexOptions;
+
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.service.FuncionarioService;
+
+/**
+ * Índices declarados para as coleções das entidades.
+ *
+ * Todo índice tem nome fixo, o que torna garantir idempotente: só os índices
+ * que ainda não existem são enviados ao createIndexes. O nome tem, além do
+ * índice de texto, um índice ascendente, o único que atende ao prefixo do
+ * nomeComecaCom.
+ *
+ * A Conexao chama RegistroIndices.padrao().garantir ao criar o cliente
+ * compartilhado, a não ser que mongo.indices.garantir seja false.
+ *
+ * @author gabriel.santos
+ */
+public class RegistroIndices {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RegistroIndices.class);
+
+	private final Map<String, List<IndexModel>> indices = new LinkedHashMap<String, List<IndexModel>>();
+
+	public RegistroIndices declarar(String colecao, String nome, Bson chaves) {
+		return declarar(colecao, chaves, new IndexOptions().name(nome));
+	}
+
+	public RegistroIndices declarar(String colecao, Bson chaves, IndexOptions opcoes) {
+		if (opcoes.getName() == null) {
+			throw new IllegalArgumentException("O índice precisa de um nome para ser comparado com o banco");
+		}
+		indices.computeIfAbsent(colecao, nome -> new ArrayList<IndexModel>()).add(new IndexModel(chaves, opcoes));
+		return this;
+	}
+
+	public static RegistroIndices padrao() {
+		RegistroIndices registro = new RegistroIndices();
+		for (String colecao : new String[] { EmpresaService.NAME_COLLECTION, FornecedorService.NAME_COLLECTION,
+				FuncionarioService.NAME_COLLECTION }) {
+			registro.declarar(colecao, "nome_text", text("nome"))
+					.declarar(colecao, "nome", ascending("nome"))
+					.declarar(colecao, "telefones_numero", ascending("telefones.numero"))
+					.declarar(colecao, "enderecos_cep", ascending("enderecos.cep"))
+					.declarar(colecao, "enderecos_estado_cidade",
+							compoundIndex(ascending("enderecos.estado"), ascending("enderecos.cidade")));
+		}
+		registro.declarar(FuncionarioService.NAME_COLLECTION, "dataContratacao", ascending("dataContratacao"))
+				.declarar(FuncionarioService.NAME_COLLECTION, "salario", ascending("salario"));
+		registro.declarar(ClienteService.NAME_COLLECTION, "nome_text", text("nome"))
+				.declarar(ClienteService.NAME_COLLECTION, "nome", ascending("nome"))
+				.declarar(ClienteService.NAME_COLLECTION, "telefones_numero", ascending("telefones.numero"))
+				.declarar(ClienteService.NAME_COLLECTION, ascending("email"), new IndexOptions().name("email_unique")
+						.unique(true).partialFilterExpression(type("email", BsonType.STRING)));
+		return registro;
+	}
+
+	public Map<String, List<IndexModel>> getIndices() {
+		return indices;
+	}
+
+	/**
+	 * Indica se uma consulta pelos campos pode usar algum índice declarado da
+	 * coleção: o de _id ou um cujo primeiro campo esteja entre eles. Índices de
+	 * texto não contam, porque só atendem ao $text.
+	 */
+	public boolean cobre(String colecao, Collection<String> campos) {
+		if (campos.contains("_id")) {
+			return true;
+		}
+		for (IndexModel indice : indices.getOrDefault(colecao, Collections.<IndexModel>emptyList())) {
+			BsonDocument chaves = indice.getKeys().toBsonDocument(BsonDocument.class,
+					MongoClientSettings.getDefaultCodecRegistry());
+			String primeiroCampo = chaves.getFirstKey();
+			if (!chaves.get(primeiroCampo).isString() && campos.contains(primeiroCampo)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public RelatorioIndices verificar(MongoDatabase database) {
+		RelatorioIndices relatorio = new RelatorioIndices();
+		for (Map.Entry<String, List<IndexModel>> entrada : indices.entrySet()) {
+			Set<String> existentes = nomesExistentes(database.getCollection(entrada.getKey()));
+			for (IndexModel indice : entrada.getValue()) {
+				String nome = indice.getOptions().getName();
+				if (existentes.contains(nome)) {
+					relatorio.adicionarExistente(entrada.getKey(), nome);
+				} else {
+					relatorio.adicionarFaltante(entrada.getKey(), nome);
+				}
+			}
+		}
+		return relatorio;
+	}
+
+	public RelatorioIndices garantir(MongoDatabase database) {
+		for (Map.Entry<String, List<IndexModel>> entrada : indices.entrySet()) {
+			MongoCollection<Document> collection = database.getCollection(entrada.getKey());
+			Set<String> existentes = nomesExistentes(collection);
+			for (IndexModel indice : entrada.getValue()) {
+				if (existentes.contains(indice.getOptions().getName())) {
+					continue;
+				}
+				try {
+					collection.createIndexes(Collections.singletonList(indice));
+				} catch (MongoException e) {
+					LOGGER.error("Não foi possível criar o índice " + indice.getOptions().getName() + " em "
+							+ entrada.getKey(), e);
+				}
+			}
+		}
+		RelatorioIndices relatorio = verificar(database);
+		if (!relatorio.isCompleto()) {
+			LOGGER.warn("Índices faltando: {}", relatorio);
+		}
+		return relatorio;
+	}
+
+	private static Set<String> nomesExistentes(MongoCollection<Document> collection) {
+		Set<String> nomes = new HashSet<String>();
+		for (Document indice : collection.listIndexes()) {
+			nomes.add(indice.getString("name"));
+		}
+		return nomes;
+	}
+
+}
@@ -0,0 +1,45 @@
+package br.com.contmatic.mongoDB;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Situação dos índices declarados no RegistroIndices, por coleção.
+ *
+ * @author gabriel.santos
+ */
+public class RelatorioIndices {
+
+	private final Map<String, List<String>> existentes = new LinkedHashMap<String, List<String>>();
+
+	private final Map<String, List<String>> faltantes = new LinkedHashMap<String, List<String>>();
+
+	void adicionarExistente(String colecao, String indice) {
+		existentes.computeIfAbsent(colecao, nome -> new ArrayList<String>()).add(indice);
+	}
+
+	void adicionarFaltante(String colecao, String indice) {
+		faltantes.computeIfAbsent(colecao, nome -> new ArrayList<String>()).add(indice);
+	}
+
+	public List<String> getExistentes(String colecao) {
+		return existentes.getOrDefault(colecao, Collections.<String>emptyList());
+	}
+
+	public List<String> getFaltantes(String colecao) {
+		return faltantes.getOrDefault(colecao, Collections.<String>emptyList());
+	}
+
+	public boolean isCompleto() {
+		return faltantes.isEmpty();
+	}
+
+	@Override
+	public String toString() {
+		return "existentes=" + existentes + ", faltantes=" + faltantes;
+	}
+
+}
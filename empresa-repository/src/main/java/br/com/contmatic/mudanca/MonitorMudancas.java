@@ -0,0 +1,249 @@
+package br.com.contmatic.mudanca;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoCommandException;
+import com.mongodb.MongoException;
+import com.mongodb.client.ChangeStreamIterable;
+import com.mongodb.client.MongoChangeStreamCursor;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import br.com.contmatic.metricas.Instrumentacao;
+
+/**
+ * Acompanha as mudanças de uma coleção pelo change stream e repassa cada uma
+ * aos ouvintes, em uma thread própria.
+ *
+ * O token de retomada é gravado no RegistroRetomada a cada intervalo e ao
+ * fechar, então um monitor reiniciado continua de onde parou e os ouvintes
+ * podem receber de novo as últimas mudanças, nunca perdê-las. Se o token não
+ * estiver mais no oplog, ou se a coleção for removida ou renomeada, os
+ * ouvintes recebem um REINICIO e o monitor recomeça do momento atual.
+ *
+ * O change stream exige replica set ou cluster shardado.
+ *
+ * @author gabriel.santos
+ */
+public class MonitorMudancas implements AutoCloseable {
+
+	public static final long INTERVALO_GRAVACAO_PADRAO_MILLIS = 1000;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(MonitorMudancas.class);
+
+	private static final long ESPERA_MAXIMA_MILLIS = 1000;
+
+	private static final long ESPERA_RECONEXAO_MILLIS = 1000;
+
+	/**
+	 * ChangeStreamFatalError, ChangeStreamHistoryLost e CappedPositionLost: o
+	 * token não pode mais ser usado.
+	 */
+	private static final Set<Integer> TOKEN_PERDIDO = new HashSet<Integer>(Arrays.asList(280, 286, 136));
+
+	private final MongoCollection<Document> collection;
+
+	private final String nome;
+
+	private final RegistroRetomada registro;
+
+	private final long intervaloGravacaoNanos;
+
+	private final List<OuvinteMudancas> ouvintes = new CopyOnWriteArrayList<OuvinteMudancas>();
+
+	private final CountDownLatch aberto = new CountDownLatch(1);
+
+	private final Thread leitor;
+
+	private volatile boolean executando;
+
+	private volatile long sincronizadoEm;
+
+	private volatile MongoException falhaAbertura;
+
+	public MonitorMudancas(MongoDatabase database, String colecao, RegistroRetomada registro) {
+		this(database, colecao, registro, INTERVALO_GRAVACAO_PADRAO_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	public MonitorMudancas(MongoDatabase database, String colecao, RegistroRetomada registro, long intervaloGravacao,
+			TimeUnit unidade) {
+		this.collection = database.getCollection(colecao);
+		this.nome = database.getName() + "." + colecao;
+		this.registro = registro;
+		this.intervaloGravacaoNanos = unidade.toNanos(intervaloGravacao);
+		this.leitor = new Thread(this::ler, "mudancas-" + colecao);
+		this.leitor.setDaemon(true);
+	}
+
+	public MonitorMudancas adicionar(OuvinteMudancas ouvinte) {
+		ouvintes.add(ouvinte);
+		return this;
+	}
+
+	/**
+	 * Começa a acompanhar a coleção e espera o change stream ser aberto, para
+	 * que nada gravado depois desta chamada passe despercebido. Lança a
+	 * exceção do banco se o change stream não puder ser aberto, como em um
+	 * servidor standalone.
+	 */
+	public void iniciar() throws InterruptedException {
+		executando = true;
+		leitor.start();
+		aberto.await();
+		if (falhaAbertura != null) {
+			throw falhaAbertura;
+		}
+	}
+
+	/**
+	 * Para de acompanhar a coleção e grava o último token.
+	 */
+	@Override
+	public void close() {
+		executando = false;
+		try {
+			leitor.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	public MongoCollection<Document> getCollection() {
+		return collection;
+	}
+
+	/**
+	 * O atraso dos ouvintes: há quanto tempo foi gravada no banco a última
+	 * mudança já repassada, pelo clusterTime do evento, ou há quanto tempo o
+	 * monitor confirmou que não havia mudança pendente. O clusterTime vem em
+	 * segundos e do relógio do servidor, então o atraso pode passar do real
+	 * em até um segundo mais a diferença entre os relógios.
+	 */
+	public long getAtrasoMillis() {
+		long sincronizado = sincronizadoEm;
+		return sincronizado == 0 ? Long.MAX_VALUE : Math.max(0, System.currentTimeMillis() - sincronizado);
+	}
+
+	/**
+	 * Os ouvintes já receberam as mudanças gravadas até o clusterTime. Sem
+	 * clusterTime o atraso continua o anterior.
+	 */
+	void sincronizado(BsonTimestamp clusterTime) {
+		if (clusterTime != null) {
+			sincronizadoEm = TimeUnit.SECONDS.toMillis(clusterTime.getTime());
+		}
+	}
+
+	private void ler() {
+		try {
+			BsonDocument token = registro.ler(nome);
+			while (executando) {
+				try {
+					token = acompanhar(token);
+				} catch (MongoCommandException e) {
+					if (TOKEN_PERDIDO.contains(e.getErrorCode())) {
+						LOGGER.warn("O token de retomada de {} não pode mais ser usado, recomeçando", nome, e);
+						token = null;
+						entregar(Mudanca.REINICIO);
+					} else {
+						falhar(e);
+					}
+				} catch (MongoException e) {
+					falhar(e);
+				}
+			}
+		} catch (MongoException e) {
+			falhaAbertura = e;
+		} finally {
+			aberto.countDown();
+		}
+	}
+
+	/**
+	 * Antes da primeira abertura a falha encerra o monitor e é lançada em
+	 * iniciar; depois, o monitor tenta de novo a partir do último token.
+	 */
+	private void falhar(MongoException e) {
+		if (aberto.getCount() > 0) {
+			throw e;
+		}
+		LOGGER.warn("Falha ao acompanhar {}, tentando de novo em {} ms", nome, ESPERA_RECONEXAO_MILLIS, e);
+		sincronizadoEm = 0;
+		try {
+			Thread.sleep(ESPERA_RECONEXAO_MILLIS);
+		} catch (InterruptedException interrupcao) {
+			Thread.currentThread().interrupt();
+			executando = false;
+		}
+	}
+
+	/**
+	 * Lê o change stream até o monitor ser fechado ou o stream ser
+	 * invalidado, e devolve o token de onde continuar.
+	 */
+	private BsonDocument acompanhar(BsonDocument inicio) {
+		ChangeStreamIterable<Document> iterable = collection.watch().fullDocument(FullDocument.UPDATE_LOOKUP)
+				.maxAwaitTime(ESPERA_MAXIMA_MILLIS, TimeUnit.MILLISECONDS);
+		if (inicio != null) {
+			iterable.resumeAfter(inicio);
+		}
+		BsonDocument token = inicio;
+		BsonDocument gravado = inicio;
+		long gravadoEm = System.nanoTime();
+		try (MongoChangeStreamCursor<ChangeStreamDocument<Document>> cursor = iterable.cursor()) {
+			aberto.countDown();
+			while (executando) {
+				ChangeStreamDocument<Document> evento = cursor.tryNext();
+				if (evento == null) {
+					sincronizadoEm = System.currentTimeMillis();
+				} else if (evento.getOperationType() == OperationType.INVALIDATE) {
+					entregar(Mudanca.REINICIO);
+					token = null;
+					return null;
+				} else {
+					entregar(Mudanca.de(evento));
+					sincronizado(evento.getClusterTime());
+				}
+				token = cursor.getResumeToken() != null ? cursor.getResumeToken() : token;
+				if (token != null && !token.equals(gravado)
+						&& System.nanoTime() - gravadoEm >= intervaloGravacaoNanos) {
+					registro.gravar(nome, token);
+					gravado = token;
+					gravadoEm = System.nanoTime();
+				}
+			}
+		} finally {
+			if (token != null && !token.equals(gravado)) {
+				registro.gravar(nome, token);
+			}
+		}
+		return token;
+	}
+
+	private void entregar(Mudanca mudanca) {
+		Instrumentacao.getMetricas().incrementar("mudancas", collection.getNamespace().getCollectionName(), 1);
+		for (OuvinteMudancas ouvinte : ouvintes) {
+			try {
+				ouvinte.receber(mudanca);
+			} catch (RuntimeException e) {
+				LOGGER.error("Falha ao repassar a mudança {} de {}", mudanca.getChave(), nome, e);
+			}
+		}
+	}
+
+}
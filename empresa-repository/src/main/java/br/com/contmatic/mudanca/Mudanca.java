@@ -0,0 +1,77 @@
+package br.com.contmatic.mudanca;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.bson.BsonValue;
+import org.bson.Document;
+
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+
+/**
+ * Uma mudança em um documento da coleção observada.
+ *
+ * @author gabriel.santos
+ */
+public class Mudanca {
+
+	static final Mudanca REINICIO = new Mudanca(TipoMudanca.REINICIO, null, null);
+
+	/** O tipo da mudança. */
+	private final TipoMudanca tipo;
+
+	/** O _id do documento, que é o CPF ou CNPJ; nulo no REINICIO. */
+	private final String chave;
+
+	/** O documento como está no banco, presente só na GRAVACAO. */
+	private final Document documento;
+
+	public Mudanca(TipoMudanca tipo, String chave, Document documento) {
+		this.tipo = tipo;
+		this.chave = chave;
+		this.documento = documento;
+	}
+
+	/**
+	 * Converte um evento do change stream. A alteração traz o documento
+	 * inteiro lido depois dela; se ele não existe mais, o documento já foi
+	 * removido e a mudança vira REMOCAO. Eventos que não dizem respeito a um
+	 * documento, como drop e rename, viram REINICIO.
+	 */
+	static Mudanca de(ChangeStreamDocument<Document> evento) {
+		switch (evento.getOperationType()) {
+		case INSERT:
+		case UPDATE:
+		case REPLACE:
+			Document documento = evento.getFullDocument();
+			return documento == null ? new Mudanca(TipoMudanca.REMOCAO, chave(evento), null)
+					: new Mudanca(TipoMudanca.GRAVACAO, chave(evento), documento);
+		case DELETE:
+			return new Mudanca(TipoMudanca.REMOCAO, chave(evento), null);
+		default:
+			return REINICIO;
+		}
+	}
+
+	private static String chave(ChangeStreamDocument<Document> evento) {
+		BsonValue id = evento.getDocumentKey().get("_id");
+		return id.isString() ? id.asString().getValue() : id.toString();
+	}
+
+	public TipoMudanca getTipo() {
+		return tipo;
+	}
+
+	public String getChave() {
+		return chave;
+	}
+
+	public Document getDocumento() {
+		return documento;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
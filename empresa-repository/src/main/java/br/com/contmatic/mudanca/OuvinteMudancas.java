@@ -0,0 +1,15 @@
+package br.com.contmatic.mudanca;
+
+/**
+ * Recebe as mudanças de uma coleção, na ordem em que aconteceram no banco.
+ *
+ * É chamado na thread do MonitorMudancas, então não deve bloquear.
+ *
+ * @author gabriel.santos
+ */
+@FunctionalInterface
+public interface OuvinteMudancas {
+
+	void receber(Mudanca mudanca);
+
+}
@@ -0,0 +1,20 @@
+package br.com.contmatic.mudanca;
+
+import org.bson.BsonDocument;
+
+/**
+ * Guarda o token de retomada de cada monitor, para que ele continue de onde
+ * parou depois de reiniciar.
+ *
+ * @author gabriel.santos
+ */
+public interface RegistroRetomada {
+
+	/**
+	 * O último token gravado para o monitor, ou nulo se ele nunca rodou.
+	 */
+	BsonDocument ler(String nome);
+
+	void gravar(String nome, BsonDocument token);
+
+}
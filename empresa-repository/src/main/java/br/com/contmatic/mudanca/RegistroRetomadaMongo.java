@@ -0,0 +1,43 @@
+package br.com.contmatic.mudanca;
+
+import static com.mongodb.client.model.Filters.eq;
+
+import org.bson.BsonDateTime;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.ReplaceOptions;
+
+/**
+ * Guarda os tokens de retomada na coleção retomadaMudancas, um documento por
+ * monitor, para que um nó que reinicia continue de onde o monitor parou.
+ *
+ * @author gabriel.santos
+ */
+public class RegistroRetomadaMongo implements RegistroRetomada {
+
+	public static final String NAME_COLLECTION = "retomadaMudancas";
+
+	private static final ReplaceOptions UPSERT = new ReplaceOptions().upsert(true);
+
+	private final MongoCollection<BsonDocument> collection;
+
+	public RegistroRetomadaMongo(MongoDatabase database) {
+		this.collection = database.getCollection(NAME_COLLECTION, BsonDocument.class);
+	}
+
+	@Override
+	public BsonDocument ler(String nome) {
+		BsonDocument document = collection.find(eq("_id", nome)).first();
+		return document == null ? null : document.getDocument("token");
+	}
+
+	@Override
+	public void gravar(String nome, BsonDocument token) {
+		collection.replaceOne(eq("_id", nome), new BsonDocument("_id", new BsonString(nome)).append("token", token)
+				.append("atualizadoEm", new BsonDateTime(System.currentTimeMillis())), UPSERT);
+	}
+
+}
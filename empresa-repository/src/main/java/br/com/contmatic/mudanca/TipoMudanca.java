@@ -0,0 +1,23 @@
+package br.com.contmatic.mudanca;
+
+/**
+ * O que aconteceu com um documento observado pelo MonitorMudancas.
+ *
+ * @author gabriel.santos
+ */
+public enum TipoMudanca {
+
+	/** O documento foi incluído ou alterado e vem inteiro na mudança. */
+	GRAVACAO,
+
+	/** O documento foi removido. */
+	REMOCAO,
+
+	/**
+	 * O monitor perdeu a sequência de mudanças, como em um drop da coleção ou
+	 * quando o token de retomada saiu do oplog. As cópias locais devem ser
+	 * descartadas.
+	 */
+	REINICIO
+
+}
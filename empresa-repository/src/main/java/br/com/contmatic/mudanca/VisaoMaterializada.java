@@ -0,0 +1,112 @@
+package br.com.contmatic.mudanca;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import org.bson.Document;
+
+/**
+ * Cópia em memória de uma coleção, por CPF ou CNPJ, mantida em dia pelas
+ * mudanças do MonitorMudancas.
+ *
+ * O monitor deve ser iniciado antes de carregar, para que as mudanças feitas
+ * durante a carga também cheguem. Durante a carga, o que veio pelas mudanças
+ * prevalece sobre o que foi lido da coleção. Um REINICIO esvazia a cópia e a
+ * carrega de novo.
+ *
+ * A cópia fica atrás do banco no máximo o atraso do monitor; isAtualizada diz
+ * se esse atraso está dentro do limite informado, e quando não está quem lê
+ * deve ir ao banco.
+ *
+ * @author gabriel.santos
+ */
+public class VisaoMaterializada<T> implements OuvinteMudancas {
+
+	private final MonitorMudancas monitor;
+
+	private final Function<Document, T> conversor;
+
+	private final long atrasoMaximoMillis;
+
+	private final ConcurrentMap<String, T> itens = new ConcurrentHashMap<String, T>();
+
+	private volatile Set<String> removidosNaCarga;
+
+	private volatile boolean carregada;
+
+	public VisaoMaterializada(MonitorMudancas monitor, Function<Document, T> conversor, long atrasoMaximo,
+			TimeUnit unidade) {
+		this.monitor = monitor;
+		this.conversor = conversor;
+		this.atrasoMaximoMillis = unidade.toMillis(atrasoMaximo);
+		monitor.adicionar(this);
+	}
+
+	/**
+	 * Lê a coleção inteira para a memória.
+	 */
+	public synchronized void carregar() {
+		Set<String> removidos = ConcurrentHashMap.newKeySet();
+		removidosNaCarga = removidos;
+		try {
+			for (Document document : monitor.getCollection().find()) {
+				String chave = document.getString("_id");
+				T item = conversor.apply(document);
+				if (itens.putIfAbsent(chave, item) == null && removidos.contains(chave)) {
+					itens.remove(chave, item);
+				}
+			}
+			carregada = true;
+		} finally {
+			removidosNaCarga = null;
+		}
+	}
+
+	@Override
+	public void receber(Mudanca mudanca) {
+		switch (mudanca.getTipo()) {
+		case GRAVACAO:
+			itens.put(mudanca.getChave(), conversor.apply(mudanca.getDocumento()));
+			break;
+		case REMOCAO:
+			Set<String> removidos = removidosNaCarga;
+			if (removidos != null) {
+				removidos.add(mudanca.getChave());
+			}
+			itens.remove(mudanca.getChave());
+			break;
+		default:
+			carregada = false;
+			itens.clear();
+			carregar();
+		}
+	}
+
+	/**
+	 * A entidade do CPF ou CNPJ, ou nulo se ela não existir.
+	 */
+	public T buscar(String chave) {
+		return itens.get(chave);
+	}
+
+	public Collection<T> getTodos() {
+		return Collections.unmodifiableCollection(itens.values());
+	}
+
+	public int getTamanho() {
+		return itens.size();
+	}
+
+	/**
+	 * Se a cópia foi carregada e o monitor está dentro do atraso máximo.
+	 */
+	public boolean isAtualizada() {
+		return carregada && monitor.getAtrasoMillis() <= atrasoMaximoMillis;
+	}
+
+}
@@ -0,0 +1,45 @@
+package br.com.contmatic.query;
+
+import br.com.contmatic.service.ClienteService;
+
+/**
+ * Consulta tipada da coleção de clientes.
+ *
+ * @author gabriel.santos
+ */
+public class ClienteQuery extends Query<ClienteQuery> {
+
+	private ClienteQuery() {
+		super(ClienteService.NAME_COLLECTION);
+	}
+
+	public static ClienteQuery porCpf(String cpf) {
+		return new ClienteQuery().igual("_id", cpf);
+	}
+
+	/**
+	 * Consulta sem a chave, que precisa de algum outro critério antes de ir ao
+	 * banco.
+	 */
+	public static ClienteQuery todos() {
+		return new ClienteQuery();
+	}
+
+	public ClienteQuery nomeComecaCom(String prefixo) {
+		return comecaCom("nome", prefixo);
+	}
+
+	public ClienteQuery email(String email) {
+		return igual("email", email);
+	}
+
+	public ClienteQuery telefone(String numero) {
+		return igual("telefones.numero", numero);
+	}
+
+	@Override
+	protected ClienteQuery self() {
+		return this;
+	}
+
+}
@@ -0,0 +1,36 @@
+package br.com.contmatic.query;
+
+import java.util.Set;
+
+/**
+ * Lançada quando nenhum índice declarado atende aos campos de uma consulta,
+ * que por isso percorreria a coleção inteira.
+ *
+ * Para aceitar a varredura, por exemplo em uma rotina noturna, a consulta deve
+ * chamar permitirVarredura.
+ *
+ * @author gabriel.santos
+ */
+public class ConsultaSemIndiceException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String colecao;
+
+	private final Set<String> campos;
+
+	public ConsultaSemIndiceException(String colecao, Set<String> campos) {
+		super("A consulta em " + colecao + " pelos campos " + campos + " não usa nenhum índice");
+		this.colecao = colecao;
+		this.campos = campos;
+	}
+
+	public String getColecao() {
+		return colecao;
+	}
+
+	public Set<String> getCampos() {
+		return campos;
+	}
+
+}
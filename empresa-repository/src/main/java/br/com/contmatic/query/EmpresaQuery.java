@@ -0,0 +1,68 @@
+package br.com.contmatic.query;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
+import static com.mongodb.client.model.Filters.eq;
+
+import br.com.contmatic.endereco.Estado;
+import br.com.contmatic.service.EmpresaService;
+
+/**
+ * Consulta tipada da coleção de empresas. Ex.:
+ * EmpresaQuery.todas().nomeComecaCom("Cont").cidade(Estado.SP, "Santos").
+ *
+ * @author gabriel.santos
+ */
+public class EmpresaQuery extends Query<EmpresaQuery> {
+
+	private EmpresaQuery() {
+		super(EmpresaService.NAME_COLLECTION);
+	}
+
+	public static EmpresaQuery porCnpj(String cnpj) {
+		return new EmpresaQuery().igual("_id", cnpj);
+	}
+
+	/**
+	 * Consulta sem a chave, que precisa de algum outro critério antes de ir ao
+	 * banco.
+	 */
+	public static EmpresaQuery todas() {
+		return new EmpresaQuery();
+	}
+
+	public EmpresaQuery nomeComecaCom(String prefixo) {
+		return comecaCom("nome", prefixo);
+	}
+
+	public EmpresaQuery site(String site) {
+		return igual("site", site);
+	}
+
+	public EmpresaQuery telefone(String numero) {
+		return igual("telefones.numero", numero);
+	}
+
+	public EmpresaQuery cep(String cep) {
+		return igual("enderecos.cep", cep);
+	}
+
+	public EmpresaQuery estado(Estado estado) {
+		return igual("enderecos.estado", estado.name());
+	}
+
+	/**
+	 * Um mesmo endereço com o estado e a cidade, na ordem do índice
+	 * enderecos_estado_cidade.
+	 */
+	public EmpresaQuery cidade(Estado estado, String cidade) {
+		return adicionar(elemMatch("enderecos", and(eq("estado", estado.name()), eq("cidade", cidade))),
+				"enderecos.estado", "enderecos.cidade");
+	}
+
+	@Override
+	protected EmpresaQuery self() {
+		return this;
+	}
+
+}
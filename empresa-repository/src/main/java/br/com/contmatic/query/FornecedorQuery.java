@@ -0,0 +1,67 @@
+package br.com.contmatic.query;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
+import static com.mongodb.client.model.Filters.eq;
+
+import br.com.contmatic.endereco.Estado;
+import br.com.contmatic.service.FornecedorService;
+
+/**
+ * Consulta tipada da coleção de fornecedores.
+ *
+ * @author gabriel.santos
+ */
+public class FornecedorQuery extends Query<FornecedorQuery> {
+
+	private FornecedorQuery() {
+		super(FornecedorService.NAME_COLLECTION);
+	}
+
+	public static FornecedorQuery porCnpj(String cnpj) {
+		return new FornecedorQuery().igual("_id", cnpj);
+	}
+
+	/**
+	 * Consulta sem a chave, que precisa de algum outro critério antes de ir ao
+	 * banco.
+	 */
+	public static FornecedorQuery todos() {
+		return new FornecedorQuery();
+	}
+
+	public FornecedorQuery nomeComecaCom(String prefixo) {
+		return comecaCom("nome", prefixo);
+	}
+
+	public FornecedorQuery produto(String produto) {
+		return igual("produto", produto);
+	}
+
+	public FornecedorQuery telefone(String numero) {
+		return igual("telefones.numero", numero);
+	}
+
+	public FornecedorQuery cep(String cep) {
+		return igual("enderecos.cep", cep);
+	}
+
+	public FornecedorQuery estado(Estado estado) {
+		return igual("enderecos.estado", estado.name());
+	}
+
+	/**
+	 * Um mesmo endereço com o estado e a cidade, na ordem do índice
+	 * enderecos_estado_cidade.
+	 */
+	public FornecedorQuery cidade(Estado estado, String cidade) {
+		return adicionar(elemMatch("enderecos", and(eq("estado", estado.name()), eq("cidade", cidade))),
+				"enderecos.estado", "enderecos.cidade");
+	}
+
+	@Override
+	protected FornecedorQuery self() {
+		return this;
+	}
+
+}
@@ -0,0 +1,73 @@
+package br.com.contmatic.query;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.elemMatch;
+import static com.mongodb.client.model.Filters.eq;
+
+import org.joda.time.LocalDate;
+
+import br.com.contmatic.endereco.Estado;
+import br.com.contmatic.service.FuncionarioService;
+
+/**
+ * Consulta tipada da coleção de funcionários.
+ *
+ * @author gabriel.santos
+ */
+public class FuncionarioQuery extends Query<FuncionarioQuery> {
+
+	private FuncionarioQuery() {
+		super(FuncionarioService.NAME_COLLECTION);
+	}
+
+	public static FuncionarioQuery porCpf(String cpf) {
+		return new FuncionarioQuery().igual("_id", cpf);
+	}
+
+	/**
+	 * Consulta sem a chave, que precisa de algum outro critério antes de ir ao
+	 * banco.
+	 */
+	public static FuncionarioQuery todos() {
+		return new FuncionarioQuery();
+	}
+
+	public FuncionarioQuery nomeComecaCom(String prefixo) {
+		return comecaCom("nome", prefixo);
+	}
+
+	/**
+	 * Funcionários contratados a partir do início, incluído, até o fim,
+	 * excluído.
+	 */
+	public FuncionarioQuery contratadoEntre(LocalDate inicio, LocalDate fim) {
+		return entre("dataContratacao", inicio.toString(), fim.toString());
+	}
+
+	public FuncionarioQuery telefone(String numero) {
+		return igual("telefones.numero", numero);
+	}
+
+	public FuncionarioQuery cep(String cep) {
+		return igual("enderecos.cep", cep);
+	}
+
+	public FuncionarioQuery estado(Estado estado) {
+		return igual("enderecos.estado", estado.name());
+	}
+
+	/**
+	 * Um mesmo endereço com o estado e a cidade, na ordem do índice
+	 * enderecos_estado_cidade.
+	 */
+	public FuncionarioQuery cidade(Estado estado, String cidade) {
+		return adicionar(elemMatch("enderecos", and(eq("estado", estado.name()), eq("cidade", cidade))),
+				"enderecos.estado", "enderecos.cidade");
+	}
+
+	@Override
+	protected FuncionarioQuery self() {
+		return this;
+	}
+
+}
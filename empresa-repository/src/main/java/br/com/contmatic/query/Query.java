@@ -0,0 +1,153 @@
+package br.com.contmatic.query;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.regex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.mongoDB.RegistroIndices;
+
+/**
+ * Base das consultas tipadas das entidades, que geram o filtro com Filters.
+ *
+ * Cada critério registra o campo usado, o que permite conferir a consulta com
+ * os índices do RegistroIndices antes de ir ao banco. Os prefixos viram $regex
+ * ancorado em ^ e sem opções, a única forma de $regex que usa índice.
+ *
+ * @author gabriel.santos
+ */
+public abstract class Query<Q extends Query<Q>> {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(Query.class);
+
+	private static final RegistroIndices INDICES = RegistroIndices.padrao();
+
+	private static final String ESPECIAIS_REGEX = "\\^$.|?*+()[]{}";
+
+	private final String colecao;
+
+	private final List<Bson> filtros = new ArrayList<Bson>();
+
+	private final Set<String> campos = new LinkedHashSet<String>();
+
+	private boolean varreduraPermitida;
+
+	protected Query(String colecao) {
+		this.colecao = colecao;
+	}
+
+	/**
+	 * Aceita que a consulta percorra a coleção inteira, registrando só um aviso
+	 * em vez de recusá-la.
+	 */
+	public Q permitirVarredura() {
+		varreduraPermitida = true;
+		return self();
+	}
+
+	public String getColecao() {
+		return colecao;
+	}
+
+	public Set<String> getCampos() {
+		return Collections.unmodifiableSet(campos);
+	}
+
+	public boolean usaIndice() {
+		return INDICES.cobre(colecao, campos);
+	}
+
+	/**
+	 * Monta o filtro. Uma consulta sem critério não gera filtro, para que um
+	 * deletar nunca apague a coleção inteira por engano.
+	 */
+	public Bson toFilter() {
+		if (filtros.isEmpty()) {
+			throw new IllegalStateException("A consulta em " + colecao + " não tem nenhum critério");
+		}
+		return filtros.size() == 1 ? filtros.get(0) : and(filtros);
+	}
+
+	/**
+	 * Monta o filtro conferindo os índices. Sem índice a consulta é recusada com
+	 * ConsultaSemIndiceException, a não ser que permitirVarredura tenha sido
+	 * chamado.
+	 */
+	public Bson toFilterVerificado() {
+		Bson filtro = toFilter();
+		if (!usaIndice()) {
+			if (!varreduraPermitida) {
+				throw new ConsultaSemIndiceException(colecao, new LinkedHashSet<String>(campos));
+			}
+			LOGGER.warn("A consulta em {} pelos campos {} percorre a coleção inteira", colecao, campos);
+		}
+		return filtro;
+	}
+
+	/**
+	 * O plano escolhido pelo banco para a consulta, como devolvido pelo comando
+	 * explain com verbosity queryPlanner.
+	 */
+	public Document explicar(MongoDatabase database) {
+		BsonDocument filtro = toFilter().toBsonDocument(BsonDocument.class, database.getCodecRegistry());
+		return database.runCommand(new Document("explain", new Document("find", colecao).append("filter", filtro))
+				.append("verbosity", "queryPlanner"));
+	}
+
+	protected Q igual(String campo, Object valor) {
+		return adicionar(eq(campo, valor), campo);
+	}
+
+	protected Q comecaCom(String campo, String prefixo) {
+		Objects.requireNonNull(prefixo, "O prefixo não pode ser nulo");
+		return adicionar(regex(campo, "^" + escapar(prefixo)), campo);
+	}
+
+	/**
+	 * Valores a partir do início, incluído, até o fim, excluído.
+	 */
+	protected Q entre(String campo, Object inicio, Object fim) {
+		return adicionar(and(gte(campo, inicio), lt(campo, fim)), campo);
+	}
+
+	/**
+	 * Adiciona um filtro montado pela subclasse, informando os campos que ele
+	 * usa para a conferência dos índices.
+	 */
+	protected Q adicionar(Bson filtro, String... camposUsados) {
+		Collections.addAll(campos, camposUsados);
+		filtros.add(filtro);
+		return self();
+	}
+
+	protected abstract Q self();
+
+	private static String escapar(String texto) {
+		StringBuilder escapado = new StringBuilder(texto.length() + 8);
+		for (int i = 0; i < texto.length(); i++) {
+			char c = texto.charAt(i);
+			if (ESPECIAIS_REGEX.indexOf(c) >= 0) {
+				escapado.append('\\');
+			}
+			escapado.append(c);
+		}
+		return escapado.toString();
+	}
+
+}
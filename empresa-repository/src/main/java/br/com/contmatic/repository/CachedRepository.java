@@ -0,0 +1,124 @@
+package br.com.contmatic.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import br.com.contmatic.mudanca.OuvinteMudancas;
+import br.com.contmatic.mudanca.TipoMudanca;
+
+/**
+ * Base dos repositórios com cache de leitura por CPF/CNPJ.
+ *
+ * O cache é limitado por tamanho (LRU) e por tempo desde a carga (TTL), e é
+ * seguro para acesso concorrente: leituras simultâneas da mesma chave fazem
+ * uma única consulta ao banco. Buscas sem resultado também ficam em cache até
+ * a chave ser invalidada por save, update ou deleteById.
+ *
+ * As alterações feitas por outros nós só chegam ao cache com a invalidacao()
+ * registrada em um MonitorMudancas da coleção; sem ela, valem só o TTL.
+ *
+ * Uma invalidação que chega enquanto uma carga está em andamento não impede o
+ * Guava de guardar o valor carregado, que pode ser anterior à gravação. Por
+ * isso cada invalidação avança uma geração, e a leitura que carregou descarta
+ * o próprio valor se a geração mudou durante a carga.
+ *
+ * As entidades são mutáveis, então cada leitura devolve uma cópia da guardada
+ * no cache: alterar a entidade devolvida não altera o que os outros leem.
+ *
+ * @author gabriel.santos
+ */
+public abstract class CachedRepository<T> {
+
+	public static final long TAMANHO_MAXIMO_PADRAO = 10000;
+
+	public static final long TTL_PADRAO_SEGUNDOS = 300;
+
+	private final Cache<String, Optional<T>> cache;
+
+	private final AtomicLong geracao = new AtomicLong();
+
+	protected CachedRepository(long tamanhoMaximo, long ttl, TimeUnit unidade) {
+		this.cache = CacheBuilder.newBuilder()
+				.maximumSize(tamanhoMaximo)
+				.expireAfterWrite(ttl, unidade)
+				.recordStats()
+				.build();
+	}
+
+	/**
+	 * Busca a entidade no banco, sem passar pelo cache.
+	 *
+	 * @param id o CPF ou CNPJ
+	 * @return a entidade, ou null se não existir
+	 * @throws IOException se a consulta falhar
+	 */
+	protected abstract T carregar(String id) throws IOException;
+
+	/**
+	 * Cópia independente da entidade, sem nenhum objeto compartilhado com ela.
+	 */
+	protected abstract T copiar(T entidade);
+
+	protected T buscar(String id) {
+		long geracaoInicial = geracao.get();
+		AtomicBoolean carregou = new AtomicBoolean();
+		try {
+			Optional<T> valor = cache.get(id, () -> {
+				carregou.set(true);
+				return Optional.ofNullable(carregar(id));
+			});
+			if (carregou.get() && geracao.get() != geracaoInicial) {
+				cache.asMap().remove(id, valor);
+			}
+			return valor.map(this::copiar).orElse(null);
+		} catch (ExecutionException | UncheckedExecutionException e) {
+			if (e.getCause() instanceof IOException) {
+				throw new UncheckedIOException((IOException) e.getCause());
+			}
+			throw new IllegalStateException(e.getCause());
+		}
+	}
+
+	protected void invalidar(String id) {
+		geracao.incrementAndGet();
+		cache.invalidate(id);
+	}
+
+	/**
+	 * Ouvinte que invalida a chave de cada mudança, ou o cache inteiro em um
+	 * REINICIO.
+	 */
+	public OuvinteMudancas invalidacao() {
+		return mudanca -> {
+			if (mudanca.getTipo() == TipoMudanca.REINICIO) {
+				limparCache();
+			} else {
+				invalidar(mudanca.getChave());
+			}
+		};
+	}
+
+	public void limparCache() {
+		geracao.incrementAndGet();
+		cache.invalidateAll();
+	}
+
+	public long getTamanhoCache() {
+		return cache.size();
+	}
+
+	public CacheStats getEstatisticas() {
+		return cache.stats();
+	}
+
+}
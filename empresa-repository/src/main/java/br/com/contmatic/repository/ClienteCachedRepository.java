@@ -0,0 +1,81 @@
+package br.com.contmatic.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.query.ClienteQuery;
+import br.com.contmatic.service.ClienteService;
+
+public class ClienteCachedRepository extends CachedRepository<Cliente> implements ClienteRepository {
+
+	private final ClienteService service;
+
+	private final ClienteResourceAssembly assembly = new ClienteResourceAssembly();
+
+	public ClienteCachedRepository(ClienteService service) {
+		this(service, TAMANHO_MAXIMO_PADRAO, TTL_PADRAO_SEGUNDOS, TimeUnit.SECONDS);
+	}
+
+	public ClienteCachedRepository(ClienteService service, long tamanhoMaximo, long ttl, TimeUnit unidade) {
+		super(tamanhoMaximo, ttl, unidade);
+		this.service = service;
+	}
+
+	@Override
+	public void save(Cliente cliente) {
+		try {
+			service.salvar(cliente);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			invalidar(cliente.getCpf());
+		}
+	}
+
+	@Override
+	public void update(Cliente cliente) {
+		try {
+			service.alterar(cliente);
+		} finally {
+			invalidar(cliente.getCpf());
+		}
+	}
+
+	@Override
+	public void deleteById(String cpf) {
+		try {
+			service.deletar(ClienteQuery.porCpf(cpf));
+		} finally {
+			invalidar(cpf);
+		}
+	}
+
+	@Override
+	public Cliente findById(String cpf) {
+		return buscar(cpf);
+	}
+
+	@Override
+	public List<Cliente> findAll() {
+		try {
+			return service.selecionar();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected Cliente carregar(String cpf) throws IOException {
+		return service.selecionar(cpf);
+	}
+
+	@Override
+	protected Cliente copiar(Cliente cliente) {
+		return assembly.toResource(assembly.toDocument(cliente));
+	}
+
+}
@@ -10,9 +10,9 @@ public interface ClienteRepository {
 
     public void update(Cliente cliente);
 
-    public void deleteById(int id) throws IllegalAccessException;
+    public void deleteById(String cpf) throws IllegalAccessException;
 
-    public Cliente findById(int id);
+    public Cliente findById(String cpf);
 
     public List<Cliente> findAll();
 }
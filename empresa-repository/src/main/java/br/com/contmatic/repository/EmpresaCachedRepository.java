@@ -0,0 +1,81 @@
+package br.com.contmatic.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.query.EmpresaQuery;
+import br.com.contmatic.service.EmpresaService;
+
+public class EmpresaCachedRepository extends CachedRepository<Empresa> implements EmpresaRepository {
+
+	private final EmpresaService service;
+
+	private final EmpresaResourceAssembly assembly = new EmpresaResourceAssembly();
+
+	public EmpresaCachedRepository(EmpresaService service) {
+		this(service, TAMANHO_MAXIMO_PADRAO, TTL_PADRAO_SEGUNDOS, TimeUnit.SECONDS);
+	}
+
+	public EmpresaCachedRepository(EmpresaService service, long tamanhoMaximo, long ttl, TimeUnit unidade) {
+		super(tamanhoMaximo, ttl, unidade);
+		this.service = service;
+	}
+
+	@Override
+	public void save(Empresa empresa) {
+		try {
+			service.salvar(empresa);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			invalidar(empresa.getCnpj());
+		}
+	}
+
+	@Override
+	public void update(Empresa empresa) {
+		try {
+			service.alterar(empresa);
+		} finally {
+			invalidar(empresa.getCnpj());
+		}
+	}
+
+	@Override
+	public void deleteById(String cnpj) {
+		try {
+			service.deletar(EmpresaQuery.porCnpj(cnpj));
+		} finally {
+			invalidar(cnpj);
+		}
+	}
+
+	@Override
+	public Empresa findById(String cnpj) {
+		return buscar(cnpj);
+	}
+
+	@Override
+	public List<Empresa> findAll() {
+		try {
+			return service.selecionar();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected Empresa carregar(String cnpj) throws IOException {
+		return service.selecionar(cnpj);
+	}
+
+	@Override
+	protected Empresa copiar(Empresa empresa) {
+		return assembly.toResource(assembly.toDocument(empresa));
+	}
+
+}
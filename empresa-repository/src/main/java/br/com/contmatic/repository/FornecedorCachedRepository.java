@@ -0,0 +1,81 @@
+package br.com.contmatic.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.contmatic.assembly.FornecedorResourceAssembly;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.query.FornecedorQuery;
+import br.com.contmatic.service.FornecedorService;
+
+public class FornecedorCachedRepository extends CachedRepository<Fornecedor> implements FornecedorRepository {
+
+	private final FornecedorService service;
+
+	private final FornecedorResourceAssembly assembly = new FornecedorResourceAssembly();
+
+	public FornecedorCachedRepository(FornecedorService service) {
+		this(service, TAMANHO_MAXIMO_PADRAO, TTL_PADRAO_SEGUNDOS, TimeUnit.SECONDS);
+	}
+
+	public FornecedorCachedRepository(FornecedorService service, long tamanhoMaximo, long ttl, TimeUnit unidade) {
+		super(tamanhoMaximo, ttl, unidade);
+		this.service = service;
+	}
+
+	@Override
+	public void save(Fornecedor fornecedor) {
+		try {
+			service.salvar(fornecedor);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			invalidar(fornecedor.getCnpj());
+		}
+	}
+
+	@Override
+	public void update(Fornecedor fornecedor) {
+		try {
+			service.alterar(fornecedor);
+		} finally {
+			invalidar(fornecedor.getCnpj());
+		}
+	}
+
+	@Override
+	public void deleteById(String cnpj) {
+		try {
+			service.deletar(FornecedorQuery.porCnpj(cnpj));
+		} finally {
+			invalidar(cnpj);
+		}
+	}
+
+	@Override
+	public Fornecedor findById(String cnpj) {
+		return buscar(cnpj);
+	}
+
+	@Override
+	public List<Fornecedor> findAll() {
+		try {
+			return service.selecionar();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected Fornecedor carregar(String cnpj) throws IOException {
+		return service.selecionar(cnpj);
+	}
+
+	@Override
+	protected Fornecedor copiar(Fornecedor fornecedor) {
+		return assembly.toResource(assembly.toDocument(fornecedor));
+	}
+
+}
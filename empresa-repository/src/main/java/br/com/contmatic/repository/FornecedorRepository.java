@@ -10,9 +10,9 @@ public interface FornecedorRepository {
 
     public void update(Fornecedor fornecedor);
 
-    public void deleteById(int id) throws IllegalAccessException;
+    public void deleteById(String cnpj) throws IllegalAccessException;
 
-    public Fornecedor findById(int id);
+    public Fornecedor findById(String cnpj);
 
     public List<Fornecedor> findAll();
 }
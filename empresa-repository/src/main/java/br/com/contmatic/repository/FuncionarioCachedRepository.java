@@ -0,0 +1,81 @@
+package br.com.contmatic.repository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import br.com.contmatic.assembly.FuncionarioResourceAssembly;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.query.FuncionarioQuery;
+import br.com.contmatic.service.FuncionarioService;
+
+public class FuncionarioCachedRepository extends CachedRepository<Funcionario> implements FuncionarioRepository {
+
+	private final FuncionarioService service;
+
+	private final FuncionarioResourceAssembly assembly = new FuncionarioResourceAssembly();
+
+	public FuncionarioCachedRepository(FuncionarioService service) {
+		this(service, TAMANHO_MAXIMO_PADRAO, TTL_PADRAO_SEGUNDOS, TimeUnit.SECONDS);
+	}
+
+	public FuncionarioCachedRepository(FuncionarioService service, long tamanhoMaximo, long ttl, TimeUnit unidade) {
+		super(tamanhoMaximo, ttl, unidade);
+		this.service = service;
+	}
+
+	@Override
+	public void save(Funcionario funcionario) {
+		try {
+			service.salvar(funcionario);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		} finally {
+			invalidar(funcionario.getCpf());
+		}
+	}
+
+	@Override
+	public void update(Funcionario funcionario) {
+		try {
+			service.alterar(funcionario);
+		} finally {
+			invalidar(funcionario.getCpf());
+		}
+	}
+
+	@Override
+	public void deleteById(String cpf) {
+		try {
+			service.deletar(FuncionarioQuery.porCpf(cpf));
+		} finally {
+			invalidar(cpf);
+		}
+	}
+
+	@Override
+	public Funcionario findById(String cpf) {
+		return buscar(cpf);
+	}
+
+	@Override
+	public List<Funcionario> findAll() {
+		try {
+			return service.selecionar();
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	@Override
+	protected Funcionario carregar(String cpf) throws IOException {
+		return service.selecionar(cpf);
+	}
+
+	@Override
+	protected Funcionario copiar(Funcionario funcionario) {
+		return assembly.toResource(assembly.toDocument(funcionario));
+	}
+
+}
@@ -10,9 +10,9 @@ public interface FuncionarioRepository {
 
     public void update(Funcionario cadastro);
 
-    public void deleteById(int id) throws IllegalAccessException;
+    public void deleteById(String cpf) throws IllegalAccessException;
 
-    public Funcionario findById(int id);
+    public Funcionario findById(String cpf);
 
     public List<Funcionario> findAll();
 }
@@ -0,0 +1,38 @@
+package br.com.contmatic.service;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Uma linha de contagem agrupada, como funcionários por estado ou
+ * contratações por mês.
+ *
+ * @author gabriel.santos
+ */
+public class Agrupamento<K> {
+
+	/** O valor agrupado. */
+	private final K chave;
+
+	/** Os documentos com esse valor. */
+	private final long quantidade;
+
+	public Agrupamento(K chave, long quantidade) {
+		this.chave = chave;
+		this.quantidade = quantidade;
+	}
+
+	public K getChave() {
+		return chave;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
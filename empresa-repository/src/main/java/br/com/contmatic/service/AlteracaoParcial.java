@@ -0,0 +1,153 @@
+package br.com.contmatic.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Alteração só dos campos que mudaram entre duas versões de um documento.
+ *
+ * Campos simples alterados viram $set e campos que passaram a nulo ou sumiram
+ * viram $unset. Nas listas (telefones, enderecos), que no modelo são Set, só
+ * os elementos removidos vão em $pull ou só os novos em $addToSet, em vez de
+ * regravar a lista inteira. O MongoDB não aceita $pull e $addToSet no mesmo
+ * campo em uma única alteração, então uma lista com elementos removidos e
+ * novos é regravada com $set.
+ *
+ * A alteração filtra pela versão do documento anterior, como o
+ * salvarOuAlterar com versão, para que a diferença não seja aplicada sobre
+ * uma gravação feita por outro processo depois da leitura.
+ *
+ * @author gabriel.santos
+ */
+final class AlteracaoParcial {
+
+	private static final String ID = "_id";
+
+	private AlteracaoParcial() {
+	}
+
+	/**
+	 * Compara os documentos e grava só as diferenças no documento do id, se
+	 * ele ainda estiver na versão do anterior, incrementando a versão. Devolve
+	 * a nova versão, ou a mesma quando nada mudou.
+	 *
+	 * @throws ConflitoVersaoException se o documento já mudou de versão
+	 */
+	static long aplicar(MongoCollection<Document> collection, String id, String campoChave, Document anterior,
+			long versaoAnterior, Document atual) {
+		Document alteracao = calcular(anterior, atual, campoChave);
+		if (alteracao.isEmpty()) {
+			return versaoAnterior;
+		}
+		UpdateResult resultado = collection.updateOne(Versionamento.filtroVersao(id, versaoAnterior),
+				versionar(alteracao));
+		if (resultado.getMatchedCount() == 0) {
+			throw new ConflitoVersaoException(id, versaoAnterior);
+		}
+		return versaoAnterior + 1;
+	}
+
+	/**
+	 * Calcula a alteração que leva o documento anterior ao atual, vazia
+	 * quando os documentos são iguais.
+	 */
+	static Document calcular(Document anterior, Document atual, String campoChave) {
+		if (!Objects.equals(anterior.get(campoChave), atual.get(campoChave))) {
+			throw new IllegalArgumentException("O campo " + campoChave + " não pode ser alterado");
+		}
+		Document set = new Document();
+		Document unset = new Document();
+		Document pull = new Document();
+		Document addToSet = new Document();
+		for (Map.Entry<String, Object> campo : atual.entrySet()) {
+			String nome = campo.getKey();
+			Object novo = campo.getValue();
+			Object antigo = anterior.get(nome);
+			if (ignorar(nome, campoChave) || Objects.equals(novo, antigo)) {
+				continue;
+			}
+			if (novo == null) {
+				unset.append(nome, "");
+			} else if (novo instanceof List && antigo instanceof List) {
+				compararListas(nome, (List<?>) antigo, (List<?>) novo, set, pull, addToSet);
+			} else {
+				set.append(nome, novo);
+			}
+		}
+		for (String nome : anterior.keySet()) {
+			if (!ignorar(nome, campoChave) && !atual.containsKey(nome)) {
+				unset.append(nome, "");
+			}
+		}
+
+		Document alteracao = new Document();
+		appendSeNaoVazio(alteracao, "$set", set);
+		appendSeNaoVazio(alteracao, "$unset", unset);
+		appendSeNaoVazio(alteracao, "$pull", pull);
+		appendSeNaoVazio(alteracao, "$addToSet", addToSet);
+		return alteracao;
+	}
+
+	private static void compararListas(String nome, List<?> antigos, List<?> novos, Document set, Document pull,
+			Document addToSet) {
+		List<Object> removidos = new ArrayList<Object>();
+		for (Object antigo : antigos) {
+			if (!novos.contains(antigo)) {
+				removidos.add(condicao(antigo));
+			}
+		}
+		List<Object> incluidos = new ArrayList<Object>();
+		for (Object novo : novos) {
+			if (!antigos.contains(novo)) {
+				incluidos.add(novo);
+			}
+		}
+		if (!removidos.isEmpty() && !incluidos.isEmpty()) {
+			set.append(nome, novos);
+		} else if (removidos.size() == 1) {
+			pull.append(nome, removidos.get(0));
+		} else if (!removidos.isEmpty()) {
+			pull.append(nome, new Document("$or", removidos));
+		} else if (!incluidos.isEmpty()) {
+			addToSet.append(nome, new Document("$each", incluidos));
+		}
+	}
+
+	/**
+	 * O $pull com um documento é tratado como consulta, então a ordem dos
+	 * campos não importa e um campo nulo também encontra o campo ausente, como
+	 * os elementos gravados pelos codecs.
+	 */
+	private static Object condicao(Object elemento) {
+		return elemento instanceof Document ? new Document((Document) elemento) : elemento;
+	}
+
+	/**
+	 * Acrescenta à alteração o incremento da versão e a hora da gravação.
+	 */
+	static Document versionar(Document alteracao) {
+		Document versionada = new Document(alteracao);
+		versionada.append("$inc", new Document(Versionamento.VERSAO, 1L));
+		versionada.append("$currentDate", new Document(Versionamento.ATUALIZADO_EM, true));
+		return versionada;
+	}
+
+	private static boolean ignorar(String nome, String campoChave) {
+		return ID.equals(nome) || campoChave.equals(nome) || Versionamento.VERSAO.equals(nome)
+				|| Versionamento.ATUALIZADO_EM.equals(nome);
+	}
+
+	private static void appendSeNaoVazio(Document alteracao, String operador, Document campos) {
+		if (!campos.isEmpty()) {
+			alteracao.append(operador, campos);
+		}
+	}
+
+}
@@ -0,0 +1,107 @@
+package br.com.contmatic.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Converte os Publisher do driver reactive streams em CompletableFuture.
+ *
+ * Nenhuma thread fica esperando o banco: o future é completado na thread do
+ * driver que recebe a resposta, então as continuações sem Executor próprio
+ * também rodam nela e não devem bloquear.
+ *
+ * @author gabriel.santos
+ */
+final class Assincrono {
+
+	private Assincrono() {
+	}
+
+	/**
+	 * O primeiro elemento publicado, ou null se o Publisher terminar vazio.
+	 */
+	static <T> CompletableFuture<T> primeiro(Publisher<T> publisher) {
+		Coletor<T> coletor = new Coletor<T>(1);
+		publisher.subscribe(coletor);
+		return coletor.future.thenApply(itens -> itens.isEmpty() ? null : itens.get(0));
+	}
+
+	static <T> CompletableFuture<List<T>> todos(Publisher<T> publisher) {
+		Coletor<T> coletor = new Coletor<T>(Long.MAX_VALUE);
+		publisher.subscribe(coletor);
+		return coletor.future;
+	}
+
+	/**
+	 * A exceção original de uma falha recebida em handle ou whenComplete.
+	 */
+	static Throwable causa(Throwable erro) {
+		return erro instanceof CompletionException && erro.getCause() != null ? erro.getCause() : erro;
+	}
+
+	/**
+	 * Relança dentro de handle uma falha que não foi tratada.
+	 */
+	static CompletionException falha(Throwable erro) {
+		return erro instanceof CompletionException ? (CompletionException) erro : new CompletionException(erro);
+	}
+
+	static <T> CompletableFuture<T> falhou(Throwable erro) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		future.completeExceptionally(erro);
+		return future;
+	}
+
+	/**
+	 * Pede ao Publisher até o limite de elementos e cancela ao atingi-lo. O
+	 * protocolo reactive streams entrega os sinais em sequência, então a lista
+	 * não precisa de sincronização.
+	 */
+	private static final class Coletor<T> implements Subscriber<T> {
+
+		private final CompletableFuture<List<T>> future = new CompletableFuture<List<T>>();
+
+		private final List<T> itens = new ArrayList<T>();
+
+		private final long limite;
+
+		private Subscription subscription;
+
+		Coletor(long limite) {
+			this.limite = limite;
+		}
+
+		@Override
+		public void onSubscribe(Subscription subscription) {
+			this.subscription = subscription;
+			subscription.request(limite);
+		}
+
+		@Override
+		public void onNext(T item) {
+			itens.add(item);
+			if (itens.size() == limite) {
+				subscription.cancel();
+				future.complete(itens);
+			}
+		}
+
+		@Override
+		public void onError(Throwable erro) {
+			future.completeExceptionally(erro);
+		}
+
+		@Override
+		public void onComplete() {
+			future.complete(itens);
+		}
+
+	}
+
+}
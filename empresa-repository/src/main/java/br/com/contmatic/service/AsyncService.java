@@ -0,0 +1,261 @@
+package br.com.contmatic.service;
+
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Projections.include;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.bson.Document;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.reactivestreams.client.MongoCollection;
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.assembly.Assembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.empresa.Identificavel;
+import br.com.contmatic.query.Query;
+
+/**
+ * Base das versões assíncronas dos serviços, sobre o driver reactive streams.
+ *
+ * Cada operação devolve um CompletableFuture sem ocupar nenhuma thread
+ * enquanto espera o banco; quantas operações vão ao banco ao mesmo tempo fica
+ * limitado pelo pool de conexões do cliente. Os futures são completados nas
+ * threads do driver, então continuações demoradas ou bloqueantes devem usar as
+ * variantes *Async com um Executor próprio. As gravações seguem o mesmo
+ * controle de versão dos serviços síncronos.
+ *
+ * @author gabriel.santos
+ */
+public abstract class AsyncService<T extends Identificavel, Q extends Query<Q>> {
+
+	private static final String ID = "_id";
+
+	private static final int LIMITE_CAMPOS = 50;
+
+	private final MongoDatabase database;
+
+	private final String colecao;
+
+	private final Class<T> tipo;
+
+	private final String campoChave;
+
+	private final Assembly<T, Document> assembly;
+
+	protected AsyncService(MongoDatabase database, String colecao, Class<T> tipo, String campoChave,
+			Assembly<T, Document> assembly) {
+		this.database = database;
+		this.colecao = colecao;
+		this.tipo = tipo;
+		this.campoChave = campoChave;
+		this.assembly = assembly;
+	}
+
+	public CompletableFuture<Void> salvar(T entidade) {
+		return Medicao.medirAssincrono(colecao, "salvar",
+				() -> Assincrono.primeiro(colecaoTipada().insertOne(entidade)).thenApply(sucesso -> null));
+	}
+
+	public CompletableFuture<List<ResultadoLote>> salvarTodos(Iterable<T> entidades) {
+		return salvarTodos(entidades, InsercaoEmLote.TAMANHO_LOTE_PADRAO);
+	}
+
+	/**
+	 * Envia as entidades em lotes de insertMany não ordenados, um lote depois
+	 * do outro, consumindo o Iterable sob demanda como o salvarTodos síncrono.
+	 */
+	public CompletableFuture<List<ResultadoLote>> salvarTodos(Iterable<T> entidades, int tamanhoLote) {
+		return Medicao.medirAssincrono(colecao, "salvarTodos", () -> {
+			InsercaoEmLote.validar(tamanhoLote);
+			List<ResultadoLote> resultados = new ArrayList<ResultadoLote>();
+			if (entidades == null) {
+				return CompletableFuture.completedFuture(resultados);
+			}
+			return enviarLotes(entidades.iterator(), tamanhoLote, resultados);
+		});
+	}
+
+	public CompletableFuture<Void> alterar(T entidade) {
+		return Medicao.medirAssincrono(colecao, "alterar",
+				() -> Assincrono.primeiro(colecao().updateOne(eq(ID, entidade.getChave()),
+						Versionamento.alteracao(assembly.toDocument(entidade), campoChave)))
+						.thenApply(resultado -> null));
+	}
+
+	public CompletableFuture<Long> alterar(Q query, Document campos) {
+		return Medicao.medirAssincrono(colecao, "alterarConsulta",
+				() -> Assincrono.primeiro(colecao().updateMany(query.toFilterVerificado(),
+						Versionamento.alteracao(campos))).thenApply(resultado -> resultado.getModifiedCount()));
+	}
+
+	/**
+	 * Grava só os campos que mudaram entre a entidade lida com
+	 * selecionarVersionado e a atual, se o documento ainda estiver naquela
+	 * versão.
+	 *
+	 * @return a nova versão, ou a mesma quando nada mudou; um conflito chega no
+	 *         future como ConflitoVersaoException
+	 */
+	public CompletableFuture<Long> alterar(Versionado<T> anterior, T atual) {
+		return Medicao.medirAssincrono(colecao, "alterarParcial", () -> {
+			String id = atual.getChave();
+			long versaoAnterior = anterior.getVersao();
+			Document alteracao = AlteracaoParcial.calcular(assembly.toDocument(anterior.getEntidade()),
+					assembly.toDocument(atual), campoChave);
+			if (alteracao.isEmpty()) {
+				return CompletableFuture.completedFuture(versaoAnterior);
+			}
+			return Assincrono.primeiro(colecao().updateOne(Versionamento.filtroVersao(id, versaoAnterior),
+					AlteracaoParcial.versionar(alteracao))).thenApply(resultado -> {
+						if (resultado.getMatchedCount() == 0) {
+							throw new ConflitoVersaoException(id, versaoAnterior);
+						}
+						return versaoAnterior + 1;
+					});
+		});
+	}
+
+	public CompletableFuture<Long> salvarOuAlterar(T entidade) {
+		return Medicao.medirAssincrono(colecao, "salvarOuAlterar",
+				() -> Assincrono.primeiro(colecao().findOneAndUpdate(eq(ID, entidade.getChave()),
+						Versionamento.alteracao(assembly.toDocument(entidade), campoChave),
+						Versionamento.UPSERT_RETORNANDO_VERSAO)).thenApply(Versionamento::versao));
+	}
+
+	/**
+	 * Grava a entidade somente se o documento ainda estiver na versão esperada.
+	 * Com a versão 0 o documento é inserido se ainda não existir.
+	 */
+	public CompletableFuture<Long> salvarOuAlterar(T entidade, long versaoEsperada) {
+		return Medicao.medirAssincrono(colecao, "salvarOuAlterarVersao", () -> {
+			String id = entidade.getChave();
+			Document alteracao = Versionamento.alteracao(assembly.toDocument(entidade), campoChave,
+					versaoEsperada);
+			return Assincrono.primeiro(colecao().updateOne(Versionamento.filtroVersao(id, versaoEsperada), alteracao,
+					Versionamento.opcoes(versaoEsperada))).handle((resultado, erro) -> {
+						if (erro != null) {
+							if (Versionamento.chaveDuplicada(Assincrono.causa(erro))) {
+								throw new ConflitoVersaoException(id, versaoEsperada);
+							}
+							throw Assincrono.falha(erro);
+						}
+						Versionamento.conferir(resultado, id, versaoEsperada);
+						return versaoEsperada + 1;
+					});
+		});
+	}
+
+	public CompletableFuture<Void> deletar(T entidade) {
+		return Medicao.medirAssincrono(colecao, "deletar",
+				() -> Assincrono.primeiro(colecao().deleteOne(eq(ID, entidade.getChave()))).thenApply(resultado -> null));
+	}
+
+	public CompletableFuture<Long> deletar(Q query) {
+		return Medicao.medirAssincrono(colecao, "deletarConsulta",
+				() -> Assincrono.primeiro(colecao().deleteMany(query.toFilterVerificado()))
+						.thenApply(resultado -> resultado.getDeletedCount()));
+	}
+
+	public CompletableFuture<T> selecionar(String _id) {
+		return Medicao.medirAssincrono(colecao, "selecionar",
+				() -> Assincrono.primeiro(colecao().find(eq(ID, _id)).first()).thenApply(assembly::toResource));
+	}
+
+	public CompletableFuture<Versionado<T>> selecionarVersionado(String _id) {
+		return Medicao.medirAssincrono(colecao, "selecionarVersionado",
+				() -> Assincrono.primeiro(colecao().find(eq(ID, _id)).first())
+						.thenApply(document -> Versionamento.ler(document, assembly::toResource)));
+	}
+
+	public CompletableFuture<List<T>> selecionar(Q query) {
+		return Medicao.medirAssincrono(colecao, "selecionarConsulta",
+				() -> Assincrono.todos(colecaoTipada().find(query.toFilterVerificado())));
+	}
+
+	/**
+	 * Os primeiros registros só com os campos pedidos, como o selecionar
+	 * síncrono; sem campos o future traz null.
+	 */
+	public CompletableFuture<List<T>> selecionar(List<String> campos) {
+		return Medicao.medirAssincrono(colecao, "selecionarCampos", () -> {
+			if (campos == null || campos.isEmpty()) {
+				return CompletableFuture.completedFuture(null);
+			}
+			return Assincrono.todos(colecao().find().projection(include(campos)).limit(LIMITE_CAMPOS))
+					.thenApply(this::converter);
+		});
+	}
+
+	public CompletableFuture<Pagina<T>> selecionarPagina(String token) {
+		return selecionarPagina(token, Paginacao.TAMANHO_PAGINA_PADRAO, null);
+	}
+
+	public CompletableFuture<Pagina<T>> selecionarPagina(String token, int tamanhoPagina) {
+		return selecionarPagina(token, tamanhoPagina, null);
+	}
+
+	public CompletableFuture<Pagina<T>> selecionarPagina(String token, int tamanhoPagina, List<String> campos) {
+		return Medicao.medirAssincrono(colecao, "selecionarPagina", () -> {
+			Paginacao.validar(tamanhoPagina);
+			return Assincrono.todos(colecao().find(Paginacao.filtro(token)).projection(Paginacao.projecao(campos))
+					.sort(Paginacao.ORDEM).limit(tamanhoPagina + 1))
+					.thenApply(documentos -> Paginacao.montar(documentos, tamanhoPagina, assembly::toResource));
+		});
+	}
+
+	public CursorAssincrono<T> selecionarCursor() {
+		return selecionarCursor(CursorStream.TAMANHO_LOTE_PADRAO);
+	}
+
+	public CursorAssincrono<T> selecionarCursor(int tamanhoLote) {
+		return new CursorAssincrono<T>(colecao().find().batchSize(tamanhoLote), assembly::toResource);
+	}
+
+	private CompletableFuture<List<ResultadoLote>> enviarLotes(Iterator<T> entidades, int tamanhoLote,
+			List<ResultadoLote> resultados) {
+		List<T> lote = new ArrayList<T>(tamanhoLote);
+		while (lote.size() < tamanhoLote && entidades.hasNext()) {
+			lote.add(entidades.next());
+		}
+		if (lote.isEmpty()) {
+			return CompletableFuture.completedFuture(resultados);
+		}
+		int numeroLote = resultados.size() + 1;
+		return Assincrono.primeiro(colecaoTipada().insertMany(lote, InsercaoEmLote.NAO_ORDENADO))
+				.handle((sucesso, erro) -> {
+					if (erro == null) {
+						return new ResultadoLote(numeroLote, lote.size(), 0, 0);
+					}
+					Throwable causa = Assincrono.causa(erro);
+					if (causa instanceof MongoBulkWriteException) {
+						return InsercaoEmLote.resultado(numeroLote, lote.size(), (MongoBulkWriteException) causa);
+					}
+					throw Assincrono.falha(erro);
+				}).thenCompose(resultado -> {
+					resultados.add(resultado);
+					return enviarLotes(entidades, tamanhoLote, resultados);
+				});
+	}
+
+	private List<T> converter(List<Document> documents) {
+		List<T> entidades = new ArrayList<T>(documents.size());
+		for (Document document : documents) {
+			entidades.add(assembly.toResource(document));
+		}
+		return entidades;
+	}
+
+	private MongoCollection<Document> colecao() {
+		return database.getCollection(colecao);
+	}
+
+	private MongoCollection<T> colecaoTipada() {
+		return database.getCollection(colecao, tipo).withCodecRegistry(Codecs.REGISTRY);
+	}
+
+}
@@ -0,0 +1,20 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.query.ClienteQuery;
+
+/**
+ * Versão assíncrona do ClienteService.
+ *
+ * @author gabriel.santos
+ */
+public class ClienteAsyncService extends AsyncService<Cliente, ClienteQuery> {
+
+	public ClienteAsyncService(MongoDatabase database) {
+		super(database, ClienteService.NAME_COLLECTION, Cliente.class, "cpf", new ClienteResourceAssembly());
+	}
+
+}
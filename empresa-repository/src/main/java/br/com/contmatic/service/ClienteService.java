@@ -5,19 +5,26 @@ import static com.mongodb.client.model.Projections.include;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 
 import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.codec.ResumoCodec;
 import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.ClienteQuery;
 
 public class ClienteService {
 	
-	private static final String NAME_COLLECTION = "cliente";
+	public static final String NAME_COLLECTION = "cliente";
 	
 	private MongoDatabase database;
 	
@@ -26,72 +33,200 @@ public class ClienteService {
 	}
 	
 	public void salvar(Cliente cliente) throws IOException {
-		Document document = Document.parse(cliente.toString());
-		document.append("_id", cliente.getCpf());
-		database.getCollection(NAME_COLLECTION).insertOne(document);
+		Medicao.medir(NAME_COLLECTION, "salvar", () -> colecao().insertOne(cliente));
+	}
+
+	public List<ResultadoLote> salvarTodos(Iterable<Cliente> clientes) {
+		return salvarTodos(clientes, InsercaoEmLote.TAMANHO_LOTE_PADRAO);
+	}
 
+	public List<ResultadoLote> salvarTodos(Iterable<Cliente> clientes, int tamanhoLote) {
+		return Medicao.medir(NAME_COLLECTION, "salvarTodos",
+				() -> InsercaoEmLote.inserir(colecao(), clientes, tamanhoLote));
 	}
 	
+	/**
+	 * @deprecated use alterar(ClienteQuery, Document), que confere os índices.
+	 */
+	@Deprecated
 	public void alterar(Document query, Document where) {
-		database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		Medicao.medir(NAME_COLLECTION, "alterarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		});
+	}
+
+	public long alterar(ClienteQuery query, Document campos) {
+		return Medicao.medir(NAME_COLLECTION, "alterarConsulta",
+				() -> database.getCollection(NAME_COLLECTION)
+						.updateMany(query.toFilterVerificado(), Versionamento.alteracao(campos)).getModifiedCount());
 	}
 	
 	public void alterar(Cliente cliente) {
-		Document document = Document.parse(cliente.toString());
-		document.remove("cpf");
-		document.append("_id", cliente.getCpf());
+		Medicao.medir(NAME_COLLECTION, "alterar", () -> {
+			Document document = new ClienteResourceAssembly().toDocument(cliente);
+			document.append("_id", cliente.getCpf());
+
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", cliente.getCpf());
 
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", cliente.getCpf());
+			database.getCollection(NAME_COLLECTION).updateOne(whereQuery, Versionamento.alteracao(document, "cpf"));
+		});
+	}
+
+	public long salvarOuAlterar(Cliente cliente) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterar",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), cliente.getCpf(),
+						new ClienteResourceAssembly().toDocument(cliente), "cpf"));
+	}
+
+	public long salvarOuAlterar(Cliente cliente, long versaoEsperada) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterarVersao",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), cliente.getCpf(),
+						new ClienteResourceAssembly().toDocument(cliente), "cpf", versaoEsperada));
+	}
 
-		database.getCollection(NAME_COLLECTION).updateOne(whereQuery, new Document("$set", document));
+	/**
+	 * Grava só os campos que mudaram entre o cliente lido com selecionarVersionado
+	 * e o atual, se o documento ainda estiver naquela versão.
+	 *
+	 * @return a nova versão, ou a mesma quando nada mudou
+	 * @throws ConflitoVersaoException se outro processo gravou depois da leitura
+	 */
+	public long alterar(Versionado<Cliente> anterior, Cliente atual) {
+		return Medicao.medir(NAME_COLLECTION, "alterarParcial", () -> {
+			ClienteResourceAssembly clienteResourceAssembly = new ClienteResourceAssembly();
+			return AlteracaoParcial.aplicar(database.getCollection(NAME_COLLECTION), atual.getCpf(), "cpf",
+					clienteResourceAssembly.toDocument(anterior.getEntidade()), anterior.getVersao(),
+					clienteResourceAssembly.toDocument(atual));
+		});
 	}
 
+	/**
+	 * @deprecated use deletar(ClienteQuery), que recusa consulta sem critério.
+	 */
+	@Deprecated
 	public void deletar(Document document) {
-		database.getCollection(NAME_COLLECTION).deleteMany(document);
+		Medicao.medir(NAME_COLLECTION, "deletarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).deleteMany(document);
+		});
+	}
+
+	public long deletar(ClienteQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "deletarConsulta",
+				() -> database.getCollection(NAME_COLLECTION).deleteMany(query.toFilterVerificado()).getDeletedCount());
 	}
 	
 	public void deletar(Cliente cliente) throws IOException {
-		Document document = new Document("_id", cliente.getCpf());
-		document.remove("cpf");
-		document.append("_id", cliente.getCpf());
-		database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", cliente.getCpf()));
+		Medicao.medir(NAME_COLLECTION, "deletar", () -> {
+			Document document = new Document("_id", cliente.getCpf());
+			document.remove("cpf");
+			document.append("_id", cliente.getCpf());
+			database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", cliente.getCpf()));
+		});
 	}
 	
 	public Cliente selecionar(String _id) throws IOException {
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", _id);
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
-		return new ClienteResourceAssembly().toResource(find.first());
+		return Medicao.medir(NAME_COLLECTION, "selecionar", () -> {
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", _id);
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
+			return new ClienteResourceAssembly().toResource(find.first());
+		});
+	}
+
+	public Versionado<Cliente> selecionarVersionado(String _id) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarVersionado", () -> {
+			Document document = database.getCollection(NAME_COLLECTION).find(new Document("_id", _id)).first();
+			return Versionamento.ler(document, new ClienteResourceAssembly()::toResource);
+		});
 	}
 	
 	public List<Cliente> selecionar() throws IOException {
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
-		List<Cliente> clientes = new ArrayList<Cliente>();
-		ClienteResourceAssembly clienteResourceAssembly = new ClienteResourceAssembly();
-		for (Document document : find) {
-			clientes.add(clienteResourceAssembly.toResource(document));
-		}
-		return clientes;
+		return Medicao.medir(NAME_COLLECTION, "selecionarTodos", () -> {
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
+			List<Cliente> clientes = new ArrayList<Cliente>();
+			ClienteResourceAssembly clienteResourceAssembly = new ClienteResourceAssembly();
+			for (Document document : find) {
+				clientes.add(clienteResourceAssembly.toResource(document));
+			}
+			return clientes;
+		});
 	}
 	
+	public Stream<Cliente> selecionarStream() {
+		return selecionarStream(CursorStream.TAMANHO_LOTE_PADRAO);
+	}
+
+	/**
+	 * A medição cobre a abertura do cursor, que já traz o primeiro lote; os
+	 * lotes seguintes são buscados conforme o stream é consumido.
+	 */
+	public Stream<Cliente> selecionarStream(int tamanhoLote) {
+		MongoCursor<Document> cursor = Medicao.medir(NAME_COLLECTION, "selecionarStream",
+				() -> database.getCollection(NAME_COLLECTION).find().batchSize(tamanhoLote).iterator());
+		return CursorStream.stream(cursor, new ClienteResourceAssembly()::toResource);
+	}
+	
+	public List<Cliente> selecionar(ClienteQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarConsulta",
+				() -> colecao().find(query.toFilterVerificado()).into(new ArrayList<Cliente>()));
+	}
+
+	public Document explicar(ClienteQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "explicar", () -> query.explicar(database));
+	}
+
 	public List<Cliente> selecionar(List<String> campos) throws IOException {
-		List<Cliente> clientes = null;
-		if (campos == null) {
-			return clientes;
-		}
-		if (campos.isEmpty()) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarCampos", () -> {
+			List<Cliente> clientes = null;
+			if (campos == null) {
+				return clientes;
+			}
+			if (campos.isEmpty()) {
+				return clientes;
+			}
+			clientes = new ArrayList<Cliente>();
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
+					.limit(50);
+
+			ClienteResourceAssembly clienteResourceAssembly = new ClienteResourceAssembly();
+			for (Document document : find) {
+				clientes.add(clienteResourceAssembly.toResource(document));
+			}
 			return clientes;
-		}
-		clientes = new ArrayList<Cliente>();
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
-				.limit(50);
+		});
+	}
 
-		ClienteResourceAssembly clienteResourceAssembly = new ClienteResourceAssembly();
-		for (Document document : find) {
-			clientes.add(clienteResourceAssembly.toResource(document));
-		}
-		return clientes;
+	public Pagina<Cliente> selecionarPagina(String token) {
+		return selecionarPagina(token, Paginacao.TAMANHO_PAGINA_PADRAO, null);
 	}
-	
+
+	public Pagina<Cliente> selecionarPagina(String token, int tamanhoPagina) {
+		return selecionarPagina(token, tamanhoPagina, null);
+	}
+
+	public Pagina<Cliente> selecionarPagina(String token, int tamanhoPagina, List<String> campos) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPagina",
+				() -> Paginacao.buscar(database.getCollection(NAME_COLLECTION), token, tamanhoPagina, campos,
+						new ClienteResourceAssembly()::toResource));
+	}
+
+	public List<Resumo> selecionarResumos() {
+		return Medicao.medir(NAME_COLLECTION, "selecionarResumos",
+				() -> colecaoResumo().find().projection(ResumoCodec.PROJECAO).into(new ArrayList<Resumo>()));
+	}
+
+	public Pagina<Resumo> selecionarPaginaResumos(String token, int tamanhoPagina) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPaginaResumos",
+				() -> Paginacao.buscar(colecaoResumo(), token, tamanhoPagina, ResumoCodec.PROJECAO));
+	}
+
+	private MongoCollection<Cliente> colecao() {
+		return database.getCollection(NAME_COLLECTION, Cliente.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
+	private MongoCollection<Resumo> colecaoResumo() {
+		return database.getCollection(NAME_COLLECTION, Resumo.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
 }
@@ -0,0 +1,34 @@
+package br.com.contmatic.service;
+
+/**
+ * Lançada por salvarOuAlterar quando o documento já não está na versão
+ * esperada, porque outro processo gravou antes.
+ *
+ * Quem chamou pode reler o documento com selecionarVersionado, reaplicar a
+ * alteração e tentar de novo.
+ *
+ * @author gabriel.santos
+ */
+public class ConflitoVersaoException extends RuntimeException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final String id;
+
+	private final long versaoEsperada;
+
+	public ConflitoVersaoException(String id, long versaoEsperada) {
+		super("O documento " + id + " não está mais na versão " + versaoEsperada);
+		this.id = id;
+		this.versaoEsperada = versaoEsperada;
+	}
+
+	public String getId() {
+		return id;
+	}
+
+	public long getVersaoEsperada() {
+		return versaoEsperada;
+	}
+
+}
@@ -0,0 +1,197 @@
+package br.com.contmatic.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.reactivestreams.Publisher;
+import org.reactivestreams.Subscriber;
+import org.reactivestreams.Subscription;
+
+/**
+ * Leitura assíncrona de uma coleção em que quem consome pede quantos
+ * registros quer receber.
+ *
+ * O cursor só é aberto no primeiro pedido e cada pedido vira um request na
+ * Subscription do driver, que só busca no banco o que já foi pedido, então um
+ * consumidor lento não acumula registros em memória. Os pedidos são atendidos
+ * em ordem. Uma lista vazia indica o fim da coleção, e o cursor é fechado ao
+ * chegar ao fim ou em close.
+ *
+ * @author gabriel.santos
+ */
+public class CursorAssincrono<T> implements AutoCloseable {
+
+	private final Publisher<Document> publisher;
+
+	private final Function<Document, T> conversor;
+
+	/** Guardados pelo monitor do cursor. */
+	private final Queue<Pedido<T>> pedidos = new ArrayDeque<Pedido<T>>();
+
+	private Subscription subscription;
+
+	private boolean aberto;
+
+	private boolean terminado;
+
+	private boolean fecharAoAtender;
+
+	private Throwable erro;
+
+	CursorAssincrono(Publisher<Document> publisher, Function<Document, T> conversor) {
+		this.publisher = publisher;
+		this.conversor = conversor;
+	}
+
+	/**
+	 * Lê até a quantidade pedida de registros. A lista vem menor que a
+	 * quantidade apenas no fim da coleção.
+	 */
+	public CompletableFuture<List<T>> proximos(int quantidade) {
+		if (quantidade <= 0) {
+			throw new IllegalArgumentException("A quantidade deve ser maior que zero");
+		}
+		Pedido<T> pedido = new Pedido<T>(quantidade);
+		boolean abrir = false;
+		Subscription pedir = null;
+		synchronized (this) {
+			if (terminado || fecharAoAtender) {
+				return erro == null ? CompletableFuture.completedFuture(Collections.<T>emptyList())
+						: Assincrono.<List<T>>falhou(erro);
+			}
+			pedidos.add(pedido);
+			if (!aberto) {
+				aberto = true;
+				abrir = true;
+			} else {
+				pedir = subscription;
+			}
+		}
+		if (abrir) {
+			publisher.subscribe(new Leitor());
+		} else if (pedir != null) {
+			pedir.request(quantidade);
+		}
+		return pedido.future;
+	}
+
+	/**
+	 * Fecha o cursor depois dos pedidos já feitos.
+	 */
+	@Override
+	public void close() {
+		Subscription cancelar = null;
+		synchronized (this) {
+			fecharAoAtender = true;
+			if (pedidos.isEmpty() && !terminado) {
+				terminado = true;
+				cancelar = subscription;
+			}
+		}
+		if (cancelar != null) {
+			cancelar.cancel();
+		}
+	}
+
+	private static final class Pedido<T> {
+
+		private final CompletableFuture<List<T>> future = new CompletableFuture<List<T>>();
+
+		private final List<T> registros;
+
+		private final int quantidade;
+
+		Pedido(int quantidade) {
+			this.quantidade = quantidade;
+			this.registros = new ArrayList<T>(quantidade);
+		}
+
+	}
+
+	/**
+	 * Recebe os registros do driver. Os futures são completados fora do
+	 * monitor, porque as continuações de quem pediu rodam nessa mesma thread.
+	 */
+	private final class Leitor implements Subscriber<Document> {
+
+		@Override
+		public void onSubscribe(Subscription s) {
+			boolean cancelado;
+			long demanda = 0;
+			synchronized (CursorAssincrono.this) {
+				subscription = s;
+				cancelado = terminado;
+				for (Pedido<T> pedido : pedidos) {
+					demanda += pedido.quantidade;
+				}
+			}
+			if (cancelado) {
+				s.cancel();
+			} else if (demanda > 0) {
+				s.request(demanda);
+			}
+		}
+
+		@Override
+		public void onNext(Document document) {
+			T registro = conversor.apply(document);
+			Pedido<T> atendido = null;
+			Subscription cancelar = null;
+			synchronized (CursorAssincrono.this) {
+				Pedido<T> pedido = pedidos.peek();
+				if (pedido == null) {
+					return;
+				}
+				pedido.registros.add(registro);
+				if (pedido.registros.size() == pedido.quantidade) {
+					atendido = pedidos.poll();
+					if (fecharAoAtender && pedidos.isEmpty()) {
+						terminado = true;
+						cancelar = subscription;
+					}
+				}
+			}
+			if (cancelar != null) {
+				cancelar.cancel();
+			}
+			if (atendido != null) {
+				atendido.future.complete(atendido.registros);
+			}
+		}
+
+		@Override
+		public void onError(Throwable e) {
+			List<Pedido<T>> pendentes;
+			synchronized (CursorAssincrono.this) {
+				terminado = true;
+				erro = e;
+				pendentes = new ArrayList<Pedido<T>>(pedidos);
+				pedidos.clear();
+			}
+			for (Pedido<T> pedido : pendentes) {
+				pedido.future.completeExceptionally(e);
+			}
+		}
+
+		@Override
+		public void onComplete() {
+			List<Pedido<T>> pendentes;
+			synchronized (CursorAssincrono.this) {
+				terminado = true;
+				pendentes = new ArrayList<Pedido<T>>(pedidos);
+				pedidos.clear();
+			}
+			for (Pedido<T> pedido : pendentes) {
+				pedido.future.complete(pedido.registros);
+			}
+		}
+
+	}
+
+}
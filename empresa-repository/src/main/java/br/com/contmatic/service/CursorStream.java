@@ -0,0 +1,62 @@
+package br.com.contmatic.service;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.bson.Document;
+
+import com.mongodb.client.MongoCursor;
+
+/**
+ * Expõe um MongoCursor como Stream, convertendo cada documento apenas quando
+ * ele é consumido.
+ *
+ * O cursor é fechado quando chega ao fim ou quando o Stream é fechado, o que
+ * permite usar o Stream em um try-with-resources.
+ *
+ * @author gabriel.santos
+ */
+final class CursorStream {
+
+	static final int TAMANHO_LOTE_PADRAO = 500;
+
+	private CursorStream() {
+	}
+
+	static <T> Stream<T> stream(MongoCursor<Document> cursor, Function<Document, T> conversor) {
+		Iterator<T> iterator = new Iterator<T>() {
+
+			private boolean aberto = true;
+
+			@Override
+			public boolean hasNext() {
+				if (!aberto) {
+					return false;
+				}
+				if (cursor.hasNext()) {
+					return true;
+				}
+				aberto = false;
+				cursor.close();
+				return false;
+			}
+
+			@Override
+			public T next() {
+				if (!hasNext()) {
+					throw new NoSuchElementException();
+				}
+				return conversor.apply(cursor.next());
+			}
+		};
+		Spliterator<T> spliterator = Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL);
+		return StreamSupport.stream(spliterator, false).onClose(cursor::close);
+	}
+
+}
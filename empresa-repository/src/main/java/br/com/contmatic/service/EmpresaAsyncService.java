@@ -0,0 +1,20 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.query.EmpresaQuery;
+
+/**
+ * Versão assíncrona do EmpresaService.
+ *
+ * @author gabriel.santos
+ */
+public class EmpresaAsyncService extends AsyncService<Empresa, EmpresaQuery> {
+
+	public EmpresaAsyncService(MongoDatabase database) {
+		super(database, EmpresaService.NAME_COLLECTION, Empresa.class, "cnpj", new EmpresaResourceAssembly());
+	}
+
+}
@@ -5,19 +5,26 @@ import static com.mongodb.client.model.Projections.include;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 
 import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.codec.ResumoCodec;
 import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.EmpresaQuery;
 
 public class EmpresaService {
 	
-	private static final String NAME_COLLECTION = "empresa";
+	public static final String NAME_COLLECTION = "empresa";
 	
 	private MongoDatabase database;
 	
@@ -26,72 +33,200 @@ public class EmpresaService {
 	}
 
 	public void salvar(Empresa empresa) throws IOException {
-		Document document = Document.parse(empresa.toString());
-		document.append("_id", empresa.getCnpj());
-		database.getCollection(NAME_COLLECTION).insertOne(document);
+		Medicao.medir(NAME_COLLECTION, "salvar", () -> colecao().insertOne(empresa));
+	}
+
+	public List<ResultadoLote> salvarTodos(Iterable<Empresa> empresas) {
+		return salvarTodos(empresas, InsercaoEmLote.TAMANHO_LOTE_PADRAO);
+	}
 
+	public List<ResultadoLote> salvarTodos(Iterable<Empresa> empresas, int tamanhoLote) {
+		return Medicao.medir(NAME_COLLECTION, "salvarTodos",
+				() -> InsercaoEmLote.inserir(colecao(), empresas, tamanhoLote));
 	}
 	
+	/**
+	 * @deprecated use alterar(EmpresaQuery, Document), que confere os índices.
+	 */
+	@Deprecated
 	public void alterar(Document query, Document where) {
-		database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		Medicao.medir(NAME_COLLECTION, "alterarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		});
+	}
+
+	public long alterar(EmpresaQuery query, Document campos) {
+		return Medicao.medir(NAME_COLLECTION, "alterarConsulta",
+				() -> database.getCollection(NAME_COLLECTION)
+						.updateMany(query.toFilterVerificado(), Versionamento.alteracao(campos)).getModifiedCount());
 	}
 	
 	public void alterar(Empresa empresa) {
-		Document document = Document.parse(empresa.toString());
-		document.remove("cnpj");
-		document.append("_id", empresa.getCnpj());
+		Medicao.medir(NAME_COLLECTION, "alterar", () -> {
+			Document document = new EmpresaResourceAssembly().toDocument(empresa);
+			document.append("_id", empresa.getCnpj());
+
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", empresa.getCnpj());
 
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", empresa.getCnpj());
+			database.getCollection(NAME_COLLECTION).updateOne(whereQuery, Versionamento.alteracao(document, "cnpj"));
+		});
+	}
+
+	public long salvarOuAlterar(Empresa empresa) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterar",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), empresa.getCnpj(),
+						new EmpresaResourceAssembly().toDocument(empresa), "cnpj"));
+	}
+
+	public long salvarOuAlterar(Empresa empresa, long versaoEsperada) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterarVersao",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), empresa.getCnpj(),
+						new EmpresaResourceAssembly().toDocument(empresa), "cnpj", versaoEsperada));
+	}
 
-		database.getCollection(NAME_COLLECTION).updateOne(whereQuery, new Document("$set", document));
+	/**
+	 * Grava só os campos que mudaram entre o empresa lido com selecionarVersionado
+	 * e o atual, se o documento ainda estiver naquela versão.
+	 *
+	 * @return a nova versão, ou a mesma quando nada mudou
+	 * @throws ConflitoVersaoException se outro processo gravou depois da leitura
+	 */
+	public long alterar(Versionado<Empresa> anterior, Empresa atual) {
+		return Medicao.medir(NAME_COLLECTION, "alterarParcial", () -> {
+			EmpresaResourceAssembly empresaResourceAssembly = new EmpresaResourceAssembly();
+			return AlteracaoParcial.aplicar(database.getCollection(NAME_COLLECTION), atual.getCnpj(), "cnpj",
+					empresaResourceAssembly.toDocument(anterior.getEntidade()), anterior.getVersao(),
+					empresaResourceAssembly.toDocument(atual));
+		});
 	}
 
+	/**
+	 * @deprecated use deletar(EmpresaQuery), que recusa consulta sem critério.
+	 */
+	@Deprecated
 	public void deletar(Document document) {
-		database.getCollection(NAME_COLLECTION).deleteMany(document);
+		Medicao.medir(NAME_COLLECTION, "deletarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).deleteMany(document);
+		});
+	}
+
+	public long deletar(EmpresaQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "deletarConsulta",
+				() -> database.getCollection(NAME_COLLECTION).deleteMany(query.toFilterVerificado()).getDeletedCount());
 	}
 	
 	public void deletar(Empresa empresa) throws IOException {
-		Document document = new Document("_id", empresa.getCnpj());
-		document.remove("cnpj");
-		document.append("_id", empresa.getCnpj());
-		database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", empresa.getCnpj()));
+		Medicao.medir(NAME_COLLECTION, "deletar", () -> {
+			Document document = new Document("_id", empresa.getCnpj());
+			document.remove("cnpj");
+			document.append("_id", empresa.getCnpj());
+			database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", empresa.getCnpj()));
+		});
 	}
 	
 	public Empresa selecionar(String _id) throws IOException {
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", _id);
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
-		return new EmpresaResourceAssembly().toResource(find.first());
+		return Medicao.medir(NAME_COLLECTION, "selecionar", () -> {
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", _id);
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
+			return new EmpresaResourceAssembly().toResource(find.first());
+		});
+	}
+
+	public Versionado<Empresa> selecionarVersionado(String _id) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarVersionado", () -> {
+			Document document = database.getCollection(NAME_COLLECTION).find(new Document("_id", _id)).first();
+			return Versionamento.ler(document, new EmpresaResourceAssembly()::toResource);
+		});
 	}
 	
 	public List<Empresa> selecionar() throws IOException {
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
-		List<Empresa> empresas = new ArrayList<Empresa>();
-		EmpresaResourceAssembly empresaResourceAssembly = new EmpresaResourceAssembly();
-		for (Document document : find) {
-			empresas.add(empresaResourceAssembly.toResource(document));
-		}
-		return empresas;
+		return Medicao.medir(NAME_COLLECTION, "selecionarTodos", () -> {
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
+			List<Empresa> empresas = new ArrayList<Empresa>();
+			EmpresaResourceAssembly empresaResourceAssembly = new EmpresaResourceAssembly();
+			for (Document document : find) {
+				empresas.add(empresaResourceAssembly.toResource(document));
+			}
+			return empresas;
+		});
 	}
 	
+	public Stream<Empresa> selecionarStream() {
+		return selecionarStream(CursorStream.TAMANHO_LOTE_PADRAO);
+	}
+
+	/**
+	 * A medição cobre a abertura do cursor, que já traz o primeiro lote; os
+	 * lotes seguintes são buscados conforme o stream é consumido.
+	 */
+	public Stream<Empresa> selecionarStream(int tamanhoLote) {
+		MongoCursor<Document> cursor = Medicao.medir(NAME_COLLECTION, "selecionarStream",
+				() -> database.getCollection(NAME_COLLECTION).find().batchSize(tamanhoLote).iterator());
+		return CursorStream.stream(cursor, new EmpresaResourceAssembly()::toResource);
+	}
+	
+	public List<Empresa> selecionar(EmpresaQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarConsulta",
+				() -> colecao().find(query.toFilterVerificado()).into(new ArrayList<Empresa>()));
+	}
+
+	public Document explicar(EmpresaQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "explicar", () -> query.explicar(database));
+	}
+
 	public List<Empresa> selecionar(List<String> campos) throws IOException {
-		List<Empresa> empresas = null;
-		if (campos == null) {
-			return empresas;
-		}
-		if (campos.isEmpty()) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarCampos", () -> {
+			List<Empresa> empresas = null;
+			if (campos == null) {
+				return empresas;
+			}
+			if (campos.isEmpty()) {
+				return empresas;
+			}
+			empresas = new ArrayList<Empresa>();
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
+					.limit(50);
+
+			EmpresaResourceAssembly empresaResourceAssembly = new EmpresaResourceAssembly();
+			for (Document document : find) {
+				empresas.add(empresaResourceAssembly.toResource(document));
+			}
 			return empresas;
-		}
-		empresas = new ArrayList<Empresa>();
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
-				.limit(50);
+		});
+	}
 
-		EmpresaResourceAssembly empresaResourceAssembly = new EmpresaResourceAssembly();
-		for (Document document : find) {
-			empresas.add(empresaResourceAssembly.toResource(document));
-		}
-		return empresas;
+	public Pagina<Empresa> selecionarPagina(String token) {
+		return selecionarPagina(token, Paginacao.TAMANHO_PAGINA_PADRAO, null);
 	}
-	
+
+	public Pagina<Empresa> selecionarPagina(String token, int tamanhoPagina) {
+		return selecionarPagina(token, tamanhoPagina, null);
+	}
+
+	public Pagina<Empresa> selecionarPagina(String token, int tamanhoPagina, List<String> campos) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPagina",
+				() -> Paginacao.buscar(database.getCollection(NAME_COLLECTION), token, tamanhoPagina, campos,
+						new EmpresaResourceAssembly()::toResource));
+	}
+
+	public List<Resumo> selecionarResumos() {
+		return Medicao.medir(NAME_COLLECTION, "selecionarResumos",
+				() -> colecaoResumo().find().projection(ResumoCodec.PROJECAO).into(new ArrayList<Resumo>()));
+	}
+
+	public Pagina<Resumo> selecionarPaginaResumos(String token, int tamanhoPagina) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPaginaResumos",
+				() -> Paginacao.buscar(colecaoResumo(), token, tamanhoPagina, ResumoCodec.PROJECAO));
+	}
+
+	private MongoCollection<Empresa> colecao() {
+		return database.getCollection(NAME_COLLECTION, Empresa.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
+	private MongoCollection<Resumo> colecaoResumo() {
+		return database.getCollection(NAME_COLLECTION, Resumo.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
 }
@@ -0,0 +1,174 @@
+package br.com.contmatic.service;
+
+import static com.mongodb.client.model.Accumulators.avg;
+import static com.mongodb.client.model.Accumulators.max;
+import static com.mongodb.client.model.Accumulators.min;
+import static com.mongodb.client.model.Accumulators.sum;
+import static com.mongodb.client.model.Aggregates.group;
+import static com.mongodb.client.model.Aggregates.limit;
+import static com.mongodb.client.model.Aggregates.match;
+import static com.mongodb.client.model.Aggregates.project;
+import static com.mongodb.client.model.Aggregates.skip;
+import static com.mongodb.client.model.Aggregates.sort;
+import static com.mongodb.client.model.Aggregates.unwind;
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.gte;
+import static com.mongodb.client.model.Filters.lt;
+import static com.mongodb.client.model.Filters.ne;
+import static com.mongodb.client.model.Projections.excludeId;
+import static com.mongodb.client.model.Projections.fields;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+import static com.mongodb.client.model.Sorts.descending;
+import static com.mongodb.client.model.Sorts.orderBy;
+import static java.util.Arrays.asList;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+import org.joda.time.LocalDate;
+import org.joda.time.YearMonth;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.endereco.Estado;
+
+/**
+ * Relatórios da folha de pagamento calculados no banco com aggregate.
+ *
+ * Só as linhas agregadas são trazidas para a aplicação, em vez de todos os
+ * funcionários. O percentil ordena pelo índice de salario e lê um único
+ * documento.
+ *
+ * @author gabriel.santos
+ */
+public class FolhaPagamentoService {
+
+	private static final String SALARIO = "salario";
+
+	private static final String DATA_CONTRATACAO = "dataContratacao";
+
+	private static final String DATA_SALARIO = "dataSalario";
+
+	private static final String QUANTIDADE = "quantidade";
+
+	private static final String TOTAL = "total";
+
+	private static final String ID = "_id";
+
+	private static final Bson COM_SALARIO = ne(SALARIO, null);
+
+	private MongoDatabase database;
+
+	public FolhaPagamentoService(MongoDatabase database) {
+		this.database = database;
+	}
+
+	public ResumoSalarios resumoSalarios() {
+		Document resumo = colecao().aggregate(asList(match(COM_SALARIO),
+				group(null, sum(QUANTIDADE, 1), sum(TOTAL, "$" + SALARIO), avg("media", "$" + SALARIO),
+						min("minimo", "$" + SALARIO), max("maximo", "$" + SALARIO))))
+				.first();
+		if (resumo == null) {
+			BigDecimal zero = dinheiro(0);
+			return new ResumoSalarios(0, zero, zero, zero, zero);
+		}
+		return new ResumoSalarios(quantidade(resumo), dinheiro(resumo.get(TOTAL)), dinheiro(resumo.get("media")),
+				dinheiro(resumo.get("minimo")), dinheiro(resumo.get("maximo")));
+	}
+
+	/**
+	 * O salário no percentil informado, de 0 a 100, pelo método do posto mais
+	 * próximo. Devolve nulo se nenhum funcionário tiver salário.
+	 */
+	public BigDecimal percentilSalario(double percentil) {
+		if (percentil < 0 || percentil > 100) {
+			throw new IllegalArgumentException("O percentil deve estar entre 0 e 100");
+		}
+		long quantidade = colecao().countDocuments(COM_SALARIO);
+		if (quantidade == 0) {
+			return null;
+		}
+		long posicao = Math.max(0, (long) Math.ceil(percentil / 100 * quantidade) - 1);
+		Document document = colecao().aggregate(asList(match(COM_SALARIO), sort(ascending(SALARIO)),
+				skip((int) posicao), limit(1), project(fields(excludeId(), include(SALARIO))))).first();
+		return document == null ? null : dinheiro(document.get(SALARIO));
+	}
+
+	/**
+	 * Funcionários por estado dos endereços, do estado com mais funcionários
+	 * para o com menos. Um funcionário com dois endereços no mesmo estado conta
+	 * uma vez.
+	 */
+	public List<Agrupamento<Estado>> quantidadePorEstado() {
+		List<Agrupamento<Estado>> agrupamentos = new ArrayList<Agrupamento<Estado>>();
+		for (Document document : colecao().aggregate(asList(
+				project(new Document("estados",
+						new Document("$setUnion", asList(new Document("$ifNull", asList("$enderecos.estado", asList())),
+								asList())))),
+				unwind("$estados"), match(ne("estados", null)), group("$estados", sum(QUANTIDADE, 1)),
+				sort(orderBy(descending(QUANTIDADE), ascending(ID)))))) {
+			agrupamentos.add(new Agrupamento<Estado>(Estado.valueOf(document.getString(ID)), quantidade(document)));
+		}
+		return agrupamentos;
+	}
+
+	/**
+	 * Contratações por mês de dataContratacao, em ordem cronológica.
+	 */
+	public List<Agrupamento<YearMonth>> contratacoesPorMes() {
+		return contratacoesPorMes(ne(DATA_CONTRATACAO, null));
+	}
+
+	/**
+	 * Contratações por mês entre as datas, com o início incluído e o fim
+	 * excluído.
+	 */
+	public List<Agrupamento<YearMonth>> contratacoesPorMes(LocalDate inicio, LocalDate fim) {
+		return contratacoesPorMes(and(gte(DATA_CONTRATACAO, inicio.toString()), lt(DATA_CONTRATACAO, fim.toString())));
+	}
+
+	/**
+	 * As próximas datas de salário a partir da data informada, com a quantidade
+	 * de funcionários e o total a pagar em cada uma.
+	 */
+	public List<PagamentoPrevisto> proximosPagamentos(LocalDate aPartirDe, int quantidadeDatas) {
+		List<PagamentoPrevisto> pagamentos = new ArrayList<PagamentoPrevisto>();
+		for (Document document : colecao().aggregate(asList(match(gte(DATA_SALARIO, aPartirDe.toString())),
+				group("$" + DATA_SALARIO, sum(QUANTIDADE, 1), sum(TOTAL, "$" + SALARIO)), sort(ascending(ID)),
+				limit(quantidadeDatas)))) {
+			pagamentos.add(new PagamentoPrevisto(LocalDate.parse(document.getString(ID)), quantidade(document),
+					dinheiro(document.get(TOTAL))));
+		}
+		return pagamentos;
+	}
+
+	private List<Agrupamento<YearMonth>> contratacoesPorMes(Bson filtro) {
+		List<Agrupamento<YearMonth>> agrupamentos = new ArrayList<Agrupamento<YearMonth>>();
+		for (Document document : colecao().aggregate(asList(match(filtro),
+				group(new Document("$substrBytes", asList("$" + DATA_CONTRATACAO, 0, 7)), sum(QUANTIDADE, 1)),
+				sort(ascending(ID))))) {
+			agrupamentos.add(new Agrupamento<YearMonth>(YearMonth.parse(document.getString(ID)), quantidade(document)));
+		}
+		return agrupamentos;
+	}
+
+	private static long quantidade(Document document) {
+		return ((Number) document.get(QUANTIDADE)).longValue();
+	}
+
+	private static BigDecimal dinheiro(Object valor) {
+		double numero = valor instanceof Number ? ((Number) valor).doubleValue() : 0;
+		return BigDecimal.valueOf(numero).setScale(2, RoundingMode.HALF_EVEN);
+	}
+
+	private MongoCollection<Document> colecao() {
+		return database.getCollection(FuncionarioService.NAME_COLLECTION);
+	}
+
+}
@@ -0,0 +1,20 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.assembly.FornecedorResourceAssembly;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.query.FornecedorQuery;
+
+/**
+ * Versão assíncrona do FornecedorService.
+ *
+ * @author gabriel.santos
+ */
+public class FornecedorAsyncService extends AsyncService<Fornecedor, FornecedorQuery> {
+
+	public FornecedorAsyncService(MongoDatabase database) {
+		super(database, FornecedorService.NAME_COLLECTION, Fornecedor.class, "cnpj", new FornecedorResourceAssembly());
+	}
+
+}
@@ -5,19 +5,26 @@ import static com.mongodb.client.model.Projections.include;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 
 import br.com.contmatic.assembly.FornecedorResourceAssembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.codec.ResumoCodec;
 import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.FornecedorQuery;
 
 public class FornecedorService {
 	
-private static final String NAME_COLLECTION = "Fornecedor";
+public static final String NAME_COLLECTION = "Fornecedor";
 	
 	private MongoDatabase database;
 	
@@ -26,72 +33,200 @@ private static final String NAME_COLLECTION = "Fornecedor";
 	}
 
 	public void salvar(Fornecedor fornecedor) throws IOException {
-		Document document = Document.parse(fornecedor.toString());
-		document.append("_id", fornecedor.getCnpj());
-		database.getCollection(NAME_COLLECTION).insertOne(document);
+		Medicao.medir(NAME_COLLECTION, "salvar", () -> colecao().insertOne(fornecedor));
+	}
+
+	public List<ResultadoLote> salvarTodos(Iterable<Fornecedor> fornecedores) {
+		return salvarTodos(fornecedores, InsercaoEmLote.TAMANHO_LOTE_PADRAO);
+	}
 
+	public List<ResultadoLote> salvarTodos(Iterable<Fornecedor> fornecedores, int tamanhoLote) {
+		return Medicao.medir(NAME_COLLECTION, "salvarTodos",
+				() -> InsercaoEmLote.inserir(colecao(), fornecedores, tamanhoLote));
 	}
 	
+	/**
+	 * @deprecated use alterar(FornecedorQuery, Document), que confere os índices.
+	 */
+	@Deprecated
 	public void alterar(Document query, Document where) {
-		database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		Medicao.medir(NAME_COLLECTION, "alterarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		});
+	}
+
+	public long alterar(FornecedorQuery query, Document campos) {
+		return Medicao.medir(NAME_COLLECTION, "alterarConsulta",
+				() -> database.getCollection(NAME_COLLECTION)
+						.updateMany(query.toFilterVerificado(), Versionamento.alteracao(campos)).getModifiedCount());
 	}
 	
 	public void alterar(Fornecedor fornecedor) {
-		Document document = Document.parse(fornecedor.toString());
-		document.remove("cnpj");
-		document.append("_id", fornecedor.getCnpj());
+		Medicao.medir(NAME_COLLECTION, "alterar", () -> {
+			Document document = new FornecedorResourceAssembly().toDocument(fornecedor);
+			document.append("_id", fornecedor.getCnpj());
+
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", fornecedor.getCnpj());
+
+			database.getCollection(NAME_COLLECTION).updateOne(whereQuery, Versionamento.alteracao(document, "cnpj"));
+		});
+	}
+
+	public long salvarOuAlterar(Fornecedor fornecedor) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterar",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), fornecedor.getCnpj(),
+						new FornecedorResourceAssembly().toDocument(fornecedor), "cnpj"));
+	}
 
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", fornecedor.getCnpj());
+	public long salvarOuAlterar(Fornecedor fornecedor, long versaoEsperada) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterarVersao",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), fornecedor.getCnpj(),
+						new FornecedorResourceAssembly().toDocument(fornecedor), "cnpj", versaoEsperada));
+	}
 
-		database.getCollection(NAME_COLLECTION).updateOne(whereQuery, new Document("$set", document));
+	/**
+	 * Grava só os campos que mudaram entre o fornecedor lido com selecionarVersionado
+	 * e o atual, se o documento ainda estiver naquela versão.
+	 *
+	 * @return a nova versão, ou a mesma quando nada mudou
+	 * @throws ConflitoVersaoException se outro processo gravou depois da leitura
+	 */
+	public long alterar(Versionado<Fornecedor> anterior, Fornecedor atual) {
+		return Medicao.medir(NAME_COLLECTION, "alterarParcial", () -> {
+			FornecedorResourceAssembly fornecedorResourceAssembly = new FornecedorResourceAssembly();
+			return AlteracaoParcial.aplicar(database.getCollection(NAME_COLLECTION), atual.getCnpj(), "cnpj",
+					fornecedorResourceAssembly.toDocument(anterior.getEntidade()), anterior.getVersao(),
+					fornecedorResourceAssembly.toDocument(atual));
+		});
 	}
 
+	/**
+	 * @deprecated use deletar(FornecedorQuery), que recusa consulta sem critério.
+	 */
+	@Deprecated
 	public void deletar(Document document) {
-		database.getCollection(NAME_COLLECTION).deleteMany(document);
+		Medicao.medir(NAME_COLLECTION, "deletarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).deleteMany(document);
+		});
+	}
+
+	public long deletar(FornecedorQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "deletarConsulta",
+				() -> database.getCollection(NAME_COLLECTION).deleteMany(query.toFilterVerificado()).getDeletedCount());
 	}
 	
 	public void deletar(Fornecedor fornecedor) throws IOException {
-		Document document = new Document("_id", fornecedor.getCnpj());
-		document.remove("cnpj");
-		document.append("_id", fornecedor.getCnpj());
-		database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", fornecedor.getCnpj()));
+		Medicao.medir(NAME_COLLECTION, "deletar", () -> {
+			Document document = new Document("_id", fornecedor.getCnpj());
+			document.remove("cnpj");
+			document.append("_id", fornecedor.getCnpj());
+			database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", fornecedor.getCnpj()));
+		});
 	}
 	
 	public Fornecedor selecionar(String _id) throws IOException {
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", _id);
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
-		return new FornecedorResourceAssembly().toResource(find.first());
+		return Medicao.medir(NAME_COLLECTION, "selecionar", () -> {
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", _id);
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
+			return new FornecedorResourceAssembly().toResource(find.first());
+		});
+	}
+
+	public Versionado<Fornecedor> selecionarVersionado(String _id) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarVersionado", () -> {
+			Document document = database.getCollection(NAME_COLLECTION).find(new Document("_id", _id)).first();
+			return Versionamento.ler(document, new FornecedorResourceAssembly()::toResource);
+		});
 	}
 	
 	public List<Fornecedor> selecionar() throws IOException {
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
-		List<Fornecedor> fornecedores = new ArrayList<Fornecedor>();
-		FornecedorResourceAssembly fornecedorResourceAssembly = new FornecedorResourceAssembly();
-		for (Document document : find) {
-			fornecedores.add(fornecedorResourceAssembly.toResource(document));
-		}
-		return fornecedores;
+		return Medicao.medir(NAME_COLLECTION, "selecionarTodos", () -> {
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
+			List<Fornecedor> fornecedores = new ArrayList<Fornecedor>();
+			FornecedorResourceAssembly fornecedorResourceAssembly = new FornecedorResourceAssembly();
+			for (Document document : find) {
+				fornecedores.add(fornecedorResourceAssembly.toResource(document));
+			}
+			return fornecedores;
+		});
+	}
+	
+	public Stream<Fornecedor> selecionarStream() {
+		return selecionarStream(CursorStream.TAMANHO_LOTE_PADRAO);
+	}
+
+	/**
+	 * A medição cobre a abertura do cursor, que já traz o primeiro lote; os
+	 * lotes seguintes são buscados conforme o stream é consumido.
+	 */
+	public Stream<Fornecedor> selecionarStream(int tamanhoLote) {
+		MongoCursor<Document> cursor = Medicao.medir(NAME_COLLECTION, "selecionarStream",
+				() -> database.getCollection(NAME_COLLECTION).find().batchSize(tamanhoLote).iterator());
+		return CursorStream.stream(cursor, new FornecedorResourceAssembly()::toResource);
 	}
 	
+	public List<Fornecedor> selecionar(FornecedorQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarConsulta",
+				() -> colecao().find(query.toFilterVerificado()).into(new ArrayList<Fornecedor>()));
+	}
+
+	public Document explicar(FornecedorQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "explicar", () -> query.explicar(database));
+	}
+
 	public List<Fornecedor> selecionar(List<String> campos) throws IOException {
-		List<Fornecedor> fornecedores = null;
-		if (campos == null) {
-			return fornecedores;
-		}
-		if (campos.isEmpty()) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarCampos", () -> {
+			List<Fornecedor> fornecedores = null;
+			if (campos == null) {
+				return fornecedores;
+			}
+			if (campos.isEmpty()) {
+				return fornecedores;
+			}
+			fornecedores = new ArrayList<Fornecedor>();
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
+					.limit(50);
+
+			FornecedorResourceAssembly fornecedorResourceAssembly = new FornecedorResourceAssembly();
+			for (Document document : find) {
+				fornecedores.add(fornecedorResourceAssembly.toResource(document));
+			}
 			return fornecedores;
-		}
-		fornecedores = new ArrayList<Fornecedor>();
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
-				.limit(50);
-
-		FornecedorResourceAssembly fornecedorResourceAssembly = new FornecedorResourceAssembly();
-		for (Document document : find) {
-			fornecedores.add(fornecedorResourceAssembly.toResource(document));
-		}
-		return fornecedores;
+		});
+	}
+
+	public Pagina<Fornecedor> selecionarPagina(String token) {
+		return selecionarPagina(token, Paginacao.TAMANHO_PAGINA_PADRAO, null);
+	}
+
+	public Pagina<Fornecedor> selecionarPagina(String token, int tamanhoPagina) {
+		return selecionarPagina(token, tamanhoPagina, null);
+	}
+
+	public Pagina<Fornecedor> selecionarPagina(String token, int tamanhoPagina, List<String> campos) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPagina",
+				() -> Paginacao.buscar(database.getCollection(NAME_COLLECTION), token, tamanhoPagina, campos,
+						new FornecedorResourceAssembly()::toResource));
+	}
+
+	public List<Resumo> selecionarResumos() {
+		return Medicao.medir(NAME_COLLECTION, "selecionarResumos",
+				() -> colecaoResumo().find().projection(ResumoCodec.PROJECAO).into(new ArrayList<Resumo>()));
+	}
+
+	public Pagina<Resumo> selecionarPaginaResumos(String token, int tamanhoPagina) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPaginaResumos",
+				() -> Paginacao.buscar(colecaoResumo(), token, tamanhoPagina, ResumoCodec.PROJECAO));
+	}
+
+	private MongoCollection<Fornecedor> colecao() {
+		return database.getCollection(NAME_COLLECTION, Fornecedor.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
+	private MongoCollection<Resumo> colecaoResumo() {
+		return database.getCollection(NAME_COLLECTION, Resumo.class).withCodecRegistry(Codecs.REGISTRY);
 	}
 
 }
@@ -0,0 +1,20 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.assembly.FuncionarioResourceAssembly;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.query.FuncionarioQuery;
+
+/**
+ * Versão assíncrona do FuncionarioService.
+ *
+ * @author gabriel.santos
+ */
+public class FuncionarioAsyncService extends AsyncService<Funcionario, FuncionarioQuery> {
+
+	public FuncionarioAsyncService(MongoDatabase database) {
+		super(database, FuncionarioService.NAME_COLLECTION, Funcionario.class, "cpf", new FuncionarioResourceAssembly());
+	}
+
+}
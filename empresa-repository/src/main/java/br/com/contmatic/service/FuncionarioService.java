@@ -5,19 +5,26 @@ import static com.mongodb.client.model.Projections.include;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 
 import com.mongodb.BasicDBObject;
 import com.mongodb.client.FindIterable;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoCursor;
 import com.mongodb.client.MongoDatabase;
 
 import br.com.contmatic.assembly.FuncionarioResourceAssembly;
+import br.com.contmatic.codec.Codecs;
+import br.com.contmatic.codec.ResumoCodec;
 import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.FuncionarioQuery;
 
 public class FuncionarioService {
 
-private static final String NAME_COLLECTION = "Funcionario";
+public static final String NAME_COLLECTION = "Funcionario";
 	
 	private MongoDatabase database;
 	
@@ -26,72 +33,200 @@ private static final String NAME_COLLECTION = "Funcionario";
 	}
 
 	public void salvar(Funcionario Funcionario) throws IOException {
-		Document document = Document.parse(Funcionario.toString());
-		document.append("_id", Funcionario.getCpf());
-		database.getCollection(NAME_COLLECTION).insertOne(document);
+		Medicao.medir(NAME_COLLECTION, "salvar", () -> colecao().insertOne(Funcionario));
+	}
+
+	public List<ResultadoLote> salvarTodos(Iterable<Funcionario> funcionarios) {
+		return salvarTodos(funcionarios, InsercaoEmLote.TAMANHO_LOTE_PADRAO);
+	}
 
+	public List<ResultadoLote> salvarTodos(Iterable<Funcionario> funcionarios, int tamanhoLote) {
+		return Medicao.medir(NAME_COLLECTION, "salvarTodos",
+				() -> InsercaoEmLote.inserir(colecao(), funcionarios, tamanhoLote));
 	}
 	
+	/**
+	 * @deprecated use alterar(FuncionarioQuery, Document), que confere os índices.
+	 */
+	@Deprecated
 	public void alterar(Document query, Document where) {
-		database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		Medicao.medir(NAME_COLLECTION, "alterarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).updateMany(where, new Document("$set", query));
+		});
+	}
+
+	public long alterar(FuncionarioQuery query, Document campos) {
+		return Medicao.medir(NAME_COLLECTION, "alterarConsulta",
+				() -> database.getCollection(NAME_COLLECTION)
+						.updateMany(query.toFilterVerificado(), Versionamento.alteracao(campos)).getModifiedCount());
 	}
 	
 	public void alterar(Funcionario Funcionario) {
-		Document document = Document.parse(Funcionario.toString());
-		document.remove("cnpj");
-		document.append("_id", Funcionario.getCpf());
+		Medicao.medir(NAME_COLLECTION, "alterar", () -> {
+			Document document = new FuncionarioResourceAssembly().toDocument(Funcionario);
+			document.append("_id", Funcionario.getCpf());
+
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", Funcionario.getCpf());
 
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", Funcionario.getCpf());
+			database.getCollection(NAME_COLLECTION).updateOne(whereQuery, Versionamento.alteracao(document, "cpf"));
+		});
+	}
+
+	public long salvarOuAlterar(Funcionario funcionario) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterar",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), funcionario.getCpf(),
+						new FuncionarioResourceAssembly().toDocument(funcionario), "cpf"));
+	}
+
+	public long salvarOuAlterar(Funcionario funcionario, long versaoEsperada) {
+		return Medicao.medir(NAME_COLLECTION, "salvarOuAlterarVersao",
+				() -> Versionamento.salvarOuAlterar(database.getCollection(NAME_COLLECTION), funcionario.getCpf(),
+						new FuncionarioResourceAssembly().toDocument(funcionario), "cpf", versaoEsperada));
+	}
 
-		database.getCollection(NAME_COLLECTION).updateOne(whereQuery, new Document("$set", document));
+	/**
+	 * Grava só os campos que mudaram entre o funcionario lido com selecionarVersionado
+	 * e o atual, se o documento ainda estiver naquela versão.
+	 *
+	 * @return a nova versão, ou a mesma quando nada mudou
+	 * @throws ConflitoVersaoException se outro processo gravou depois da leitura
+	 */
+	public long alterar(Versionado<Funcionario> anterior, Funcionario atual) {
+		return Medicao.medir(NAME_COLLECTION, "alterarParcial", () -> {
+			FuncionarioResourceAssembly funcionarioResourceAssembly = new FuncionarioResourceAssembly();
+			return AlteracaoParcial.aplicar(database.getCollection(NAME_COLLECTION), atual.getCpf(), "cpf",
+					funcionarioResourceAssembly.toDocument(anterior.getEntidade()), anterior.getVersao(),
+					funcionarioResourceAssembly.toDocument(atual));
+		});
 	}
 
+	/**
+	 * @deprecated use deletar(FuncionarioQuery), que recusa consulta sem critério.
+	 */
+	@Deprecated
 	public void deletar(Document document) {
-		database.getCollection(NAME_COLLECTION).deleteMany(document);
+		Medicao.medir(NAME_COLLECTION, "deletarDocumento", () -> {
+			database.getCollection(NAME_COLLECTION).deleteMany(document);
+		});
+	}
+
+	public long deletar(FuncionarioQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "deletarConsulta",
+				() -> database.getCollection(NAME_COLLECTION).deleteMany(query.toFilterVerificado()).getDeletedCount());
 	}
 	
 	public void deletar(Funcionario Funcionario) throws IOException {
-		Document document = new Document("_id", Funcionario.getCpf());
-		document.remove("cnpj");
-		document.append("_id", Funcionario.getCpf());
-		database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", Funcionario.getCpf()));
+		Medicao.medir(NAME_COLLECTION, "deletar", () -> {
+			Document document = new Document("_id", Funcionario.getCpf());
+			document.remove("cnpj");
+			document.append("_id", Funcionario.getCpf());
+			database.getCollection(NAME_COLLECTION).deleteOne(new Document("_id", Funcionario.getCpf()));
+		});
 	}
 	
 	public Funcionario selecionar(String _id) throws IOException {
-		BasicDBObject whereQuery = new BasicDBObject();
-		whereQuery.append("_id", _id);
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
-		return new FuncionarioResourceAssembly().toResource(find.first());
+		return Medicao.medir(NAME_COLLECTION, "selecionar", () -> {
+			BasicDBObject whereQuery = new BasicDBObject();
+			whereQuery.append("_id", _id);
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find(whereQuery);
+			return new FuncionarioResourceAssembly().toResource(find.first());
+		});
+	}
+
+	public Versionado<Funcionario> selecionarVersionado(String _id) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarVersionado", () -> {
+			Document document = database.getCollection(NAME_COLLECTION).find(new Document("_id", _id)).first();
+			return Versionamento.ler(document, new FuncionarioResourceAssembly()::toResource);
+		});
 	}
 	
 	public List<Funcionario> selecionar() throws IOException {
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
-		List<Funcionario> Funcionarios = new ArrayList<Funcionario>();
-		FuncionarioResourceAssembly FuncionarioResourceAssembly = new FuncionarioResourceAssembly();
-		for (Document document : find) {
-			Funcionarios.add(FuncionarioResourceAssembly.toResource(document));
-		}
-		return Funcionarios;
+		return Medicao.medir(NAME_COLLECTION, "selecionarTodos", () -> {
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find();
+			List<Funcionario> Funcionarios = new ArrayList<Funcionario>();
+			FuncionarioResourceAssembly FuncionarioResourceAssembly = new FuncionarioResourceAssembly();
+			for (Document document : find) {
+				Funcionarios.add(FuncionarioResourceAssembly.toResource(document));
+			}
+			return Funcionarios;
+		});
 	}
 	
+	public Stream<Funcionario> selecionarStream() {
+		return selecionarStream(CursorStream.TAMANHO_LOTE_PADRAO);
+	}
+
+	/**
+	 * A medição cobre a abertura do cursor, que já traz o primeiro lote; os
+	 * lotes seguintes são buscados conforme o stream é consumido.
+	 */
+	public Stream<Funcionario> selecionarStream(int tamanhoLote) {
+		MongoCursor<Document> cursor = Medicao.medir(NAME_COLLECTION, "selecionarStream",
+				() -> database.getCollection(NAME_COLLECTION).find().batchSize(tamanhoLote).iterator());
+		return CursorStream.stream(cursor, new FuncionarioResourceAssembly()::toResource);
+	}
+	
+	public List<Funcionario> selecionar(FuncionarioQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarConsulta",
+				() -> colecao().find(query.toFilterVerificado()).into(new ArrayList<Funcionario>()));
+	}
+
+	public Document explicar(FuncionarioQuery query) {
+		return Medicao.medir(NAME_COLLECTION, "explicar", () -> query.explicar(database));
+	}
+
 	public List<Funcionario> selecionar(List<String> campos) throws IOException {
-		List<Funcionario> Funcionarios = null;
-		if (campos == null) {
-			return Funcionarios;
-		}
-		if (campos.isEmpty()) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarCampos", () -> {
+			List<Funcionario> Funcionarios = null;
+			if (campos == null) {
+				return Funcionarios;
+			}
+			if (campos.isEmpty()) {
+				return Funcionarios;
+			}
+			Funcionarios = new ArrayList<Funcionario>();
+			FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
+					.limit(50);
+
+			FuncionarioResourceAssembly FuncionarioResourceAssembly = new FuncionarioResourceAssembly();
+			for (Document document : find) {
+				Funcionarios.add(FuncionarioResourceAssembly.toResource(document));
+			}
 			return Funcionarios;
-		}
-		Funcionarios = new ArrayList<Funcionario>();
-		FindIterable<Document> find = database.getCollection(NAME_COLLECTION).find().projection(include(campos))
-				.limit(50);
+		});
+	}
 
-		FuncionarioResourceAssembly FuncionarioResourceAssembly = new FuncionarioResourceAssembly();
-		for (Document document : find) {
-			Funcionarios.add(FuncionarioResourceAssembly.toResource(document));
-		}
-		return Funcionarios;
+	public Pagina<Funcionario> selecionarPagina(String token) {
+		return selecionarPagina(token, Paginacao.TAMANHO_PAGINA_PADRAO, null);
 	}
-	
+
+	public Pagina<Funcionario> selecionarPagina(String token, int tamanhoPagina) {
+		return selecionarPagina(token, tamanhoPagina, null);
+	}
+
+	public Pagina<Funcionario> selecionarPagina(String token, int tamanhoPagina, List<String> campos) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPagina",
+				() -> Paginacao.buscar(database.getCollection(NAME_COLLECTION), token, tamanhoPagina, campos,
+						new FuncionarioResourceAssembly()::toResource));
+	}
+
+	public List<Resumo> selecionarResumos() {
+		return Medicao.medir(NAME_COLLECTION, "selecionarResumos",
+				() -> colecaoResumo().find().projection(ResumoCodec.PROJECAO).into(new ArrayList<Resumo>()));
+	}
+
+	public Pagina<Resumo> selecionarPaginaResumos(String token, int tamanhoPagina) {
+		return Medicao.medir(NAME_COLLECTION, "selecionarPaginaResumos",
+				() -> Paginacao.buscar(colecaoResumo(), token, tamanhoPagina, ResumoCodec.PROJECAO));
+	}
+
+	private MongoCollection<Funcionario> colecao() {
+		return database.getCollection(NAME_COLLECTION, Funcionario.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
+	private MongoCollection<Resumo> colecaoResumo() {
+		return database.getCollection(NAME_COLLECTION, Resumo.class).withCodecRegistry(Codecs.REGISTRY);
+	}
+
 }
@@ -0,0 +1,360 @@
+package br.com.contmatic.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.bson.Document;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoException;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.client.model.BulkWriteOptions;
+import com.mongodb.client.model.UpdateOneModel;
+import com.mongodb.client.model.WriteModel;
+
+/**
+ * Grava o boleto dos clientes em segundo plano, juntando as alterações de um
+ * mesmo CPF.
+ *
+ * Cada alterarBoleto só guarda o valor em memória, substituindo o valor
+ * pendente do mesmo CPF. Uma thread própria envia os pendentes em um único
+ * bulkWrite não ordenado a cada intervalo ou quando o lote enche, o que vier
+ * primeiro. Os envios são feitos um de cada vez, então o último valor de um
+ * CPF é sempre o último gravado.
+ *
+ * A memória é limitada pelo máximo de pendentes, contando os que estão sendo
+ * enviados. Com o buffer cheio, alterarBoleto espera o próximo envio, o que
+ * segura quem produz as alterações no ritmo do banco. O close envia o que
+ * ainda estiver pendente antes de devolver.
+ *
+ * Uma falha de rede devolve os valores ao buffer, sem passar por cima de
+ * valores mais novos, para a próxima tentativa. As tentativas seguidas que
+ * falham esperam o dobro do intervalo a cada vez, até ESPERA_MAXIMA_MILLIS.
+ * Um erro de um documento específico é só contado em getFalhas, e um CPF que
+ * não existe na coleção em getNaoEncontrados.
+ *
+ * Um gancho de desligamento da JVM chama o close, para que os pendentes não
+ * se percam numa saída normal. Ele depende de o MongoClient ainda estar
+ * aberto, então quem fecha o cliente num gancho próprio deve chamar o close
+ * antes. Uma JVM derrubada à força perde o que não foi enviado.
+ *
+ * @author gabriel.santos
+ */
+public class GravacaoBoletos implements AutoCloseable {
+
+	public static final int MAXIMO_PENDENTES_PADRAO = 10000;
+
+	public static final int TAMANHO_LOTE_PADRAO = 1000;
+
+	public static final long INTERVALO_PADRAO_MILLIS = 200;
+
+	public static final long ESPERA_MAXIMA_MILLIS = 30000;
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(GravacaoBoletos.class);
+
+	private static final BulkWriteOptions NAO_ORDENADO = new BulkWriteOptions().ordered(false);
+
+	private final MongoCollection<Document> collection;
+
+	private final int maximoPendentes;
+
+	private final int tamanhoLote;
+
+	private final long intervaloNanos;
+
+	private final ReentrantLock lock = new ReentrantLock();
+
+	private final Condition loteCheio = lock.newCondition();
+
+	private final Condition temEspaco = lock.newCondition();
+
+	private final Object envio = new Object();
+
+	private final Thread gravador;
+
+	private final Thread desligamento;
+
+	private final AtomicLong gravados = new AtomicLong();
+
+	private final AtomicLong coalescidos = new AtomicLong();
+
+	private final AtomicLong falhas = new AtomicLong();
+
+	private final AtomicLong naoEncontrados = new AtomicLong();
+
+	private final AtomicLong enviosComFalha = new AtomicLong();
+
+	/**
+	 * Envios seguidos que falharam por erro de rede, zerado no primeiro que
+	 * chega ao banco.
+	 */
+	private volatile int falhasSeguidas;
+
+	private Map<String, BigDecimal> pendentes = new LinkedHashMap<String, BigDecimal>();
+
+	private int emEnvio;
+
+	private boolean fechado;
+
+	public GravacaoBoletos(MongoDatabase database) {
+		this(database, MAXIMO_PENDENTES_PADRAO, TAMANHO_LOTE_PADRAO, INTERVALO_PADRAO_MILLIS, TimeUnit.MILLISECONDS);
+	}
+
+	public GravacaoBoletos(MongoDatabase database, int maximoPendentes, int tamanhoLote, long intervalo,
+			TimeUnit unidade) {
+		if (tamanhoLote < 1 || maximoPendentes < tamanhoLote) {
+			throw new IllegalArgumentException("O lote deve ser maior que zero e não pode passar do máximo de pendentes");
+		}
+		if (intervalo <= 0) {
+			throw new IllegalArgumentException("O intervalo deve ser maior que zero");
+		}
+		this.collection = database.getCollection(ClienteService.NAME_COLLECTION);
+		this.maximoPendentes = maximoPendentes;
+		this.tamanhoLote = tamanhoLote;
+		this.intervaloNanos = unidade.toNanos(intervalo);
+		this.gravador = new Thread(this::gravar, "gravacao-boletos");
+		this.gravador.setDaemon(true);
+		this.gravador.start();
+		this.desligamento = new Thread(this::close, "gravacao-boletos-desligamento");
+		Runtime.getRuntime().addShutdownHook(desligamento);
+	}
+
+	/**
+	 * Guarda o novo boleto do CPF, esperando o próximo envio se o buffer
+	 * estiver cheio.
+	 */
+	public void alterarBoleto(String cpf, BigDecimal boleto) throws InterruptedException {
+		alterarBoleto(cpf, boleto, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * Guarda o novo boleto do CPF, esperando no máximo o tempo informado por
+	 * espaço no buffer. Devolve false se o tempo acabar antes.
+	 */
+	public boolean alterarBoleto(String cpf, BigDecimal boleto, long espera, TimeUnit unidade)
+			throws InterruptedException {
+		Objects.requireNonNull(cpf, "O cpf é obrigatório");
+		Objects.requireNonNull(boleto, "O boleto é obrigatório");
+		long restante = unidade.toNanos(espera);
+		lock.lockInterruptibly();
+		try {
+			while (!fechado && !pendentes.containsKey(cpf) && pendentes.size() + emEnvio >= maximoPendentes) {
+				if (restante <= 0) {
+					return false;
+				}
+				restante = temEspaco.awaitNanos(restante);
+			}
+			if (fechado) {
+				throw new IllegalStateException("A gravação de boletos já foi fechada");
+			}
+			if (pendentes.put(cpf, boleto) != null) {
+				coalescidos.incrementAndGet();
+			}
+			if (pendentes.size() >= tamanhoLote) {
+				loteCheio.signal();
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Envia agora os boletos pendentes e espera a gravação.
+	 */
+	public void descarregar() {
+		synchronized (envio) {
+			Map<String, BigDecimal> lote;
+			lock.lock();
+			try {
+				if (pendentes.isEmpty()) {
+					return;
+				}
+				lote = pendentes;
+				pendentes = new LinkedHashMap<String, BigDecimal>();
+				emEnvio = lote.size();
+			} finally {
+				lock.unlock();
+			}
+			try {
+				enviar(lote);
+			} finally {
+				lock.lock();
+				try {
+					emEnvio = 0;
+					temEspaco.signalAll();
+				} finally {
+					lock.unlock();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Recusa novos boletos, envia os pendentes e encerra a thread de envio.
+	 */
+	@Override
+	public void close() {
+		if (Thread.currentThread() != desligamento) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(desligamento);
+			} catch (IllegalStateException e) {
+				LOGGER.debug("JVM já em desligamento, o gancho fecha a gravação", e);
+			}
+		}
+		lock.lock();
+		try {
+			fechado = true;
+			loteCheio.signal();
+			temEspaco.signalAll();
+		} finally {
+			lock.unlock();
+		}
+		try {
+			gravador.join();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		descarregar();
+		int restantes = getPendentes();
+		if (restantes > 0) {
+			LOGGER.error("{} boletos não foram gravados ao fechar", restantes);
+		}
+	}
+
+	public int getPendentes() {
+		lock.lock();
+		try {
+			return pendentes.size() + emEnvio;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Boletos gravados no banco, contando só os CPFs encontrados.
+	 */
+	public long getGravados() {
+		return gravados.get();
+	}
+
+	/**
+	 * Alterações substituídas por uma mais nova do mesmo CPF antes do envio.
+	 */
+	public long getCoalescidos() {
+		return coalescidos.get();
+	}
+
+	public long getFalhas() {
+		return falhas.get();
+	}
+
+	/**
+	 * Boletos de CPFs que não existem na coleção.
+	 */
+	public long getNaoEncontrados() {
+		return naoEncontrados.get();
+	}
+
+	/**
+	 * Envios que falharam por erro de rede e foram devolvidos ao buffer.
+	 */
+	public long getEnviosComFalha() {
+		return enviosComFalha.get();
+	}
+
+	private void gravar() {
+		boolean terminar = false;
+		while (!terminar) {
+			lock.lock();
+			try {
+				boolean recuando = falhasSeguidas > 0;
+				long espera = recuando ? recuo() : intervaloNanos;
+				while (!fechado && (recuando || pendentes.size() < tamanhoLote) && espera > 0) {
+					espera = loteCheio.awaitNanos(espera);
+				}
+				terminar = fechado;
+			} catch (InterruptedException e) {
+				terminar = true;
+			} finally {
+				lock.unlock();
+			}
+			try {
+				descarregar();
+			} catch (RuntimeException e) {
+				LOGGER.error("Falha ao gravar os boletos", e);
+			}
+		}
+	}
+
+	/**
+	 * A espera depois de falhas seguidas, dobrando a cada uma, sem passar de
+	 * ESPERA_MAXIMA_MILLIS. Enquanto recua, o lote cheio não antecipa o envio.
+	 */
+	private long recuo() {
+		long maxima = TimeUnit.MILLISECONDS.toNanos(ESPERA_MAXIMA_MILLIS);
+		int dobras = Math.min(falhasSeguidas - 1, 30);
+		return intervaloNanos > maxima >> dobras ? maxima : intervaloNanos << dobras;
+	}
+
+	private void enviar(Map<String, BigDecimal> lote) {
+		List<WriteModel<Document>> alteracoes = new ArrayList<WriteModel<Document>>(lote.size());
+		for (Map.Entry<String, BigDecimal> boleto : lote.entrySet()) {
+			alteracoes.add(new UpdateOneModel<Document>(new Document("_id", boleto.getKey()),
+					Versionamento.alteracao(new Document("boleto", boleto.getValue().doubleValue()))));
+		}
+		try {
+			BulkWriteResult resultado = Medicao.medir(ClienteService.NAME_COLLECTION, "alterarBoletos",
+					() -> collection.bulkWrite(alteracoes, NAO_ORDENADO));
+			falhasSeguidas = 0;
+			contar(resultado, lote.size(), 0);
+		} catch (MongoBulkWriteException e) {
+			falhasSeguidas = 0;
+			int erros = e.getWriteErrors().size();
+			contar(e.getWriteResult(), lote.size(), erros);
+			if (erros > 0) {
+				LOGGER.warn("{} de {} boletos recusados pelo banco: {}", erros, lote.size(), e.getWriteErrors().get(0));
+			}
+			if (e.getWriteConcernError() != null) {
+				LOGGER.warn("Boletos gravados sem a confirmação pedida: {}", e.getWriteConcernError());
+			}
+		} catch (MongoException e) {
+			falhasSeguidas++;
+			enviosComFalha.incrementAndGet();
+			LOGGER.warn("Falha ao enviar {} boletos, nova tentativa em {} ms", lote.size(),
+					TimeUnit.NANOSECONDS.toMillis(recuo()), e);
+			devolver(lote);
+		}
+	}
+
+	private void contar(BulkWriteResult resultado, int enviados, int erros) {
+		int encontrados = resultado.wasAcknowledged() ? resultado.getMatchedCount() : enviados - erros;
+		gravados.addAndGet(encontrados);
+		falhas.addAndGet(erros);
+		naoEncontrados.addAndGet(enviados - erros - encontrados);
+	}
+
+	private void devolver(Map<String, BigDecimal> lote) {
+		lock.lock();
+		try {
+			for (Map.Entry<String, BigDecimal> boleto : lote.entrySet()) {
+				pendentes.putIfAbsent(boleto.getKey(), boleto.getValue());
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+}
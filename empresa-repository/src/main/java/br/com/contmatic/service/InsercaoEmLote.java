@@ -0,0 +1,86 @@
+package br.com.contmatic.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.InsertManyOptions;
+
+/**
+ * Envia entidades para o banco em lotes de insertMany não ordenados.
+ *
+ * O Iterable é consumido sob demanda, então apenas um lote fica em memória
+ * por vez. Só os erros de escrita dos documentos viram duplicados e falhas do
+ * lote; uma falha de rede, timeout ou autenticação interrompe a inserção e é
+ * lançada para quem chamou, com os lotes anteriores já gravados.
+ *
+ * @author gabriel.santos
+ */
+final class InsercaoEmLote {
+
+	static final int TAMANHO_LOTE_PADRAO = 1000;
+
+	private static final int CODIGO_CHAVE_DUPLICADA = 11000;
+
+	static final InsertManyOptions NAO_ORDENADO = new InsertManyOptions().ordered(false);
+
+	private InsercaoEmLote() {
+	}
+
+	static <T> List<ResultadoLote> inserir(MongoCollection<T> collection, Iterable<T> entidades, int tamanhoLote) {
+		validar(tamanhoLote);
+		List<ResultadoLote> resultados = new ArrayList<ResultadoLote>();
+		if (entidades == null) {
+			return resultados;
+		}
+		List<T> lote = new ArrayList<T>(tamanhoLote);
+		for (T entidade : entidades) {
+			lote.add(entidade);
+			if (lote.size() == tamanhoLote) {
+				resultados.add(enviar(collection, lote, resultados.size() + 1));
+				lote.clear();
+			}
+		}
+		if (!lote.isEmpty()) {
+			resultados.add(enviar(collection, lote, resultados.size() + 1));
+		}
+		return resultados;
+	}
+
+	private static <T> ResultadoLote enviar(MongoCollection<T> collection, List<T> lote, int numeroLote) {
+		try {
+			collection.insertMany(lote, NAO_ORDENADO);
+			return new ResultadoLote(numeroLote, lote.size(), 0, 0);
+		} catch (MongoBulkWriteException e) {
+			return resultado(numeroLote, lote.size(), e);
+		}
+	}
+
+	static void validar(int tamanhoLote) {
+		if (tamanhoLote < 1) {
+			throw new IllegalArgumentException("O tamanho do lote deve ser maior que zero");
+		}
+	}
+
+	/**
+	 * Separa os erros de um lote em duplicados e falhas. Os documentos sem
+	 * resultado, que o banco não chegou a gravar, contam como falha.
+	 */
+	static ResultadoLote resultado(int numeroLote, int tamanhoLote, MongoBulkWriteException e) {
+		int duplicados = 0;
+		int falhas = 0;
+		for (BulkWriteError erro : e.getWriteErrors()) {
+			if (erro.getCode() == CODIGO_CHAVE_DUPLICADA) {
+				duplicados++;
+			} else {
+				falhas++;
+			}
+		}
+		int inseridos = e.getWriteResult().getInsertedCount();
+		falhas += tamanhoLote - inseridos - duplicados - falhas;
+		return new ResultadoLote(numeroLote, inseridos, duplicados, falhas);
+	}
+
+}
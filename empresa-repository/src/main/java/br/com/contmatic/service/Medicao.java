@@ -0,0 +1,79 @@
+package br.com.contmatic.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import br.com.contmatic.metricas.Instrumentacao;
+
+/**
+ * Mede o tempo dos métodos dos serviços e registra nas métricas da
+ * Instrumentacao, com o nome do método e a coleção do serviço. Uma exceção
+ * conta como erro e é relançada sem alteração. As operações que passam do
+ * limite vão também para o RegistroOperacoesLentas.padrao().
+ *
+ * @author gabriel.santos
+ */
+final class Medicao {
+
+	private Medicao() {
+	}
+
+	@FunctionalInterface
+	interface Operacao<T, E extends Exception> {
+
+		T executar() throws E;
+
+	}
+
+	@FunctionalInterface
+	interface Comando<E extends Exception> {
+
+		void executar() throws E;
+
+	}
+
+	static <T, E extends Exception> T medir(String colecao, String nome, Operacao<T, E> operacao) throws E {
+		RegistroOperacoesLentas lentas = RegistroOperacoesLentas.padrao();
+		boolean capturando = lentas.iniciar();
+		long inicio = System.nanoTime();
+		boolean erro = true;
+		try {
+			T resultado = operacao.executar();
+			erro = false;
+			return resultado;
+		} finally {
+			long duracao = System.nanoTime() - inicio;
+			Instrumentacao.getMetricas().registrarTempo(nome, colecao, duracao, erro);
+			if (capturando) {
+				lentas.concluir(colecao, nome, duracao);
+			}
+		}
+	}
+
+	static <E extends Exception> void medir(String colecao, String nome, Comando<E> comando) throws E {
+		medir(colecao, nome, () -> {
+			comando.executar();
+			return null;
+		});
+	}
+
+	/**
+	 * Mede uma operação assíncrona até o future terminar. A captura do
+	 * RegistroOperacoesLentas depende da thread que chama o driver, então
+	 * essas operações entram só nas métricas. Uma exceção lançada ao iniciar a
+	 * operação também é devolvida no future.
+	 */
+	static <T> CompletableFuture<T> medirAssincrono(String colecao, String nome,
+			Supplier<CompletableFuture<T>> operacao) {
+		long inicio = System.nanoTime();
+		CompletableFuture<T> future;
+		try {
+			future = operacao.get();
+		} catch (RuntimeException e) {
+			future = Assincrono.falhou(e);
+		}
+		return future.whenComplete((resultado, erro) -> Instrumentacao.getMetricas().registrarTempo(nome, colecao,
+				System.nanoTime() - inicio, erro != null));
+	}
+
+}
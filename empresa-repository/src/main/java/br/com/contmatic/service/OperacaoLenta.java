@@ -0,0 +1,120 @@
+package br.com.contmatic.service;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.bson.Document;
+import org.joda.time.DateTime;
+
+/**
+ * Uma operação de serviço que passou do limite do RegistroOperacoesLentas.
+ *
+ * O filtro e a projeção guardam só a forma da consulta: os nomes dos campos e
+ * os operadores ficam, os valores viram "?".
+ *
+ * @author gabriel.santos
+ */
+public class OperacaoLenta {
+
+	/** Quando a operação terminou. */
+	private final DateTime momento;
+
+	/** A coleção do serviço. */
+	private final String colecao;
+
+	/** O método do serviço, com o mesmo nome usado nas métricas. */
+	private final String operacao;
+
+	/** O tempo total da operação. */
+	private final long duracaoNanos;
+
+	/** O primeiro comando enviado ao banco, como find ou update. */
+	private final String comando;
+
+	/** A forma do filtro, ou nulo quando o comando não tem filtro. */
+	private final String filtro;
+
+	/** A forma da projeção, ou nulo quando não há projeção. */
+	private final String projecao;
+
+	/** Documentos devolvidos ou alterados por todos os comandos da operação. */
+	private final long documentos;
+
+	/** Bytes BSON das respostas do banco. */
+	private final long bytes;
+
+	/**
+	 * O plano do explain sem os valores da consulta, ou nulo quando o explain
+	 * está desligado ou ainda não terminou.
+	 */
+	private volatile Document plano;
+
+	public OperacaoLenta(DateTime momento, String colecao, String operacao, long duracaoNanos, String comando,
+			String filtro, String projecao, long documentos, long bytes, Document plano) {
+		this.momento = momento;
+		this.colecao = colecao;
+		this.operacao = operacao;
+		this.duracaoNanos = duracaoNanos;
+		this.comando = comando;
+		this.filtro = filtro;
+		this.projecao = projecao;
+		this.documentos = documentos;
+		this.bytes = bytes;
+		this.plano = plano;
+	}
+
+	public DateTime getMomento() {
+		return momento;
+	}
+
+	public String getColecao() {
+		return colecao;
+	}
+
+	public String getOperacao() {
+		return operacao;
+	}
+
+	public long getDuracaoNanos() {
+		return duracaoNanos;
+	}
+
+	public long getDuracaoMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(duracaoNanos);
+	}
+
+	public String getComando() {
+		return comando;
+	}
+
+	public String getFiltro() {
+		return filtro;
+	}
+
+	public String getProjecao() {
+		return projecao;
+	}
+
+	public long getDocumentos() {
+		return documentos;
+	}
+
+	public long getBytes() {
+		return bytes;
+	}
+
+	public Document getPlano() {
+		return plano;
+	}
+
+	void setPlano(Document plano) {
+		this.plano = plano;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
@@ -0,0 +1,48 @@
+package br.com.contmatic.service;
+
+import java.math.BigDecimal;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+import org.joda.time.LocalDate;
+
+/**
+ * Os salários a pagar em uma data.
+ *
+ * @author gabriel.santos
+ */
+public class PagamentoPrevisto {
+
+	/** A data do salário. */
+	private final LocalDate data;
+
+	/** Os funcionários que recebem nessa data. */
+	private final long quantidade;
+
+	/** A soma dos salários dessa data. */
+	private final BigDecimal total;
+
+	public PagamentoPrevisto(LocalDate data, long quantidade, BigDecimal total) {
+		this.data = data;
+		this.quantidade = quantidade;
+		this.total = total;
+	}
+
+	public LocalDate getData() {
+		return data;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
@@ -0,0 +1,36 @@
+package br.com.contmatic.service;
+
+import java.util.List;
+
+/**
+ * Uma página de resultados ordenada por _id.
+ *
+ * O token de continuação é o _id do último item da página e deve ser passado
+ * para a próxima chamada de selecionarPagina. Ele é nulo na última página.
+ *
+ * @author gabriel.santos
+ */
+public class Pagina<T> {
+
+	private final List<T> itens;
+
+	private final String proximaPagina;
+
+	public Pagina(List<T> itens, String proximaPagina) {
+		this.itens = itens;
+		this.proximaPagina = proximaPagina;
+	}
+
+	public List<T> getItens() {
+		return itens;
+	}
+
+	public String getProximaPagina() {
+		return proximaPagina;
+	}
+
+	public boolean temProximaPagina() {
+		return proximaPagina != null;
+	}
+
+}
@@ -0,0 +1,93 @@
+package br.com.contmatic.service;
+
+import static com.mongodb.client.model.Filters.gt;
+import static com.mongodb.client.model.Projections.include;
+import static com.mongodb.client.model.Sorts.ascending;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.mongodb.client.MongoCollection;
+
+import br.com.contmatic.empresa.Identificavel;
+
+/**
+ * Paginação por chave (keyset) sobre o _id.
+ *
+ * Cada página parte do último _id entregue, usando o índice de _id em vez de
+ * skip, então o custo de uma página funda é o mesmo da primeira.
+ *
+ * @author gabriel.santos
+ */
+final class Paginacao {
+
+	static final int TAMANHO_PAGINA_PADRAO = 50;
+
+	private static final String ID = "_id";
+
+	static final Bson ORDEM = ascending(ID);
+
+	private Paginacao() {
+	}
+
+	static <T> Pagina<T> buscar(MongoCollection<Document> collection, String token, int tamanhoPagina,
+			List<String> campos, Function<Document, T> conversor) {
+		validar(tamanhoPagina);
+		List<Document> documentos = collection.find(filtro(token)).projection(projecao(campos)).sort(ORDEM)
+				.limit(tamanhoPagina + 1).into(new ArrayList<Document>(tamanhoPagina + 1));
+		return montar(documentos, tamanhoPagina, conversor);
+	}
+
+	static void validar(int tamanhoPagina) {
+		if (tamanhoPagina < 1) {
+			throw new IllegalArgumentException("O tamanho da página deve ser maior que zero");
+		}
+	}
+
+	/**
+	 * Os documentos depois do token, sem filtro na primeira página.
+	 */
+	static Bson filtro(String token) {
+		return token == null ? new Document() : gt(ID, token);
+	}
+
+	static Bson projecao(List<String> campos) {
+		return campos == null || campos.isEmpty() ? null : include(campos);
+	}
+
+	/**
+	 * Monta a página a partir da busca com limite tamanhoPagina + 1: o
+	 * documento a mais só indica que existe uma próxima página.
+	 */
+	static <T> Pagina<T> montar(List<Document> documentos, int tamanhoPagina, Function<Document, T> conversor) {
+		List<T> itens = new ArrayList<T>(tamanhoPagina);
+		for (Document document : documentos.subList(0, Math.min(documentos.size(), tamanhoPagina))) {
+			itens.add(conversor.apply(document));
+		}
+		if (documentos.size() <= tamanhoPagina) {
+			return new Pagina<T>(itens, null);
+		}
+		return new Pagina<T>(itens, documentos.get(tamanhoPagina - 1).getString(ID));
+	}
+
+	/**
+	 * Paginação de uma coleção lida direto pelo codec do tipo, usando a chave
+	 * de cada item como token.
+	 */
+	static <T extends Identificavel> Pagina<T> buscar(MongoCollection<T> collection, String token, int tamanhoPagina,
+			Bson projecao) {
+		validar(tamanhoPagina);
+		List<T> itens = collection.find(filtro(token)).projection(projecao).sort(ORDEM).limit(tamanhoPagina + 1)
+				.into(new ArrayList<T>(tamanhoPagina + 1));
+		if (itens.size() <= tamanhoPagina) {
+			return new Pagina<T>(itens, null);
+		}
+		itens.remove(tamanhoPagina);
+		return new Pagina<T>(itens, itens.get(tamanhoPagina - 1).getChave());
+	}
+
+}
@@ -0,0 +1,392 @@
+package br.com.contmatic.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.DocumentCodec;
+import org.joda.time.DateTime;
+
+import com.mongodb.MongoException;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+/**
+ * Guarda as últimas operações dos serviços que passaram do limite de tempo,
+ * com a forma do filtro que as causou.
+ *
+ * Cada método medido pela Medicao abre uma captura na thread atual. Enquanto
+ * ela está aberta, este listener anota o primeiro filtro e a primeira
+ * projeção enviados ao banco e soma os documentos e bytes das respostas. Se a
+ * operação passar do limite, vira uma OperacaoLenta em um buffer circular que
+ * descarta as mais antigas; senão a captura é descartada. O driver síncrono
+ * envia os comandos na thread de quem chamou, por isso a captura pode ficar em
+ * um ThreadLocal.
+ *
+ * Com setExplicar, as operações lentas também recebem o plano do explain do
+ * comando. O explain roda em uma thread própria, depois que a operação já foi
+ * guardada e devolvida a quem chamou, e o plano chega à OperacaoLenta quando
+ * termina; com a fila de explains cheia, a operação fica sem plano. Do plano
+ * saem os valores da consulta (parsedQuery, filtros dos estágios e limites
+ * dos índices), que ficam só com a forma, como o filtro. O listener precisa
+ * estar registrado no cliente, o que MongoConf.toSettings já faz com o
+ * padrao.
+ *
+ * @author gabriel.santos
+ */
+public class RegistroOperacoesLentas implements CommandListener {
+
+	public static final long LIMITE_PADRAO_MILLIS = 100;
+
+	public static final int CAPACIDADE_PADRAO = 256;
+
+	private static final RegistroOperacoesLentas PADRAO = new RegistroOperacoesLentas(LIMITE_PADRAO_MILLIS,
+			TimeUnit.MILLISECONDS, CAPACIDADE_PADRAO);
+
+	private static final BsonString VALOR = new BsonString("?");
+
+	private static final Set<String> COMANDOS_EXPLICAVEIS = new HashSet<String>(
+			Arrays.asList("find", "aggregate", "count", "distinct", "update", "delete", "findAndModify"));
+
+	/**
+	 * Campos do plano do explain que repetem os valores da consulta.
+	 */
+	private static final Set<String> CAMPOS_COM_VALORES = new HashSet<String>(
+			Arrays.asList("parsedQuery", "filter", "indexBounds", "command"));
+
+	private static final int FILA_EXPLAIN = 64;
+
+	/**
+	 * Campos que o driver acrescenta ao comando e que o explain recusa.
+	 */
+	private static final Set<String> CAMPOS_DO_DRIVER = new HashSet<String>(Arrays.asList("$db", "$clusterTime",
+			"$readPreference", "lsid", "txnNumber", "autocommit", "startTransaction", "readConcern", "writeConcern"));
+
+	private final ThreadLocal<Captura> capturas = new ThreadLocal<Captura>();
+
+	private final OperacaoLenta[] operacoes;
+
+	private int proxima;
+
+	private int quantidade;
+
+	private volatile long limiteNanos;
+
+	private volatile boolean ativo = true;
+
+	private volatile MongoDatabase explicarEm;
+
+	private ExecutorService explicacoes;
+
+	public RegistroOperacoesLentas(long limite, TimeUnit unidade, int capacidade) {
+		if (capacidade <= 0) {
+			throw new IllegalArgumentException("A capacidade deve ser maior que zero");
+		}
+		this.operacoes = new OperacaoLenta[capacidade];
+		setLimite(limite, unidade);
+	}
+
+	/**
+	 * O registro usado pelos serviços.
+	 */
+	public static RegistroOperacoesLentas padrao() {
+		return PADRAO;
+	}
+
+	public void setLimite(long limite, TimeUnit unidade) {
+		if (limite < 0) {
+			throw new IllegalArgumentException("O limite não pode ser negativo");
+		}
+		this.limiteNanos = unidade.toNanos(limite);
+	}
+
+	public long getLimiteMillis() {
+		return TimeUnit.NANOSECONDS.toMillis(limiteNanos);
+	}
+
+	/**
+	 * Liga ou desliga a captura. Desligado, o custo por operação é só a
+	 * leitura desta flag.
+	 */
+	public void setAtivo(boolean ativo) {
+		this.ativo = ativo;
+	}
+
+	public boolean isAtivo() {
+		return ativo;
+	}
+
+	/**
+	 * Executa o explain das operações lentas no banco informado. Nulo desliga
+	 * o explain, que é o padrão.
+	 */
+	public void setExplicar(MongoDatabase database) {
+		this.explicarEm = database;
+	}
+
+	/**
+	 * As operações guardadas, da mais antiga para a mais recente.
+	 */
+	public synchronized List<OperacaoLenta> getOperacoes() {
+		List<OperacaoLenta> copia = new ArrayList<OperacaoLenta>(quantidade);
+		int inicio = (proxima - quantidade + operacoes.length) % operacoes.length;
+		for (int i = 0; i < quantidade; i++) {
+			copia.add(operacoes[(inicio + i) % operacoes.length]);
+		}
+		return copia;
+	}
+
+	/**
+	 * Devolve as operações guardadas e esvazia o registro.
+	 */
+	public synchronized List<OperacaoLenta> despejar() {
+		List<OperacaoLenta> copia = getOperacoes();
+		limpar();
+		return copia;
+	}
+
+	public synchronized void limpar() {
+		Arrays.fill(operacoes, null);
+		proxima = 0;
+		quantidade = 0;
+	}
+
+	/**
+	 * Abre a captura da thread atual. Devolve false quando o registro está
+	 * desligado ou já há uma captura aberta, como em um método de serviço que
+	 * chama outro; nesse caso só a operação de fora é avaliada.
+	 */
+	boolean iniciar() {
+		if (!ativo || capturas.get() != null) {
+			return false;
+		}
+		capturas.set(new Captura(explicarEm != null));
+		return true;
+	}
+
+	/**
+	 * Fecha a captura aberta por iniciar e guarda a operação se ela passou do
+	 * limite.
+	 */
+	void concluir(String colecao, String operacao, long duracaoNanos) {
+		Captura captura = capturas.get();
+		capturas.remove();
+		if (captura == null || duracaoNanos < limiteNanos) {
+			return;
+		}
+		OperacaoLenta lenta = new OperacaoLenta(DateTime.now(), colecao, operacao, duracaoNanos, captura.comando,
+				json(captura.filtro), json(captura.projecao), captura.documentos, captura.bytes, null);
+		guardar(lenta);
+		MongoDatabase database = explicarEm;
+		if (database != null && captura.explicavel != null && database.getName().equals(captura.database)) {
+			explicacoes().execute(() -> lenta.setPlano(explicar(database, captura.explicavel)));
+		}
+	}
+
+	@Override
+	public void commandStarted(CommandStartedEvent event) {
+		Captura captura = capturas.get();
+		if (captura == null || captura.comando != null) {
+			return;
+		}
+		BsonDocument command = event.getCommand();
+		captura.comando = event.getCommandName();
+		captura.filtro = forma(filtro(event.getCommandName(), command));
+		captura.projecao = forma(command.get("projection"));
+		if (captura.explicar && COMANDOS_EXPLICAVEIS.contains(event.getCommandName())) {
+			captura.database = event.getDatabaseName();
+			captura.explicavel = copiarSemCamposDoDriver(command);
+		}
+	}
+
+	@Override
+	public void commandSucceeded(CommandSucceededEvent event) {
+		Captura captura = capturas.get();
+		if (captura == null) {
+			return;
+		}
+		BsonDocument resposta = event.getResponse();
+		if (resposta instanceof RawBsonDocument) {
+			captura.bytes += ((RawBsonDocument) resposta).getByteBuffer().remaining();
+		}
+		captura.documentos += documentos(resposta);
+	}
+
+	@Override
+	public void commandFailed(CommandFailedEvent event) {
+	}
+
+	private synchronized void guardar(OperacaoLenta operacao) {
+		operacoes[proxima] = operacao;
+		proxima = (proxima + 1) % operacoes.length;
+		quantidade = Math.min(quantidade + 1, operacoes.length);
+	}
+
+	/**
+	 * Uma única thread daemon, criada no primeiro explain, com fila limitada
+	 * que descarta os explains que não couberem.
+	 */
+	private synchronized ExecutorService explicacoes() {
+		if (explicacoes == null) {
+			explicacoes = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+					new ArrayBlockingQueue<Runnable>(FILA_EXPLAIN), runnable -> {
+						Thread thread = new Thread(runnable, "explain-operacoes-lentas");
+						thread.setDaemon(true);
+						return thread;
+					}, new ThreadPoolExecutor.DiscardPolicy());
+		}
+		return explicacoes;
+	}
+
+	private static Document explicar(MongoDatabase database, BsonDocument explicavel) {
+		try {
+			BsonDocument plano = database.runCommand(
+					new BsonDocument("explain", explicavel).append("verbosity", new BsonString("queryPlanner")),
+					BsonDocument.class);
+			return new DocumentCodec().decode(new BsonDocumentReader(semValores(plano).asDocument()),
+					DecoderContext.builder().build());
+		} catch (MongoException e) {
+			return new Document("erro", e.getMessage());
+		}
+	}
+
+	/**
+	 * Troca pela forma os campos do plano que repetem os valores da consulta,
+	 * mantendo os estágios, índices e demais informações do plano.
+	 */
+	static BsonValue semValores(BsonValue plano) {
+		if (plano.isArray()) {
+			BsonArray elementos = new BsonArray();
+			for (BsonValue elemento : plano.asArray()) {
+				elementos.add(semValores(elemento));
+			}
+			return elementos;
+		}
+		if (!plano.isDocument()) {
+			return plano;
+		}
+		BsonDocument documento = new BsonDocument();
+		for (String campo : plano.asDocument().keySet()) {
+			BsonValue valor = plano.asDocument().get(campo);
+			documento.put(campo, CAMPOS_COM_VALORES.contains(campo) ? forma(valor) : semValores(valor));
+		}
+		return documento;
+	}
+
+	private static BsonValue filtro(String comando, BsonDocument command) {
+		switch (comando) {
+		case "find":
+			return command.get("filter");
+		case "aggregate":
+			return new BsonDocument("pipeline", command.get("pipeline"));
+		case "update":
+		case "delete":
+			BsonValue instrucoes = command.get(comando.equals("update") ? "updates" : "deletes");
+			return instrucoes != null && instrucoes.isArray() && !instrucoes.asArray().isEmpty()
+					? instrucoes.asArray().get(0).asDocument().get("q") : null;
+		default:
+			return command.get("query");
+		}
+	}
+
+	private static long documentos(BsonDocument resposta) {
+		BsonValue cursor = resposta.get("cursor");
+		if (cursor != null && cursor.isDocument()) {
+			BsonValue lote = cursor.asDocument().get("firstBatch");
+			if (lote == null) {
+				lote = cursor.asDocument().get("nextBatch");
+			}
+			return lote != null && lote.isArray() ? lote.asArray().size() : 0;
+		}
+		BsonValue n = resposta.get("n");
+		return n != null && n.isNumber() ? n.asNumber().longValue() : 0;
+	}
+
+	/**
+	 * Troca os valores por "?" mantendo campos e operadores. Listas de valores,
+	 * como a do $in, viram uma lista com um único "?", e listas de documentos
+	 * iguais na forma, como as do $or, ficam com uma ocorrência de cada forma.
+	 */
+	static BsonValue forma(BsonValue valor) {
+		if (valor == null) {
+			return null;
+		}
+		if (valor.isDocument()) {
+			BsonDocument forma = new BsonDocument();
+			for (String campo : valor.asDocument().keySet()) {
+				forma.put(campo, forma(valor.asDocument().get(campo)));
+			}
+			return forma;
+		}
+		if (valor.isArray()) {
+			Set<BsonValue> formas = new LinkedHashSet<BsonValue>();
+			for (BsonValue elemento : valor.asArray()) {
+				formas.add(elemento.isDocument() || elemento.isArray() ? forma(elemento) : VALOR);
+			}
+			return new BsonArray(new ArrayList<BsonValue>(formas));
+		}
+		return VALOR;
+	}
+
+	/**
+	 * O comando do evento é lido do buffer de rede, que é liberado depois do
+	 * envio, então a cópia é feita aqui, campo a campo.
+	 */
+	private static BsonDocument copiarSemCamposDoDriver(BsonDocument command) {
+		BsonDocument campos = new BsonDocument();
+		for (String campo : command.keySet()) {
+			if (!CAMPOS_DO_DRIVER.contains(campo)) {
+				campos.put(campo, command.get(campo));
+			}
+		}
+		return new BsonDocumentCodec().decode(new BsonDocumentReader(campos), DecoderContext.builder().build());
+	}
+
+	private static String json(BsonValue forma) {
+		return forma != null && forma.isDocument() ? forma.asDocument().toJson() : null;
+	}
+
+	private static final class Captura {
+
+		private final boolean explicar;
+
+		private String comando;
+
+		private BsonValue filtro;
+
+		private BsonValue projecao;
+
+		private long documentos;
+
+		private long bytes;
+
+		private String database;
+
+		private BsonDocument explicavel;
+
+		private Captura(boolean explicar) {
+			this.explicar = explicar;
+		}
+
+	}
+
+}
@@ -0,0 +1,57 @@
+package br.com.contmatic.service;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Resumo de um lote enviado com insertMany.
+ *
+ * @author gabriel.santos
+ */
+public class ResultadoLote {
+
+	/** O numero do lote, começando em 1. */
+	private final int numeroLote;
+
+	/** Os documentos inseridos. */
+	private final int inseridos;
+
+	/** Os documentos rejeitados por chave duplicada. */
+	private final int duplicados;
+
+	/** Os documentos rejeitados por qualquer outro erro. */
+	private final int falhas;
+
+	public ResultadoLote(int numeroLote, int inseridos, int duplicados, int falhas) {
+		this.numeroLote = numeroLote;
+		this.inseridos = inseridos;
+		this.duplicados = duplicados;
+		this.falhas = falhas;
+	}
+
+	public int getNumeroLote() {
+		return numeroLote;
+	}
+
+	public int getInseridos() {
+		return inseridos;
+	}
+
+	public int getDuplicados() {
+		return duplicados;
+	}
+
+	public int getFalhas() {
+		return falhas;
+	}
+
+	public int getTotal() {
+		return inseridos + duplicados + falhas;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
@@ -0,0 +1,63 @@
+package br.com.contmatic.service;
+
+import java.math.BigDecimal;
+
+import org.apache.commons.lang3.builder.ToStringBuilder;
+import org.apache.commons.lang3.builder.ToStringStyle;
+
+/**
+ * Totais dos salários dos funcionários, calculados no banco.
+ *
+ * @author gabriel.santos
+ */
+public class ResumoSalarios {
+
+	/** Os funcionários com salário informado. */
+	private final long quantidade;
+
+	/** A soma dos salários. */
+	private final BigDecimal total;
+
+	/** A média dos salários. */
+	private final BigDecimal media;
+
+	/** O menor salário. */
+	private final BigDecimal minimo;
+
+	/** O maior salário. */
+	private final BigDecimal maximo;
+
+	public ResumoSalarios(long quantidade, BigDecimal total, BigDecimal media, BigDecimal minimo, BigDecimal maximo) {
+		this.quantidade = quantidade;
+		this.total = total;
+		this.media = media;
+		this.minimo = minimo;
+		this.maximo = maximo;
+	}
+
+	public long getQuantidade() {
+		return quantidade;
+	}
+
+	public BigDecimal getTotal() {
+		return total;
+	}
+
+	public BigDecimal getMedia() {
+		return media;
+	}
+
+	public BigDecimal getMinimo() {
+		return minimo;
+	}
+
+	public BigDecimal getMaximo() {
+		return maximo;
+	}
+
+	@Override
+	public String toString() {
+		return ToStringBuilder.reflectionToString(this, ToStringStyle.JSON_STYLE);
+	}
+
+}
@@ -0,0 +1,40 @@
+package br.com.contmatic.service;
+
+import java.util.Date;
+
+/**
+ * Uma entidade lida do banco junto com a versão do documento.
+ *
+ * A versão deve ser devolvida em salvarOuAlterar para que a gravação só
+ * aconteça se ninguém tiver alterado o documento nesse meio tempo. Documentos
+ * gravados antes do controle de versão têm versão 0.
+ *
+ * @author gabriel.santos
+ */
+public class Versionado<T> {
+
+	private final T entidade;
+
+	private final long versao;
+
+	private final Date atualizadoEm;
+
+	public Versionado(T entidade, long versao, Date atualizadoEm) {
+		this.entidade = entidade;
+		this.versao = versao;
+		this.atualizadoEm = atualizadoEm;
+	}
+
+	public T getEntidade() {
+		return entidade;
+	}
+
+	public long getVersao() {
+		return versao;
+	}
+
+	public Date getAtualizadoEm() {
+		return atualizadoEm;
+	}
+
+}
@@ -0,0 +1,170 @@
+package br.com.contmatic.service;
+
+import static com.mongodb.client.model.Filters.and;
+import static com.mongodb.client.model.Filters.eq;
+import static com.mongodb.client.model.Filters.exists;
+import static com.mongodb.client.model.Filters.or;
+import static com.mongodb.client.model.Projections.include;
+
+import java.util.function.Function;
+
+import org.bson.Document;
+import org.bson.conversions.Bson;
+
+import com.mongodb.ErrorCategory;
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.model.FindOneAndUpdateOptions;
+import com.mongodb.client.model.ReturnDocument;
+import com.mongodb.client.model.UpdateOptions;
+import com.mongodb.client.result.UpdateResult;
+
+/**
+ * Controle de versão otimista dos documentos.
+ *
+ * Cada gravação feita pelos serviços incrementa o campo versao e atualiza
+ * atualizadoEm com a hora do servidor. A gravação condicional filtra pela
+ * versão lida, então duas gravações concorrentes a partir da mesma leitura
+ * não se sobrescrevem: a segunda recebe ConflitoVersaoException.
+ *
+ * Nas gravações da entidade inteira o campo chave (cnpj ou cpf), que repete
+ * o _id, fica fora do $set e vai em $setOnInsert. Assim o documento tem a
+ * mesma forma do gravado pelo salvar, e as alterações nunca reescrevem a
+ * chave.
+ *
+ * @author gabriel.santos
+ */
+final class Versionamento {
+
+	static final String VERSAO = "versao";
+
+	static final String ATUALIZADO_EM = "atualizadoEm";
+
+	private static final String ID = "_id";
+
+	static final FindOneAndUpdateOptions UPSERT_RETORNANDO_VERSAO = new FindOneAndUpdateOptions()
+			.upsert(true).returnDocument(ReturnDocument.AFTER).projection(include(VERSAO));
+
+	private static final UpdateOptions UPSERT = new UpdateOptions().upsert(true);
+
+	private static final UpdateOptions SEM_UPSERT = new UpdateOptions();
+
+	private Versionamento() {
+	}
+
+	/**
+	 * Monta a alteração de todos os campos do documento, incrementando a versão.
+	 */
+	static Document alteracao(Document campos) {
+		return alteracao(campos, null);
+	}
+
+	/**
+	 * Monta a alteração de uma entidade inteira, incrementando a versão.
+	 */
+	static Document alteracao(Document campos, String campoChave) {
+		return comChave(new Document("$set", semId(campos, campoChave))
+				.append("$inc", new Document(VERSAO, 1L))
+				.append("$currentDate", new Document(ATUALIZADO_EM, true)), campos, campoChave);
+	}
+
+	/**
+	 * Insere ou substitui os campos do documento sem conferir a versão, e
+	 * devolve a versão gravada.
+	 */
+	static long salvarOuAlterar(MongoCollection<Document> collection, String id, Document campos, String campoChave) {
+		return versao(collection.findOneAndUpdate(eq(ID, id), alteracao(campos, campoChave),
+				UPSERT_RETORNANDO_VERSAO));
+	}
+
+	/**
+	 * Grava os campos somente se o documento ainda estiver na versão esperada e
+	 * devolve a nova versão. Com a versão 0 o documento é inserido se ainda não
+	 * existir.
+	 */
+	static long salvarOuAlterar(MongoCollection<Document> collection, String id, Document campos, String campoChave,
+			long versaoEsperada) {
+		Document alteracao = alteracao(campos, campoChave, versaoEsperada);
+		try {
+			conferir(collection.updateOne(filtroVersao(id, versaoEsperada), alteracao, opcoes(versaoEsperada)), id,
+					versaoEsperada);
+		} catch (MongoWriteException e) {
+			if (chaveDuplicada(e)) {
+				throw new ConflitoVersaoException(id, versaoEsperada);
+			}
+			throw e;
+		}
+		return versaoEsperada + 1;
+	}
+
+	/**
+	 * Monta a alteração do salvarOuAlterar com versão, que grava a versão
+	 * seguinte à esperada.
+	 */
+	static Document alteracao(Document campos, String campoChave, long versaoEsperada) {
+		if (versaoEsperada < 0) {
+			throw new IllegalArgumentException("A versão esperada não pode ser negativa");
+		}
+		return comChave(new Document("$set", semId(campos, campoChave).append(VERSAO, versaoEsperada + 1))
+				.append("$currentDate", new Document(ATUALIZADO_EM, true)), campos, campoChave);
+	}
+
+	/**
+	 * Só a versão 0 insere o documento quando ele ainda não existe.
+	 */
+	static UpdateOptions opcoes(long versaoEsperada) {
+		return versaoEsperada == 0 ? UPSERT : SEM_UPSERT;
+	}
+
+	static void conferir(UpdateResult resultado, String id, long versaoEsperada) {
+		if (resultado.getMatchedCount() == 0 && resultado.getUpsertedId() == null) {
+			throw new ConflitoVersaoException(id, versaoEsperada);
+		}
+	}
+
+	/**
+	 * O upsert da versão 0 de um documento que já existe falha com chave
+	 * duplicada, o que também é um conflito de versão.
+	 */
+	static boolean chaveDuplicada(Throwable erro) {
+		return erro instanceof MongoWriteException && ErrorCategory
+				.fromErrorCode(((MongoWriteException) erro).getError().getCode()) == ErrorCategory.DUPLICATE_KEY;
+	}
+
+	static <T> Versionado<T> ler(Document document, Function<Document, T> conversor) {
+		if (document == null) {
+			return null;
+		}
+		return new Versionado<T>(conversor.apply(document), versao(document), document.getDate(ATUALIZADO_EM));
+	}
+
+	static Bson filtroVersao(String id, long versaoEsperada) {
+		if (versaoEsperada == 0) {
+			return and(eq(ID, id), or(eq(VERSAO, 0L), exists(VERSAO, false)));
+		}
+		return and(eq(ID, id), eq(VERSAO, versaoEsperada));
+	}
+
+	static long versao(Document document) {
+		Object versao = document == null ? null : document.get(VERSAO);
+		return versao instanceof Number ? ((Number) versao).longValue() : 0L;
+	}
+
+	private static Document semId(Document campos, String campoChave) {
+		Document semId = new Document(campos);
+		semId.remove(ID);
+		if (campoChave != null) {
+			semId.remove(campoChave);
+		}
+		return semId;
+	}
+
+	private static Document comChave(Document alteracao, Document campos, String campoChave) {
+		Object chave = campoChave == null ? null : campos.get(campoChave);
+		if (chave != null) {
+			alteracao.append("$setOnInsert", new Document(campoChave, chave));
+		}
+		return alteracao;
+	}
+
+}
@@ -0,0 +1,96 @@
+package br.com.contmatic.codec;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.junit.Assert.assertThat;
+
+import org.bson.BsonDocument;
+import org.bson.BsonDocumentReader;
+import org.bson.BsonDocumentWriter;
+import org.bson.Document;
+import org.bson.codecs.Codec;
+import org.bson.codecs.DecoderContext;
+import org.bson.codecs.EncoderContext;
+import org.junit.Test;
+
+import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.assembly.FornecedorResourceAssembly;
+import br.com.contmatic.assembly.FuncionarioResourceAssembly;
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.empresa.Resumo;
+
+public class CodecsTest {
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Test
+	public void deve_codificar_e_decodificar_uma_empresa() {
+		Empresa empresa = randomObject.empresaRandomizer();
+		assertThat(idaEVolta(empresa, Empresa.class).toString(), equalTo(empresa.toString()));
+	}
+
+	@Test
+	public void deve_codificar_e_decodificar_um_cliente() {
+		Cliente cliente = randomObject.clienteRandomizer();
+		assertThat(idaEVolta(cliente, Cliente.class).toString(), equalTo(cliente.toString()));
+	}
+
+	@Test
+	public void deve_codificar_e_decodificar_um_fornecedor() {
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		assertThat(idaEVolta(fornecedor, Fornecedor.class).toString(), equalTo(fornecedor.toString()));
+	}
+
+	@Test
+	public void deve_codificar_e_decodificar_um_funcionario() {
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		assertThat(idaEVolta(funcionario, Funcionario.class).toString(), equalTo(funcionario.toString()));
+	}
+
+	@Test
+	public void deve_gravar_o_id_com_o_cnpj_da_empresa() {
+		Empresa empresa = randomObject.empresaRandomizer();
+		assertThat(codificar(empresa, Empresa.class).getString("_id").getValue(), equalTo(empresa.getCnpj()));
+	}
+
+	@Test
+	public void deve_gerar_documento_legivel_pelas_assemblies() {
+		Empresa empresa = randomObject.empresaRandomizer();
+		Cliente cliente = randomObject.clienteRandomizer();
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		assertThat(new EmpresaResourceAssembly().toResource(documento(empresa, Empresa.class)), equalTo(empresa));
+		assertThat(new ClienteResourceAssembly().toResource(documento(cliente, Cliente.class)), equalTo(cliente));
+		assertThat(new FornecedorResourceAssembly().toResource(documento(fornecedor, Fornecedor.class)), equalTo(fornecedor));
+		assertThat(new FuncionarioResourceAssembly().toResource(documento(funcionario, Funcionario.class)), equalTo(funcionario));
+	}
+
+	@Test
+	public void deve_ler_somente_chave_e_nome_como_resumo() {
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		Resumo resumo = Codecs.REGISTRY.get(Resumo.class).decode(
+				new BsonDocumentReader(codificar(funcionario, Funcionario.class)), DecoderContext.builder().build());
+		assertThat(resumo, equalTo(new Resumo(funcionario.getCpf(), funcionario.getNome())));
+	}
+
+	private static <T> BsonDocument codificar(T entidade, Class<T> classe) {
+		BsonDocument bson = new BsonDocument();
+		Codecs.REGISTRY.get(classe).encode(new BsonDocumentWriter(bson), entidade, EncoderContext.builder().build());
+		return bson;
+	}
+
+	private static <T> T idaEVolta(T entidade, Class<T> classe) {
+		Codec<T> codec = Codecs.REGISTRY.get(classe);
+		return codec.decode(new BsonDocumentReader(codificar(entidade, classe)), DecoderContext.builder().build());
+	}
+
+	private static <T> Document documento(T entidade, Class<T> classe) {
+		Codec<Document> codec = Codecs.REGISTRY.get(Document.class);
+		return codec.decode(new BsonDocumentReader(codificar(entidade, classe)), DecoderContext.builder().build());
+	}
+
+}
@@ -0,0 +1,103 @@
+package br.com.contmatic.exportacao;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+/**
+ * Carrega a Compressao em um ClassLoader sem o zstd-jni, como fica o
+ * classpath de quem não declara a dependência opcional.
+ */
+public class CompressaoTest {
+
+	private static final String CONTEUDO = "{\"_id\":\"12345678000195\"}\n";
+
+	@Test
+	public void deve_exportar_com_gzip_sem_o_zstd_no_classpath() throws Exception {
+		try (SemZstd loader = new SemZstd()) {
+			Class<?> servico = loader.loadClass(ExportacaoService.class.getName());
+			servico.getConstructor(loader.loadClass(MongoDatabase.class.getName()), Path.class).newInstance(null,
+					Paths.get("exportacao"));
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			try (OutputStream saida = abrir(loader, "GZIP", bytes)) {
+				saida.write(CONTEUDO.getBytes(StandardCharsets.UTF_8));
+			}
+			try (Reader leitor = new InputStreamReader(new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray())),
+					StandardCharsets.UTF_8)) {
+				StringBuilder lido = new StringBuilder();
+				for (int c = leitor.read(); c != -1; c = leitor.read()) {
+					lido.append((char) c);
+				}
+				assertThat(lido.toString(), is(CONTEUDO));
+			}
+		}
+	}
+
+	@Test
+	public void deve_falhar_so_ao_abrir_com_zstd_sem_o_zstd_no_classpath() throws Exception {
+		try (SemZstd loader = new SemZstd()) {
+			abrir(loader, "ZSTD", new ByteArrayOutputStream());
+			fail("Sem o zstd-jni o ZSTD não pode abrir o arquivo");
+		} catch (InvocationTargetException e) {
+			assertThat(e.getCause(), instanceOf(NoClassDefFoundError.class));
+		}
+	}
+
+	private static OutputStream abrir(ClassLoader loader, String nome, OutputStream destino) throws Exception {
+		Class<?> compressao = loader.loadClass(Compressao.class.getName());
+		Object valor = compressao.getMethod("valueOf", String.class).invoke(null, nome);
+		Method abrir = compressao.getDeclaredMethod("abrir", OutputStream.class);
+		abrir.setAccessible(true);
+		return (OutputStream) abrir.invoke(valor, destino);
+	}
+
+	/**
+	 * Lê as classes do classpath do teste, menos as do zstd-jni.
+	 */
+	private static final class SemZstd extends URLClassLoader {
+
+		private SemZstd() throws MalformedURLException {
+			super(classpath(), null);
+		}
+
+		@Override
+		protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+			if (name.startsWith("com.github.luben.")) {
+				throw new ClassNotFoundException(name);
+			}
+			return super.loadClass(name, resolve);
+		}
+
+		private static URL[] classpath() throws MalformedURLException {
+			String[] entradas = System.getProperty("java.class.path").split(File.pathSeparator);
+			URL[] urls = new URL[entradas.length];
+			for (int i = 0; i < entradas.length; i++) {
+				urls[i] = new File(entradas[i]).toURI().toURL();
+			}
+			return urls;
+		}
+
+	}
+
+}
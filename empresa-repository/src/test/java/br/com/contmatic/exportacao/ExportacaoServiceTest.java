@@ -0,0 +1,117 @@
+package br.com.contmatic.exportacao;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.bson.BsonBinaryReader;
+import org.bson.Document;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.DecoderContext;
+import org.bson.types.ObjectId;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mongodb.client.MongoCollection;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class ExportacaoServiceTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		List<Cliente> clientes = new ArrayList<Cliente>();
+		for (int i = 0; i < 50; i++) {
+			clientes.add(randomObject.clienteRandomizer());
+		}
+		new ClienteService(database).salvarTodos(clientes);
+	}
+
+	@Test
+	public void deve_exportar_todos_os_documentos_em_particoes() throws IOException, InterruptedException {
+		Path diretorio = pasta.getRoot().toPath();
+		ResultadoExportacao resultado = new ExportacaoService(database, diretorio, FormatoExportacao.BSON,
+				Compressao.GZIP, 4, 4).exportar(ClienteService.NAME_COLLECTION);
+		assertThat(resultado.getTotalDocumentos(), is(50L));
+		long lidos = 0;
+		for (int i = 0; i < resultado.getParticoesExportadas(); i++) {
+			lidos += contarBson(diretorio.resolve(String.format("cliente-%04d.bson.gz", i)));
+		}
+		assertThat(lidos, is(50L));
+	}
+
+	@Test
+	public void deve_exportar_os_ids_de_outros_tipos() throws IOException, InterruptedException {
+		MongoCollection<Document> collection = database.getCollection(ClienteService.NAME_COLLECTION);
+		collection.insertOne(new Document("_id", new ObjectId()));
+		collection.insertOne(new Document("_id", 42));
+		ResultadoExportacao resultado = new ExportacaoService(database, pasta.getRoot().toPath(),
+				FormatoExportacao.NDJSON, Compressao.NENHUMA, 4, 4).exportar(ClienteService.NAME_COLLECTION);
+		assertThat(resultado.getTotalDocumentos(), is(52L));
+	}
+
+	@Test
+	public void deve_pular_as_particoes_concluidas_ao_retomar() throws IOException, InterruptedException {
+		Path diretorio = pasta.getRoot().toPath();
+		ExportacaoService exportacao = new ExportacaoService(database, diretorio, FormatoExportacao.NDJSON,
+				Compressao.NENHUMA, 2, 3);
+		ResultadoExportacao primeira = exportacao.exportar(ClienteService.NAME_COLLECTION);
+		ResultadoExportacao segunda = exportacao.exportar(ClienteService.NAME_COLLECTION);
+		assertThat(segunda.getParticoesExportadas(), is(0));
+		assertThat(segunda.getParticoesRetomadas(), is(primeira.getParticoesExportadas()));
+		assertThat(segunda.getTotalDocumentos(), is(50L));
+		assertThat(Files.readAllLines(diretorio.resolve("cliente-0000.ndjson")).isEmpty(), is(false));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+	private static long contarBson(Path arquivo) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		try (InputStream entrada = new GZIPInputStream(Files.newInputStream(arquivo))) {
+			byte[] buffer = new byte[8192];
+			for (int lidos = entrada.read(buffer); lidos > 0; lidos = entrada.read(buffer)) {
+				bytes.write(buffer, 0, lidos);
+			}
+		}
+		long documentos = 0;
+		try (BsonBinaryReader reader = new BsonBinaryReader(ByteBuffer.wrap(bytes.toByteArray()))) {
+			while (reader.getBsonInput().hasRemaining()) {
+				new BsonDocumentCodec().decode(reader, DecoderContext.builder().build());
+				documentos++;
+			}
+		}
+		return documentos;
+	}
+
+}
@@ -0,0 +1,86 @@
+package br.com.contmatic.exportacao;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+
+import org.bson.BsonInt32;
+import org.bson.BsonInt64;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mongodb.MongoClientSettings;
+
+public class PontoDeControleTest {
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	@Test
+	public void deve_retomar_com_os_mesmos_limites_e_particoes_concluidas() throws IOException {
+		Path diretorio = pasta.getRoot().toPath();
+		List<BsonValue> limites = asList(new BsonString("1000"), new BsonString("5000"));
+		PontoDeControle ponto = PontoDeControle.abrir(diretorio, FormatoExportacao.BSON, Compressao.GZIP);
+		assertThat(ponto.getLimites("empresa"), is(nullValue()));
+		ponto.setLimites("empresa", limites);
+		List<Particao> particoes = Particao.dividir("empresa", limites);
+		ponto.concluir(particoes.get(1), 42, 1024);
+
+		PontoDeControle retomado = PontoDeControle.abrir(diretorio, FormatoExportacao.BSON, Compressao.GZIP);
+		assertThat(retomado.getLimites("empresa"), equalTo(limites));
+		assertFalse(retomado.isConcluida(particoes.get(0)));
+		assertTrue(retomado.isConcluida(particoes.get(1)));
+		assertThat(retomado.getDocumentos(particoes.get(1)), is(42L));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void nao_deve_retomar_com_outro_formato() throws IOException {
+		Path diretorio = pasta.getRoot().toPath();
+		PontoDeControle.abrir(diretorio, FormatoExportacao.BSON, Compressao.GZIP).setLimites("empresa",
+				Collections.<BsonValue>emptyList());
+		PontoDeControle.abrir(diretorio, FormatoExportacao.NDJSON, Compressao.GZIP);
+	}
+
+	@Test
+	public void deve_dividir_em_faixas_de_id_sem_sobreposicao() {
+		List<Particao> particoes = Particao.dividir("cliente", asList(new BsonString("5")));
+		assertThat(particoes.size(), is(3));
+		assertThat(json(particoes.get(0)), equalTo("{\"_id\": {\"$lt\": \"5\"}}"));
+		assertThat(json(particoes.get(1)), equalTo("{\"_id\": {\"$gte\": \"5\"}}"));
+		assertThat(particoes.get(1).nomeArquivo(FormatoExportacao.NDJSON, Compressao.ZSTD),
+				equalTo("cliente-0001.ndjson.zst"));
+	}
+
+	@Test
+	public void deve_separar_os_ids_de_outros_tipos_em_uma_particao() {
+		List<Particao> texto = Particao.dividir("cliente", asList(new BsonString("5")));
+		assertThat(json(texto.get(2)), equalTo("{\"_id\": {\"$not\": {\"$type\": 2}}}"));
+		List<Particao> numeros = Particao.dividir("cliente", asList(new BsonInt32(5), new BsonInt64(9)));
+		assertThat(numeros.size(), is(4));
+		assertThat(json(numeros.get(3)), equalTo("{\"_id\": {\"$not\": {\"$type\": \"number\"}}}"));
+	}
+
+	@Test
+	public void nao_deve_separar_tipos_sem_limites() {
+		List<Particao> particoes = Particao.dividir("cliente", Collections.<BsonValue>emptyList());
+		assertThat(particoes.size(), is(1));
+		assertThat(json(particoes.get(0)), equalTo("{}"));
+	}
+
+	private static String json(Particao particao) {
+		return particao.filtro().toBsonDocument(null, MongoClientSettings.getDefaultCodecRegistry()).toJson();
+	}
+
+}
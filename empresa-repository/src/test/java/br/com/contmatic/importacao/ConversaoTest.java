@@ -0,0 +1,78 @@
+package br.com.contmatic.importacao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import br.com.contmatic.empresa.Cliente;
+
+public class ConversaoTest {
+
+	private static final List<String> CABECALHO = asList("cpf", "nome", "email", "boleto", "telefones");
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	@Test
+	public void deve_separar_colunas_com_virgula_e_aspas_dentro_das_aspas() {
+		assertThat(Conversao.colunas("a,\"b, c\",\"d \"\"e\"\"\",,"), equalTo(asList("a", "b, c", "d \"e\"", "", "")));
+	}
+
+	@Test
+	public void deve_converter_linha_csv_com_telefones_em_json() {
+		Registro registro = new Registro("clientes.csv", 2, "43701888818,Maria,maria@teste.com.br,150.5,"
+				+ "\"[{\"\"tipoTelefone\"\": \"\"CELULAR\"\", \"\"ddd\"\": \"\"DDD11\"\", \"\"numero\"\": \"\"987654321\"\"}]\"",
+				CABECALHO);
+		Cliente cliente = Destino.CLIENTE.converter(Conversao.documento(registro, FormatoImportacao.CSV));
+		assertThat(cliente.getCpf(), is("43701888818"));
+		assertThat(cliente.getBoleto(), equalTo(new BigDecimal("150.50")));
+		assertThat(cliente.getTelefone().size(), is(1));
+	}
+
+	@Test
+	public void deve_converter_linha_ndjson_com_boleto_inteiro() {
+		Registro registro = new Registro("clientes.ndjson", 1,
+				"{\"cpf\": \"43701888818\", \"nome\": \"Maria\", \"boleto\": 200}", null);
+		Cliente cliente = Destino.CLIENTE.converter(Conversao.documento(registro, FormatoImportacao.NDJSON));
+		assertThat(cliente.getBoleto(), equalTo(new BigDecimal("200.00")));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deve_recusar_linha_csv_com_colunas_a_mais() {
+		Conversao.documento(new Registro("clientes.csv", 2, "1,2,3,4,5,6", CABECALHO), FormatoImportacao.CSV);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deve_recusar_boleto_que_nao_e_numero() {
+		Destino.CLIENTE.converter(new Document("cpf", "43701888818").append("boleto", "dez reais"));
+	}
+
+	@Test
+	public void deve_gravar_os_rejeitados_com_os_motivos() throws IOException {
+		Path arquivo = pasta.getRoot().toPath().resolve("rejeitados/clientes.ndjson");
+		try (Rejeitados rejeitados = new Rejeitados(arquivo)) {
+			rejeitados.rejeitar(new Registro("clientes.csv", 7, "1,2", CABECALHO), asList("cpf: inválido"));
+			assertThat(rejeitados.getQuantidade(), is(1L));
+		}
+		List<String> linhas = Files.readAllLines(arquivo, UTF_8);
+		assertThat(linhas.size(), is(1));
+		Document rejeitado = Document.parse(linhas.get(0));
+		assertThat(rejeitado.getInteger("linha"), is(7));
+		assertThat(rejeitado.getString("registro"), is("1,2"));
+		assertThat(rejeitado.getList("motivos", String.class), equalTo(asList("cpf: inválido")));
+	}
+
+}
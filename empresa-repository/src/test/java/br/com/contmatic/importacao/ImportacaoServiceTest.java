@@ -0,0 +1,152 @@
+package br.com.contmatic.importacao;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.assembly.ClienteResourceAssembly;
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class ImportacaoServiceTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Rule
+	public TemporaryFolder pasta = new TemporaryFolder();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+	}
+
+	@Test
+	public void deve_importar_os_validos_e_rejeitar_os_outros_com_os_motivos() throws IOException, InterruptedException {
+		ClienteResourceAssembly assembly = new ClienteResourceAssembly();
+		List<String> linhas = new ArrayList<String>();
+		for (int i = 0; i < 600; i++) {
+			linhas.add(assembly.toDocument(cliente(i)).toJson());
+		}
+		linhas.add(linhas.get(0));
+		linhas.add("{\"cpf\": ");
+		linhas.add("{\"cpf\": \"1\", \"nome\": \"\"}");
+		Path arquivo = pasta.getRoot().toPath().resolve("clientes.ndjson");
+		Path rejeitados = pasta.getRoot().toPath().resolve("rejeitados.ndjson");
+		Files.write(arquivo, linhas, UTF_8);
+
+		ResultadoImportacao resultado = new ImportacaoService(database, 1, 2, 2, 2, 100, 4)
+				.importarClientes(FormatoImportacao.NDJSON, rejeitados, arquivo);
+
+		assertThat(resultado.getLidos(), is(603L));
+		assertThat(resultado.getImportados(), is(600L));
+		assertThat(resultado.getRejeitados(), is(3L));
+		assertThat(database.getCollection(ClienteService.NAME_COLLECTION).countDocuments(), is(resultado.getImportados()));
+		assertThat(resultado.getEtapa("conversao").getRejeitados(), is(1L));
+		assertThat(resultado.getEtapa("validacao").getRejeitados(), is(1L));
+		assertThat(resultado.getEtapa("gravacao").getRejeitados(), is(1L));
+		List<String> motivos = new ArrayList<String>();
+		for (String linha : Files.readAllLines(rejeitados, UTF_8)) {
+			motivos.addAll(Document.parse(linha).getList("motivos", String.class));
+		}
+		assertTrue(motivos.contains("Chave duplicada: " + cliente(0).getCpf()));
+	}
+
+	@Test
+	public void deve_importar_empresas_de_csv_com_varios_arquivos() throws IOException, InterruptedException {
+		List<Path> arquivos = new ArrayList<Path>();
+		for (int i = 0; i < 3; i++) {
+			Path arquivo = pasta.getRoot().toPath().resolve("empresas-" + i + ".csv");
+			Files.write(arquivo, csvEmpresas(i * 20, 20), UTF_8);
+			arquivos.add(arquivo);
+		}
+		Path rejeitados = pasta.getRoot().toPath().resolve("rejeitados.ndjson");
+
+		ResultadoImportacao resultado = new ImportacaoService(database, 3, 2, 2, 2, 25, 2)
+				.importarEmpresas(FormatoImportacao.CSV, rejeitados, arquivos.toArray(new Path[0]));
+
+		assertThat(resultado.getLidos(), is(60L));
+		assertThat(resultado.getEtapa("leitura").getTrabalhadores(), is(3));
+		assertThat(resultado.getImportados(), is(60L));
+		assertThat(database.getCollection("empresa").countDocuments(), is(resultado.getImportados()));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+	private static Cliente cliente(int i) {
+		Cliente cliente = randomObject.clienteRandomizer();
+		cliente.setCpf(digitos(String.format("%09d", 100000000 + i), 11));
+		cliente.setNome("Cliente " + i);
+		cliente.setEmail("cliente" + i + "@teste.com.br");
+		return cliente;
+	}
+
+	/**
+	 * Completa o CPF ou CNPJ com os dígitos verificadores. Os pesos vão de 2
+	 * até o peso máximo, da direita para a esquerda: 11 no CPF e 9 no CNPJ.
+	 */
+	private static String digitos(String base, int pesoMaximo) {
+		StringBuilder numero = new StringBuilder(base);
+		for (int digito = 0; digito < 2; digito++) {
+			int soma = 0;
+			for (int i = 0; i < numero.length(); i++) {
+				soma += (numero.charAt(i) - '0') * ((numero.length() - i - 1) % (pesoMaximo - 1) + 2);
+			}
+			numero.append(soma % 11 < 2 ? 0 : 11 - soma % 11);
+		}
+		return numero.toString();
+	}
+
+	private static List<String> csvEmpresas(int inicio, int quantidade) {
+		List<String> linhas = new ArrayList<String>();
+		linhas.add("cnpj,nome,site,telefones,enderecos");
+		for (int i = 0; i < quantidade; i++) {
+			Empresa aleatoria = randomObject.empresaRandomizer();
+			aleatoria.setCnpj(digitos(String.format("%08d0001", inicio + i), 9));
+			aleatoria.setNome("Empresa " + (inicio + i));
+			aleatoria.setSite("www.empresa" + (inicio + i) + ".com.br");
+			Document empresa = new EmpresaResourceAssembly().toDocument(aleatoria);
+			linhas.add(String.join(",", csv(empresa.getString("cnpj")), csv(empresa.getString("nome")),
+					csv(empresa.getString("site")), csv(json(empresa, "telefones")), csv(json(empresa, "enderecos"))));
+		}
+		return linhas;
+	}
+
+	private static String json(Document empresa, String campo) {
+		String documento = new Document("valor", empresa.get(campo)).toJson();
+		return documento.substring(documento.indexOf(':') + 1, documento.length() - 1).trim();
+	}
+
+	private static String csv(String valor) {
+		return "\"" + valor.replace("\"", "\"\"") + "\"";
+	}
+
+}
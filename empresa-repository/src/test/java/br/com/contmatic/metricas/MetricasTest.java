@@ -0,0 +1,107 @@
+package br.com.contmatic.metricas;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.junit.Test;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ConnectionId;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import com.mongodb.event.ConnectionCheckedInEvent;
+import com.mongodb.event.ConnectionCheckedOutEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueEnteredEvent;
+import com.mongodb.event.ConnectionPoolWaitQueueExitedEvent;
+
+public class MetricasTest {
+
+	private static final ConnectionDescription CONEXAO = new ConnectionDescription(
+			new ServerId(new ClusterId(), new ServerAddress()));
+
+	@Test
+	public void deve_calcular_percentis_com_erro_de_ate_um_trinta_e_dois_avos() {
+		Histograma histograma = new Histograma();
+		for (long valor = 1; valor <= 100000; valor++) {
+			histograma.registrar(valor);
+		}
+		assertEquals(50000, histograma.percentil(0.5), 50000 / 32d);
+		assertEquals(99000, histograma.percentil(0.99), 99000 / 32d);
+		assertEquals(99900, histograma.percentil(0.999), 99900 / 32d);
+		assertThat(histograma.getEstatisticas().getMaximo(), is(100000L));
+	}
+
+	@Test
+	public void deve_guardar_valores_pequenos_sem_erro() {
+		Histograma histograma = new Histograma();
+		histograma.registrar(3);
+		histograma.registrar(7);
+		assertThat(histograma.percentil(0.5), is(3L));
+		assertThat(histograma.getEstatisticas().getMaximo(), is(7L));
+	}
+
+	@Test
+	public void deve_separar_as_faixas_sem_sobreposicao() {
+		for (int indice = 1; indice < Histograma.indice(Long.MAX_VALUE); indice++) {
+			long inicio = Histograma.inicioDaFaixa(indice);
+			assertThat(Histograma.indice(inicio), is(indice));
+			assertThat(Histograma.indice(inicio - 1), is(indice - 1));
+		}
+	}
+
+	@Test
+	public void deve_contar_erros_separados_por_colecao() {
+		MetricasEmMemoria metricas = new MetricasEmMemoria();
+		metricas.registrarTempo("salvar", "cliente", 1000, false);
+		metricas.registrarTempo("salvar", "cliente", 3000, true);
+		metricas.registrarTempo("salvar", "empresa", 2000, false);
+		assertThat(metricas.getTempos("salvar", "cliente").getQuantidade(), is(2L));
+		assertThat(metricas.getErros("salvar", "cliente"), is(1L));
+		assertThat(metricas.getErros("salvar", "empresa"), is(0L));
+		assertTrue(metricas.getTodosOsTempos().containsKey("empresa/salvar"));
+		metricas.limpar();
+		assertThat(metricas.getTempos("salvar", "cliente").getQuantidade(), is(0L));
+	}
+
+	@Test
+	public void deve_registrar_o_tempo_dos_comandos_pela_colecao() {
+		MetricasEmMemoria metricas = new MetricasEmMemoria();
+		MetricasCommandListener listener = new MetricasCommandListener(metricas);
+		listener.commandStarted(new CommandStartedEvent(1, CONEXAO, "empresas", "find",
+				new BsonDocument("find", new BsonString("cliente"))));
+		listener.commandSucceeded(new CommandSucceededEvent(1, CONEXAO, "find", new BsonDocument(),
+				TimeUnit.MILLISECONDS.toNanos(5)));
+		listener.commandStarted(new CommandStartedEvent(2, CONEXAO, "empresas", "ping", new BsonDocument()));
+		listener.commandFailed(new CommandFailedEvent(2, CONEXAO, "ping", 1, new RuntimeException()));
+		assertThat(metricas.getTempos("comando.find", "cliente").getQuantidade(), is(1L));
+		assertThat(metricas.getErros("comando.ping", "empresas"), is(1L));
+	}
+
+	@Test
+	public void deve_registrar_a_espera_e_as_retiradas_do_pool_pelo_servidor() {
+		MetricasEmMemoria metricas = new MetricasEmMemoria();
+		MetricasPoolListener listener = new MetricasPoolListener(metricas);
+		ServerId servidor = CONEXAO.getConnectionId().getServerId();
+		ConnectionId conexao = new ConnectionId(servidor);
+		listener.waitQueueEntered(new ConnectionPoolWaitQueueEnteredEvent(servidor));
+		listener.waitQueueExited(new ConnectionPoolWaitQueueExitedEvent(servidor));
+		listener.connectionCheckedOut(new ConnectionCheckedOutEvent(conexao));
+		listener.connectionCheckedOut(new ConnectionCheckedOutEvent(conexao));
+		listener.connectionCheckedIn(new ConnectionCheckedInEvent(conexao));
+		String nome = new ServerAddress().toString();
+		assertThat(metricas.getTempos("pool.espera", nome).getQuantidade(), is(1L));
+		assertThat(metricas.getContador("pool.retiradas", nome) - metricas.getContador("pool.devolvidas", nome),
+				is(1L));
+	}
+
+}
@@ -0,0 +1,78 @@
+package br.com.contmatic.mongoDB;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assume.assumeThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+import com.mongodb.client.MongoClient;
+
+public class ConexaoTest {
+
+	@Test
+	public void deve_compartilhar_o_mesmo_cliente_entre_as_referencias() {
+		int antes = Conexao.getReferencias();
+		try (Conexao primeira = Conexao.getInstance(); Conexao segunda = Conexao.getInstance()) {
+			assertThat(primeira.getMongoClient(), sameInstance(segunda.getMongoClient()));
+			assertThat(Conexao.getReferencias(), is(antes + 2));
+		}
+		assertThat(Conexao.getReferencias(), is(antes));
+	}
+
+	@Test
+	public void deve_manter_o_cliente_aberto_enquanto_houver_referencias() {
+		assumeThat(Conexao.getReferencias(), is(0));
+		Conexao primeira = Conexao.getInstance();
+		Conexao segunda = Conexao.getInstance();
+		MongoClient cliente = segunda.getMongoClient();
+		primeira.close();
+		primeira.close();
+		assertThat(segunda.getMongoClient(), sameInstance(cliente));
+		segunda.close();
+		try (Conexao terceira = Conexao.getInstance()) {
+			assertThat(terceira.getMongoClient(), not(sameInstance(cliente)));
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void nao_deve_usar_uma_referencia_fechada() {
+		Conexao conexao = Conexao.getInstance();
+		conexao.close();
+		conexao.getDatabase();
+	}
+
+	@Test
+	public void deve_criar_um_unico_cliente_com_acesso_concorrente() throws Exception {
+		int antes = Conexao.getReferencias();
+		ExecutorService executor = Executors.newFixedThreadPool(16);
+		List<Future<Conexao>> futuros = new ArrayList<Future<Conexao>>();
+		for (int i = 0; i < 64; i++) {
+			futuros.add(executor.submit(new Callable<Conexao>() {
+				@Override
+				public Conexao call() {
+					return Conexao.getInstance();
+				}
+			}));
+		}
+		MongoClient cliente = futuros.get(0).get().getMongoClient();
+		for (Future<Conexao> futuro : futuros) {
+			assertThat(futuro.get().getMongoClient(), sameInstance(cliente));
+		}
+		for (Future<Conexao> futuro : futuros) {
+			futuro.get().close();
+		}
+		executor.shutdown();
+		assertThat(Conexao.getReferencias(), is(antes));
+	}
+
+}
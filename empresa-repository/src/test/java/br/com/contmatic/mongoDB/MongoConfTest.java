@@ -0,0 +1,64 @@
+package br.com.contmatic.mongoDB;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.mongodb.MongoClientSettings;
+import com.mongodb.ReadPreference;
+import com.mongodb.WriteConcern;
+
+public class MongoConfTest {
+
+	@Test
+	public void deve_usar_os_valores_padrao_quando_nada_for_configurado() {
+		MongoConf conf = new MongoConf(new Properties());
+		assertThat(conf.getHost(), equalTo(MongoConf.HOST));
+		assertThat(conf.getPort(), is(MongoConf.PORT));
+		assertThat(conf.getDbName(), equalTo(MongoConf.DB_NAME));
+		assertThat(conf.getCompressors().isEmpty(), is(true));
+		assertThat(conf.isGarantirIndices(), is(true));
+	}
+
+	@Test
+	public void deve_aplicar_as_propriedades_nas_configuracoes_do_cliente() {
+		Properties properties = new Properties();
+		properties.setProperty("mongo.pool.minSize", "10");
+		properties.setProperty("mongo.pool.maxSize", "200");
+		properties.setProperty("mongo.pool.maxWaitMillis", "500");
+		properties.setProperty("mongo.connectTimeoutMillis", "2000");
+		properties.setProperty("mongo.socketTimeoutMillis", "3000");
+		properties.setProperty("mongo.readPreference", "secondaryPreferred");
+		properties.setProperty("mongo.writeConcern", "MAJORITY");
+		properties.setProperty("mongo.compressors", "zlib, snappy");
+		MongoClientSettings settings = new MongoConf(properties).toSettings().build();
+		assertThat(settings.getConnectionPoolSettings().getMinSize(), is(10));
+		assertThat(settings.getConnectionPoolSettings().getMaxSize(), is(200));
+		assertThat(settings.getConnectionPoolSettings().getMaxWaitTime(TimeUnit.MILLISECONDS), is(500L));
+		assertThat(settings.getSocketSettings().getConnectTimeout(TimeUnit.MILLISECONDS), is(2000));
+		assertThat(settings.getSocketSettings().getReadTimeout(TimeUnit.MILLISECONDS), is(3000));
+		assertThat(settings.getReadPreference(), equalTo(ReadPreference.secondaryPreferred()));
+		assertThat(settings.getWriteConcern(), equalTo(WriteConcern.MAJORITY));
+		assertThat(settings.getCompressorList().size(), is(2));
+	}
+
+	@Test
+	public void deve_permitir_desligar_a_criacao_dos_indices() {
+		Properties properties = new Properties();
+		properties.setProperty("mongo.indices.garantir", "false");
+		assertThat(new MongoConf(properties).isGarantirIndices(), is(false));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deve_rejeitar_compressor_desconhecido() {
+		Properties properties = new Properties();
+		properties.setProperty("mongo.compressors", "lz4");
+		new MongoConf(properties).getCompressors();
+	}
+
+}
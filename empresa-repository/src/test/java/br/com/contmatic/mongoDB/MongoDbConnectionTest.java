@@ -0,0 +1,41 @@
+package br.com.contmatic.mongoDB;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.service.FuncionarioService;
+
+public class MongoDbConnectionTest {
+
+	@Test
+	public void deve_usar_o_banco_do_cliente_compartilhado() {
+		try (Conexao conexao = Conexao.getInstance()) {
+			assertThat(MongoDbConnection.getMongoDatabase(), sameInstance(conexao.getDatabase()));
+			assertThat(MongoDbConnection.getMongoDatabase().getName(), is(MongoConf.carregar().getDbName()));
+		}
+	}
+
+	@Test
+	public void deve_manter_a_referencia_do_cliente_compartilhado() {
+		MongoDbConnection.getMongoDatabase();
+		Conexao.getInstance().close();
+		assertTrue(Conexao.getReferencias() >= 1);
+		assertThat(MongoDbConnection.getMongoDatabase(), sameInstance(MongoDbConnection.getMongoDatabase()));
+	}
+
+	@Test
+	public void deve_gravar_nas_colecoes_dos_servicos() {
+		assertThat(MongoDbConnection.EMPRESA, is(EmpresaService.NAME_COLLECTION));
+		assertThat(MongoDbConnection.CLIENTE, is(ClienteService.NAME_COLLECTION));
+		assertThat(MongoDbConnection.FORNECEDOR, is(FornecedorService.NAME_COLLECTION));
+		assertThat(MongoDbConnection.FUNCIONARIO, is(FuncionarioService.NAME_COLLECTION));
+	}
+
+}
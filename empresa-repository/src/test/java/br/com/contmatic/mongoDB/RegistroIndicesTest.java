@@ -0,0 +1,78 @@
+package br.com.contmatic.mongoDB;
+
+import static org.hamcrest.CoreMatchers.hasItem;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.MongoWriteException;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class RegistroIndicesTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+	}
+
+	@Test
+	public void deve_apontar_os_indices_faltantes_antes_de_garantir() {
+		RelatorioIndices relatorio = RegistroIndices.padrao().verificar(database);
+		assertFalse(relatorio.isCompleto());
+		assertThat(relatorio.getFaltantes(ClienteService.NAME_COLLECTION), hasItem("email_unique"));
+	}
+
+	@Test
+	public void deve_criar_todos_os_indices_declarados() {
+		RelatorioIndices relatorio = RegistroIndices.padrao().garantir(database);
+		assertTrue(relatorio.isCompleto());
+		assertThat(relatorio.getExistentes(EmpresaService.NAME_COLLECTION), hasItem("nome_text"));
+		assertThat(relatorio.getExistentes(EmpresaService.NAME_COLLECTION), hasItem("nome"));
+	}
+
+	@Test
+	public void deve_ser_idempotente() {
+		RegistroIndices.padrao().garantir(database);
+		RelatorioIndices relatorio = RegistroIndices.padrao().garantir(database);
+		assertTrue(relatorio.isCompleto());
+		assertThat(relatorio.getExistentes(ClienteService.NAME_COLLECTION).size(), is(4));
+	}
+
+	@Test(expected = MongoWriteException.class)
+	public void deve_impedir_email_de_cliente_duplicado() throws IOException {
+		RegistroIndices.padrao().garantir(database);
+		ClienteService service = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		Cliente outro = randomObject.clienteRandomizer();
+		outro.setEmail(cliente.getEmail());
+		service.salvar(cliente);
+		service.salvar(outro);
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+}
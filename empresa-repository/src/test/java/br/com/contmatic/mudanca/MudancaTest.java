@@ -0,0 +1,101 @@
+package br.com.contmatic.mudanca;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonTimestamp;
+import org.bson.Document;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.OperationType;
+
+import br.com.contmatic.service.EmpresaService;
+
+public class MudancaTest {
+
+	private static final String CNPJ = "12345678000195";
+
+	private MongoClient mongo;
+
+	private MonitorMudancas monitor;
+
+	private VisaoMaterializada<String> visao;
+
+	@Before
+	public void setUp() {
+		mongo = new MongoClient("localhost", 12345);
+		monitor = new MonitorMudancas(mongo.getDatabase("empresa"), EmpresaService.NAME_COLLECTION,
+				null);
+		visao = new VisaoMaterializada<String>(monitor, document -> document.getString("nome"), 1, TimeUnit.SECONDS);
+	}
+
+	@Test
+	public void deve_converter_a_alteracao_em_gravacao_com_o_documento() {
+		Document documento = new Document("_id", CNPJ).append("nome", "Contmatic");
+		Mudanca mudanca = Mudanca.de(evento(OperationType.UPDATE, documento));
+		assertThat(mudanca.getTipo(), is(TipoMudanca.GRAVACAO));
+		assertThat(mudanca.getChave(), is(CNPJ));
+		assertThat(mudanca.getDocumento(), is(documento));
+	}
+
+	@Test
+	public void deve_converter_a_alteracao_de_documento_ja_removido_em_remocao() {
+		Mudanca mudanca = Mudanca.de(evento(OperationType.UPDATE, null));
+		assertThat(mudanca.getTipo(), is(TipoMudanca.REMOCAO));
+		assertThat(mudanca.getChave(), is(CNPJ));
+	}
+
+	@Test
+	public void deve_converter_o_drop_em_reinicio() {
+		assertThat(Mudanca.de(evento(OperationType.DROP, null)).getTipo(), is(TipoMudanca.REINICIO));
+	}
+
+	@Test
+	public void deve_aplicar_gravacoes_e_remocoes_na_visao() {
+		visao.receber(new Mudanca(TipoMudanca.GRAVACAO, CNPJ, new Document("_id", CNPJ).append("nome", "Antigo")));
+		visao.receber(new Mudanca(TipoMudanca.GRAVACAO, CNPJ, new Document("_id", CNPJ).append("nome", "Novo")));
+		assertThat(visao.buscar(CNPJ), is("Novo"));
+		visao.receber(new Mudanca(TipoMudanca.REMOCAO, CNPJ, null));
+		assertThat(visao.buscar(CNPJ), is(nullValue()));
+	}
+
+	@Test
+	public void nao_deve_estar_atualizada_antes_de_carregar() {
+		assertFalse(visao.isAtualizada());
+	}
+
+	@Test
+	public void deve_medir_o_atraso_pelo_clusterTime_do_ultimo_evento() {
+		assertThat(monitor.getAtrasoMillis(), is(Long.MAX_VALUE));
+		int agora = (int) TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis());
+		monitor.sincronizado(new BsonTimestamp(agora - 10, 1));
+		long atraso = monitor.getAtrasoMillis();
+		assertTrue(String.valueOf(atraso), atraso >= 10000 && atraso < 12000);
+		monitor.sincronizado(null);
+		assertTrue(monitor.getAtrasoMillis() >= 10000);
+	}
+
+	@After
+	public void tearDown() {
+		mongo.close();
+	}
+
+	private static ChangeStreamDocument<Document> evento(OperationType tipo, Document documento) {
+		BsonDocument namespace = new BsonDocument("db", new BsonString("empresa")).append("coll",
+				new BsonString(EmpresaService.NAME_COLLECTION));
+		return new ChangeStreamDocument<Document>(tipo, new BsonDocument("_data", new BsonString("1")), namespace, null,
+				documento, new BsonDocument("_id", new BsonString(CNPJ)), new BsonTimestamp(1, 1), null, null, null);
+	}
+
+}
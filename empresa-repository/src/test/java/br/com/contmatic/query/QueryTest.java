@@ -0,0 +1,96 @@
+package br.com.contmatic.query;
+
+import static com.mongodb.client.model.Indexes.text;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Collections;
+
+import org.bson.BsonDocument;
+import org.bson.conversions.Bson;
+import org.joda.time.LocalDate;
+import org.junit.Test;
+
+import com.mongodb.MongoClientSettings;
+
+import br.com.contmatic.endereco.Estado;
+import br.com.contmatic.mongoDB.RegistroIndices;
+
+public class QueryTest {
+
+	@Test
+	public void deve_filtrar_pelo_id_ao_consultar_pelo_cnpj() {
+		assertThat(json(EmpresaQuery.porCnpj("12345678000195").toFilterVerificado()),
+				equalTo("{\"_id\": \"12345678000195\"}"));
+	}
+
+	@Test
+	public void deve_juntar_os_criterios_com_and() {
+		Bson filtro = ClienteQuery.porCpf("12345678909").email("contmatic@gmail.com.br").toFilter();
+		assertThat(json(filtro),
+				equalTo("{\"_id\": \"12345678909\", \"email\": \"contmatic@gmail.com.br\"}"));
+	}
+
+	@Test
+	public void deve_escapar_o_prefixo_do_nome() {
+		assertThat(json(EmpresaQuery.todas().nomeComecaCom("A.B (SP)").toFilter()),
+				equalTo("{\"nome\": {\"$regex\": \"^A\\\\.B \\\\(SP\\\\)\", \"$options\": \"\"}}"));
+	}
+
+	@Test
+	public void deve_procurar_estado_e_cidade_no_mesmo_endereco() {
+		assertThat(json(FornecedorQuery.todos().cidade(Estado.SP, "Santos").toFilter()), equalTo(
+				"{\"enderecos\": {\"$elemMatch\": {\"estado\": \"SP\", \"cidade\": \"Santos\"}}}"));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void nao_deve_gerar_filtro_sem_criterio() {
+		EmpresaQuery.todas().toFilter();
+	}
+
+	@Test
+	public void deve_usar_indice_nos_campos_declarados() {
+		assertTrue(EmpresaQuery.todas().cidade(Estado.SP, "Santos").usaIndice());
+		assertTrue(FuncionarioQuery.todos()
+				.contratadoEntre(new LocalDate(2019, 1, 1), new LocalDate(2020, 1, 1)).usaIndice());
+		assertTrue(ClienteQuery.todos().email("contmatic@gmail.com.br").usaIndice());
+	}
+
+	@Test
+	public void deve_usar_o_indice_ascendente_para_prefixo_do_nome() {
+		assertTrue(EmpresaQuery.todas().nomeComecaCom("Cont").usaIndice());
+		assertTrue(ClienteQuery.todos().nomeComecaCom("Cont").usaIndice());
+		assertTrue(FornecedorQuery.todos().nomeComecaCom("Cont").usaIndice());
+		assertTrue(FuncionarioQuery.todos().nomeComecaCom("Cont").usaIndice());
+	}
+
+	@Test
+	public void nao_deve_usar_indice_em_campo_sem_indice() {
+		assertFalse(FornecedorQuery.todos().produto("Papel").usaIndice());
+	}
+
+	@Test
+	public void nao_deve_contar_o_indice_de_texto_como_indice_do_campo() {
+		RegistroIndices indices = new RegistroIndices().declarar("colecao", "nome_text", text("nome"));
+		assertFalse(indices.cobre("colecao", Collections.singleton("nome")));
+	}
+
+	@Test(expected = ConsultaSemIndiceException.class)
+	public void deve_recusar_consulta_sem_indice() {
+		FornecedorQuery.todos().produto("Papel").toFilterVerificado();
+	}
+
+	@Test
+	public void deve_aceitar_varredura_permitida() {
+		Bson filtro = FornecedorQuery.todos().produto("Papel").permitirVarredura().toFilterVerificado();
+		assertThat(json(filtro), is("{\"produto\": \"Papel\"}"));
+	}
+
+	private static String json(Bson filtro) {
+		return filtro.toBsonDocument(BsonDocument.class, MongoClientSettings.getDefaultCodecRegistry()).toJson();
+	}
+
+}
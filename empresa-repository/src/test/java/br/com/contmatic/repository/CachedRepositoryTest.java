@@ -0,0 +1,91 @@
+package br.com.contmatic.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import br.com.contmatic.assembly.EmpresaResourceAssembly;
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+
+public class CachedRepositoryTest {
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	private final Empresa empresa = randomObject.empresaRandomizer();
+
+	@Test
+	public void nao_deve_guardar_o_valor_carregado_antes_da_invalidacao() throws Exception {
+		Repositorio repository = new Repositorio();
+		repository.nome = "Antes";
+		repository.bloquear = true;
+		CompletableFuture<Empresa> leitura = CompletableFuture.supplyAsync(() -> repository.buscar(empresa.getCnpj()));
+		assertTrue(repository.carregando.await(5, TimeUnit.SECONDS));
+		repository.nome = "Depois";
+		repository.invalidar(empresa.getCnpj());
+		repository.liberar.countDown();
+		assertThat(leitura.get(5, TimeUnit.SECONDS).getNome(), equalTo("Antes"));
+		assertThat(repository.buscar(empresa.getCnpj()).getNome(), equalTo("Depois"));
+	}
+
+	@Test
+	public void deve_devolver_uma_copia_da_entidade_do_cache() {
+		Repositorio repository = new Repositorio();
+		repository.nome = "Contmatic";
+		repository.buscar(empresa.getCnpj()).setNome("Alterado");
+		Empresa empresaBuscada = repository.buscar(empresa.getCnpj());
+		assertThat(empresaBuscada.getNome(), equalTo("Contmatic"));
+		assertThat(repository.getEstatisticas().hitCount(), is(1L));
+	}
+
+	/**
+	 * Carrega a empresa com o nome atual, podendo parar no meio da carga até
+	 * o teste liberar.
+	 */
+	private final class Repositorio extends CachedRepository<Empresa> {
+
+		private final EmpresaResourceAssembly assembly = new EmpresaResourceAssembly();
+
+		private final CountDownLatch carregando = new CountDownLatch(1);
+
+		private final CountDownLatch liberar = new CountDownLatch(1);
+
+		private volatile String nome;
+
+		private volatile boolean bloquear;
+
+		private Repositorio() {
+			super(TAMANHO_MAXIMO_PADRAO, TTL_PADRAO_SEGUNDOS, TimeUnit.SECONDS);
+		}
+
+		@Override
+		protected Empresa carregar(String id) {
+			Empresa carregada = copiar(empresa);
+			carregada.setNome(nome);
+			if (bloquear) {
+				bloquear = false;
+				carregando.countDown();
+				try {
+					liberar.await(5, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return carregada;
+		}
+
+		@Override
+		protected Empresa copiar(Empresa entidade) {
+			return assembly.toResource(assembly.toDocument(entidade));
+		}
+
+	}
+
+}
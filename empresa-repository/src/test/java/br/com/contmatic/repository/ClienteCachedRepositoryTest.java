@@ -0,0 +1,77 @@
+package br.com.contmatic.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.service.ClienteService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class ClienteCachedRepositoryTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private ClienteService service;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		database.createCollection(ClienteService.NAME_COLLECTION);
+		service = new ClienteService(database);
+	}
+
+	@Test
+	public void deve_buscar_no_cache_a_partir_da_segunda_leitura() throws IOException {
+		ClienteCachedRepository repository = new ClienteCachedRepository(service);
+		Cliente cliente = randomObject.clienteRandomizer();
+		service.salvar(cliente);
+		repository.findById(cliente.getCpf());
+		assertThat(repository.findById(cliente.getCpf()), equalTo(cliente));
+		assertThat(repository.getEstatisticas().missCount(), is(1L));
+		assertThat(repository.getEstatisticas().hitCount(), is(1L));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_alterar() {
+		ClienteCachedRepository repository = new ClienteCachedRepository(service);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.save(cliente);
+		repository.findById(cliente.getCpf());
+		cliente.setNome("Teste");
+		repository.update(cliente);
+		assertThat(repository.findById(cliente.getCpf()).getNome(), equalTo("Teste"));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_apagar() {
+		ClienteCachedRepository repository = new ClienteCachedRepository(service);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.save(cliente);
+		repository.findById(cliente.getCpf());
+		repository.deleteById(cliente.getCpf());
+		assertNull(repository.findById(cliente.getCpf()));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+}
@@ -0,0 +1,106 @@
+package br.com.contmatic.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.mudanca.Mudanca;
+import br.com.contmatic.mudanca.TipoMudanca;
+import br.com.contmatic.service.EmpresaService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class EmpresaCachedRepositoryTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private EmpresaService service;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		database.createCollection("empresa");
+		service = new EmpresaService(database);
+	}
+
+	@Test
+	public void deve_buscar_no_cache_a_partir_da_segunda_leitura() throws IOException {
+		EmpresaCachedRepository repository = new EmpresaCachedRepository(service);
+		Empresa empresa = randomObject.empresaRandomizer();
+		service.salvar(empresa);
+		repository.findById(empresa.getCnpj());
+		Empresa empresaBuscada = repository.findById(empresa.getCnpj());
+		assertThat(empresaBuscada, equalTo(empresa));
+		assertThat(repository.getEstatisticas().missCount(), is(1L));
+		assertThat(repository.getEstatisticas().hitCount(), is(1L));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_alterar() {
+		EmpresaCachedRepository repository = new EmpresaCachedRepository(service);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.save(empresa);
+		repository.findById(empresa.getCnpj());
+		empresa.setNome("Teste");
+		repository.update(empresa);
+		assertThat(repository.findById(empresa.getCnpj()).getNome(), equalTo("Teste"));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_apagar() {
+		EmpresaCachedRepository repository = new EmpresaCachedRepository(service);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.save(empresa);
+		repository.findById(empresa.getCnpj());
+		repository.deleteById(empresa.getCnpj());
+		assertNull(repository.findById(empresa.getCnpj()));
+	}
+
+	@Test
+	public void deve_despejar_entradas_quando_o_cache_estiver_cheio() {
+		EmpresaCachedRepository repository = new EmpresaCachedRepository(service, 1, 1, TimeUnit.MINUTES);
+		Empresa primeira = randomObject.empresaRandomizer();
+		Empresa segunda = randomObject.empresaRandomizer();
+		repository.save(primeira);
+		repository.save(segunda);
+		repository.findById(primeira.getCnpj());
+		repository.findById(segunda.getCnpj());
+		assertThat(repository.getTamanhoCache(), is(1L));
+		assertThat(repository.getEstatisticas().evictionCount(), is(1L));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_com_a_mudanca_feita_em_outro_no() throws IOException {
+		EmpresaCachedRepository repository = new EmpresaCachedRepository(service);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.save(empresa);
+		repository.findById(empresa.getCnpj());
+		empresa.setNome("Teste");
+		service.alterar(empresa);
+		repository.invalidacao().receber(new Mudanca(TipoMudanca.GRAVACAO, empresa.getCnpj(), null));
+		assertThat(repository.findById(empresa.getCnpj()).getNome(), equalTo("Teste"));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+}
@@ -0,0 +1,77 @@
+package br.com.contmatic.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.service.FornecedorService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class FornecedorCachedRepositoryTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private FornecedorService service;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		database.createCollection(FornecedorService.NAME_COLLECTION);
+		service = new FornecedorService(database);
+	}
+
+	@Test
+	public void deve_buscar_no_cache_a_partir_da_segunda_leitura() throws IOException {
+		FornecedorCachedRepository repository = new FornecedorCachedRepository(service);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		service.salvar(fornecedor);
+		repository.findById(fornecedor.getCnpj());
+		assertThat(repository.findById(fornecedor.getCnpj()), equalTo(fornecedor));
+		assertThat(repository.getEstatisticas().missCount(), is(1L));
+		assertThat(repository.getEstatisticas().hitCount(), is(1L));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_alterar() {
+		FornecedorCachedRepository repository = new FornecedorCachedRepository(service);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.save(fornecedor);
+		repository.findById(fornecedor.getCnpj());
+		fornecedor.setNome("Teste");
+		repository.update(fornecedor);
+		assertThat(repository.findById(fornecedor.getCnpj()).getNome(), equalTo("Teste"));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_apagar() {
+		FornecedorCachedRepository repository = new FornecedorCachedRepository(service);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.save(fornecedor);
+		repository.findById(fornecedor.getCnpj());
+		repository.deleteById(fornecedor.getCnpj());
+		assertNull(repository.findById(fornecedor.getCnpj()));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+}
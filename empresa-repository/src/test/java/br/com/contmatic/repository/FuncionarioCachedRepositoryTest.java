@@ -0,0 +1,77 @@
+package br.com.contmatic.repository;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.service.FuncionarioService;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class FuncionarioCachedRepositoryTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private FuncionarioService service;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		database.createCollection(FuncionarioService.NAME_COLLECTION);
+		service = new FuncionarioService(database);
+	}
+
+	@Test
+	public void deve_buscar_no_cache_a_partir_da_segunda_leitura() throws IOException {
+		FuncionarioCachedRepository repository = new FuncionarioCachedRepository(service);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		service.salvar(funcionario);
+		repository.findById(funcionario.getCpf());
+		assertThat(repository.findById(funcionario.getCpf()), equalTo(funcionario));
+		assertThat(repository.getEstatisticas().missCount(), is(1L));
+		assertThat(repository.getEstatisticas().hitCount(), is(1L));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_alterar() {
+		FuncionarioCachedRepository repository = new FuncionarioCachedRepository(service);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.save(funcionario);
+		repository.findById(funcionario.getCpf());
+		funcionario.setNome("Teste");
+		repository.update(funcionario);
+		assertThat(repository.findById(funcionario.getCpf()).getNome(), equalTo("Teste"));
+	}
+
+	@Test
+	public void deve_invalidar_o_cache_ao_apagar() {
+		FuncionarioCachedRepository repository = new FuncionarioCachedRepository(service);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.save(funcionario);
+		repository.findById(funcionario.getCpf());
+		repository.deleteById(funcionario.getCpf());
+		assertNull(repository.findById(funcionario.getCpf()));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+}
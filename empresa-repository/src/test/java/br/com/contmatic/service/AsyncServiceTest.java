@@ -0,0 +1,122 @@
+package br.com.contmatic.service;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Identificavel;
+import br.com.contmatic.query.Query;
+import br.com.contmatic.util.MongodEmbutido;
+
+/**
+ * Testes comuns aos serviços assíncronos, que só mudam a entidade.
+ */
+public abstract class AsyncServiceTest<T extends Identificavel, Q extends Query<Q>> {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private AsyncService<T, Q> service;
+
+	protected static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	protected abstract AsyncService<T, Q> criarServico(MongoDatabase database);
+
+	protected abstract T novaEntidade();
+
+	protected abstract Q consultaPorChave(String chave);
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabaseAssincrono("empresa");
+		service = criarServico(database);
+	}
+
+	@Test
+	public void deve_salvar_e_selecionar_de_forma_assincrona() throws InterruptedException, ExecutionException {
+		T entidade = novaEntidade();
+		service.salvar(entidade).get();
+		assertThat(service.selecionar(entidade.getChave()).get(), is(entidade));
+	}
+
+	@Test
+	public void deve_selecionar_pela_consulta() throws InterruptedException, ExecutionException {
+		T entidade = novaEntidade();
+		service.salvar(entidade).get();
+		assertThat(service.selecionar(consultaPorChave(entidade.getChave())).get(), is(asList(entidade)));
+	}
+
+	@Test
+	public void deve_selecionar_so_os_campos_pedidos() throws InterruptedException, ExecutionException {
+		service.salvarTodos(asList(novaEntidade(), novaEntidade())).get();
+		assertThat(service.selecionar(asList("_id")).get().size(), is(2));
+		assertThat(service.selecionar(Collections.<String>emptyList()).get(), is(nullValue()));
+	}
+
+	@Test
+	public void deve_ler_pelo_cursor_na_quantidade_pedida() throws InterruptedException, ExecutionException {
+		List<T> entidades = new ArrayList<T>();
+		for (int i = 0; i < 5; i++) {
+			entidades.add(novaEntidade());
+		}
+		service.salvarTodos(entidades).get();
+		try (CursorAssincrono<T> cursor = service.selecionarCursor(2)) {
+			assertThat(cursor.proximos(2).get().size(), is(2));
+			assertThat(cursor.proximos(2).get().size(), is(2));
+			assertThat(cursor.proximos(2).get().size(), is(1));
+			assertThat(cursor.proximos(2).get().size(), is(0));
+		}
+	}
+
+	@Test
+	public void deve_paginar_pela_chave() throws InterruptedException, ExecutionException {
+		service.salvarTodos(asList(novaEntidade(), novaEntidade(), novaEntidade())).get();
+		Pagina<T> primeira = service.selecionarPagina(null, 2).get();
+		assertThat(primeira.getItens().size(), is(2));
+		Pagina<T> segunda = service.selecionarPagina(primeira.getProximaPagina(), 2).get();
+		assertThat(segunda.getItens().size(), is(1));
+		assertThat(segunda.temProximaPagina(), is(false));
+	}
+
+	@Test
+	public void deve_gravar_a_versao_lida() throws InterruptedException, ExecutionException {
+		T entidade = novaEntidade();
+		assertThat(service.salvarOuAlterar(entidade).get(), is(1L));
+		Versionado<T> lido = service.selecionarVersionado(entidade.getChave()).get();
+		assertThat(service.salvarOuAlterar(lido.getEntidade(), lido.getVersao()).get(), is(2L));
+	}
+
+	@Test
+	public void deve_devolver_o_conflito_de_versao_no_future() throws InterruptedException {
+		try {
+			service.salvarOuAlterar(novaEntidade(), 1L).get();
+			fail("Deve recusar a versão de um documento que não existe");
+		} catch (ExecutionException e) {
+			assertThat(e.getCause(), instanceOf(ConflitoVersaoException.class));
+		}
+	}
+
+	@After
+	public void tearDown() throws InterruptedException, ExecutionException {
+		Assincrono.primeiro(database.drop()).get();
+	}
+
+}
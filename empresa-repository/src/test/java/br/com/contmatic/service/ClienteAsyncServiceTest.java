@@ -0,0 +1,25 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.query.ClienteQuery;
+
+public class ClienteAsyncServiceTest extends AsyncServiceTest<Cliente, ClienteQuery> {
+
+	@Override
+	protected AsyncService<Cliente, ClienteQuery> criarServico(MongoDatabase database) {
+		return new ClienteAsyncService(database);
+	}
+
+	@Override
+	protected Cliente novaEntidade() {
+		return randomObject.clienteRandomizer();
+	}
+
+	@Override
+	protected ClienteQuery consultaPorChave(String chave) {
+		return ClienteQuery.porCpf(chave);
+	}
+
+}
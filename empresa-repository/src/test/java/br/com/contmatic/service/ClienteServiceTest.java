@@ -3,6 +3,8 @@ package br.com.contmatic.service;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -11,7 +13,11 @@ import static org.junit.matchers.JUnitMatchers.containsString;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 import org.junit.After;
@@ -28,6 +34,9 @@ import com.mongodb.client.MongoDatabase;
 import br.com.contmatic.assembly.ClienteResourceAssembly;
 import br.com.contmatic.easyRandom.EasyRandomClass;
 import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.ClienteQuery;
+import br.com.contmatic.telefone.Telefone;
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodStarter;
 import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
@@ -217,6 +226,111 @@ public class ClienteServiceTest {
 		assertThat(clienteBuscada, is(clientes));
 	}
 	
+	@Test
+	public void deve_percorrer_clientes_do_banco_com_stream() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		List<Cliente> clientes = Arrays.asList(randomObject.clienteRandomizer(), randomObject.clienteRandomizer(),
+				randomObject.clienteRandomizer(), randomObject.clienteRandomizer());
+		repository.salvarTodos(clientes);
+		try (Stream<Cliente> stream = repository.selecionarStream(3)) {
+			assertThat(stream.collect(Collectors.toList()), is(clientes));
+		}
+	}
+
+	@Test
+	public void deve_paginar_clientes_pelo_id() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		repository.salvarTodos(Arrays.asList(randomObject.clienteRandomizer(), randomObject.clienteRandomizer(),
+				randomObject.clienteRandomizer(), randomObject.clienteRandomizer(), randomObject.clienteRandomizer()));
+		Pagina<Cliente> primeira = repository.selecionarPagina(null, 2);
+		Pagina<Cliente> segunda = repository.selecionarPagina(primeira.getProximaPagina(), 2);
+		Pagina<Cliente> terceira = repository.selecionarPagina(segunda.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(2));
+		assertThat(terceira.getItens().size(), is(1));
+		assertFalse(terceira.temProximaPagina());
+	}
+
+	@Test
+	public void deve_salvar_ou_alterar_cliente_incrementando_a_versao() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		assertThat(repository.salvarOuAlterar(cliente), is(1L));
+		cliente.setEmail("contmatic@gmail.com.br");
+		assertThat(repository.salvarOuAlterar(cliente, 1L), is(2L));
+		Versionado<Cliente> versionado = repository.selecionarVersionado(cliente.getCpf());
+		assertThat(versionado.getVersao(), is(2L));
+		assertThat(versionado.getEntidade(), is(cliente));
+		assertNotNull(versionado.getAtualizadoEm());
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void deve_recusar_cliente_alterado_em_versao_antiga() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.salvar(cliente);
+		assertThat(repository.salvarOuAlterar(cliente, 0L), is(1L));
+		repository.salvarOuAlterar(cliente, 0L);
+	}
+
+	@Test
+	public void deve_alterar_somente_os_campos_modificados_do_cliente() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.salvar(cliente);
+		Versionado<Cliente> anterior = repository.selecionarVersionado(cliente.getCpf());
+		cliente.setEmail("contmatic@gmail.com.br");
+		Set<Telefone> telefones = new HashSet<Telefone>(cliente.getTelefone());
+		telefones.remove(telefones.iterator().next());
+		telefones.add(randomObject.telefoneRandomizerClass());
+		cliente.setTelefones(telefones);
+		assertThat(repository.alterar(anterior, cliente), is(1L));
+		assertThat(repository.selecionar(cliente.getCpf()), is(cliente));
+		Versionado<Cliente> alterado = repository.selecionarVersionado(cliente.getCpf());
+		assertThat(alterado.getVersao(), is(1L));
+		assertThat(repository.alterar(alterado, cliente), is(1L));
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void nao_deve_alterar_os_campos_do_cliente_lido_em_versao_antiga() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.salvar(cliente);
+		Versionado<Cliente> anterior = repository.selecionarVersionado(cliente.getCpf());
+		repository.salvarOuAlterar(cliente);
+		cliente.setEmail("contmatic@gmail.com.br");
+		repository.alterar(anterior, cliente);
+	}
+
+	@Test
+	public void deve_paginar_resumos_de_clientes_com_chave_e_nome() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		List<Cliente> clientes = new ArrayList<Cliente>();
+		for (int i = 0; i < 3; i++) {
+			clientes.add(randomObject.clienteRandomizer());
+		}
+		repository.salvarTodos(clientes);
+		Pagina<Resumo> primeira = repository.selecionarPaginaResumos(null, 2);
+		Pagina<Resumo> segunda = repository.selecionarPaginaResumos(primeira.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(1));
+		assertFalse(segunda.temProximaPagina());
+		assertThat(repository.selecionarResumos().size(), is(3));
+		Cliente cliente = clientes.get(0);
+		assertTrue(repository.selecionarResumos().contains(new Resumo(cliente.getCpf(), cliente.getNome())));
+	}
+
+	@Test
+	public void deve_selecionar_e_deletar_cliente_pela_consulta() throws IOException {
+		ClienteService repository = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		repository.salvar(cliente);
+		repository.salvar(randomObject.clienteRandomizer());
+		assertThat(repository.selecionar(ClienteQuery.porCpf(cliente.getCpf())), is(Arrays.asList(cliente)));
+		assertThat(repository.deletar(ClienteQuery.porCpf(cliente.getCpf())), is(1L));
+		assertThat(database.getCollection(ClienteService.NAME_COLLECTION).countDocuments(), is(1L));
+	}
+
 	@After
 	public void tearDown() {
 		database.drop();
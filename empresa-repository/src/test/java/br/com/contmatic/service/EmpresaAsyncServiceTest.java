@@ -0,0 +1,25 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.query.EmpresaQuery;
+
+public class EmpresaAsyncServiceTest extends AsyncServiceTest<Empresa, EmpresaQuery> {
+
+	@Override
+	protected AsyncService<Empresa, EmpresaQuery> criarServico(MongoDatabase database) {
+		return new EmpresaAsyncService(database);
+	}
+
+	@Override
+	protected Empresa novaEntidade() {
+		return randomObject.empresaRandomizer();
+	}
+
+	@Override
+	protected EmpresaQuery consultaPorChave(String chave) {
+		return EmpresaQuery.porCnpj(chave);
+	}
+
+}
@@ -1,5 +1,7 @@
 package br.com.contmatic.service;
 
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.matchers.JUnitMatchers.*;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
@@ -11,7 +13,11 @@ import static org.junit.Assert.assertTrue;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 import org.junit.After;
@@ -28,6 +34,9 @@ import com.mongodb.client.MongoDatabase;
 import br.com.contmatic.assembly.EmpresaResourceAssembly;
 import br.com.contmatic.easyRandom.EasyRandomClass;
 import br.com.contmatic.empresa.Empresa;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.EmpresaQuery;
+import br.com.contmatic.telefone.Telefone;
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodStarter;
 import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
@@ -218,6 +227,111 @@ public class EmpresaServiceTest {
 		assertThat(empresaBuscada, is(empresas));
 	}
 	
+	@Test
+	public void deve_percorrer_empresas_do_banco_com_stream() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		List<Empresa> empresas = Arrays.asList(randomObject.empresaRandomizer(), randomObject.empresaRandomizer(),
+				randomObject.empresaRandomizer(), randomObject.empresaRandomizer());
+		repository.salvarTodos(empresas);
+		try (Stream<Empresa> stream = repository.selecionarStream(3)) {
+			assertThat(stream.collect(Collectors.toList()), is(empresas));
+		}
+	}
+
+	@Test
+	public void deve_paginar_empresas_pelo_id() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		repository.salvarTodos(Arrays.asList(randomObject.empresaRandomizer(), randomObject.empresaRandomizer(),
+				randomObject.empresaRandomizer(), randomObject.empresaRandomizer(), randomObject.empresaRandomizer()));
+		Pagina<Empresa> primeira = repository.selecionarPagina(null, 2);
+		Pagina<Empresa> segunda = repository.selecionarPagina(primeira.getProximaPagina(), 2);
+		Pagina<Empresa> terceira = repository.selecionarPagina(segunda.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(2));
+		assertThat(terceira.getItens().size(), is(1));
+		assertFalse(terceira.temProximaPagina());
+	}
+
+	@Test
+	public void deve_salvar_ou_alterar_empresa_incrementando_a_versao() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		Empresa empresa = randomObject.empresaRandomizer();
+		assertThat(repository.salvarOuAlterar(empresa), is(1L));
+		empresa.setSite("www.contmatic.com.br");
+		assertThat(repository.salvarOuAlterar(empresa, 1L), is(2L));
+		Versionado<Empresa> versionado = repository.selecionarVersionado(empresa.getCnpj());
+		assertThat(versionado.getVersao(), is(2L));
+		assertThat(versionado.getEntidade(), is(empresa));
+		assertNotNull(versionado.getAtualizadoEm());
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void deve_recusar_empresa_alterado_em_versao_antiga() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.salvar(empresa);
+		assertThat(repository.salvarOuAlterar(empresa, 0L), is(1L));
+		repository.salvarOuAlterar(empresa, 0L);
+	}
+
+	@Test
+	public void deve_alterar_somente_os_campos_modificados_do_empresa() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.salvar(empresa);
+		Versionado<Empresa> anterior = repository.selecionarVersionado(empresa.getCnpj());
+		empresa.setSite("www.contmatic.com.br");
+		Set<Telefone> telefones = new HashSet<Telefone>(empresa.getTelefone());
+		telefones.remove(telefones.iterator().next());
+		telefones.add(randomObject.telefoneRandomizerClass());
+		empresa.setTelefones(telefones);
+		assertThat(repository.alterar(anterior, empresa), is(1L));
+		assertThat(repository.selecionar(empresa.getCnpj()), is(empresa));
+		Versionado<Empresa> alterado = repository.selecionarVersionado(empresa.getCnpj());
+		assertThat(alterado.getVersao(), is(1L));
+		assertThat(repository.alterar(alterado, empresa), is(1L));
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void nao_deve_alterar_os_campos_do_empresa_lido_em_versao_antiga() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.salvar(empresa);
+		Versionado<Empresa> anterior = repository.selecionarVersionado(empresa.getCnpj());
+		repository.salvarOuAlterar(empresa);
+		empresa.setSite("www.contmatic.com.br");
+		repository.alterar(anterior, empresa);
+	}
+
+	@Test
+	public void deve_paginar_resumos_de_empresas_com_chave_e_nome() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		List<Empresa> empresas = new ArrayList<Empresa>();
+		for (int i = 0; i < 3; i++) {
+			empresas.add(randomObject.empresaRandomizer());
+		}
+		repository.salvarTodos(empresas);
+		Pagina<Resumo> primeira = repository.selecionarPaginaResumos(null, 2);
+		Pagina<Resumo> segunda = repository.selecionarPaginaResumos(primeira.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(1));
+		assertFalse(segunda.temProximaPagina());
+		assertThat(repository.selecionarResumos().size(), is(3));
+		Empresa empresa = empresas.get(0);
+		assertTrue(repository.selecionarResumos().contains(new Resumo(empresa.getCnpj(), empresa.getNome())));
+	}
+
+	@Test
+	public void deve_selecionar_e_deletar_empresa_pela_consulta() throws IOException {
+		EmpresaService repository = new EmpresaService(database);
+		Empresa empresa = randomObject.empresaRandomizer();
+		repository.salvar(empresa);
+		repository.salvar(randomObject.empresaRandomizer());
+		assertThat(repository.selecionar(EmpresaQuery.porCnpj(empresa.getCnpj())), is(Arrays.asList(empresa)));
+		assertThat(repository.deletar(EmpresaQuery.porCnpj(empresa.getCnpj())), is(1L));
+		assertThat(database.getCollection(EmpresaService.NAME_COLLECTION).countDocuments(), is(1L));
+	}
+
 	@After
 	public void tearDown() {
 		database.drop();
@@ -0,0 +1,134 @@
+package br.com.contmatic.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+
+import org.joda.time.LocalDate;
+import org.joda.time.YearMonth;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.endereco.Endereco;
+import br.com.contmatic.endereco.Estado;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class FolhaPagamentoServiceTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() throws IOException {
+		database = mongod.getDatabase("empresa");
+		database.createCollection(FuncionarioService.NAME_COLLECTION);
+		FuncionarioService service = new FuncionarioService(database);
+		service.salvar(funcionario("1000.00", "2019-01-10", "2019-12-05", Estado.SP, Estado.SP));
+		service.salvar(funcionario("2000.00", "2019-01-20", "2020-01-05", Estado.SP));
+		service.salvar(funcionario("3000.00", "2019-03-05", "2020-01-05", Estado.RJ));
+	}
+
+	@Test
+	public void deve_resumir_os_salarios_no_banco() {
+		ResumoSalarios resumo = new FolhaPagamentoService(database).resumoSalarios();
+		assertThat(resumo.getQuantidade(), is(3L));
+		assertThat(resumo.getTotal(), is(new BigDecimal("6000.00")));
+		assertThat(resumo.getMedia(), is(new BigDecimal("2000.00")));
+		assertThat(resumo.getMinimo(), is(new BigDecimal("1000.00")));
+		assertThat(resumo.getMaximo(), is(new BigDecimal("3000.00")));
+	}
+
+	@Test
+	public void deve_calcular_o_percentil_dos_salarios() {
+		FolhaPagamentoService service = new FolhaPagamentoService(database);
+		assertThat(service.percentilSalario(0), is(new BigDecimal("1000.00")));
+		assertThat(service.percentilSalario(50), is(new BigDecimal("2000.00")));
+		assertThat(service.percentilSalario(100), is(new BigDecimal("3000.00")));
+	}
+
+	@Test
+	public void nao_deve_calcular_percentil_sem_funcionarios() {
+		database.getCollection(FuncionarioService.NAME_COLLECTION).drop();
+		assertThat(new FolhaPagamentoService(database).percentilSalario(50), is(nullValue()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nao_deve_aceitar_percentil_maior_que_100() {
+		new FolhaPagamentoService(database).percentilSalario(101);
+	}
+
+	@Test
+	public void deve_contar_funcionarios_por_estado_uma_vez_por_funcionario() {
+		List<Agrupamento<Estado>> estados = new FolhaPagamentoService(database).quantidadePorEstado();
+		assertThat(estados.size(), is(2));
+		assertThat(estados.get(0).getChave(), is(Estado.SP));
+		assertThat(estados.get(0).getQuantidade(), is(2L));
+		assertThat(estados.get(1).getChave(), is(Estado.RJ));
+		assertThat(estados.get(1).getQuantidade(), is(1L));
+	}
+
+	@Test
+	public void deve_contar_contratacoes_por_mes() {
+		List<Agrupamento<YearMonth>> meses = new FolhaPagamentoService(database).contratacoesPorMes();
+		assertThat(meses.size(), is(2));
+		assertThat(meses.get(0).getChave(), is(new YearMonth(2019, 1)));
+		assertThat(meses.get(0).getQuantidade(), is(2L));
+		assertThat(meses.get(1).getChave(), is(new YearMonth(2019, 3)));
+		assertThat(meses.get(1).getQuantidade(), is(1L));
+	}
+
+	@Test
+	public void deve_contar_contratacoes_por_mes_no_intervalo() {
+		List<Agrupamento<YearMonth>> meses = new FolhaPagamentoService(database)
+				.contratacoesPorMes(new LocalDate(2019, 1, 15), new LocalDate(2019, 3, 1));
+		assertThat(meses.size(), is(1));
+		assertThat(meses.get(0).getQuantidade(), is(1L));
+	}
+
+	@Test
+	public void deve_listar_os_proximos_pagamentos() {
+		List<PagamentoPrevisto> pagamentos = new FolhaPagamentoService(database)
+				.proximosPagamentos(new LocalDate(2020, 1, 1), 5);
+		assertThat(pagamentos.size(), is(1));
+		assertThat(pagamentos.get(0).getData(), is(new LocalDate(2020, 1, 5)));
+		assertThat(pagamentos.get(0).getQuantidade(), is(2L));
+		assertThat(pagamentos.get(0).getTotal(), is(new BigDecimal("5000.00")));
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+	private static Funcionario funcionario(String salario, String dataContratacao, String dataSalario,
+			Estado... estados) {
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		funcionario.setSalario(new BigDecimal(salario));
+		funcionario.setDataContratacao(LocalDate.parse(dataContratacao));
+		funcionario.setDataSalario(LocalDate.parse(dataSalario));
+		HashSet<Endereco> enderecos = new HashSet<Endereco>();
+		for (Estado estado : estados) {
+			Endereco endereco = randomObject.enderecoRandomizerClass();
+			endereco.setEstado(estado);
+			enderecos.add(endereco);
+		}
+		funcionario.setEnderecos(enderecos);
+		return funcionario;
+	}
+
+}
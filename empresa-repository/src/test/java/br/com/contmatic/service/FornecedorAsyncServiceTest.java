@@ -0,0 +1,25 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.query.FornecedorQuery;
+
+public class FornecedorAsyncServiceTest extends AsyncServiceTest<Fornecedor, FornecedorQuery> {
+
+	@Override
+	protected AsyncService<Fornecedor, FornecedorQuery> criarServico(MongoDatabase database) {
+		return new FornecedorAsyncService(database);
+	}
+
+	@Override
+	protected Fornecedor novaEntidade() {
+		return randomObject.fornecedorRandomizer();
+	}
+
+	@Override
+	protected FornecedorQuery consultaPorChave(String chave) {
+		return FornecedorQuery.porCnpj(chave);
+	}
+
+}
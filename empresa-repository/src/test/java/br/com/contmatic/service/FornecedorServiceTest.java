@@ -3,6 +3,8 @@ package br.com.contmatic.service;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -11,7 +13,11 @@ import static org.junit.matchers.JUnitMatchers.containsString;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 import org.junit.After;
@@ -28,6 +34,9 @@ import com.mongodb.client.MongoDatabase;
 import br.com.contmatic.assembly.FornecedorResourceAssembly;
 import br.com.contmatic.easyRandom.EasyRandomClass;
 import br.com.contmatic.empresa.Fornecedor;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.FornecedorQuery;
+import br.com.contmatic.telefone.Telefone;
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodStarter;
 import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
@@ -217,6 +226,111 @@ public class FornecedorServiceTest {
 		assertThat(FornecedorBuscada, is(Fornecedors));
 	}
 	
+	@Test
+	public void deve_percorrer_fornecedores_do_banco_com_stream() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		List<Fornecedor> fornecedores = Arrays.asList(randomObject.fornecedorRandomizer(), randomObject.fornecedorRandomizer(),
+				randomObject.fornecedorRandomizer(), randomObject.fornecedorRandomizer());
+		repository.salvarTodos(fornecedores);
+		try (Stream<Fornecedor> stream = repository.selecionarStream(3)) {
+			assertThat(stream.collect(Collectors.toList()), is(fornecedores));
+		}
+	}
+
+	@Test
+	public void deve_paginar_fornecedores_pelo_id() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		repository.salvarTodos(Arrays.asList(randomObject.fornecedorRandomizer(), randomObject.fornecedorRandomizer(),
+				randomObject.fornecedorRandomizer(), randomObject.fornecedorRandomizer(), randomObject.fornecedorRandomizer()));
+		Pagina<Fornecedor> primeira = repository.selecionarPagina(null, 2);
+		Pagina<Fornecedor> segunda = repository.selecionarPagina(primeira.getProximaPagina(), 2);
+		Pagina<Fornecedor> terceira = repository.selecionarPagina(segunda.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(2));
+		assertThat(terceira.getItens().size(), is(1));
+		assertFalse(terceira.temProximaPagina());
+	}
+
+	@Test
+	public void deve_salvar_ou_alterar_fornecedor_incrementando_a_versao() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		assertThat(repository.salvarOuAlterar(fornecedor), is(1L));
+		fornecedor.setProduto("Notebook");
+		assertThat(repository.salvarOuAlterar(fornecedor, 1L), is(2L));
+		Versionado<Fornecedor> versionado = repository.selecionarVersionado(fornecedor.getCnpj());
+		assertThat(versionado.getVersao(), is(2L));
+		assertThat(versionado.getEntidade(), is(fornecedor));
+		assertNotNull(versionado.getAtualizadoEm());
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void deve_recusar_fornecedor_alterado_em_versao_antiga() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.salvar(fornecedor);
+		assertThat(repository.salvarOuAlterar(fornecedor, 0L), is(1L));
+		repository.salvarOuAlterar(fornecedor, 0L);
+	}
+
+	@Test
+	public void deve_alterar_somente_os_campos_modificados_do_fornecedor() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.salvar(fornecedor);
+		Versionado<Fornecedor> anterior = repository.selecionarVersionado(fornecedor.getCnpj());
+		fornecedor.setProduto("Papel");
+		Set<Telefone> telefones = new HashSet<Telefone>(fornecedor.getTelefone());
+		telefones.remove(telefones.iterator().next());
+		telefones.add(randomObject.telefoneRandomizerClass());
+		fornecedor.setTelefones(telefones);
+		assertThat(repository.alterar(anterior, fornecedor), is(1L));
+		assertThat(repository.selecionar(fornecedor.getCnpj()), is(fornecedor));
+		Versionado<Fornecedor> alterado = repository.selecionarVersionado(fornecedor.getCnpj());
+		assertThat(alterado.getVersao(), is(1L));
+		assertThat(repository.alterar(alterado, fornecedor), is(1L));
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void nao_deve_alterar_os_campos_do_fornecedor_lido_em_versao_antiga() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.salvar(fornecedor);
+		Versionado<Fornecedor> anterior = repository.selecionarVersionado(fornecedor.getCnpj());
+		repository.salvarOuAlterar(fornecedor);
+		fornecedor.setProduto("Papel");
+		repository.alterar(anterior, fornecedor);
+	}
+
+	@Test
+	public void deve_paginar_resumos_de_fornecedores_com_chave_e_nome() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		List<Fornecedor> fornecedores = new ArrayList<Fornecedor>();
+		for (int i = 0; i < 3; i++) {
+			fornecedores.add(randomObject.fornecedorRandomizer());
+		}
+		repository.salvarTodos(fornecedores);
+		Pagina<Resumo> primeira = repository.selecionarPaginaResumos(null, 2);
+		Pagina<Resumo> segunda = repository.selecionarPaginaResumos(primeira.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(1));
+		assertFalse(segunda.temProximaPagina());
+		assertThat(repository.selecionarResumos().size(), is(3));
+		Fornecedor fornecedor = fornecedores.get(0);
+		assertTrue(repository.selecionarResumos().contains(new Resumo(fornecedor.getCnpj(), fornecedor.getNome())));
+	}
+
+	@Test
+	public void deve_selecionar_e_deletar_fornecedor_pela_consulta() throws IOException {
+		FornecedorService repository = new FornecedorService(database);
+		Fornecedor fornecedor = randomObject.fornecedorRandomizer();
+		repository.salvar(fornecedor);
+		repository.salvar(randomObject.fornecedorRandomizer());
+		assertThat(repository.selecionar(FornecedorQuery.porCnpj(fornecedor.getCnpj())), is(Arrays.asList(fornecedor)));
+		assertThat(repository.deletar(FornecedorQuery.porCnpj(fornecedor.getCnpj())), is(1L));
+		assertThat(database.getCollection(FornecedorService.NAME_COLLECTION).countDocuments(), is(1L));
+	}
+
 	@After
 	public void tearDown() {
 		database.drop();
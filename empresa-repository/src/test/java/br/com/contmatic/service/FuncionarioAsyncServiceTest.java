@@ -0,0 +1,25 @@
+package br.com.contmatic.service;
+
+import com.mongodb.reactivestreams.client.MongoDatabase;
+
+import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.query.FuncionarioQuery;
+
+public class FuncionarioAsyncServiceTest extends AsyncServiceTest<Funcionario, FuncionarioQuery> {
+
+	@Override
+	protected AsyncService<Funcionario, FuncionarioQuery> criarServico(MongoDatabase database) {
+		return new FuncionarioAsyncService(database);
+	}
+
+	@Override
+	protected Funcionario novaEntidade() {
+		return randomObject.funcionarioRandomizer();
+	}
+
+	@Override
+	protected FuncionarioQuery consultaPorChave(String chave) {
+		return FuncionarioQuery.porCpf(chave);
+	}
+
+}
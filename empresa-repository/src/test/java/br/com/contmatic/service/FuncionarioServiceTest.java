@@ -3,6 +3,8 @@ package br.com.contmatic.service;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
@@ -11,7 +13,11 @@ import static org.junit.matchers.JUnitMatchers.containsString;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import org.bson.Document;
 import org.junit.After;
@@ -28,6 +34,9 @@ import com.mongodb.client.MongoDatabase;
 import br.com.contmatic.assembly.FuncionarioResourceAssembly;
 import br.com.contmatic.easyRandom.EasyRandomClass;
 import br.com.contmatic.empresa.Funcionario;
+import br.com.contmatic.empresa.Resumo;
+import br.com.contmatic.query.FuncionarioQuery;
+import br.com.contmatic.telefone.Telefone;
 import de.flapdoodle.embed.mongo.MongodExecutable;
 import de.flapdoodle.embed.mongo.MongodStarter;
 import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
@@ -217,6 +226,111 @@ public class FuncionarioServiceTest {
 		assertThat(FuncionarioBuscada, is(Funcionarios));
 	}
 	
+	@Test
+	public void deve_percorrer_funcionarios_do_banco_com_stream() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		List<Funcionario> funcionarios = Arrays.asList(randomObject.funcionarioRandomizer(), randomObject.funcionarioRandomizer(),
+				randomObject.funcionarioRandomizer(), randomObject.funcionarioRandomizer());
+		repository.salvarTodos(funcionarios);
+		try (Stream<Funcionario> stream = repository.selecionarStream(3)) {
+			assertThat(stream.collect(Collectors.toList()), is(funcionarios));
+		}
+	}
+
+	@Test
+	public void deve_paginar_funcionarios_pelo_id() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		repository.salvarTodos(Arrays.asList(randomObject.funcionarioRandomizer(), randomObject.funcionarioRandomizer(),
+				randomObject.funcionarioRandomizer(), randomObject.funcionarioRandomizer(), randomObject.funcionarioRandomizer()));
+		Pagina<Funcionario> primeira = repository.selecionarPagina(null, 2);
+		Pagina<Funcionario> segunda = repository.selecionarPagina(primeira.getProximaPagina(), 2);
+		Pagina<Funcionario> terceira = repository.selecionarPagina(segunda.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(2));
+		assertThat(terceira.getItens().size(), is(1));
+		assertFalse(terceira.temProximaPagina());
+	}
+
+	@Test
+	public void deve_salvar_ou_alterar_funcionario_incrementando_a_versao() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		assertThat(repository.salvarOuAlterar(funcionario), is(1L));
+		funcionario.setNome("Gabriel Santos");
+		assertThat(repository.salvarOuAlterar(funcionario, 1L), is(2L));
+		Versionado<Funcionario> versionado = repository.selecionarVersionado(funcionario.getCpf());
+		assertThat(versionado.getVersao(), is(2L));
+		assertThat(versionado.getEntidade(), is(funcionario));
+		assertNotNull(versionado.getAtualizadoEm());
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void deve_recusar_funcionario_alterado_em_versao_antiga() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.salvar(funcionario);
+		assertThat(repository.salvarOuAlterar(funcionario, 0L), is(1L));
+		repository.salvarOuAlterar(funcionario, 0L);
+	}
+
+	@Test
+	public void deve_alterar_somente_os_campos_modificados_do_funcionario() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.salvar(funcionario);
+		Versionado<Funcionario> anterior = repository.selecionarVersionado(funcionario.getCpf());
+		funcionario.setNome("Gabriel Santos");
+		Set<Telefone> telefones = new HashSet<Telefone>(funcionario.getTelefone());
+		telefones.remove(telefones.iterator().next());
+		telefones.add(randomObject.telefoneRandomizerClass());
+		funcionario.setTelefones(telefones);
+		assertThat(repository.alterar(anterior, funcionario), is(1L));
+		assertThat(repository.selecionar(funcionario.getCpf()), is(funcionario));
+		Versionado<Funcionario> alterado = repository.selecionarVersionado(funcionario.getCpf());
+		assertThat(alterado.getVersao(), is(1L));
+		assertThat(repository.alterar(alterado, funcionario), is(1L));
+	}
+
+	@Test(expected = ConflitoVersaoException.class)
+	public void nao_deve_alterar_os_campos_do_funcionario_lido_em_versao_antiga() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.salvar(funcionario);
+		Versionado<Funcionario> anterior = repository.selecionarVersionado(funcionario.getCpf());
+		repository.salvarOuAlterar(funcionario);
+		funcionario.setNome("Gabriel Santos");
+		repository.alterar(anterior, funcionario);
+	}
+
+	@Test
+	public void deve_paginar_resumos_de_funcionarios_com_chave_e_nome() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		List<Funcionario> funcionarios = new ArrayList<Funcionario>();
+		for (int i = 0; i < 3; i++) {
+			funcionarios.add(randomObject.funcionarioRandomizer());
+		}
+		repository.salvarTodos(funcionarios);
+		Pagina<Resumo> primeira = repository.selecionarPaginaResumos(null, 2);
+		Pagina<Resumo> segunda = repository.selecionarPaginaResumos(primeira.getProximaPagina(), 2);
+		assertThat(primeira.getItens().size(), is(2));
+		assertThat(segunda.getItens().size(), is(1));
+		assertFalse(segunda.temProximaPagina());
+		assertThat(repository.selecionarResumos().size(), is(3));
+		Funcionario funcionario = funcionarios.get(0);
+		assertTrue(repository.selecionarResumos().contains(new Resumo(funcionario.getCpf(), funcionario.getNome())));
+	}
+
+	@Test
+	public void deve_selecionar_e_deletar_funcionario_pela_consulta() throws IOException {
+		FuncionarioService repository = new FuncionarioService(database);
+		Funcionario funcionario = randomObject.funcionarioRandomizer();
+		repository.salvar(funcionario);
+		repository.salvar(randomObject.funcionarioRandomizer());
+		assertThat(repository.selecionar(FuncionarioQuery.porCpf(funcionario.getCpf())), is(Arrays.asList(funcionario)));
+		assertThat(repository.deletar(FuncionarioQuery.porCpf(funcionario.getCpf())), is(1L));
+		assertThat(database.getCollection(FuncionarioService.NAME_COLLECTION).countDocuments(), is(1L));
+	}
+
 	@After
 	public void tearDown() {
 		database.drop();
@@ -0,0 +1,159 @@
+package br.com.contmatic.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+
+import com.mongodb.MongoClient;
+import com.mongodb.MongoClientOptions;
+import com.mongodb.ServerAddress;
+import com.mongodb.client.MongoDatabase;
+
+import br.com.contmatic.easyRandom.EasyRandomClass;
+import br.com.contmatic.empresa.Cliente;
+import br.com.contmatic.util.MongodEmbutido;
+
+public class GravacaoBoletosTest {
+
+	@ClassRule
+	public static final MongodEmbutido mongod = new MongodEmbutido();
+
+	private MongoDatabase database;
+
+	private static EasyRandomClass randomObject = EasyRandomClass.InstanciaEasyRandomClass();
+
+	@Before
+	public void setUp() {
+		database = mongod.getDatabase("empresa");
+		database.createCollection(ClienteService.NAME_COLLECTION);
+	}
+
+	@Test
+	public void deve_gravar_so_o_ultimo_boleto_do_cpf_ao_fechar() throws IOException, InterruptedException {
+		ClienteService service = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		service.salvar(cliente);
+		GravacaoBoletos gravacao = new GravacaoBoletos(database, 10, 10, 1, TimeUnit.HOURS);
+		gravacao.alterarBoleto(cliente.getCpf(), new BigDecimal("10.00"));
+		gravacao.alterarBoleto(cliente.getCpf(), new BigDecimal("20.00"));
+		gravacao.alterarBoleto(cliente.getCpf(), new BigDecimal("30.00"));
+		gravacao.close();
+		assertThat(gravacao.getCoalescidos(), is(2L));
+		assertThat(gravacao.getGravados(), is(1L));
+		assertThat(service.selecionar(cliente.getCpf()).getBoleto(), is(new BigDecimal("30.00")));
+	}
+
+	@Test
+	public void deve_enviar_quando_o_lote_enche() throws IOException, InterruptedException {
+		ClienteService service = new ClienteService(database);
+		Cliente primeiro = randomObject.clienteRandomizer();
+		Cliente segundo = randomObject.clienteRandomizer();
+		service.salvar(primeiro);
+		service.salvar(segundo);
+		try (GravacaoBoletos gravacao = new GravacaoBoletos(database, 4, 2, 1, TimeUnit.HOURS)) {
+			gravacao.alterarBoleto(primeiro.getCpf(), new BigDecimal("15.50"));
+			gravacao.alterarBoleto(segundo.getCpf(), new BigDecimal("16.50"));
+			long limite = System.currentTimeMillis() + 5000;
+			while (gravacao.getGravados() < 2 && System.currentTimeMillis() < limite) {
+				Thread.sleep(10);
+			}
+			assertThat(gravacao.getGravados(), is(2L));
+		}
+		assertThat(service.selecionar(segundo.getCpf()).getBoleto(), is(new BigDecimal("16.50")));
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void nao_deve_aceitar_boleto_depois_de_fechar() throws InterruptedException {
+		GravacaoBoletos gravacao = new GravacaoBoletos(database);
+		gravacao.close();
+		gravacao.alterarBoleto("12345678909", BigDecimal.TEN);
+	}
+
+	@Test
+	public void deve_contar_cpf_inexistente_como_nao_encontrado() throws IOException, InterruptedException {
+		ClienteService service = new ClienteService(database);
+		Cliente cliente = randomObject.clienteRandomizer();
+		service.salvar(cliente);
+		try (GravacaoBoletos gravacao = new GravacaoBoletos(database, 10, 10, 1, TimeUnit.HOURS)) {
+			gravacao.alterarBoleto(cliente.getCpf(), BigDecimal.ONE);
+			gravacao.alterarBoleto("00000000000", BigDecimal.ONE);
+			gravacao.descarregar();
+			assertThat(gravacao.getGravados(), is(1L));
+			assertThat(gravacao.getNaoEncontrados(), is(1L));
+		}
+	}
+
+	@Test
+	public void deve_recusar_por_tempo_quando_o_buffer_esta_cheio() throws InterruptedException {
+		try (MongoClient inacessivel = inacessivel(1000);
+				GravacaoBoletos gravacao = new GravacaoBoletos(inacessivel.getDatabase("empresa"), 2, 2, 1,
+						TimeUnit.HOURS)) {
+			gravacao.alterarBoleto("11111111111", BigDecimal.ONE);
+			gravacao.alterarBoleto("22222222222", BigDecimal.ONE);
+			assertFalse(gravacao.alterarBoleto("33333333333", BigDecimal.ONE, 100, TimeUnit.MILLISECONDS));
+			assertThat(gravacao.getPendentes(), is(2));
+		}
+	}
+
+	@Test
+	public void deve_soltar_quem_espera_espaco_ao_fechar() throws InterruptedException {
+		try (MongoClient inacessivel = inacessivel(1000)) {
+			GravacaoBoletos gravacao = new GravacaoBoletos(inacessivel.getDatabase("empresa"), 1, 1, 1,
+					TimeUnit.HOURS);
+			gravacao.alterarBoleto("11111111111", BigDecimal.ONE);
+			AtomicReference<Exception> erro = new AtomicReference<Exception>();
+			Thread produtor = new Thread(() -> {
+				try {
+					gravacao.alterarBoleto("22222222222", BigDecimal.ONE);
+				} catch (Exception e) {
+					erro.set(e);
+				}
+			});
+			produtor.start();
+			Thread.sleep(100);
+			assertTrue(produtor.isAlive());
+			gravacao.close();
+			produtor.join(5000);
+			assertTrue(erro.get() instanceof IllegalStateException);
+		}
+	}
+
+	@Test
+	public void deve_esperar_cada_vez_mais_entre_envios_que_falham() throws InterruptedException {
+		try (MongoClient inacessivel = inacessivel(20);
+				GravacaoBoletos gravacao = new GravacaoBoletos(inacessivel.getDatabase("empresa"), 10, 1, 20,
+						TimeUnit.MILLISECONDS)) {
+			gravacao.alterarBoleto("11111111111", BigDecimal.ONE);
+			Thread.sleep(1000);
+			assertThat(gravacao.getEnviosComFalha() > 1, is(true));
+			assertThat(gravacao.getEnviosComFalha() < 10, is(true));
+			assertThat(gravacao.getPendentes(), is(1));
+		}
+	}
+
+	@After
+	public void tearDown() {
+		database.drop();
+	}
+
+	/**
+	 * Um cliente para uma porta sem servidor, em que cada envio fica preso na
+	 * seleção do servidor até o tempo informado e falha.
+	 */
+	private static MongoClient inacessivel(int selecaoMillis) {
+		return new MongoClient(new ServerAddress("localhost", 1),
+				MongoClientOptions.builder().serverSelectionTimeout(selecaoMillis).build());
+	}
+
+}
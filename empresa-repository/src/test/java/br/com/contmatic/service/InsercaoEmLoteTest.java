@@ -0,0 +1,110 @@
+package br.com.contmatic.service;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+
+import org.bson.BsonDocument;
+import org.bson.Document;
+import org.junit.Test;
+
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+import com.mongodb.bulk.BulkWriteUpsert;
+import com.mongodb.client.MongoCollection;
+
+/**
+ * Testa a divisão em lotes e a contagem dos erros do salvarTodos de todos os
+ * serviços, com uma coleção que devolve os erros programados a cada
+ * insertMany.
+ */
+public class InsercaoEmLoteTest {
+
+	private final List<Integer> lotesEnviados = new ArrayList<Integer>();
+
+	private final Queue<RuntimeException> erros = new LinkedList<RuntimeException>();
+
+	@Test
+	public void deve_dividir_as_entidades_em_lotes() {
+		List<ResultadoLote> resultados = InsercaoEmLote.inserir(colecao(), documentos(5), 2);
+		assertThat(lotesEnviados, is(asList(2, 2, 1)));
+		assertThat(resultados.size(), is(3));
+		assertThat(resultados.get(2).getNumeroLote(), is(3));
+		assertThat(resultados.get(0).getInseridos() + resultados.get(1).getInseridos()
+				+ resultados.get(2).getInseridos(), is(5));
+	}
+
+	@Test
+	public void deve_contar_duplicados_e_falhas_do_lote() {
+		erros.add(erroDeEscrita(1, 11000, 121));
+		ResultadoLote resultado = InsercaoEmLote.inserir(colecao(), documentos(4), 4).get(0);
+		assertThat(resultado.getInseridos(), is(1));
+		assertThat(resultado.getDuplicados(), is(1));
+		assertThat(resultado.getFalhas(), is(2));
+	}
+
+	@Test
+	public void deve_lancar_os_erros_que_nao_sao_de_escrita() {
+		erros.add(null);
+		erros.add(new MongoTimeoutException("Sem servidor disponível"));
+		try {
+			InsercaoEmLote.inserir(colecao(), documentos(5), 2);
+			fail("Deve lançar o erro de conexão");
+		} catch (MongoTimeoutException e) {
+			assertThat(lotesEnviados, is(asList(2, 2)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void nao_deve_aceitar_lote_vazio() {
+		InsercaoEmLote.inserir(colecao(), documentos(1), 0);
+	}
+
+	private static List<Document> documentos(int quantidade) {
+		List<Document> documentos = new ArrayList<Document>();
+		for (int i = 0; i < quantidade; i++) {
+			documentos.add(new Document("_id", i));
+		}
+		return documentos;
+	}
+
+	private static MongoBulkWriteException erroDeEscrita(int inseridos, int... codigos) {
+		List<BulkWriteError> erros = new ArrayList<BulkWriteError>();
+		for (int codigo : codigos) {
+			erros.add(new BulkWriteError(codigo, "erro", new BsonDocument(), erros.size()));
+		}
+		return new MongoBulkWriteException(BulkWriteResult.acknowledged(inseridos, 0, 0, 0,
+				Collections.<BulkWriteUpsert>emptyList()), erros, null, new ServerAddress());
+	}
+
+	/**
+	 * Só o insertMany é usado pela InsercaoEmLote.
+	 */
+	@SuppressWarnings("unchecked")
+	private MongoCollection<Document> colecao() {
+		return (MongoCollection<Document>) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { MongoCollection.class }, (proxy, metodo, argumentos) -> {
+					if (!metodo.getName().equals("insertMany")) {
+						throw new UnsupportedOperationException(metodo.getName());
+					}
+					lotesEnviados.add(((List<?>) argumentos[0]).size());
+					RuntimeException erro = erros.poll();
+					if (erro != null) {
+						throw erro;
+					}
+					return null;
+				});
+	}
+
+}
@@ -0,0 +1,117 @@
+package br.com.contmatic.service;
+
+import static java.util.Arrays.asList;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.bson.BsonArray;
+import org.bson.BsonDocument;
+import org.bson.BsonInt32;
+import org.bson.BsonString;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.junit.Test;
+
+import com.mongodb.ServerAddress;
+import com.mongodb.connection.ClusterId;
+import com.mongodb.connection.ConnectionDescription;
+import com.mongodb.connection.ServerId;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+
+public class RegistroOperacoesLentasTest {
+
+	private static final ConnectionDescription CONEXAO = new ConnectionDescription(
+			new ServerId(new ClusterId(), new ServerAddress()));
+
+	private RegistroOperacoesLentas registro = new RegistroOperacoesLentas(10, TimeUnit.MILLISECONDS, 2);
+
+	@Test
+	public void deve_guardar_a_forma_do_filtro_sem_os_valores() {
+		executarFind(TimeUnit.MILLISECONDS.toNanos(50));
+		OperacaoLenta operacao = registro.getOperacoes().get(0);
+		assertThat(operacao.getColecao(), is("empresa"));
+		assertThat(operacao.getOperacao(), is("selecionarConsulta"));
+		assertThat(operacao.getComando(), is("find"));
+		assertThat(operacao.getFiltro(),
+				equalTo("{\"nome\": {\"$regex\": \"?\"}, \"enderecos.estado\": {\"$in\": [\"?\"]}}"));
+		assertThat(operacao.getProjecao(), equalTo("{\"nome\": \"?\"}"));
+		assertThat(operacao.getDocumentos(), is(2L));
+		assertTrue(operacao.getBytes() > 0);
+		assertThat(operacao.getPlano(), is(nullValue()));
+	}
+
+	@Test
+	public void deve_tirar_do_plano_os_valores_da_consulta() {
+		BsonDocument plano = BsonDocument.parse("{queryPlanner: {namespace: 'empresa.empresa',"
+				+ " parsedQuery: {cnpj: {$eq: '12345678000199'}}, winningPlan: {stage: 'FETCH',"
+				+ " filter: {nome: {$eq: 'Contmatic'}}, inputStage: {stage: 'IXSCAN', indexName: 'cnpj_1',"
+				+ " indexBounds: {cnpj: ['[\"12345678000199\", \"12345678000199\"]']}}}, rejectedPlans: []}}");
+		BsonDocument semValores = RegistroOperacoesLentas.semValores(plano).asDocument().getDocument("queryPlanner");
+		assertThat(semValores.getDocument("parsedQuery").toJson(), equalTo("{\"cnpj\": {\"$eq\": \"?\"}}"));
+		BsonDocument fetch = semValores.getDocument("winningPlan");
+		assertThat(fetch.getString("stage").getValue(), is("FETCH"));
+		assertThat(fetch.getDocument("filter").toJson(), equalTo("{\"nome\": {\"$eq\": \"?\"}}"));
+		BsonDocument ixscan = fetch.getDocument("inputStage");
+		assertThat(ixscan.getString("indexName").getValue(), is("cnpj_1"));
+		assertThat(ixscan.getDocument("indexBounds").toJson(), equalTo("{\"cnpj\": [\"?\"]}"));
+		assertThat(semValores.getString("namespace").getValue(), is("empresa.empresa"));
+	}
+
+	@Test
+	public void nao_deve_guardar_operacao_abaixo_do_limite() {
+		executarFind(TimeUnit.MILLISECONDS.toNanos(5));
+		assertTrue(registro.getOperacoes().isEmpty());
+	}
+
+	@Test
+	public void deve_descartar_as_operacoes_mais_antigas() {
+		for (int i = 1; i <= 3; i++) {
+			registro.iniciar();
+			registro.concluir("cliente", "operacao" + i, TimeUnit.SECONDS.toNanos(i));
+		}
+		List<OperacaoLenta> operacoes = registro.despejar();
+		assertThat(operacoes.size(), is(2));
+		assertThat(operacoes.get(0).getOperacao(), is("operacao2"));
+		assertThat(operacoes.get(1).getOperacao(), is("operacao3"));
+		assertTrue(registro.getOperacoes().isEmpty());
+	}
+
+	@Test
+	public void deve_avaliar_so_a_operacao_de_fora() {
+		assertTrue(registro.iniciar());
+		assertFalse(registro.iniciar());
+		registro.concluir("cliente", "selecionarPagina", TimeUnit.SECONDS.toNanos(1));
+		assertThat(registro.getOperacoes().size(), is(1));
+	}
+
+	@Test
+	public void nao_deve_capturar_desligado() {
+		registro.setAtivo(false);
+		assertFalse(registro.iniciar());
+	}
+
+	private void executarFind(long duracaoNanos) {
+		BsonDocument filtro = new BsonDocument("nome", new BsonDocument("$regex", new BsonString("^Cont")))
+				.append("enderecos.estado", new BsonDocument("$in",
+						new BsonArray(asList(new BsonString("SP"), new BsonString("RJ")))));
+		BsonDocument find = new BsonDocument("find", new BsonString("empresa")).append("filter", filtro)
+				.append("projection", new BsonDocument("nome", new BsonInt32(1)));
+		BsonArray lote = new BsonArray(asList(new BsonDocument(), new BsonDocument()));
+		BsonDocument resposta = new BsonDocument("cursor", new BsonDocument("firstBatch", lote))
+				.append("ok", new BsonInt32(1));
+		registro.iniciar();
+		registro.commandStarted(new CommandStartedEvent(1, CONEXAO, "empresas", "find", find));
+		registro.commandSucceeded(new CommandSucceededEvent(1, CONEXAO, "find",
+				new RawBsonDocument(resposta, new BsonDocumentCodec()), duracaoNanos));
+		registro.concluir("empresa", "selecionarConsulta", duracaoNanos);
+	}
+
+}
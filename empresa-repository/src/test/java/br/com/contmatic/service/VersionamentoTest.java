@@ -0,0 +1,46 @@
+package br.com.contmatic.service;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import org.bson.Document;
+import org.junit.Test;
+
+public class VersionamentoTest {
+
+	private static final String CNPJ = "12345678000195";
+
+	private final Document empresa = new Document("_id", CNPJ).append("cnpj", CNPJ).append("nome", "Contmatic");
+
+	@Test
+	public void deve_gravar_o_campo_chave_so_na_insercao() {
+		Document alteracao = Versionamento.alteracao(empresa, "cnpj");
+		assertThat(alteracao.get("$set", Document.class), is(new Document("nome", "Contmatic")));
+		assertThat(alteracao.get("$setOnInsert", Document.class), is(new Document("cnpj", CNPJ)));
+		assertThat(alteracao.get("$inc", Document.class), is(new Document(Versionamento.VERSAO, 1L)));
+	}
+
+	@Test
+	public void deve_gravar_o_campo_chave_so_na_insercao_com_versao() {
+		Document alteracao = Versionamento.alteracao(empresa, "cnpj", 2L);
+		assertThat(alteracao.get("$set", Document.class),
+				is(new Document("nome", "Contmatic").append(Versionamento.VERSAO, 3L)));
+		assertThat(alteracao.get("$setOnInsert", Document.class), is(new Document("cnpj", CNPJ)));
+	}
+
+	@Test
+	public void nao_deve_alterar_o_documento_recebido() {
+		Versionamento.alteracao(empresa, "cnpj");
+		assertThat(empresa.getString("cnpj"), is(CNPJ));
+		assertThat(empresa.getString("_id"), is(CNPJ));
+	}
+
+	@Test
+	public void deve_alterar_so_os_campos_informados_sem_campo_chave() {
+		Document alteracao = Versionamento.alteracao(new Document("nome", "Contmatic"));
+		assertThat(alteracao.get("$set", Document.class), is(new Document("nome", "Contmatic")));
+		assertThat(alteracao.get("$setOnInsert"), is(nullValue()));
+	}
+
+}
@@ -0,0 +1,80 @@
+package br.com.contmatic.util;
+
+import java.io.IOException;
+
+import org.junit.rules.ExternalResource;
+
+import com.mongodb.MongoClient;
+import com.mongodb.client.MongoDatabase;
+import com.mongodb.reactivestreams.client.MongoClients;
+
+import de.flapdoodle.embed.mongo.MongodExecutable;
+import de.flapdoodle.embed.mongo.MongodStarter;
+import de.flapdoodle.embed.mongo.config.MongodConfigBuilder;
+import de.flapdoodle.embed.mongo.config.Net;
+import de.flapdoodle.embed.mongo.distribution.Version;
+import de.flapdoodle.embed.process.runtime.Network;
+
+/**
+ * Sobe um mongod embutido para a classe de teste, usado como
+ * {@code @ClassRule}. Se o mongod não subir a classe falha logo, sem rodar os
+ * testes.
+ */
+public class MongodEmbutido extends ExternalResource {
+
+	private static final MongodStarter starter = MongodStarter.getDefaultInstance();
+
+	private static final String HOST = "localhost";
+
+	private static final int PORTA = 12345;
+
+	private MongodExecutable mongodExe;
+
+	private MongoClient mongo;
+
+	private com.mongodb.reactivestreams.client.MongoClient mongoAssincrono;
+
+	@Override
+	protected void before() throws IOException {
+		try {
+			mongodExe = starter.prepare(new MongodConfigBuilder().version(Version.Main.V3_4)
+					.net(new Net(HOST, PORTA, Network.localhostIsIPv6())).build());
+			mongodExe.start();
+			mongo = new MongoClient(HOST, PORTA);
+		} catch (IOException | RuntimeException e) {
+			after();
+			throw e;
+		}
+	}
+
+	@Override
+	protected void after() {
+		if (mongoAssincrono != null) {
+			mongoAssincrono.close();
+			mongoAssincrono = null;
+		}
+		if (mongo != null) {
+			mongo.close();
+			mongo = null;
+		}
+		if (mongodExe != null) {
+			mongodExe.stop();
+			mongodExe = null;
+		}
+	}
+
+	public MongoDatabase getDatabase(String nome) {
+		return mongo.getDatabase(nome);
+	}
+
+	/**
+	 * O cliente reativo só é aberto na primeira chamada.
+	 */
+	public com.mongodb.reactivestreams.client.MongoDatabase getDatabaseAssincrono(String nome) {
+		if (mongoAssincrono == null) {
+			mongoAssincrono = MongoClients.create("mongodb://" + HOST + ":" + PORTA);
+		}
+		return mongoAssincrono.getDatabase(nome);
+	}
+
+}
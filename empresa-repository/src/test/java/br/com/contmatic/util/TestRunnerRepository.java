@@ -10,10 +10,37 @@ import br.com.contmatic.assembly.EnderecoResourceAssemblyTest;
 import br.com.contmatic.assembly.FornecedorResourceAssemblyTest;
 import br.com.contmatic.assembly.FuncionarioResourceAssemblyTest;
 import br.com.contmatic.assembly.TelefoneResourceAssemblyTest;
+import br.com.contmatic.codec.CodecsTest;
+import br.com.contmatic.exportacao.CompressaoTest;
+import br.com.contmatic.exportacao.ExportacaoServiceTest;
+import br.com.contmatic.exportacao.PontoDeControleTest;
+import br.com.contmatic.importacao.ConversaoTest;
+import br.com.contmatic.importacao.ImportacaoServiceTest;
+import br.com.contmatic.metricas.MetricasTest;
+import br.com.contmatic.mudanca.MudancaTest;
+import br.com.contmatic.mongoDB.ConexaoTest;
+import br.com.contmatic.mongoDB.MongoConfTest;
+import br.com.contmatic.mongoDB.MongoDbConnectionTest;
+import br.com.contmatic.mongoDB.RegistroIndicesTest;
+import br.com.contmatic.query.QueryTest;
+import br.com.contmatic.repository.CachedRepositoryTest;
+import br.com.contmatic.repository.ClienteCachedRepositoryTest;
+import br.com.contmatic.repository.EmpresaCachedRepositoryTest;
+import br.com.contmatic.repository.FornecedorCachedRepositoryTest;
+import br.com.contmatic.repository.FuncionarioCachedRepositoryTest;
+import br.com.contmatic.service.ClienteAsyncServiceTest;
 import br.com.contmatic.service.ClienteServiceTest;
+import br.com.contmatic.service.EmpresaAsyncServiceTest;
 import br.com.contmatic.service.EmpresaServiceTest;
+import br.com.contmatic.service.FolhaPagamentoServiceTest;
+import br.com.contmatic.service.FornecedorAsyncServiceTest;
 import br.com.contmatic.service.FornecedorServiceTest;
+import br.com.contmatic.service.FuncionarioAsyncServiceTest;
 import br.com.contmatic.service.FuncionarioServiceTest;
+import br.com.contmatic.service.GravacaoBoletosTest;
+import br.com.contmatic.service.InsercaoEmLoteTest;
+import br.com.contmatic.service.RegistroOperacoesLentasTest;
+import br.com.contmatic.service.VersionamentoTest;
 
 /**
  * The Class TestRunner.
@@ -21,7 +48,14 @@ import br.com.contmatic.service.FuncionarioServiceTest;
 @RunWith(Suite.class)
 @SuiteClasses({ ClienteResourceAssemblyTest.class, EmpresaResourceAssemblyTest.class, FornecedorResourceAssemblyTest.class, 
 	FuncionarioResourceAssemblyTest.class, EnderecoResourceAssemblyTest.class, TelefoneResourceAssemblyTest.class, 
-	ClienteServiceTest.class, EmpresaServiceTest.class, FornecedorServiceTest.class, FuncionarioServiceTest.class })
+	ClienteServiceTest.class, EmpresaServiceTest.class, FornecedorServiceTest.class, FuncionarioServiceTest.class,
+	ClienteAsyncServiceTest.class, EmpresaAsyncServiceTest.class, FornecedorAsyncServiceTest.class, FuncionarioAsyncServiceTest.class,
+	FolhaPagamentoServiceTest.class, RegistroOperacoesLentasTest.class, GravacaoBoletosTest.class, InsercaoEmLoteTest.class, VersionamentoTest.class,
+	CodecsTest.class, CachedRepositoryTest.class, ClienteCachedRepositoryTest.class, EmpresaCachedRepositoryTest.class,
+	FornecedorCachedRepositoryTest.class, FuncionarioCachedRepositoryTest.class, QueryTest.class, MetricasTest.class, MudancaTest.class,
+	ExportacaoServiceTest.class, PontoDeControleTest.class, CompressaoTest.class,
+	ImportacaoServiceTest.class, ConversaoTest.class,
+	ConexaoTest.class, MongoDbConnectionTest.class, MongoConfTest.class, RegistroIndicesTest.class })
 public class TestRunnerRepository {
 
 }